@@ -0,0 +1,119 @@
+package astra;
+
+/**
+ * An interval during which a {@link Satellite} lies within a
+ * {@link SensorCone}. A crossing already in progress at the start of a search
+ * window, or still in progress at its end, is truncated to the window.
+ * 
+ */
+public final class ConeCrossing
+{
+    private final Satellite satellite;
+    private final SensorCone cone;
+    private final long entry;
+    private final long exit;
+    private final double minAngle;
+    
+    /**
+     * Constructor for the {@link ConeCrossing} class
+     * 
+     * @param satellite
+     *            the satellite crossing the cone
+     * @param cone
+     *            the cone crossed
+     * @param entry
+     *            time the satellite enters the cone (milliseconds since the
+     *            Unix epoch)
+     * @param exit
+     *            time the satellite leaves the cone (milliseconds since the
+     *            Unix epoch)
+     * @param minAngle
+     *            smallest angle between the satellite and the axis of the
+     *            cone (rad)
+     * @throws IllegalArgumentException
+     *             if <code>exit</code> is before <code>entry</code>
+     */
+    public ConeCrossing(Satellite satellite, SensorCone cone, long entry,
+                    long exit, double minAngle)
+    {
+        if(satellite == null || cone == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(exit < entry)
+        {
+            throw new IllegalArgumentException("Crossing times out of order");
+        }
+        
+        this.satellite = satellite;
+        this.cone = cone;
+        this.entry = entry;
+        this.exit = exit;
+        this.minAngle = minAngle;
+    }
+    
+    /**
+     * @return the satellite crossing the cone
+     */
+    public Satellite getSatellite()
+    {
+        return satellite;
+    }
+    
+    /**
+     * @return the cone crossed
+     */
+    public SensorCone getCone()
+    {
+        return cone;
+    }
+    
+    /**
+     * @return time the satellite enters the cone (milliseconds since the Unix
+     *         epoch)
+     */
+    public long getEntry()
+    {
+        return entry;
+    }
+    
+    /**
+     * @return time the satellite leaves the cone (milliseconds since the Unix
+     *         epoch)
+     */
+    public long getExit()
+    {
+        return exit;
+    }
+    
+    /**
+     * @return duration of the crossing (ms)
+     */
+    public long getDuration()
+    {
+        return exit - entry;
+    }
+    
+    /**
+     * @return smallest angle between the satellite and the axis of the cone
+     *         (rad)
+     */
+    public double getMinAngle()
+    {
+        return minAngle;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "ConeCrossing [satellite=" + satellite.getName() + ", entry="
+                        + entry + ", exit=" + exit + ", minAngle="
+                        + Math.toDegrees(minAngle) + "]";
+    }
+}
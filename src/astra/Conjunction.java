@@ -0,0 +1,99 @@
+package astra;
+
+/**
+ * A close approach between two satellites, found by a
+ * {@link ConjunctionScreener}.
+ * 
+ */
+public final class Conjunction
+{
+    private final Satellite primary;
+    private final Satellite secondary;
+    private final long time;
+    private final double missDistance;
+    private final double relativeSpeed;
+    
+    /**
+     * Constructor for the {@link Conjunction} class
+     * 
+     * @param primary
+     *            the first satellite
+     * @param secondary
+     *            the second satellite
+     * @param time
+     *            time of closest approach (milliseconds since the Unix epoch)
+     * @param missDistance
+     *            distance between the satellites at closest approach (km)
+     * @param relativeSpeed
+     *            speed of the satellites relative to each other at closest
+     *            approach (km/s)
+     */
+    public Conjunction(Satellite primary, Satellite secondary, long time,
+                    double missDistance, double relativeSpeed)
+    {
+        if(primary == null || secondary == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.primary = primary;
+        this.secondary = secondary;
+        this.time = time;
+        this.missDistance = missDistance;
+        this.relativeSpeed = relativeSpeed;
+    }
+    
+    /**
+     * @return the first satellite
+     */
+    public Satellite getPrimary()
+    {
+        return primary;
+    }
+    
+    /**
+     * @return the second satellite
+     */
+    public Satellite getSecondary()
+    {
+        return secondary;
+    }
+    
+    /**
+     * @return time of closest approach (milliseconds since the Unix epoch)
+     */
+    public long getTime()
+    {
+        return time;
+    }
+    
+    /**
+     * @return distance between the satellites at closest approach (km)
+     */
+    public double getMissDistance()
+    {
+        return missDistance;
+    }
+    
+    /**
+     * @return relative speed at closest approach (km/s)
+     */
+    public double getRelativeSpeed()
+    {
+        return relativeSpeed;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "Conjunction [primary=" + primary.getName() + ", secondary="
+                        + secondary.getName() + ", time=" + time
+                        + ", missDistance=" + missDistance
+                        + ", relativeSpeed=" + relativeSpeed + "]";
+    }
+}
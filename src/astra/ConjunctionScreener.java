@@ -0,0 +1,737 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Screens a catalogue of satellites for close approaches to one another.
+ * 
+ * Checking every pair at every time step costs O(n<sup>2</sup>) per step, so
+ * the screen is done in three stages:
+ * <ol>
+ * <li>Satellites whose perigee-apogee shell, widened by the threshold,
+ * overlaps no other satellite's shell are dropped, and pairs with disjoint
+ * shells are never examined.</li>
+ * <li>At each time step, positions are hashed into a uniform grid whose cells
+ * are larger than the distance two satellites can close within half a step,
+ * and only pairs in the same or adjacent cells are kept. Each surviving pair
+ * is then checked assuming straight-line relative motion over the step.</li>
+ * <li>For pairs which pass, the time of closest approach (TCA) is refined by
+ * golden-section search on the propagated separation.</li>
+ * </ol>
+ * Time steps are independent and are screened in parallel, so the propagator
+ * must be safe to share between threads.
+ * 
+ */
+public class ConjunctionScreener
+{
+    private final double MAX_RELATIVE_SPEED = 16;
+    private final double MIN_APOGEE_HEIGHT = 80;
+    private final long TOLERANCE = 10;
+    private final int STEPS_PER_TASK = 16;
+    
+    private final int AXIS_BITS = 14;
+    private final int INDEX_BITS = 21;
+    private final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private final int AXIS_MAX = (1 << AXIS_BITS) - 1;
+    private final int AXIS_OFFSET = 1 << (AXIS_BITS - 1);
+    
+    private final Propagator propagator;
+    private final double threshold;
+    private final long step;
+    
+    private volatile long screenedCount;
+    private volatile long candidateCount;
+    private volatile long refinedCount;
+    
+    /**
+     * Constructor for the {@link ConjunctionScreener} class
+     * 
+     * @param propagator
+     *            propagator used to compute satellite positions
+     * @param threshold
+     *            miss distance below which an approach is reported (km)
+     * @param step
+     *            time between grid hashes (ms); longer steps mean fewer
+     *            steps but larger cells and so more candidate pairs
+     * @throws IllegalArgumentException
+     *             if the threshold or step is not positive
+     */
+    public ConjunctionScreener(Propagator propagator, double threshold,
+                    long step)
+    {
+        if(propagator == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(!(threshold > 0))
+        {
+            throw new IllegalArgumentException("Non-positive threshold");
+        }
+        
+        if(step <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive step");
+        }
+        
+        this.propagator = propagator;
+        this.threshold = threshold;
+        this.step = step;
+    }
+    
+    /**
+     * @return miss distance below which an approach is reported (km)
+     */
+    public double getThreshold()
+    {
+        return threshold;
+    }
+    
+    /**
+     * @return time between grid hashes (ms)
+     */
+    public long getStep()
+    {
+        return step;
+    }
+    
+    /**
+     * Finds every approach closer than the threshold between any two of
+     * <code>satellites</code> between <code>start</code> and
+     * <code>end</code>. Satellites with invalid elements or decayed orbits
+     * are skipped.
+     * 
+     * @param satellites
+     *            the catalogue to screen
+     * @param start
+     *            start of the screening window (milliseconds since the Unix
+     *            epoch)
+     * @param end
+     *            end of the screening window (milliseconds since the Unix
+     *            epoch)
+     * @return conjunctions in order of time of closest approach
+     * @throws IllegalArgumentException
+     *             if <code>end</code> is before <code>start</code> or there
+     *             are too many satellites
+     */
+    public List<Conjunction> screen(List<Satellite> satellites, long start,
+                    long end)
+    {
+        if(satellites == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(end < start)
+        {
+            throw new IllegalArgumentException("Window ends before it starts");
+        }
+        
+        if(satellites.size() > this.INDEX_MASK)
+        {
+            throw new IllegalArgumentException("Too many satellites");
+        }
+        
+        Catalogue catalogue = this.filterShells(satellites);
+        int steps = (int) ((end - start + this.step / 2) / this.step) + 1;
+        int tasks = (steps + this.STEPS_PER_TASK - 1) / this.STEPS_PER_TASK;
+        LongAdder candidates = new LongAdder();
+        LongAdder refined = new LongAdder();
+        
+        List<Conjunction> conjunctions = IntStream.range(0, tasks).parallel()
+                        .mapToObj(task -> {
+                            Worker worker = new Worker(catalogue, start, end,
+                                            candidates, refined);
+                            int first = task * this.STEPS_PER_TASK;
+                            int last = Math.min(steps, first
+                                            + this.STEPS_PER_TASK);
+                            
+                            for(int s = first; s < last; s++)
+                            {
+                                worker.screen(start + s * this.step);
+                            }
+                            
+                            return worker.conjunctions;
+                        }).flatMap(List::stream).collect(Collectors
+                                        .toList());
+        
+        Collections.sort(conjunctions, Comparator.comparingLong(
+                        Conjunction::getTime));
+        
+        this.screenedCount = catalogue.satellites.length;
+        this.candidateCount = candidates.sum();
+        this.refinedCount = refined.sum();
+        
+        return conjunctions;
+    }
+    
+    /**
+     * @return number of satellites left after shell filtering by the most
+     *         recent screen
+     */
+    public long getScreenedCount()
+    {
+        return screenedCount;
+    }
+    
+    /**
+     * @return number of pairs found in adjacent grid cells, summed over all
+     *         steps, by the most recent screen
+     */
+    public long getCandidateCount()
+    {
+        return candidateCount;
+    }
+    
+    /**
+     * @return number of pairs whose time of closest approach was refined by
+     *         the most recent screen
+     */
+    public long getRefinedCount()
+    {
+        return refinedCount;
+    }
+    
+    /**
+     * Drops invalid and decayed satellites, and those whose shell overlaps no
+     * other satellite's
+     * 
+     * @param satellites
+     *            the catalogue
+     * @return the remaining satellites, sorted by perigee
+     */
+    private Catalogue filterShells(List<Satellite> satellites)
+    {
+        List<Satellite> valid = new ArrayList<Satellite>(satellites.size());
+        
+        for(Satellite satellite : satellites)
+        {
+            try
+            {
+                if(satellite.getElements().getApogeeRadius() - Earth.RADIUS
+                                >= this.MIN_APOGEE_HEIGHT)
+                {
+                    valid.add(satellite);
+                }
+            }
+            catch(IllegalArgumentException e)
+            {
+                continue;
+            }
+        }
+        
+        Collections.sort(valid, Comparator.comparingDouble(
+                        satellite -> satellite.getElements()
+                                        .getPerigeeRadius()));
+        
+        int count = valid.size();
+        boolean[] keep = new boolean[count];
+        double maxApogee = Double.NEGATIVE_INFINITY;
+        
+        // keep shells overlapping any earlier shell
+        for(int i = 0; i < count; i++)
+        {
+            OrbitalElements elements = valid.get(i).getElements();
+            
+            if(elements.getPerigeeRadius() <= maxApogee + 2 * this.threshold)
+            {
+                keep[i] = true;
+            }
+            
+            maxApogee = Math.max(maxApogee, elements.getApogeeRadius());
+        }
+        
+        // sorted by perigee, a shell overlaps a later shell only if it
+        // overlaps the next one
+        for(int i = 0; i + 1 < count; i++)
+        {
+            if(valid.get(i + 1).getElements().getPerigeeRadius() <= valid.get(
+                            i).getElements().getApogeeRadius() + 2
+                                            * this.threshold)
+            {
+                keep[i] = true;
+            }
+        }
+        
+        List<Satellite> kept = new ArrayList<Satellite>();
+        
+        for(int i = 0; i < count; i++)
+        {
+            if(keep[i])
+            {
+                kept.add(valid.get(i));
+            }
+        }
+        
+        return new Catalogue(kept);
+    }
+    
+    /**
+     * Satellites being screened, with their shells
+     * 
+     */
+    private static class Catalogue
+    {
+        private final Satellite[] satellites;
+        private final double[] perigees;
+        private final double[] apogees;
+        
+        public Catalogue(List<Satellite> satellites)
+        {
+            int count = satellites.size();
+            
+            this.satellites = satellites.toArray(new Satellite[count]);
+            this.perigees = new double[count];
+            this.apogees = new double[count];
+            
+            for(int i = 0; i < count; i++)
+            {
+                OrbitalElements elements = this.satellites[i].getElements();
+                
+                this.perigees[i] = elements.getPerigeeRadius();
+                this.apogees[i] = elements.getApogeeRadius();
+            }
+        }
+    }
+    
+    /**
+     * Screens a run of time steps, reusing its buffers between steps
+     * 
+     */
+    private class Worker
+    {
+        private final Catalogue catalogue;
+        private final long start;
+        private final long end;
+        private final LongAdder candidates;
+        private final LongAdder refined;
+        
+        private final double cell;
+        private final double slack;
+        private final double[] states;
+        private final long[] keys;
+        private final long[] tableKeys;
+        private final int[] tableStarts;
+        private final int tableMask;
+        
+        private final StateVector first;
+        private final StateVector second;
+        private final ZeroCrossingSearch search;
+        private final List<Conjunction> conjunctions;
+        
+        public Worker(Catalogue catalogue, long start, long end,
+                        LongAdder candidates, LongAdder refined)
+        {
+            int count = catalogue.satellites.length;
+            double half = step / 2000.0;
+            double minRadius = count == 0 ? Earth.RADIUS : Math.max(
+                            Earth.RADIUS, catalogue.perigees[0]);
+            
+            this.catalogue = catalogue;
+            this.start = start;
+            this.end = end;
+            this.candidates = candidates;
+            this.refined = refined;
+            
+            // the curvature of relative motion over half a step is bounded by
+            // twice the gravitational acceleration at the lowest perigee
+            this.slack = Earth.MU / (minRadius * minRadius) * half * half;
+            this.cell = threshold + this.slack + MAX_RELATIVE_SPEED * half;
+            
+            this.states = new double[6 * count];
+            this.keys = new long[count];
+            
+            int capacity = Integer.highestOneBit(Math.max(1, 2 * count)) * 2;
+            
+            this.tableKeys = new long[capacity];
+            this.tableStarts = new int[capacity];
+            this.tableMask = capacity - 1;
+            
+            this.first = new StateVector();
+            this.second = new StateVector();
+            this.search = new ZeroCrossingSearch(TOLERANCE, Math.max(
+                            TOLERANCE, step), TOLERANCE);
+            this.conjunctions = new ArrayList<Conjunction>();
+        }
+        
+        /**
+         * Screens the step centred on <code>time</code>
+         * 
+         * @param time
+         *            centre of the step
+         */
+        public void screen(long time)
+        {
+            int count = this.catalogue.satellites.length;
+            
+            for(int i = 0; i < count; i++)
+            {
+                propagator.propagate(this.catalogue.satellites[i], time,
+                                this.first);
+                
+                int j = 6 * i;
+                
+                this.states[j] = this.first.getX();
+                this.states[j + 1] = this.first.getY();
+                this.states[j + 2] = this.first.getZ();
+                this.states[j + 3] = this.first.getVx();
+                this.states[j + 4] = this.first.getVy();
+                this.states[j + 5] = this.first.getVz();
+                this.keys[i] = (this.cellKey(this.states[j], this.states[j
+                                + 1], this.states[j + 2]) << INDEX_BITS) | i;
+            }
+            
+            Arrays.sort(this.keys, 0, count);
+            Arrays.fill(this.tableKeys, -1);
+            
+            for(int p = 0; p < count; p++)
+            {
+                long cell = this.keys[p] >>> INDEX_BITS;
+                
+                if(p == 0 || cell != this.keys[p - 1] >>> INDEX_BITS)
+                {
+                    this.insert(cell, p);
+                }
+            }
+            
+            for(int p = 0; p < count; )
+            {
+                long cell = this.keys[p] >>> INDEX_BITS;
+                int cellEnd = this.runEnd(p);
+                int x = (int) (cell >>> (2 * AXIS_BITS));
+                int y = (int) (cell >>> AXIS_BITS) & AXIS_MAX;
+                int z = (int) cell & AXIS_MAX;
+                
+                // pairs within the cell
+                for(int a = p; a < cellEnd; a++)
+                {
+                    for(int b = a + 1; b < cellEnd; b++)
+                    {
+                        this.check(time, a, b);
+                    }
+                }
+                
+                // pairs with the 13 neighbours after this cell, so that each
+                // pair of cells is visited once
+                for(int dx = 0; dx <= 1; dx++)
+                {
+                    for(int dy = dx == 0 ? 0 : -1; dy <= 1; dy++)
+                    {
+                        for(int dz = dx == 0 && dy == 0 ? 1 : -1; dz <= 1; dz++)
+                        {
+                            int q = this.find(x + dx, y + dy, z + dz);
+                            
+                            if(q < 0)
+                            {
+                                continue;
+                            }
+                            
+                            int neighbourEnd = this.runEnd(q);
+                            
+                            for(int a = p; a < cellEnd; a++)
+                            {
+                                for(int b = q; b < neighbourEnd; b++)
+                                {
+                                    this.check(time, a, b);
+                                }
+                            }
+                        }
+                    }
+                }
+                
+                p = cellEnd;
+            }
+        }
+        
+        /**
+         * Checks a candidate pair, assuming straight-line relative motion
+         * over the step, and refines its closest approach if it may be within
+         * the threshold
+         * 
+         * @param time
+         *            centre of the step
+         * @param a
+         *            index into the sorted keys of the first satellite
+         * @param b
+         *            index into the sorted keys of the second satellite
+         */
+        private void check(long time, int a, int b)
+        {
+            int i = (int) (this.keys[a] & INDEX_MASK);
+            int j = (int) (this.keys[b] & INDEX_MASK);
+            
+            this.candidates.increment();
+            
+            if(this.catalogue.perigees[i] > this.catalogue.apogees[j] + 2
+                            * threshold || this.catalogue.perigees[j]
+                                            > this.catalogue.apogees[i] + 2
+                                                            * threshold)
+            {
+                return;
+            }
+            
+            int u = 6 * i;
+            int v = 6 * j;
+            double rx = this.states[v] - this.states[u];
+            double ry = this.states[v + 1] - this.states[u + 1];
+            double rz = this.states[v + 2] - this.states[u + 2];
+            double vx = this.states[v + 3] - this.states[u + 3];
+            double vy = this.states[v + 4] - this.states[u + 4];
+            double vz = this.states[v + 5] - this.states[u + 5];
+            
+            long from = Math.max(this.start, time - step / 2);
+            long to = Math.min(this.end, time + (step - 1) / 2);
+            double low = (from - time) / 1000.0;
+            double high = (to - time) / 1000.0;
+            double speed = vx * vx + vy * vy + vz * vz;
+            double tau = speed > 0 ? -(rx * vx + ry * vy + rz * vz) / speed
+                            : 0;
+            
+            tau = Math.max(low, Math.min(high, tau));
+            
+            double dx = rx + vx * tau;
+            double dy = ry + vy * tau;
+            double dz = rz + vz * tau;
+            double limit = threshold + this.slack;
+            
+            if(dx * dx + dy * dy + dz * dz > limit * limit)
+            {
+                return;
+            }
+            
+            this.refined.increment();
+            this.refine(this.catalogue.satellites[i],
+                            this.catalogue.satellites[j], from, to);
+        }
+        
+        /**
+         * Finds the time of closest approach of two satellites within a
+         * step, and records it if it is within the threshold.
+         * 
+         * An approach found at a boundary shared with another step may lie
+         * on either side of it, so it is searched for again over a step
+         * centred on the boundary, which both steps agree on, and recorded
+         * only by the step it falls in.
+         * 
+         * @param primary
+         *            the first satellite
+         * @param secondary
+         *            the second satellite
+         * @param from
+         *            start of the step
+         * @param to
+         *            end of the step
+         */
+        private void refine(Satellite primary, Satellite secondary, long from,
+                        long to)
+        {
+            long tca = this.search.maximise(t -> -this.separation(primary,
+                            secondary, t), from, to);
+            
+            if(tca - from < TOLERANCE && from != this.start)
+            {
+                tca = this.refineAcross(primary, secondary, from - 1);
+            }
+            else if(to - tca < TOLERANCE && to != this.end)
+            {
+                tca = this.refineAcross(primary, secondary, to);
+            }
+            
+            if(tca < from || tca > to)
+            {
+                return;
+            }
+            
+            double distance = this.separation(primary, secondary, tca);
+            
+            if(distance > threshold)
+            {
+                return;
+            }
+            
+            double vx = this.second.getVx() - this.first.getVx();
+            double vy = this.second.getVy() - this.first.getVy();
+            double vz = this.second.getVz() - this.first.getVz();
+            
+            this.conjunctions.add(new Conjunction(primary, secondary, tca,
+                            distance, Math.sqrt(vx * vx + vy * vy + vz
+                                            * vz)));
+        }
+        
+        /**
+         * Finds the time of closest approach of two satellites over a step
+         * centred on the boundary between two steps
+         * 
+         * @param primary
+         *            the first satellite
+         * @param secondary
+         *            the second satellite
+         * @param boundary
+         *            end of the earlier step
+         * @return time of closest approach, or {@link Long#MIN_VALUE} if the
+         *         separation is least at a boundary shared with another step,
+         *         where the approach belongs to that step
+         */
+        private long refineAcross(Satellite primary, Satellite secondary,
+                        long boundary)
+        {
+            long from = Math.max(this.start, boundary - step / 2);
+            long to = Math.min(this.end, boundary + step / 2);
+            long tca = this.search.maximise(t -> -this.separation(primary,
+                            secondary, t), from, to);
+            
+            if((tca - from < TOLERANCE && from != this.start) || (to
+                            - tca < TOLERANCE && to != this.end))
+            {
+                return Long.MIN_VALUE;
+            }
+            
+            return tca;
+        }
+        
+        /**
+         * @param primary
+         *            the first satellite
+         * @param secondary
+         *            the second satellite
+         * @param time
+         *            time
+         * @return distance between the satellites at <code>time</code> (km)
+         */
+        private double separation(Satellite primary, Satellite secondary,
+                        long time)
+        {
+            propagator.propagate(primary, time, this.first);
+            propagator.propagate(secondary, time, this.second);
+            
+            double dx = this.second.getX() - this.first.getX();
+            double dy = this.second.getY() - this.first.getY();
+            double dz = this.second.getZ() - this.first.getZ();
+            
+            return Math.sqrt(dx * dx + dy * dy + dz * dz);
+        }
+        
+        /**
+         * @param x
+         *            x component of position (km)
+         * @param y
+         *            y component of position (km)
+         * @param z
+         *            z component of position (km)
+         * @return key of the grid cell containing the position
+         */
+        private long cellKey(double x, double y, double z)
+        {
+            return ((long) this.axis(x) << (2 * AXIS_BITS))
+                            | ((long) this.axis(y) << AXIS_BITS)
+                            | this.axis(z);
+        }
+        
+        /**
+         * @param coordinate
+         *            component of position (km)
+         * @return grid index along one axis, clamped to the grid
+         */
+        private int axis(double coordinate)
+        {
+            int index = (int) Math.floor(coordinate / this.cell) + AXIS_OFFSET;
+            
+            return Math.max(0, Math.min(AXIS_MAX, index));
+        }
+        
+        /**
+         * @param p
+         *            index into the sorted keys of the first satellite in a
+         *            cell
+         * @return index one past the last satellite in the cell
+         */
+        private int runEnd(int p)
+        {
+            long cell = this.keys[p] >>> INDEX_BITS;
+            int count = this.catalogue.satellites.length;
+            int q = p + 1;
+            
+            while(q < count && this.keys[q] >>> INDEX_BITS == cell)
+            {
+                q++;
+            }
+            
+            return q;
+        }
+        
+        /**
+         * Records the first index of a cell in the sorted keys
+         * 
+         * @param cell
+         *            key of the cell
+         * @param p
+         *            index into the sorted keys of the first satellite in the
+         *            cell
+         */
+        private void insert(long cell, int p)
+        {
+            int slot = this.hash(cell);
+            
+            while(this.tableKeys[slot] != -1)
+            {
+                slot = (slot + 1) & this.tableMask;
+            }
+            
+            this.tableKeys[slot] = cell;
+            this.tableStarts[slot] = p;
+        }
+        
+        /**
+         * @param x
+         *            grid index along the x axis
+         * @param y
+         *            grid index along the y axis
+         * @param z
+         *            grid index along the z axis
+         * @return first index of the cell in the sorted keys, or -1 if it is
+         *         empty or off the grid
+         */
+        private int find(int x, int y, int z)
+        {
+            if(x > AXIS_MAX || y < 0 || y > AXIS_MAX || z < 0 || z > AXIS_MAX)
+            {
+                return -1;
+            }
+            
+            long cell = ((long) x << (2 * AXIS_BITS)) | ((long) y << AXIS_BITS)
+                            | z;
+            int slot = this.hash(cell);
+            
+            while(this.tableKeys[slot] != -1)
+            {
+                if(this.tableKeys[slot] == cell)
+                {
+                    return this.tableStarts[slot];
+                }
+                
+                slot = (slot + 1) & this.tableMask;
+            }
+            
+            return -1;
+        }
+        
+        /**
+         * @param cell
+         *            key of the cell
+         * @return slot of the cell in the hash table
+         */
+        private int hash(long cell)
+        {
+            long h = cell * 0x9E3779B97F4A7C15L;
+            
+            return (int) (h >>> 40) & this.tableMask;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package astra;
+
+/**
+ * A zero crossing of a {@link SearchFunction}, as found by a
+ * {@link ZeroCrossingSearch}.
+ * 
+ */
+public final class Crossing
+{
+    private final long time;
+    private final boolean rising;
+    
+    /**
+     * Constructor for the {@link Crossing} class
+     * 
+     * @param time
+     *            time of the crossing (milliseconds since the Unix epoch)
+     * @param rising
+     *            whether the function goes from negative to non-negative
+     */
+    public Crossing(long time, boolean rising)
+    {
+        this.time = time;
+        this.rising = rising;
+    }
+    
+    /**
+     * @return time of the crossing (milliseconds since the Unix epoch)
+     */
+    public long getTime()
+    {
+        return time;
+    }
+    
+    /**
+     * @return whether the function goes from negative to non-negative
+     */
+    public boolean isRising()
+    {
+        return rising;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "Crossing [time=" + time + ", rising=" + rising + "]";
+    }
+}
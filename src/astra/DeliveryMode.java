@@ -0,0 +1,22 @@
+package astra;
+
+/**
+ * How a {@link TrackingEventPublisher} holds events for a subscriber which
+ * has not yet requested them.
+ * 
+ */
+public enum DeliveryMode
+{
+    /**
+     * Keep only the latest position of each satellite. Visibility events are
+     * always kept. Suits displays and rotator control, which only care about
+     * the present.
+     */
+    CONFLATE,
+    
+    /**
+     * Keep every event, up to the subscriber's buffer size, dropping the
+     * oldest when full. Suits logging.
+     */
+    BUFFER
+}
@@ -0,0 +1,19 @@
+package astra;
+
+/**
+ * Receives Doppler samples from a {@link DopplerService}.
+ * 
+ */
+@FunctionalInterface
+public interface DopplerListener
+{
+    /**
+     * Called on the service's thread once per tick. The sample is reused on
+     * the next tick, so implementations must copy any values they keep and
+     * should return promptly.
+     * 
+     * @param sample
+     *            the latest sample
+     */
+    void update(DopplerSample sample);
+}
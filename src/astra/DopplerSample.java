@@ -0,0 +1,113 @@
+package astra;
+
+/**
+ * Doppler-corrected frequencies for a satellite as seen from a station at an
+ * instant.
+ * 
+ * Samples are reused by {@link DopplerService} from one tick to the next, so
+ * a listener must copy any values it wishes to keep.
+ * 
+ */
+public class DopplerSample
+{
+    private long time;
+    private double range;
+    private double rangeRate;
+    private double elevation;
+    private final double[] frequencies;
+    
+    /**
+     * Constructor for the {@link DopplerSample} class
+     * 
+     * @param count
+     *            number of frequencies in the sample
+     */
+    public DopplerSample(int count)
+    {
+        if(count < 0)
+        {
+            throw new IllegalArgumentException("Negative frequency count");
+        }
+        
+        this.frequencies = new double[count];
+    }
+    
+    /**
+     * @param time
+     *            time of the sample (milliseconds since the Unix epoch)
+     * @param range
+     *            range (km)
+     * @param rangeRate
+     *            range-rate (km/s)
+     * @param elevation
+     *            elevation (rad)
+     */
+    void set(long time, double range, double rangeRate, double elevation)
+    {
+        this.time = time;
+        this.range = range;
+        this.rangeRate = rangeRate;
+        this.elevation = elevation;
+    }
+    
+    /**
+     * @param index
+     *            index of the frequency
+     * @param hertz
+     *            corrected frequency (Hz)
+     */
+    void setFrequency(int index, double hertz)
+    {
+        this.frequencies[index] = hertz;
+    }
+    
+    /**
+     * @return time of the sample (milliseconds since the Unix epoch)
+     */
+    public long getTime()
+    {
+        return time;
+    }
+    
+    /**
+     * @return range from the station to the satellite (km)
+     */
+    public double getRange()
+    {
+        return range;
+    }
+    
+    /**
+     * @return rate of change of range (km/s), positive when receding
+     */
+    public double getRangeRate()
+    {
+        return rangeRate;
+    }
+    
+    /**
+     * @return elevation of the satellite (rad)
+     */
+    public double getElevation()
+    {
+        return elevation;
+    }
+    
+    /**
+     * @return number of frequencies in the sample
+     */
+    public int getFrequencyCount()
+    {
+        return frequencies.length;
+    }
+    
+    /**
+     * @param index
+     *            index of the frequency, in the order given to the service
+     * @return corrected frequency (Hz)
+     */
+    public double getFrequency(int index)
+    {
+        return frequencies[index];
+    }
+}
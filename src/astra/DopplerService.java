@@ -0,0 +1,297 @@
+package astra;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Streams Doppler-corrected frequencies for one satellite and station at a
+ * fixed rate, for tuning radios during a pass.
+ * 
+ * Each tick propagates the satellite into a single reused
+ * {@link StateVector}, converts it to ECEF without creating a cached
+ * {@link EarthRotation}, and writes the results into a single reused
+ * {@link DopplerSample}. Steady-state ticks therefore allocate nothing, so
+ * garbage collection does not add jitter to the stream.
+ * 
+ * Sample times are exact multiples of the period from the start time,
+ * regardless of when the tick actually runs; the lateness of each tick is
+ * recorded as jitter. A tick which fails, such as because the listener
+ * throws an exception, is reported to the service's {@link FailureReporter}
+ * and skipped, and the stream carries on.
+ * 
+ */
+public class DopplerService
+{
+    /**
+     * Speed of light in a vacuum (km/s)
+     */
+    public static final double SPEED_OF_LIGHT = 299792.458;
+    
+    private final Propagator propagator;
+    private final Satellite satellite;
+    private final GroundStation station;
+    private final Frequency[] frequencies;
+    
+    private final StateVector state;
+    private final double[] ecef;
+    private final LookAngles angles;
+    private final DopplerSample sample;
+    
+    private LongSupplier timeSource;
+    private ScheduledExecutorService executor;
+    
+    private long startTime;
+    private long startNanos;
+    private long period;
+    private long ticks;
+    
+    private volatile long maxJitter;
+    private volatile long totalJitter;
+    private volatile long tickCount;
+    private final FailureReporter failures;
+    
+    /**
+     * Constructor for the {@link DopplerService} class
+     * 
+     * @param propagator
+     *            propagator used to compute satellite positions
+     * @param satellite
+     *            the satellite being tracked
+     * @param station
+     *            the tracking station
+     * @param frequencies
+     *            nominal frequencies to correct
+     */
+    public DopplerService(Propagator propagator, Satellite satellite,
+                    GroundStation station, List<Frequency> frequencies)
+    {
+        if(propagator == null || satellite == null || station == null
+                        || frequencies == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.propagator = propagator;
+        this.satellite = satellite;
+        this.station = station;
+        this.frequencies = frequencies.toArray(new Frequency[0]);
+        
+        this.state = new StateVector();
+        this.ecef = new double[6];
+        this.angles = new LookAngles();
+        this.sample = new DopplerSample(this.frequencies.length);
+        this.timeSource = System::currentTimeMillis;
+        this.failures = new FailureReporter();
+    }
+    
+    /**
+     * @return the satellite being tracked
+     */
+    public Satellite getSatellite()
+    {
+        return satellite;
+    }
+    
+    /**
+     * @return the tracking station
+     */
+    public GroundStation getStation()
+    {
+        return station;
+    }
+    
+    /**
+     * @param timeSource
+     *            source of the current time (milliseconds since the Unix
+     *            epoch), read once when streaming starts
+     */
+    public synchronized void setTimeSource(LongSupplier timeSource)
+    {
+        if(timeSource == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.timeSource = timeSource;
+    }
+    
+    /**
+     * Computes a sample at <code>time</code>. This shares buffers with the
+     * stream and must not be called while the service is running.
+     * 
+     * @param time
+     *            time of the sample (milliseconds since the Unix epoch)
+     * @param sample
+     *            sample to store the results in
+     */
+    public void compute(long time, DopplerSample sample)
+    {
+        if(sample == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(sample.getFrequencyCount() != this.frequencies.length)
+        {
+            throw new IllegalArgumentException("Sample has wrong number of "
+                            + "frequencies");
+        }
+        
+        this.propagator.propagate(this.satellite, time, this.state);
+        EarthRotation.toEcef(time, this.state, this.ecef);
+        this.station.computeLookAngles(this.ecef, 0, true, this.angles);
+        
+        double rangeRate = this.angles.getRangeRate();
+        
+        sample.set(time, this.angles.getRange(), rangeRate,
+                        this.angles.getElevation());
+        
+        for(int i = 0; i < this.frequencies.length; i++)
+        {
+            sample.setFrequency(i, this.frequencies[i].correct(rangeRate));
+        }
+    }
+    
+    /**
+     * Starts streaming samples to <code>listener</code> every
+     * <code>period</code> milliseconds
+     * 
+     * @param period
+     *            time between samples (ms)
+     * @param listener
+     *            listener to receive each sample
+     * @throws IllegalStateException
+     *             if the service is already running
+     */
+    public synchronized void start(long period, DopplerListener listener)
+    {
+        if(listener == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(period <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive period");
+        }
+        
+        if(this.executor != null)
+        {
+            throw new IllegalStateException("Service already running");
+        }
+        
+        this.period = period;
+        this.ticks = 0;
+        this.maxJitter = 0;
+        this.totalJitter = 0;
+        this.tickCount = 0;
+        this.failures.reset();
+        this.startTime = this.timeSource.getAsLong();
+        this.startNanos = System.nanoTime();
+        
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Doppler "
+                            + this.satellite.getName());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MAX_PRIORITY);
+            return thread;
+        });
+        this.executor.scheduleAtFixedRate(() -> this.tick(listener), 0, period,
+                        TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stops streaming. Does nothing if the service is not running.
+     * 
+     */
+    public synchronized void stop()
+    {
+        if(this.executor != null)
+        {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+    }
+    
+    /**
+     * @return whether the service is streaming
+     */
+    public synchronized boolean isRunning()
+    {
+        return executor != null;
+    }
+    
+    /**
+     * @return number of ticks since streaming last started
+     */
+    public long getTickCount()
+    {
+        return tickCount;
+    }
+    
+    /**
+     * @return largest delay between when a tick was due and when it ran,
+     *         since streaming last started (ns)
+     */
+    public long getMaxJitter()
+    {
+        return maxJitter;
+    }
+    
+    /**
+     * @return mean delay between when a tick was due and when it ran, since
+     *         streaming last started (ns)
+     */
+    public double getMeanJitter()
+    {
+        long count = tickCount;
+        
+        return count == 0 ? 0 : (double) totalJitter / count;
+    }
+    
+    /**
+     * @return reporter of exceptions thrown by ticks, reset whenever
+     *         streaming starts
+     */
+    public FailureReporter getFailures()
+    {
+        return failures;
+    }
+    
+    /**
+     * Computes and publishes one sample
+     * 
+     * @param listener
+     *            listener to receive the sample
+     */
+    private void tick(DopplerListener listener)
+    {
+        long due = this.startNanos + this.ticks * this.period * 1000000;
+        long jitter = Math.max(0, System.nanoTime() - due);
+        long time = this.startTime + this.ticks * this.period;
+        
+        this.ticks++;
+        
+        if(jitter > this.maxJitter)
+        {
+            this.maxJitter = jitter;
+        }
+        
+        this.totalJitter += jitter;
+        this.tickCount = this.ticks;
+        
+        try
+        {
+            this.compute(time, this.sample);
+            listener.update(this.sample);
+        }
+        catch(RuntimeException e)
+        {
+            // an exception would cancel every later tick
+            this.failures.report(e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package astra;
+
+/**
+ * Physical constants for the Earth (WGS-72 gravity model, WGS-84 figure), as
+ * used by the propagation and frame transformation code.
+ * 
+ */
+public final class Earth
+{
+    /**
+     * Equatorial radius of the Earth (km)
+     */
+    public static final double RADIUS = 6378.137;
+    
+    /**
+     * Flattening of the Earth's reference ellipsoid
+     */
+    public static final double FLATTENING = 1.0 / 298.257223563;
+    
+    /**
+     * Square of the first eccentricity of the Earth's reference ellipsoid
+     */
+    public static final double ECCENTRICITY_SQUARED = FLATTENING
+                    * (2.0 - FLATTENING);
+    
+    /**
+     * Standard gravitational parameter of the Earth (km^3/s^2)
+     */
+    public static final double MU = 398600.8;
+    
+    /**
+     * Second zonal harmonic of the Earth's gravity field
+     */
+    public static final double J2 = 1.082616e-3;
+    
+    /**
+     * Rotation rate of the Earth relative to the stars (rad/s)
+     */
+    public static final double ROTATION_RATE = 7.292115146706979e-5;
+    
+    /**
+     * Number of milliseconds in a day
+     */
+    public static final double MILLIS_PER_DAY = 86400000.0;
+    
+    private Earth()
+    {
+    }
+}
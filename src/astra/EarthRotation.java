@@ -0,0 +1,159 @@
+package astra;
+
+/**
+ * Rotation of the Earth at an instant, taking the TEME frame used by TLEs to
+ * the Earth-fixed (ECEF) frame. Polar motion is neglected, so the rotation is
+ * about the z axis by the Greenwich Mean Sidereal Time (GMST).
+ * 
+ * The TEME frame already includes nutation of the equator, so GMST is the
+ * only time-dependent term required. Instances are immutable and are usually
+ * obtained from a {@link FrameTransformer}, which caches them per timestamp.
+ * 
+ */
+public final class EarthRotation
+{
+    private static final double JULIAN_DATE_UNIX_EPOCH = 2440587.5;
+    private static final double JULIAN_DATE_J2000 = 2451545.0;
+    private static final double DAYS_PER_CENTURY = 36525.0;
+    
+    private final long time;
+    private final double angle;
+    private final double cos;
+    private final double sin;
+    
+    /**
+     * Constructor for the {@link EarthRotation} class
+     * 
+     * @param time
+     *            time (milliseconds since the Unix epoch)
+     */
+    public EarthRotation(long time)
+    {
+        this.time = time;
+        this.angle = EarthRotation.gmst(time);
+        this.cos = Math.cos(this.angle);
+        this.sin = Math.sin(this.angle);
+    }
+    
+    /**
+     * Computes the Greenwich Mean Sidereal Time using the IAU-82 model,
+     * treating UTC as UT1
+     * 
+     * @param time
+     *            time (milliseconds since the Unix epoch)
+     * @return GMST (rad), in [0, 2&pi;)
+     */
+    public static double gmst(long time)
+    {
+        double julianDate = time / Earth.MILLIS_PER_DAY
+                        + JULIAN_DATE_UNIX_EPOCH;
+        double t = (julianDate - JULIAN_DATE_J2000) / DAYS_PER_CENTURY;
+        
+        double seconds = 67310.54841 + (876600.0 * 3600.0 + 8640184.812866)
+                        * t + (0.093104 - 6.2e-6 * t) * t * t;
+        double angle = Math.toRadians((seconds % 86400.0) / 240.0);
+        
+        return angle < 0 ? angle + 2 * Math.PI : angle;
+    }
+    
+    /**
+     * @return time of the rotation (milliseconds since the Unix epoch)
+     */
+    public long getTime()
+    {
+        return time;
+    }
+    
+    /**
+     * @return Greenwich Mean Sidereal Time (rad)
+     */
+    public double getAngle()
+    {
+        return angle;
+    }
+    
+    /**
+     * Rotates <code>count</code> TEME positions into the ECEF frame
+     * 
+     * @param teme
+     *            interleaved x, y, z TEME positions (km)
+     * @param ecef
+     *            array to store interleaved ECEF positions in (km); may be
+     *            <code>teme</code> itself
+     * @param count
+     *            number of positions
+     */
+    public void rotatePositions(double[] teme, double[] ecef, int count)
+    {
+        for(int i = 0, j = 0; i < count; i++, j += 3)
+        {
+            double x = teme[j];
+            double y = teme[j + 1];
+            
+            ecef[j] = this.cos * x + this.sin * y;
+            ecef[j + 1] = -this.sin * x + this.cos * y;
+            ecef[j + 2] = teme[j + 2];
+        }
+    }
+    
+    /**
+     * Converts a TEME state into an ECEF position and velocity, accounting for
+     * the rotation of the frame itself
+     * 
+     * @param state
+     *            TEME state
+     * @param ecef
+     *            array of at least six elements to store the ECEF position
+     *            (km) and velocity (km/s) in
+     */
+    public void toEcef(StateVector state, double[] ecef)
+    {
+        EarthRotation.toEcef(this.cos, this.sin, state, ecef);
+    }
+    
+    /**
+     * Converts a TEME state into an ECEF position and velocity without
+     * creating an {@link EarthRotation}, for callers which convert a single
+     * state per timestamp and must not allocate
+     * 
+     * @param time
+     *            time of the state (milliseconds since the Unix epoch)
+     * @param state
+     *            TEME state
+     * @param ecef
+     *            array of at least six elements to store the ECEF position
+     *            (km) and velocity (km/s) in
+     */
+    public static void toEcef(long time, StateVector state, double[] ecef)
+    {
+        double angle = EarthRotation.gmst(time);
+        
+        EarthRotation.toEcef(Math.cos(angle), Math.sin(angle), state, ecef);
+    }
+    
+    /**
+     * @param cos
+     *            cosine of GMST
+     * @param sin
+     *            sine of GMST
+     * @param state
+     *            TEME state
+     * @param ecef
+     *            array to store the ECEF position and velocity in
+     */
+    private static void toEcef(double cos, double sin, StateVector state,
+                    double[] ecef)
+    {
+        double x = cos * state.getX() + sin * state.getY();
+        double y = -sin * state.getX() + cos * state.getY();
+        double vx = cos * state.getVx() + sin * state.getVy();
+        double vy = -sin * state.getVx() + cos * state.getVy();
+        
+        ecef[0] = x;
+        ecef[1] = y;
+        ecef[2] = state.getZ();
+        ecef[3] = vx + Earth.ROTATION_RATE * y;
+        ecef[4] = vy - Earth.ROTATION_RATE * x;
+        ecef[5] = state.getVz();
+    }
+}
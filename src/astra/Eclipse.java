@@ -0,0 +1,125 @@
+package astra;
+
+/**
+ * An interval during which a {@link Satellite} is in the Earth's shadow.
+ * 
+ * The eclipse runs from entry into the penumbra to exit from it; the umbral
+ * phase, when there is one, lies within. Times are in milliseconds since the
+ * Unix epoch. An eclipse already in progress at the start of a search window,
+ * or still in progress at its end, is truncated to the window.
+ * 
+ */
+public final class Eclipse
+{
+    private final Satellite satellite;
+    private final long start;
+    private final long end;
+    private final long umbraStart;
+    private final long umbraEnd;
+    
+    /**
+     * Constructor for the {@link Eclipse} class
+     * 
+     * @param satellite
+     *            the eclipsed satellite
+     * @param start
+     *            time of entry into the penumbra
+     * @param end
+     *            time of exit from the penumbra
+     * @param umbraStart
+     *            time of entry into the umbra
+     * @param umbraEnd
+     *            time of exit from the umbra; equal to
+     *            <code>umbraStart</code> if the eclipse is only partial
+     * @throws IllegalArgumentException
+     *             if the times are out of order
+     */
+    public Eclipse(Satellite satellite, long start, long end, long umbraStart,
+                    long umbraEnd)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(start > umbraStart || umbraStart > umbraEnd || umbraEnd > end)
+        {
+            throw new IllegalArgumentException("Eclipse times out of order");
+        }
+        
+        this.satellite = satellite;
+        this.start = start;
+        this.end = end;
+        this.umbraStart = umbraStart;
+        this.umbraEnd = umbraEnd;
+    }
+    
+    /**
+     * @return the eclipsed satellite
+     */
+    public Satellite getSatellite()
+    {
+        return satellite;
+    }
+    
+    /**
+     * @return time of entry into the penumbra
+     */
+    public long getStart()
+    {
+        return start;
+    }
+    
+    /**
+     * @return time of exit from the penumbra
+     */
+    public long getEnd()
+    {
+        return end;
+    }
+    
+    /**
+     * @return time of entry into the umbra
+     */
+    public long getUmbraStart()
+    {
+        return umbraStart;
+    }
+    
+    /**
+     * @return time of exit from the umbra
+     */
+    public long getUmbraEnd()
+    {
+        return umbraEnd;
+    }
+    
+    /**
+     * @return length of the eclipse (ms)
+     */
+    public long getDuration()
+    {
+        return end - start;
+    }
+    
+    /**
+     * @return whether the satellite enters the umbra
+     */
+    public boolean isTotal()
+    {
+        return umbraEnd > umbraStart;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "Eclipse [satellite=" + satellite.getName() + ", start="
+                        + start + ", end=" + end + ", umbraStart="
+                        + umbraStart + ", umbraEnd=" + umbraEnd + "]";
+    }
+}
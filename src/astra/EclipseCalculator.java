@@ -0,0 +1,344 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Determines whether satellites are lit by the Sun, and predicts their
+ * eclipses.
+ * 
+ * Two shadow models are available. The conical model compares the angle
+ * between the Earth and the Sun, as seen from the satellite, with their
+ * apparent radii, and so distinguishes the penumbra from the umbra. The
+ * cylindrical model treats the shadow as a cylinder of the Earth's radius
+ * pointing away from the Sun; it is cheaper but has no penumbra.
+ * 
+ * Eclipse entry and exit times are found with the same
+ * {@link ZeroCrossingSearch} as passes, on the angular distance of the
+ * satellite from the edge of the shadow.
+ * 
+ */
+public class EclipseCalculator
+{
+    private final long MIN_STEP = 1000;
+    private final long TOLERANCE = 100;
+    private final int STEPS_PER_ORBIT = 8;
+    private final double SAFETY = 1.5;
+    
+    private final Propagator propagator;
+    private final SunEphemeris ephemeris;
+    private final boolean conical;
+    
+    /**
+     * Constructor for the {@link EclipseCalculator} class
+     * 
+     * @param propagator
+     *            propagator used to compute satellite positions
+     * @param ephemeris
+     *            source of the Sun's position
+     * @param conical
+     *            whether to use the conical shadow model rather than the
+     *            cylindrical one
+     */
+    public EclipseCalculator(Propagator propagator, SunEphemeris ephemeris,
+                    boolean conical)
+    {
+        if(propagator == null || ephemeris == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.propagator = propagator;
+        this.ephemeris = ephemeris;
+        this.conical = conical;
+    }
+    
+    /**
+     * @return whether the conical shadow model is used
+     */
+    public boolean isConical()
+    {
+        return conical;
+    }
+    
+    /**
+     * @param satellite
+     *            the satellite
+     * @param time
+     *            time (milliseconds since the Unix epoch)
+     * @return illumination of <code>satellite</code> at <code>time</code>
+     */
+    public IlluminationState getState(Satellite satellite, long time)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        StateVector state = this.propagator.propagate(satellite, time);
+        double[] position = { state.getX(), state.getY(), state.getZ() };
+        IlluminationState[] states = new IlluminationState[1];
+        
+        this.computeStates(time, position, 1, states);
+        
+        return states[0];
+    }
+    
+    /**
+     * Computes the illumination of a batch of positions, all at
+     * <code>time</code>. The Sun's position is looked up once for the whole
+     * batch.
+     * 
+     * @param time
+     *            time of the positions (milliseconds since the Unix epoch)
+     * @param teme
+     *            interleaved x, y, z TEME positions (km)
+     * @param count
+     *            number of positions
+     * @param states
+     *            array to store the illumination of each position in
+     * @throws IllegalArgumentException
+     *             if the arrays are too short for <code>count</code>
+     *             positions
+     */
+    public void computeStates(long time, double[] teme, int count,
+                    IlluminationState[] states)
+    {
+        if(teme == null || states == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(count < 0 || teme.length < 3 * count || states.length < count)
+        {
+            throw new IllegalArgumentException("Array too short for " + count
+                            + " positions");
+        }
+        
+        SunPosition sun = this.ephemeris.getPosition(time);
+        double[] margins = new double[2];
+        
+        for(int i = 0; i < count; i++)
+        {
+            this.computeMargins(sun, teme[3 * i], teme[3 * i + 1], teme[3 * i
+                            + 2], margins);
+            
+            if(margins[1] < 0)
+            {
+                states[i] = IlluminationState.UMBRA;
+            }
+            else if(margins[0] < 0)
+            {
+                states[i] = IlluminationState.PENUMBRA;
+            }
+            else
+            {
+                states[i] = IlluminationState.SUNLIT;
+            }
+        }
+    }
+    
+    /**
+     * Finds every eclipse of <code>satellite</code> between
+     * <code>start</code> and <code>end</code>
+     * 
+     * @param satellite
+     *            the satellite
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @return eclipses in chronological order
+     * @throws IllegalArgumentException
+     *             if <code>end</code> is before <code>start</code>
+     */
+    public List<Eclipse> findEclipses(Satellite satellite, long start,
+                    long end)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        OrbitalElements elements = satellite.getElements();
+        long period = (long) (1000 * elements.getPeriod());
+        ZeroCrossingSearch search = new ZeroCrossingSearch(this.MIN_STEP, Math
+                        .max(this.MIN_STEP, period / this.STEPS_PER_ORBIT),
+                        this.TOLERANCE);
+        ShadowFunction penumbra = new ShadowFunction(satellite, 0);
+        ShadowFunction umbra = new ShadowFunction(satellite, 1);
+        
+        List<Eclipse> eclipses = new ArrayList<Eclipse>();
+        boolean inShadow = penumbra.value(start) < 0;
+        long entry = start;
+        
+        for(Crossing crossing : search.search(penumbra, start, end))
+        {
+            if(!crossing.isRising())
+            {
+                entry = crossing.getTime();
+                inShadow = true;
+            }
+            else if(inShadow)
+            {
+                eclipses.add(this.createEclipse(search, umbra, entry, crossing
+                                .getTime()));
+                inShadow = false;
+            }
+        }
+        
+        if(inShadow)
+        {
+            eclipses.add(this.createEclipse(search, umbra, entry, end));
+        }
+        
+        return eclipses;
+    }
+    
+    /**
+     * @param search
+     *            search used to find the umbral phase
+     * @param umbra
+     *            umbral shadow function of the satellite
+     * @param start
+     *            time of entry into the penumbra
+     * @param end
+     *            time of exit from the penumbra
+     * @return the eclipse between <code>start</code> and <code>end</code>
+     */
+    private Eclipse createEclipse(ZeroCrossingSearch search,
+                    ShadowFunction umbra, long start, long end)
+    {
+        long umbraStart = umbra.value(start) < 0 ? start : -1;
+        long umbraEnd = umbraStart;
+        
+        for(Crossing crossing : search.search(umbra, start, end))
+        {
+            if(!crossing.isRising() && umbraStart < 0)
+            {
+                umbraStart = crossing.getTime();
+            }
+            else if(crossing.isRising())
+            {
+                umbraEnd = crossing.getTime();
+            }
+        }
+        
+        if(umbraStart < 0)
+        {
+            umbraStart = start;
+            umbraEnd = start;
+        }
+        else if(umbra.value(end) < 0)
+        {
+            umbraEnd = end;
+        }
+        
+        // the search tolerance can place umbral crossings marginally outside
+        // the penumbral ones
+        umbraStart = Math.max(start, Math.min(end, umbraStart));
+        umbraEnd = Math.max(umbraStart, Math.min(end, umbraEnd));
+        
+        return new Eclipse(umbra.satellite, start, end, umbraStart,
+                        umbraEnd);
+    }
+    
+    /**
+     * Computes how far a position lies outside the penumbra and the umbra
+     * 
+     * @param sun
+     *            position of the Sun
+     * @param x
+     *            x component of position (km)
+     * @param y
+     *            y component of position (km)
+     * @param z
+     *            z component of position (km)
+     * @param margins
+     *            array to store the angular margins outside the penumbra and
+     *            umbra in, negative inside (rad)
+     */
+    private void computeMargins(SunPosition sun, double x, double y, double z,
+                    double[] margins)
+    {
+        double radius = Math.sqrt(x * x + y * y + z * z);
+        double sx = sun.getX() - x;
+        double sy = sun.getY() - y;
+        double sz = sun.getZ() - z;
+        double sunDistance = Math.sqrt(sx * sx + sy * sy + sz * sz);
+        
+        // cosine of the angle between the Earth's centre and the Sun
+        double cos = -(x * sx + y * sy + z * sz) / (radius * sunDistance);
+        double angle = Math.acos(Math.max(-1, Math.min(1, cos)));
+        double earth = Math.asin(Math.min(1, Earth.RADIUS / radius));
+        
+        if(this.conical)
+        {
+            double disc = Math.asin(SunEphemeris.RADIUS / sunDistance);
+            
+            margins[0] = angle - earth - disc;
+            margins[1] = angle - earth + disc;
+        }
+        else
+        {
+            // inside the cylinder exactly when the Earth's disc covers the
+            // direction of the Sun, which in this model is a point
+            margins[0] = angle - earth;
+            margins[1] = margins[0];
+        }
+    }
+    
+    /**
+     * Angular margin of a satellite outside the penumbra or umbra, with a
+     * bound on its rate of change
+     * 
+     */
+    private class ShadowFunction implements SearchFunction
+    {
+        private final Satellite satellite;
+        private final int index;
+        private final double rate;
+        
+        private final StateVector state;
+        private final double[] margins;
+        
+        public ShadowFunction(Satellite satellite, int index)
+        {
+            OrbitalElements elements = satellite.getElements();
+            double e = elements.getEccentricity();
+            double perigee = Math.max(Earth.RADIUS * 1.001, elements
+                            .getPerigeeRadius());
+            double radialSpeed = elements.getMeanMotion() * elements
+                            .getSemiMajorAxis() * e / Math.sqrt(1 - e * e);
+            
+            this.satellite = satellite;
+            this.index = index;
+            
+            // the direction of the Earth turns with the satellite, and the
+            // Earth's apparent radius changes with altitude
+            this.rate = SAFETY * (elements.getMaxAngularRate() + Earth.RADIUS
+                            * radialSpeed / (perigee * Math.sqrt(perigee
+                                            * perigee - Earth.RADIUS
+                                                            * Earth.RADIUS)));
+            this.state = new StateVector();
+            this.margins = new double[2];
+        }
+        
+        @Override
+        public double value(long time)
+        {
+            propagator.propagate(this.satellite, time, this.state);
+            computeMargins(ephemeris.getPosition(time), this.state.getX(),
+                            this.state.getY(), this.state.getZ(),
+                            this.margins);
+            
+            return this.margins[this.index];
+        }
+        
+        @Override
+        public double maxRate(double value)
+        {
+            return this.rate;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package astra;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Collects the failures of work run repeatedly in the background, such as a
+ * listener throwing an exception during a tick, which must not stop the work
+ * that follows.
+ * 
+ * Every failure is counted, and the first since the reporter was last reset
+ * is passed on to its listener, so a fault which recurs at every tick is
+ * reported once rather than at every tick.
+ * 
+ */
+public final class FailureReporter
+{
+    private final AtomicLong count;
+    private final AtomicReference<RuntimeException> first;
+    
+    private volatile Consumer<RuntimeException> listener;
+    
+    /**
+     * Constructor for the {@link FailureReporter} class
+     * 
+     */
+    public FailureReporter()
+    {
+        this.count = new AtomicLong();
+        this.first = new AtomicReference<RuntimeException>();
+        this.listener = null;
+    }
+    
+    /**
+     * @param listener
+     *            receives the first failure after each reset, on the thread
+     *            which failed, or <code>null</code> for none; it must not
+     *            throw
+     */
+    public void setListener(Consumer<RuntimeException> listener)
+    {
+        this.listener = listener;
+    }
+    
+    /**
+     * Records a failure, passing it on to the listener if it is the first
+     * since the last reset
+     * 
+     * @param e
+     *            the exception thrown
+     */
+    public void report(RuntimeException e)
+    {
+        if(e == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.count.incrementAndGet();
+        
+        Consumer<RuntimeException> listener = this.listener;
+        
+        if(this.first.compareAndSet(null, e) && listener != null)
+        {
+            listener.accept(e);
+        }
+    }
+    
+    /**
+     * Forgets every failure, such as when the work is restarted
+     * 
+     */
+    public void reset()
+    {
+        this.count.set(0);
+        this.first.set(null);
+    }
+    
+    /**
+     * @return number of failures since the last reset
+     */
+    public long getCount()
+    {
+        return count.get();
+    }
+    
+    /**
+     * @return first failure since the last reset, or <code>null</code> if
+     *         there has been none
+     */
+    public RuntimeException getFirst()
+    {
+        return first.get();
+    }
+}
@@ -0,0 +1,498 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Finds when the satellites of a catalogue cross the field of view of a
+ * {@link SensorCone}.
+ * 
+ * A satellite always lies in its orbital plane, between its perigee and
+ * apogee radii. The part of the cone between those radii, seen from the
+ * centre of the Earth, fits within a small circle of the sky, which sweeps
+ * around the Earth's axis as the Earth turns while the plane slowly
+ * precesses. If the plane stays clear of that circle for the whole window the
+ * satellite cannot cross the cone, which rules out most of a catalogue from
+ * the inclination and right ascension of the ascending node alone. Only the
+ * remaining satellites are propagated, searched in parallel for the times
+ * their angle off the axis crosses the cone's half-angle.
+ * 
+ */
+public class FieldOfViewQuery
+{
+    private final long MIN_STEP = 1000;
+    private final long TOLERANCE = 100;
+    private final int STEPS_PER_ORBIT = 8;
+    private final double SAFETY = 1.25;
+    
+    // allowance for periodic perturbations moving the orbital plane away
+    // from its mean, secularly precessing position
+    private final double PLANE_MARGIN = Math.toRadians(1);
+    
+    private final Propagator propagator;
+    private final FrameTransformer transformer;
+    
+    private volatile long satelliteCount;
+    private volatile long prunedCount;
+    
+    /**
+     * Constructor for the {@link FieldOfViewQuery} class. The propagator must
+     * be safe to share between threads.
+     * 
+     * @param propagator
+     *            propagator used to compute satellite positions
+     * @param transformer
+     *            frame transformer used to convert positions to ECEF
+     */
+    public FieldOfViewQuery(Propagator propagator, FrameTransformer transformer)
+    {
+        if(propagator == null || transformer == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.propagator = propagator;
+        this.transformer = transformer;
+    }
+    
+    /**
+     * @return the propagator used by this query
+     */
+    public Propagator getPropagator()
+    {
+        return propagator;
+    }
+    
+    /**
+     * @return the frame transformer used by this query
+     */
+    public FrameTransformer getTransformer()
+    {
+        return transformer;
+    }
+    
+    /**
+     * Finds every crossing of <code>cone</code> by every satellite in
+     * <code>satellites</code> between <code>start</code> and
+     * <code>end</code>. Satellites whose elements are invalid are skipped.
+     * 
+     * @param satellites
+     *            the satellites
+     * @param cone
+     *            the sensor's field of view
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @return crossings ordered by entry time
+     * @throws IllegalArgumentException
+     *             if <code>end</code> is before <code>start</code>
+     */
+    public List<ConeCrossing> find(List<Satellite> satellites, SensorCone cone,
+                    long start, long end)
+    {
+        if(satellites == null || cone == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(end < start)
+        {
+            throw new IllegalArgumentException("Window ends before it starts");
+        }
+        
+        List<Satellite> valid = new ArrayList<Satellite>(satellites.size());
+        
+        // derive (and cache) elements up front, so that worker threads never
+        // race to do so
+        for(Satellite satellite : satellites)
+        {
+            try
+            {
+                satellite.getElements();
+                valid.add(satellite);
+            }
+            catch(IllegalArgumentException e)
+            {
+                continue;
+            }
+        }
+        
+        AtomicLong pruned = new AtomicLong();
+        
+        List<ConeCrossing> crossings = valid.parallelStream()
+                        .filter(satellite -> {
+                            if(!this.isPossiblyVisible(satellite, cone,
+                                            start, end))
+                            {
+                                pruned.incrementAndGet();
+                                return false;
+                            }
+                            
+                            return true;
+                        })
+                        .flatMap(satellite -> this.find(satellite, cone,
+                                        start, end).stream())
+                        .collect(Collectors.toList());
+        
+        Collections.sort(crossings, Comparator.comparingLong(
+                        ConeCrossing::getEntry));
+        
+        this.satelliteCount = valid.size();
+        this.prunedCount = pruned.get();
+        
+        return crossings;
+    }
+    
+    /**
+     * Finds every crossing of <code>cone</code> by <code>satellite</code>
+     * between <code>start</code> and <code>end</code>, without pruning
+     * 
+     * @param satellite
+     *            the satellite
+     * @param cone
+     *            the sensor's field of view
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @return crossings in chronological order
+     * @throws IllegalArgumentException
+     *             if <code>end</code> is before <code>start</code>
+     */
+    public List<ConeCrossing> find(Satellite satellite, SensorCone cone,
+                    long start, long end)
+    {
+        if(satellite == null || cone == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        OffAxisFunction function = new OffAxisFunction(satellite, cone);
+        long period = (long) (1000 * satellite.getElements().getPeriod());
+        ZeroCrossingSearch search = new ZeroCrossingSearch(this.MIN_STEP,
+                        Math.max(this.MIN_STEP, period / this.STEPS_PER_ORBIT),
+                        this.TOLERANCE);
+        
+        List<ConeCrossing> crossings = new ArrayList<ConeCrossing>();
+        boolean inside = function.value(start) >= 0;
+        long entry = start;
+        
+        for(Crossing crossing : search.search(function, start, end))
+        {
+            if(crossing.isRising())
+            {
+                entry = crossing.getTime();
+                inside = true;
+            }
+            else if(inside)
+            {
+                crossings.add(this.createCrossing(search, function, entry,
+                                crossing.getTime()));
+                inside = false;
+            }
+        }
+        
+        if(inside)
+        {
+            crossings.add(this.createCrossing(search, function, entry, end));
+        }
+        
+        return crossings;
+    }
+    
+    /**
+     * Tests whether <code>satellite</code> could cross <code>cone</code>
+     * between <code>start</code> and <code>end</code>, from its orbital plane
+     * and radii alone. A result of <code>false</code> is definite; a result
+     * of <code>true</code> means the satellite must be searched.
+     * 
+     * @param satellite
+     *            the satellite
+     * @param cone
+     *            the sensor's field of view
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @return whether the satellite could cross the cone
+     */
+    public boolean isPossiblyVisible(Satellite satellite, SensorCone cone,
+                    long start, long end)
+    {
+        if(satellite == null || cone == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        OrbitalElements elements = satellite.getElements();
+        double perigee = elements.getPerigeeRadius();
+        double apogee = elements.getApogeeRadius();
+        double[] station = cone.getStation().getPosition();
+        double[] axis = cone.getAxis();
+        double distance = Math.sqrt(dot(station, station));
+        double halfAngle = Math.toRadians(cone.getHalfAngle());
+        
+        if(perigee <= distance)
+        {
+            return true;
+        }
+        
+        // range along the cone at which it enters and leaves the shell
+        // between perigee and apogee
+        double zenith = Math.acos(dot(station, axis) / distance);
+        double near = range(distance, perigee, Math.cos(Math.max(0, zenith
+                        - halfAngle)));
+        double far = range(distance, apogee, Math.cos(Math.min(Math.PI,
+                        zenith + halfAngle)));
+        
+        // the geocentric directions of the axis between those ranges lie on
+        // an arc about its midpoint; the rest of the cone lies within a chord
+        // of the axis, which is seen under a bounded angle from the shell
+        double[] centre = along(station, axis, (near + far) / 2);
+        double chord = 2 * far * Math.sin(halfAngle / 2);
+        
+        if(chord >= perigee)
+        {
+            return true;
+        }
+        
+        double radius = Math.max(angle(centre, along(station, axis, near)),
+                        angle(centre, along(station, axis, far)))
+                        + Math.asin(chord / perigee) + this.PLANE_MARGIN;
+        
+        if(radius >= Math.PI / 2)
+        {
+            return true;
+        }
+        
+        // sine of the angle between the orbital plane and the centre, as the
+        // Earth turns and the plane precesses:
+        // cos(i) sin(dec) + sin(i) cos(dec) sin(raan - ra)
+        double declination = Math.asin(centre[2] / Math.sqrt(dot(centre,
+                        centre)));
+        double inclination = elements.getInclination();
+        double offset = Math.cos(inclination) * Math.sin(declination);
+        double amplitude = Math.sin(inclination) * Math.cos(declination);
+        
+        double phase = elements.getRightAscension() + elements
+                        .getRightAscensionRate() * (start - elements
+                                        .getEpoch()) / 1000.0 - (Math.atan2(
+                                                        centre[1], centre[0])
+                                                        + EarthRotation.gmst(
+                                                                        start));
+        double sweep = (elements.getRightAscensionRate() - Earth.ROTATION_RATE)
+                        * (end - start) / 1000.0;
+        double[] sines = sineRange(Math.min(phase, phase + sweep), Math.abs(
+                        sweep));
+        double low = offset + amplitude * sines[0];
+        double high = offset + amplitude * sines[1];
+        double closest = low <= 0 && high >= 0 ? 0 : Math.min(Math.abs(low),
+                        Math.abs(high));
+        
+        return closest <= Math.sin(radius);
+    }
+    
+    /**
+     * @return number of valid satellites considered by the most recent call
+     *         to {@link #find(List, SensorCone, long, long)}
+     */
+    public long getSatelliteCount()
+    {
+        return satelliteCount;
+    }
+    
+    /**
+     * @return number of satellites ruled out without propagation by the most
+     *         recent call to {@link #find(List, SensorCone, long, long)}
+     */
+    public long getPrunedCount()
+    {
+        return prunedCount;
+    }
+    
+    /**
+     * @param search
+     *            search used to find the closest approach to the axis
+     * @param function
+     *            off-axis function of the satellite
+     * @param entry
+     *            time the satellite enters the cone
+     * @param exit
+     *            time the satellite leaves the cone
+     * @return the crossing between <code>entry</code> and <code>exit</code>
+     */
+    private ConeCrossing createCrossing(ZeroCrossingSearch search,
+                    OffAxisFunction function, long entry, long exit)
+    {
+        long closest = search.maximise(function::value, entry, exit);
+        double minAngle = function.getHalfAngle() - function.value(closest);
+        
+        return new ConeCrossing(function.getSatellite(), function.getCone(),
+                        entry, exit, minAngle);
+    }
+    
+    /**
+     * @param distance
+     *            distance of the station from the centre of the Earth (km)
+     * @param radius
+     *            radius of a sphere about the centre enclosing the station
+     *            (km)
+     * @param cos
+     *            cosine of the angle between the line of sight and the
+     *            station's geocentric zenith
+     * @return range along the line of sight at which it reaches the sphere
+     *         (km)
+     */
+    private static double range(double distance, double radius, double cos)
+    {
+        return -distance * cos + Math.sqrt(radius * radius - distance
+                        * distance * (1 - cos * cos));
+    }
+    
+    /**
+     * @param start
+     *            lower end of an interval (rad)
+     * @param length
+     *            length of the interval (rad)
+     * @return least and greatest values of the sine over the interval
+     */
+    private static double[] sineRange(double start, double length)
+    {
+        if(length >= 2 * Math.PI)
+        {
+            return new double[] { -1, 1 };
+        }
+        
+        double end = start + length;
+        double low = Math.min(Math.sin(start), Math.sin(end));
+        double high = Math.max(Math.sin(start), Math.sin(end));
+        
+        // the first peak and trough at or after the start of the interval
+        double peak = Math.PI / 2 + 2 * Math.PI * Math.ceil((start - Math.PI
+                        / 2) / (2 * Math.PI));
+        double trough = -Math.PI / 2 + 2 * Math.PI * Math.ceil((start
+                        + Math.PI / 2) / (2 * Math.PI));
+        
+        return new double[] { trough <= end ? -1 : low, peak <= end ? 1
+                        : high };
+    }
+    
+    /**
+     * @param origin
+     *            start of a ray
+     * @param direction
+     *            unit vector along the ray
+     * @param distance
+     *            distance along the ray
+     * @return the point <code>distance</code> along the ray
+     */
+    private static double[] along(double[] origin, double[] direction,
+                    double distance)
+    {
+        return new double[] { origin[0] + distance * direction[0], origin[1]
+                        + distance * direction[1], origin[2] + distance
+                                        * direction[2] };
+    }
+    
+    /**
+     * @param a
+     *            a vector
+     * @param b
+     *            a vector
+     * @return the angle between <code>a</code> and <code>b</code> (rad)
+     */
+    private static double angle(double[] a, double[] b)
+    {
+        double cx = a[1] * b[2] - a[2] * b[1];
+        double cy = a[2] * b[0] - a[0] * b[2];
+        double cz = a[0] * b[1] - a[1] * b[0];
+        
+        return Math.atan2(Math.sqrt(cx * cx + cy * cy + cz * cz), dot(a, b));
+    }
+    
+    /**
+     * @param a
+     *            a vector
+     * @param b
+     *            a vector
+     * @return the dot product of <code>a</code> and <code>b</code>
+     */
+    private static double dot(double[] a, double[] b)
+    {
+        return a[0] * b[0] + a[1] * b[1] + a[2] * b[2];
+    }
+    
+    /**
+     * Half-angle of a cone less the angle between its axis and a satellite,
+     * with a bound on its rate of change
+     * 
+     */
+    private class OffAxisFunction implements SearchFunction
+    {
+        private final Satellite satellite;
+        private final SensorCone cone;
+        private final double halfAngle;
+        private final double rate;
+        
+        private final StateVector state;
+        private final double[] ecef;
+        
+        public OffAxisFunction(Satellite satellite, SensorCone cone)
+        {
+            OrbitalElements elements = satellite.getElements();
+            double perigee = elements.getPerigeeRadius();
+            double apogee = elements.getApogeeRadius();
+            double distance = Math.sqrt(dot(cone.getStation().getPosition(),
+                            cone.getStation().getPosition()));
+            double speed = Math.sqrt(Earth.MU * (2 / perigee - 1
+                            / elements.getSemiMajorAxis()));
+            
+            this.satellite = satellite;
+            this.cone = cone;
+            this.halfAngle = Math.toRadians(cone.getHalfAngle());
+            
+            // the line of sight turns no faster than the satellite's speed
+            // relative to the station over its least possible range
+            this.rate = SAFETY * (speed + Earth.ROTATION_RATE * apogee)
+                            / Math.max(1, perigee - distance);
+            
+            this.state = new StateVector();
+            this.ecef = new double[6];
+        }
+        
+        public Satellite getSatellite()
+        {
+            return this.satellite;
+        }
+        
+        public SensorCone getCone()
+        {
+            return this.cone;
+        }
+        
+        public double getHalfAngle()
+        {
+            return this.halfAngle;
+        }
+        
+        @Override
+        public double value(long time)
+        {
+            propagator.propagate(this.satellite, time, this.state);
+            transformer.toEcef(this.state, this.ecef);
+            
+            return this.halfAngle - this.cone.offAxisAngle(this.ecef, 0);
+        }
+        
+        @Override
+        public double maxRate(double value)
+        {
+            return this.rate;
+        }
+    }
+}
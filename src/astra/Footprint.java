@@ -0,0 +1,187 @@
+package astra;
+
+/**
+ * The region of the Earth from which a satellite is visible, as a polygon of
+ * latitude/longitude vertices (rad).
+ * 
+ * Longitudes are unwrapped: they vary continuously around the polygon and may
+ * lie outside [-&pi;, &pi;], so that a footprint straddling the antimeridian
+ * is a single simple polygon. A map should draw such a footprint a second
+ * time shifted by 2&pi; (see {@link #crossesAntimeridian()}). When the
+ * footprint contains a pole, the polygon is closed along that pole's line of
+ * latitude, which is what a cylindrical map needs.
+ * 
+ * Footprints are mutable so that they can be reused from frame to frame.
+ * 
+ */
+public class Footprint
+{
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private int size;
+    
+    private double latitude;
+    private double longitude;
+    private double radius;
+    private boolean pole;
+    private boolean antimeridian;
+    
+    /**
+     * Constructor for the {@link Footprint} class
+     * 
+     * @param capacity
+     *            maximum number of vertices
+     */
+    public Footprint(int capacity)
+    {
+        if(capacity < 0)
+        {
+            throw new IllegalArgumentException("Negative capacity");
+        }
+        
+        this.latitudes = new double[capacity];
+        this.longitudes = new double[capacity];
+        this.size = 0;
+    }
+    
+    /**
+     * @param latitude
+     *            latitude of the sub-satellite point (rad)
+     * @param longitude
+     *            longitude of the sub-satellite point (rad)
+     * @param radius
+     *            Earth central angle from the centre to the edge (rad)
+     */
+    void setCentre(double latitude, double longitude, double radius)
+    {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.radius = radius;
+    }
+    
+    /**
+     * @param size
+     *            number of vertices
+     * @param pole
+     *            whether the footprint contains a pole
+     * @param antimeridian
+     *            whether the footprint crosses the antimeridian
+     */
+    void setShape(int size, boolean pole, boolean antimeridian)
+    {
+        this.size = size;
+        this.pole = pole;
+        this.antimeridian = antimeridian;
+    }
+    
+    /**
+     * @param index
+     *            index of the vertex
+     * @param latitude
+     *            latitude of the vertex (rad)
+     * @param longitude
+     *            unwrapped longitude of the vertex (rad)
+     */
+    void setVertex(int index, double latitude, double longitude)
+    {
+        this.latitudes[index] = latitude;
+        this.longitudes[index] = longitude;
+    }
+    
+    /**
+     * @return maximum number of vertices
+     */
+    public int getCapacity()
+    {
+        return latitudes.length;
+    }
+    
+    /**
+     * @return number of vertices
+     */
+    public int getSize()
+    {
+        return size;
+    }
+    
+    /**
+     * @param index
+     *            index of the vertex
+     * @return latitude of the vertex (rad)
+     */
+    public double getLatitude(int index)
+    {
+        this.checkIndex(index);
+        
+        return latitudes[index];
+    }
+    
+    /**
+     * @param index
+     *            index of the vertex
+     * @return unwrapped longitude of the vertex (rad)
+     */
+    public double getLongitude(int index)
+    {
+        this.checkIndex(index);
+        
+        return longitudes[index];
+    }
+    
+    /**
+     * @return latitude of the sub-satellite point (rad)
+     */
+    public double getCentreLatitude()
+    {
+        return latitude;
+    }
+    
+    /**
+     * @return longitude of the sub-satellite point (rad)
+     */
+    public double getCentreLongitude()
+    {
+        return longitude;
+    }
+    
+    /**
+     * @return Earth central angle from the sub-satellite point to the edge of
+     *         the footprint (rad)
+     */
+    public double getRadius()
+    {
+        return radius;
+    }
+    
+    /**
+     * @return whether the footprint contains the pole on the same side of the
+     *         equator as its centre
+     */
+    public boolean containsPole()
+    {
+        return pole;
+    }
+    
+    /**
+     * @return whether any vertex longitude lies outside [-&pi;, &pi;]
+     */
+    public boolean crossesAntimeridian()
+    {
+        return antimeridian;
+    }
+    
+    /**
+     * @param index
+     *            index to check
+     * @throws IndexOutOfBoundsException
+     *             if <code>index</code> is not a valid vertex index
+     */
+    private void checkIndex(int index)
+    {
+        if(index < 0 || index >= size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+                            + this.size);
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package astra;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates {@link Footprint}s from a sub-satellite point and altitude.
+ * 
+ * The footprint of a satellite depends only on its altitude; its position
+ * merely rotates that circle. Circles are therefore computed once per
+ * altitude band and cached as offsets about the north pole, leaving two
+ * inverse trigonometric calls per vertex to place the circle at the
+ * sub-satellite point.
+ * 
+ * The altitude is rounded to the nearest multiple of the band width, five
+ * kilometres by default, so a footprint is drawn for an altitude up to half
+ * a band (2.5 km by default) away from the true one.
+ * 
+ * Generators are safe for concurrent use.
+ * 
+ */
+public class FootprintGenerator
+{
+    private static final int DEFAULT_POINTS = 72;
+    private static final double DEFAULT_ALTITUDE_STEP = 5;
+    
+    private final int points;
+    private final double altitudeStep;
+    private final double minElevation;
+    
+    private final double[] cosAzimuths;
+    private final double[] sinAzimuths;
+    private final Map<Integer, Circle> circles;
+    
+    /**
+     * Constructor for the {@link FootprintGenerator} class. Footprints have 72
+     * vertices, an elevation mask of zero, and are cached per five kilometres
+     * of altitude.
+     * 
+     */
+    public FootprintGenerator()
+    {
+        this(DEFAULT_POINTS, DEFAULT_ALTITUDE_STEP, 0);
+    }
+    
+    /**
+     * Constructor for the {@link FootprintGenerator} class
+     * 
+     * @param points
+     *            number of vertices around the edge of each footprint
+     * @param altitudeStep
+     *            width of the altitude bands footprints are cached by (km)
+     * @param minElevation
+     *            elevation above which the satellite counts as visible
+     *            (degrees)
+     * @throws IllegalArgumentException
+     *             if there are fewer than three points, the step is not
+     *             positive or the elevation is out of range
+     */
+    public FootprintGenerator(int points, double altitudeStep,
+                    double minElevation)
+    {
+        if(points < 3)
+        {
+            throw new IllegalArgumentException("Too few points");
+        }
+        
+        if(!(altitudeStep > 0))
+        {
+            throw new IllegalArgumentException("Non-positive altitude step");
+        }
+        
+        if(minElevation < 0 || minElevation >= 90)
+        {
+            throw new IllegalArgumentException("Elevation mask out of range");
+        }
+        
+        this.points = points;
+        this.altitudeStep = altitudeStep;
+        this.minElevation = Math.toRadians(minElevation);
+        this.cosAzimuths = new double[points];
+        this.sinAzimuths = new double[points];
+        this.circles = new ConcurrentHashMap<Integer, Circle>();
+        this.initAzimuths();
+    }
+    
+    /**
+     * @return maximum number of vertices in a generated footprint
+     */
+    public int getCapacity()
+    {
+        return points + 2;
+    }
+    
+    /**
+     * @return number of altitude bands currently cached
+     */
+    public int getCacheSize()
+    {
+        return circles.size();
+    }
+    
+    /**
+     * Generates the footprint of a satellite
+     * 
+     * @param latitude
+     *            latitude of the sub-satellite point (rad)
+     * @param longitude
+     *            longitude of the sub-satellite point (rad)
+     * @param altitude
+     *            altitude of the satellite (km)
+     * @return the footprint
+     */
+    public Footprint generate(double latitude, double longitude,
+                    double altitude)
+    {
+        Footprint footprint = new Footprint(this.getCapacity());
+        
+        this.generate(latitude, longitude, altitude, footprint);
+        
+        return footprint;
+    }
+    
+    /**
+     * Generates the footprint of a satellite into an existing footprint
+     * 
+     * @param latitude
+     *            latitude of the sub-satellite point (rad)
+     * @param longitude
+     *            longitude of the sub-satellite point (rad)
+     * @param altitude
+     *            altitude of the satellite (km)
+     * @param footprint
+     *            footprint to store the result in
+     * @throws IllegalArgumentException
+     *             if <code>footprint</code> is too small
+     */
+    public void generate(double latitude, double longitude, double altitude,
+                    Footprint footprint)
+    {
+        if(footprint == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(footprint.getCapacity() < this.getCapacity())
+        {
+            throw new IllegalArgumentException("Footprint too small for "
+                            + this.getCapacity() + " vertices");
+        }
+        
+        Circle circle = this.getCircle(altitude);
+        double sinLat = Math.sin(latitude);
+        double cosLat = Math.cos(latitude);
+        
+        footprint.setCentre(latitude, longitude, circle.radius);
+        
+        // rotate each vertex from the north pole to the sub-satellite point;
+        // longitudes are relative to the centre, so never wrap unless the
+        // footprint contains a pole
+        double previous = 0;
+        double offset = 0;
+        double first = 0;
+        double last = 0;
+        boolean antimeridian = false;
+        
+        for(int i = 0; i < this.points; i++)
+        {
+            double north = circle.north[i];
+            double z = circle.cos * sinLat + north * cosLat;
+            double x = circle.cos * cosLat - north * sinLat;
+            double delta = Math.atan2(circle.east[i], x);
+            
+            if(i > 0 && delta - previous > Math.PI)
+            {
+                offset -= 2 * Math.PI;
+            }
+            else if(i > 0 && previous - delta > Math.PI)
+            {
+                offset += 2 * Math.PI;
+            }
+            
+            previous = delta;
+            
+            double vertex = longitude + delta + offset;
+            
+            if(i == 0)
+            {
+                first = vertex;
+            }
+            
+            last = vertex;
+            antimeridian |= vertex > Math.PI || vertex < -Math.PI;
+            footprint.setVertex(i, Math.asin(Math.max(-1, Math.min(1, z))),
+                            vertex);
+        }
+        
+        int size = this.points;
+        boolean pole = circle.radius > Math.PI / 2 - Math.abs(latitude);
+        
+        if(pole)
+        {
+            // close the polygon along the pole
+            double edge = Math.copySign(Math.PI / 2, latitude);
+            
+            footprint.setVertex(size, edge, last);
+            footprint.setVertex(size + 1, edge, first);
+            size += 2;
+            antimeridian = true;
+        }
+        
+        footprint.setShape(size, pole, antimeridian);
+    }
+    
+    /**
+     * @param altitude
+     *            altitude of the satellite (km)
+     * @return the cached circle for the altitude band containing
+     *         <code>altitude</code>
+     */
+    private Circle getCircle(double altitude)
+    {
+        int band = (int) Math.round(Math.max(0, altitude) / this.altitudeStep);
+        
+        return this.circles.computeIfAbsent(band, key -> new Circle(key
+                        * this.altitudeStep));
+    }
+    
+    /**
+     * Precomputes the direction of each vertex from the centre
+     * 
+     */
+    private void initAzimuths()
+    {
+        for(int i = 0; i < this.points; i++)
+        {
+            double azimuth = 2 * Math.PI * i / this.points;
+            
+            this.cosAzimuths[i] = Math.cos(azimuth);
+            this.sinAzimuths[i] = Math.sin(azimuth);
+        }
+    }
+    
+    /**
+     * A footprint circle centred on the north pole
+     * 
+     */
+    private class Circle
+    {
+        private final double radius;
+        private final double cos;
+        private final double[] north;
+        private final double[] east;
+        
+        public Circle(double altitude)
+        {
+            this.radius = VisibilityFilter.footprintAngle(Earth.RADIUS
+                            + altitude, minElevation);
+            this.cos = Math.cos(this.radius);
+            this.north = new double[points];
+            this.east = new double[points];
+            
+            double sin = Math.sin(this.radius);
+            
+            for(int i = 0; i < points; i++)
+            {
+                this.north[i] = sin * cosAzimuths[i];
+                this.east[i] = sin * sinAzimuths[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package astra;
+
+/**
+ * Transformation stage taking TEME positions produced by a {@link Propagator}
+ * to the Earth-fixed frame and on to geodetic coordinates.
+ * 
+ * The Earth's rotation depends only on time, so it is computed once per
+ * timestamp and cached; batch conversions of many satellites at the same
+ * instant then cost a 2x2 rotation per position plus the geodetic iteration.
+ * A single transformer may be shared between threads.
+ * 
+ */
+public class FrameTransformer
+{
+    private final int CACHE_SIZE = 64;
+    
+    private final TimeCache<EarthRotation> rotations;
+    
+    /**
+     * Constructor for the {@link FrameTransformer} class
+     * 
+     */
+    public FrameTransformer()
+    {
+        this.rotations = new TimeCache<EarthRotation>(EarthRotation::new,
+                        this.CACHE_SIZE);
+    }
+    
+    /**
+     * @param time
+     *            time (milliseconds since the Unix epoch)
+     * @return the rotation of the Earth at <code>time</code>
+     */
+    public EarthRotation getRotation(long time)
+    {
+        return this.rotations.get(time);
+    }
+    
+    /**
+     * Converts a TEME state into an ECEF position and velocity
+     * 
+     * @param state
+     *            TEME state
+     * @param ecef
+     *            array of at least six elements to store the ECEF position
+     *            (km) and velocity (km/s) in
+     */
+    public void toEcef(StateVector state, double[] ecef)
+    {
+        if(state == null || ecef == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.getRotation(state.getTime()).toEcef(state, ecef);
+    }
+    
+    /**
+     * Converts <code>count</code> TEME positions, all at <code>time</code>,
+     * into the ECEF frame
+     * 
+     * @param time
+     *            time of the positions (milliseconds since the Unix epoch)
+     * @param teme
+     *            interleaved x, y, z TEME positions (km)
+     * @param ecef
+     *            array to store interleaved ECEF positions in (km); may be
+     *            <code>teme</code> itself
+     * @param count
+     *            number of positions
+     */
+    public void toEcef(long time, double[] teme, double[] ecef, int count)
+    {
+        if(teme == null || ecef == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        FrameTransformer.checkLength(teme, count);
+        FrameTransformer.checkLength(ecef, count);
+        
+        this.getRotation(time).rotatePositions(teme, ecef, count);
+    }
+    
+    /**
+     * Converts <code>count</code> TEME positions, all at <code>time</code>,
+     * into geodetic coordinates
+     * 
+     * @param time
+     *            time of the positions (milliseconds since the Unix epoch)
+     * @param teme
+     *            interleaved x, y, z TEME positions (km)
+     * @param geodetic
+     *            array to store interleaved latitude (rad), longitude (rad)
+     *            and altitude (km) in; may be <code>teme</code> itself
+     * @param count
+     *            number of positions
+     */
+    public void toGeodetic(long time, double[] teme, double[] geodetic,
+                    int count)
+    {
+        this.toEcef(time, teme, geodetic, count);
+        Geodetic.fromEcef(geodetic, geodetic, count);
+    }
+    
+    /**
+     * @param array
+     *            interleaved coordinate array
+     * @param count
+     *            number of positions expected in <code>array</code>
+     * @throws IllegalArgumentException
+     *             if <code>array</code> is too short for <code>count</code>
+     *             positions
+     */
+    private static void checkLength(double[] array, int count)
+    {
+        if(count < 0 || array.length < 3 * count)
+        {
+            throw new IllegalArgumentException("Array too short for " + count
+                            + " positions");
+        }
+    }
+}
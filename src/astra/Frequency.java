@@ -0,0 +1,96 @@
+package astra;
+
+/**
+ * A nominal radio frequency used to communicate with a satellite, such as a
+ * beacon or a transponder's uplink.
+ * 
+ */
+public final class Frequency
+{
+    private final String name;
+    private final double hertz;
+    private final LinkDirection direction;
+    
+    /**
+     * Constructor for the {@link Frequency} class
+     * 
+     * @param name
+     *            name of the frequency, e.g. "Beacon"
+     * @param hertz
+     *            nominal frequency (Hz)
+     * @param direction
+     *            direction of the link
+     * @throws IllegalArgumentException
+     *             if <code>hertz</code> is not positive
+     */
+    public Frequency(String name, double hertz, LinkDirection direction)
+    {
+        if(name == null || direction == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(!(hertz > 0))
+        {
+            throw new IllegalArgumentException("Non-positive frequency");
+        }
+        
+        this.name = name;
+        this.hertz = hertz;
+        this.direction = direction;
+    }
+    
+    /**
+     * @return name of the frequency
+     */
+    public String getName()
+    {
+        return name;
+    }
+    
+    /**
+     * @return nominal frequency (Hz)
+     */
+    public double getHertz()
+    {
+        return hertz;
+    }
+    
+    /**
+     * @return direction of the link
+     */
+    public LinkDirection getDirection()
+    {
+        return direction;
+    }
+    
+    /**
+     * Applies the first-order Doppler shift for a satellite moving at
+     * <code>rangeRate</code> relative to the station
+     * 
+     * @param rangeRate
+     *            rate of change of the station-satellite range (km/s),
+     *            positive when receding
+     * @return frequency the station should receive on (downlink) or transmit
+     *         on (uplink) (Hz)
+     */
+    public double correct(double rangeRate)
+    {
+        double factor = 1 - rangeRate / DopplerService.SPEED_OF_LIGHT;
+        
+        return this.direction == LinkDirection.DOWNLINK ? this.hertz * factor
+                        : this.hertz / factor;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "Frequency [name=" + name + ", hertz=" + hertz + ", direction="
+                        + direction + "]";
+    }
+}
@@ -0,0 +1,118 @@
+package astra;
+
+/**
+ * Conversions between Earth-fixed (ECEF) Cartesian coordinates and geodetic
+ * latitude, longitude and altitude on the WGS-84 ellipsoid. Angles are in
+ * radians and distances in kilometres.
+ * 
+ */
+public final class Geodetic
+{
+    private static final int MAX_ITERATIONS = 10;
+    private static final double TOLERANCE = 1e-10;
+    private static final double POLE_DISTANCE = 1e-9;
+    private static final double POLAR_RADIUS = Earth.RADIUS
+                    * (1 - Earth.FLATTENING);
+    private static final double SECOND_ECCENTRICITY_SQUARED =
+                    Earth.ECCENTRICITY_SQUARED
+                                    / (1 - Earth.ECCENTRICITY_SQUARED);
+    
+    private Geodetic()
+    {
+    }
+    
+    /**
+     * Converts a geodetic position to ECEF coordinates
+     * 
+     * @param latitude
+     *            geodetic latitude (rad)
+     * @param longitude
+     *            longitude (rad)
+     * @param altitude
+     *            height above the ellipsoid (km)
+     * @param ecef
+     *            array of at least three elements to store the ECEF position
+     *            (km) in
+     */
+    public static void toEcef(double latitude, double longitude,
+                    double altitude, double[] ecef)
+    {
+        double sinLat = Math.sin(latitude);
+        double cosLat = Math.cos(latitude);
+        double n = Earth.RADIUS / Math.sqrt(1 - Earth.ECCENTRICITY_SQUARED
+                        * sinLat * sinLat);
+        
+        ecef[0] = (n + altitude) * cosLat * Math.cos(longitude);
+        ecef[1] = (n + altitude) * cosLat * Math.sin(longitude);
+        ecef[2] = (n * (1 - Earth.ECCENTRICITY_SQUARED) + altitude) * sinLat;
+    }
+    
+    /**
+     * Converts <code>count</code> ECEF positions to geodetic coordinates. The
+     * tangent of the latitude is estimated with Bowring's formula and then
+     * refined by fixed-point iteration using only square roots, exiting as
+     * soon as successive estimates agree to well under a millimetre (normally
+     * after a single iteration).
+     * 
+     * @param ecef
+     *            interleaved x, y, z ECEF positions (km)
+     * @param geodetic
+     *            array to store interleaved latitude (rad), longitude (rad)
+     *            and altitude (km) in; may be <code>ecef</code> itself
+     * @param count
+     *            number of positions
+     */
+    public static void fromEcef(double[] ecef, double[] geodetic, int count)
+    {
+        for(int i = 0, j = 0; i < count; i++, j += 3)
+        {
+            double x = ecef[j];
+            double y = ecef[j + 1];
+            double z = ecef[j + 2];
+            double p = Math.sqrt(x * x + y * y);
+            
+            if(p < POLE_DISTANCE)
+            {
+                // on the polar axis the iteration degenerates
+                geodetic[j] = Math.copySign(Math.PI / 2, z);
+                geodetic[j + 1] = 0;
+                geodetic[j + 2] = Math.abs(z) - POLAR_RADIUS;
+                continue;
+            }
+            
+            // Bowring's estimate is already accurate to a few millimetres
+            double tanBeta = z / (p * (1 - Earth.FLATTENING));
+            double cosBeta = 1 / Math.sqrt(1 + tanBeta * tanBeta);
+            double sinBeta = tanBeta * cosBeta;
+            double tan = (z + SECOND_ECCENTRICITY_SQUARED * POLAR_RADIUS
+                            * sinBeta * sinBeta * sinBeta)
+                            / (p - Earth.ECCENTRICITY_SQUARED * Earth.RADIUS
+                                            * cosBeta * cosBeta * cosBeta);
+            double cosLat = 1;
+            double sinLat = 0;
+            double n = Earth.RADIUS;
+            
+            for(int k = 0; k < MAX_ITERATIONS; k++)
+            {
+                cosLat = 1 / Math.sqrt(1 + tan * tan);
+                sinLat = tan * cosLat;
+                n = Earth.RADIUS / Math.sqrt(1 - Earth.ECCENTRICITY_SQUARED
+                                * sinLat * sinLat);
+                double next = (z + Earth.ECCENTRICITY_SQUARED * n * sinLat) / p;
+                double delta = next - tan;
+                
+                tan = next;
+                
+                if(Math.abs(delta) < TOLERANCE * (1 + Math.abs(tan)))
+                {
+                    break;
+                }
+            }
+            
+            geodetic[j] = Math.atan(tan);
+            geodetic[j + 1] = Math.atan2(y, x);
+            geodetic[j + 2] = p * cosLat + z * sinLat - Earth.RADIUS
+                            * Earth.RADIUS / n;
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package astra;
+
+/**
+ * A fixed observing site on the Earth's surface, such as a tracking or radio
+ * ground station.
+ * 
+ * The station's ECEF position and the rotation from ECEF to its local
+ * east-north-up (topocentric) frame depend only on its location, so both are
+ * computed once on construction and reused for every look-angle calculation.
+ * 
+ */
+public final class GroundStation
+{
+    private final String name;
+    private final double latitude;
+    private final double longitude;
+    private final double altitude;
+    private final double minElevation;
+    
+    // ECEF position (km)
+    private final double x;
+    private final double y;
+    private final double z;
+    
+    // rows of the ECEF to east-north-up rotation
+    private final double eastX;
+    private final double eastY;
+    private final double northX;
+    private final double northY;
+    private final double northZ;
+    private final double upX;
+    private final double upY;
+    private final double upZ;
+    
+    /**
+     * Constructor for the {@link GroundStation} class with an elevation mask
+     * of zero
+     * 
+     * @param name
+     *            name of the station
+     * @param latitude
+     *            geodetic latitude (&deg;)
+     * @param longitude
+     *            longitude, positive east (&deg;)
+     * @param altitude
+     *            height above the ellipsoid (km)
+     */
+    public GroundStation(String name, double latitude, double longitude,
+                    double altitude)
+    {
+        this(name, latitude, longitude, altitude, 0);
+    }
+    
+    /**
+     * Constructor for the {@link GroundStation} class
+     * 
+     * @param name
+     *            name of the station
+     * @param latitude
+     *            geodetic latitude (&deg;)
+     * @param longitude
+     *            longitude, positive east (&deg;)
+     * @param altitude
+     *            height above the ellipsoid (km)
+     * @param minElevation
+     *            minimum elevation at which a satellite is considered visible
+     *            (&deg;)
+     * @throws NullPointerException
+     *             if <code>name</code> is <code>null</code>
+     * @throws IllegalArgumentException
+     *             if <code>latitude</code> is outside [-90, 90] or
+     *             <code>minElevation</code> is outside [-90, 90]
+     */
+    public GroundStation(String name, double latitude, double longitude,
+                    double altitude, double minElevation)
+    {
+        if(name == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(latitude < -90 || latitude > 90)
+        {
+            throw new IllegalArgumentException("Latitude out of range");
+        }
+        
+        if(minElevation < -90 || minElevation > 90)
+        {
+            throw new IllegalArgumentException("Elevation mask out of range");
+        }
+        
+        this.name = name;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.altitude = altitude;
+        this.minElevation = minElevation;
+        
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double[] ecef = new double[3];
+        Geodetic.toEcef(lat, lon, altitude, ecef);
+        
+        this.x = ecef[0];
+        this.y = ecef[1];
+        this.z = ecef[2];
+        
+        double sinLat = Math.sin(lat);
+        double cosLat = Math.cos(lat);
+        double sinLon = Math.sin(lon);
+        double cosLon = Math.cos(lon);
+        
+        this.eastX = -sinLon;
+        this.eastY = cosLon;
+        this.northX = -sinLat * cosLon;
+        this.northY = -sinLat * sinLon;
+        this.northZ = cosLat;
+        this.upX = cosLat * cosLon;
+        this.upY = cosLat * sinLon;
+        this.upZ = sinLat;
+    }
+    
+    /**
+     * @return name of the station
+     */
+    public String getName()
+    {
+        return name;
+    }
+    
+    /**
+     * @return geodetic latitude (&deg;)
+     */
+    public double getLatitude()
+    {
+        return latitude;
+    }
+    
+    /**
+     * @return longitude, positive east (&deg;)
+     */
+    public double getLongitude()
+    {
+        return longitude;
+    }
+    
+    /**
+     * @return height above the ellipsoid (km)
+     */
+    public double getAltitude()
+    {
+        return altitude;
+    }
+    
+    /**
+     * @return minimum elevation at which a satellite is considered visible
+     *         (&deg;)
+     */
+    public double getMinElevation()
+    {
+        return minElevation;
+    }
+    
+    /**
+     * @return ECEF position of the station (km)
+     */
+    public double[] getPosition()
+    {
+        return new double[] { x, y, z };
+    }
+    
+    /**
+     * Computes the look angles to a single satellite. Unlike the batch form,
+     * the elevation is always computed, even below the horizon, so that it can
+     * be used as a continuous function of time.
+     * 
+     * @param ecef
+     *            array holding the satellite's ECEF position (km), optionally
+     *            followed by its ECEF velocity (km/s)
+     * @param offset
+     *            index of the x component of position in <code>ecef</code>
+     * @param hasVelocity
+     *            whether a velocity follows the position, in which case the
+     *            range-rate is computed
+     * @param angles
+     *            object to store the look angles in
+     */
+    public void computeLookAngles(double[] ecef, int offset,
+                    boolean hasVelocity, LookAngles angles)
+    {
+        if(ecef == null || angles == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        double dx = ecef[offset] - this.x;
+        double dy = ecef[offset + 1] - this.y;
+        double dz = ecef[offset + 2] - this.z;
+        
+        double east = this.eastX * dx + this.eastY * dy;
+        double north = this.northX * dx + this.northY * dy + this.northZ * dz;
+        double up = this.upX * dx + this.upY * dy + this.upZ * dz;
+        double range = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        
+        double rangeRate = Double.NaN;
+        
+        if(hasVelocity)
+        {
+            rangeRate = (dx * ecef[offset + 3] + dy * ecef[offset + 4] + dz
+                            * ecef[offset + 5]) / range;
+        }
+        
+        angles.set(GroundStation.azimuth(east, north), Math.asin(up / range),
+                        range, rangeRate);
+    }
+    
+    /**
+     * Computes look angles for a batch of satellites. Satellites whose
+     * position lies below the station's horizon plane are detected with a
+     * single dot product and skip the rest of the calculation.
+     * 
+     * @param ecef
+     *            ECEF states of the satellites, each either a position (km)
+     *            or a position followed by a velocity (km/s)
+     * @param stride
+     *            number of elements per satellite in <code>ecef</code>: 3 for
+     *            positions only, or 6 for positions and velocities
+     * @param count
+     *            number of satellites
+     * @param batch
+     *            batch to store the results in
+     * @return number of satellites above the station's elevation mask
+     * @throws IllegalArgumentException
+     *             if <code>stride</code> is not 3 or 6, or the arrays are too
+     *             short for <code>count</code> satellites
+     */
+    public int computeLookAngles(double[] ecef, int stride, int count,
+                    LookAngleBatch batch)
+    {
+        if(ecef == null || batch == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(stride != 3 && stride != 6)
+        {
+            throw new IllegalArgumentException("Stride must be 3 or 6");
+        }
+        
+        if(count < 0 || ecef.length < stride * count
+                        || batch.getCapacity() < count)
+        {
+            throw new IllegalArgumentException("Batch too small for " + count
+                            + " satellites");
+        }
+        
+        double sinMask = Math.sin(Math.toRadians(this.minElevation));
+        int visible = 0;
+        
+        for(int i = 0, j = 0; i < count; i++, j += stride)
+        {
+            double dx = ecef[j] - this.x;
+            double dy = ecef[j + 1] - this.y;
+            double dz = ecef[j + 2] - this.z;
+            double up = this.upX * dx + this.upY * dy + this.upZ * dz;
+            
+            // horizon pre-check
+            if(up < 0 && sinMask >= 0)
+            {
+                batch.set(i, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                                false);
+                continue;
+            }
+            
+            double east = this.eastX * dx + this.eastY * dy;
+            double north = this.northX * dx + this.northY * dy + this.northZ
+                            * dz;
+            double range = Math.sqrt(dx * dx + dy * dy + dz * dz);
+            double rangeRate = Double.NaN;
+            
+            if(stride == 6)
+            {
+                rangeRate = (dx * ecef[j + 3] + dy * ecef[j + 4] + dz
+                                * ecef[j + 5]) / range;
+            }
+            
+            boolean above = up >= sinMask * range;
+            
+            if(above)
+            {
+                visible++;
+            }
+            
+            batch.set(i, GroundStation.azimuth(east, north), Math.asin(up
+                            / range), range, rangeRate, above);
+        }
+        
+        batch.setSize(count);
+        
+        return visible;
+    }
+    
+    /**
+     * @param east
+     *            east component of the topocentric vector
+     * @param north
+     *            north component of the topocentric vector
+     * @return azimuth clockwise from north, in [0, 2&pi;)
+     */
+    private static double azimuth(double east, double north)
+    {
+        double azimuth = Math.atan2(east, north);
+        
+        return azimuth < 0 ? azimuth + 2 * Math.PI : azimuth;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "GroundStation [name=" + name + ", latitude=" + latitude
+                        + ", longitude=" + longitude + ", altitude=" + altitude
+                        + ", minElevation=" + minElevation + "]";
+    }
+}
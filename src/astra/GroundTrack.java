@@ -0,0 +1,148 @@
+package astra;
+
+/**
+ * The path traced on the ground by a sub-satellite point over an interval of
+ * time, as a polyline of latitude/longitude points (rad).
+ * 
+ * The polyline is split into segments wherever it crosses the antimeridian,
+ * so each segment can be drawn on a map directly; the points at either side
+ * of a split lie exactly on the antimeridian. Points of all segments are
+ * stored contiguously, with {@link #getSegmentStart(int)} and
+ * {@link #getSegmentEnd(int)} giving each segment's range of indices.
+ * 
+ * Instances are immutable.
+ * 
+ */
+public final class GroundTrack
+{
+    private final long start;
+    private final long end;
+    private final long[] times;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] segments;
+    
+    /**
+     * Constructor for the {@link GroundTrack} class. The arrays are used
+     * directly and must not be modified afterwards.
+     * 
+     * @param start
+     *            start of the track (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the track (milliseconds since the Unix epoch)
+     * @param times
+     *            time of each point
+     * @param latitudes
+     *            latitude of each point (rad)
+     * @param longitudes
+     *            longitude of each point, in [-&pi;, &pi;] (rad)
+     * @param segments
+     *            index of the first point of each segment, followed by the
+     *            number of points
+     */
+    GroundTrack(long start, long end, long[] times, double[] latitudes,
+                    double[] longitudes, int[] segments)
+    {
+        this.start = start;
+        this.end = end;
+        this.times = times;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.segments = segments;
+    }
+    
+    /**
+     * @return start of the track (milliseconds since the Unix epoch)
+     */
+    public long getStart()
+    {
+        return start;
+    }
+    
+    /**
+     * @return end of the track (milliseconds since the Unix epoch)
+     */
+    public long getEnd()
+    {
+        return end;
+    }
+    
+    /**
+     * @return total number of points in all segments
+     */
+    public int getPointCount()
+    {
+        return times.length;
+    }
+    
+    /**
+     * @return number of segments
+     */
+    public int getSegmentCount()
+    {
+        return segments.length - 1;
+    }
+    
+    /**
+     * @param segment
+     *            index of the segment
+     * @return index of the first point of the segment
+     */
+    public int getSegmentStart(int segment)
+    {
+        return segments[segment];
+    }
+    
+    /**
+     * @param segment
+     *            index of the segment
+     * @return index one past the last point of the segment
+     */
+    public int getSegmentEnd(int segment)
+    {
+        return segments[segment + 1];
+    }
+    
+    /**
+     * @param index
+     *            index of the point
+     * @return time of the point (milliseconds since the Unix epoch)
+     */
+    public long getTime(int index)
+    {
+        return times[index];
+    }
+    
+    /**
+     * @param index
+     *            index of the point
+     * @return latitude of the point (rad)
+     */
+    public double getLatitude(int index)
+    {
+        return latitudes[index];
+    }
+    
+    /**
+     * @param index
+     *            index of the point
+     * @return longitude of the point (rad)
+     */
+    public double getLongitude(int index)
+    {
+        return longitudes[index];
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "GroundTrack [start=" + start + ", end=" + end + ", points="
+                        + times.length + ", segments=" + (segments.length - 1)
+                        + "]";
+    }
+}
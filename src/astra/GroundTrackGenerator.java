@@ -0,0 +1,493 @@
+package astra;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Generates {@link GroundTrack}s with adaptive sampling.
+ * 
+ * The track is first sampled at a fraction of the orbital period; each
+ * interval is then bisected until the true sub-satellite point at its
+ * midpoint lies within a tolerance of the straight line a map would draw
+ * between its ends. Sampling is therefore dense where the track curves
+ * sharply, such as near perigee of an eccentric orbit or at high latitude,
+ * and sparse elsewhere. A map can pass its kilometres-per-pixel as the
+ * tolerance to keep tracks within a pixel of the truth.
+ * 
+ * Tracks of whole revolutions are cached, keyed by the satellite's orbital
+ * elements, so that they can be redrawn every frame and are regenerated only
+ * when the elements change. Generators are safe for concurrent use provided
+ * the propagator is.
+ * 
+ */
+public class GroundTrackGenerator
+{
+    private final int INITIAL_DIVISIONS = 32;
+    private final long MIN_STEP = 1000;
+    private final int CACHE_SIZE = 256;
+    
+    private final Propagator propagator;
+    private final FrameTransformer transformer;
+    private final double tolerance;
+    
+    private final Map<RevolutionKey, GroundTrack> cache;
+    
+    /**
+     * Constructor for the {@link GroundTrackGenerator} class
+     * 
+     * @param propagator
+     *            propagator used to compute satellite positions
+     * @param transformer
+     *            frame transformer used to convert positions to geodetic
+     *            coordinates
+     * @param tolerance
+     *            maximum distance between the track and the drawn polyline
+     *            (km)
+     * @throws IllegalArgumentException
+     *             if <code>tolerance</code> is not positive
+     */
+    public GroundTrackGenerator(Propagator propagator,
+                    FrameTransformer transformer, double tolerance)
+    {
+        if(propagator == null || transformer == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(!(tolerance > 0))
+        {
+            throw new IllegalArgumentException("Non-positive tolerance");
+        }
+        
+        this.propagator = propagator;
+        this.transformer = transformer;
+        this.tolerance = tolerance;
+        this.cache = new LinkedHashMap<RevolutionKey, GroundTrack>(16, 0.75f,
+                        true)
+        {
+            private static final long serialVersionUID = 1L;
+            
+            @Override
+            protected boolean removeEldestEntry(
+                            Map.Entry<RevolutionKey, GroundTrack> eldest)
+            {
+                return this.size() > CACHE_SIZE;
+            }
+        };
+    }
+    
+    /**
+     * @return maximum distance between the track and the drawn polyline (km)
+     */
+    public double getTolerance()
+    {
+        return tolerance;
+    }
+    
+    /**
+     * @return number of revolutions currently cached
+     */
+    public synchronized int getCacheSize()
+    {
+        return cache.size();
+    }
+    
+    /**
+     * Gets the ground track of the revolution of <code>satellite</code> in
+     * progress at <code>time</code>. Revolutions run from one perigee to the
+     * next.
+     * 
+     * @param satellite
+     *            the satellite
+     * @param time
+     *            time within the revolution (milliseconds since the Unix
+     *            epoch)
+     * @return the track of the whole revolution
+     */
+    public GroundTrack getRevolution(Satellite satellite, long time)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        OrbitalElements elements = satellite.getElements();
+        double anomaly = elements.getMeanAnomaly()
+                        + elements.getMeanAnomalyRate() * (time
+                                        - elements.getEpoch()) / 1000.0;
+        long revolution = (long) Math.floor(anomaly / (2 * Math.PI));
+        RevolutionKey key = new RevolutionKey(elements, revolution);
+        
+        synchronized(this)
+        {
+            GroundTrack track = this.cache.get(key);
+            
+            if(track != null)
+            {
+                return track;
+            }
+        }
+        
+        GroundTrack track = this.generate(satellite, this.revolutionStart(
+                        elements, revolution), this.revolutionStart(elements,
+                                        revolution + 1));
+        
+        synchronized(this)
+        {
+            this.cache.put(key, track);
+        }
+        
+        return track;
+    }
+    
+    /**
+     * Generates the ground track of <code>satellite</code> between
+     * <code>start</code> and <code>end</code>, without caching it
+     * 
+     * @param satellite
+     *            the satellite
+     * @param start
+     *            start of the track (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the track (milliseconds since the Unix epoch)
+     * @return the track
+     * @throws IllegalArgumentException
+     *             if <code>end</code> is before <code>start</code>
+     */
+    public GroundTrack generate(Satellite satellite, long start, long end)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(end < start)
+        {
+            throw new IllegalArgumentException("Track ends before it starts");
+        }
+        
+        Sampler sampler = new Sampler(satellite);
+        long period = (long) (1000 * satellite.getElements().getPeriod());
+        long step = Math.max(this.MIN_STEP, period / this.INITIAL_DIVISIONS);
+        
+        sampler.add(start);
+        
+        for(long t = start; t < end; t = Math.min(end, t + step))
+        {
+            long next = Math.min(end, t + step);
+            int last = sampler.size - 1;
+            
+            sampler.sample(next);
+            
+            double latitude = sampler.latitude;
+            double longitude = sampler.longitude;
+            
+            sampler.refine(t, sampler.latitudes[last], sampler.longitudes[
+                            last], next, latitude, longitude, 0);
+            sampler.add(next, latitude, longitude);
+        }
+        
+        return sampler.split(start, end);
+    }
+    
+    /**
+     * @param elements
+     *            orbital elements
+     * @param revolution
+     *            revolution number, counted from the revolution in progress
+     *            at epoch
+     * @return time of the perigee starting the revolution
+     */
+    private long revolutionStart(OrbitalElements elements, long revolution)
+    {
+        return elements.getEpoch() + (long) (1000 * (2 * Math.PI * revolution
+                        - elements.getMeanAnomaly())
+                        / elements.getMeanAnomalyRate());
+    }
+    
+    /**
+     * @param delta
+     *            difference of two longitudes (rad)
+     * @return <code>delta</code> wrapped into [-&pi;, &pi;]
+     */
+    private static double wrap(double delta)
+    {
+        if(delta > Math.PI)
+        {
+            return delta - 2 * Math.PI;
+        }
+        
+        if(delta < -Math.PI)
+        {
+            return delta + 2 * Math.PI;
+        }
+        
+        return delta;
+    }
+    
+    /**
+     * Samples the sub-satellite point of a single satellite and accumulates
+     * the points of a track
+     * 
+     */
+    private class Sampler
+    {
+        private final int MAX_DEPTH = 16;
+        
+        private final Satellite satellite;
+        private final StateVector state;
+        private final double[] position;
+        
+        private double latitude;
+        private double longitude;
+        
+        private long[] times;
+        private double[] latitudes;
+        private double[] longitudes;
+        private int size;
+        
+        public Sampler(Satellite satellite)
+        {
+            this.satellite = satellite;
+            this.state = new StateVector();
+            this.position = new double[3];
+            this.times = new long[64];
+            this.latitudes = new double[64];
+            this.longitudes = new double[64];
+            this.size = 0;
+        }
+        
+        /**
+         * Computes the sub-satellite point at <code>time</code> into
+         * <code>latitude</code> and <code>longitude</code>
+         * 
+         * @param time
+         *            time of the sample
+         */
+        public void sample(long time)
+        {
+            propagator.propagate(this.satellite, time, this.state);
+            
+            this.position[0] = this.state.getX();
+            this.position[1] = this.state.getY();
+            this.position[2] = this.state.getZ();
+            
+            transformer.toGeodetic(time, this.position, this.position, 1);
+            
+            this.latitude = this.position[0];
+            this.longitude = this.position[1];
+        }
+        
+        /**
+         * Samples and appends the point at <code>time</code>
+         * 
+         * @param time
+         *            time of the point
+         */
+        public void add(long time)
+        {
+            this.sample(time);
+            this.add(time, this.latitude, this.longitude);
+        }
+        
+        /**
+         * Appends a point
+         * 
+         * @param time
+         *            time of the point
+         * @param latitude
+         *            latitude of the point
+         * @param longitude
+         *            longitude of the point
+         */
+        public void add(long time, double latitude, double longitude)
+        {
+            if(this.size == this.times.length)
+            {
+                this.times = Arrays.copyOf(this.times, 2 * this.size);
+                this.latitudes = Arrays.copyOf(this.latitudes, 2 * this.size);
+                this.longitudes = Arrays.copyOf(this.longitudes, 2
+                                * this.size);
+            }
+            
+            this.times[this.size] = time;
+            this.latitudes[this.size] = latitude;
+            this.longitudes[this.size] = longitude;
+            this.size++;
+        }
+        
+        /**
+         * Appends the points strictly between two samples needed to keep the
+         * polyline within tolerance
+         * 
+         * @param t0
+         *            time of the first sample
+         * @param lat0
+         *            latitude of the first sample
+         * @param lon0
+         *            longitude of the first sample
+         * @param t1
+         *            time of the second sample
+         * @param lat1
+         *            latitude of the second sample
+         * @param lon1
+         *            longitude of the second sample
+         * @param depth
+         *            number of bisections so far
+         */
+        public void refine(long t0, double lat0, double lon0, long t1,
+                        double lat1, double lon1, int depth)
+        {
+            if(t1 - t0 < 2 * MIN_STEP || depth >= this.MAX_DEPTH)
+            {
+                return;
+            }
+            
+            long middle = (t0 + t1) / 2;
+            
+            this.sample(middle);
+            
+            double lat = this.latitude;
+            double lon = this.longitude;
+            double error = Earth.RADIUS * this.distance(lat, lon, (lat0 + lat1)
+                            / 2, lon0 + wrap(lon1 - lon0) / 2);
+            
+            if(error <= tolerance)
+            {
+                return;
+            }
+            
+            this.refine(t0, lat0, lon0, middle, lat, lon, depth + 1);
+            this.add(middle, lat, lon);
+            this.refine(middle, lat, lon, t1, lat1, lon1, depth + 1);
+        }
+        
+        /**
+         * Splits the accumulated points at the antimeridian
+         * 
+         * @param start
+         *            start of the track
+         * @param end
+         *            end of the track
+         * @return the track
+         */
+        public GroundTrack split(long start, long end)
+        {
+            int crossings = 0;
+            
+            for(int i = 1; i < this.size; i++)
+            {
+                if(Math.abs(this.longitudes[i] - this.longitudes[i - 1])
+                                > Math.PI)
+                {
+                    crossings++;
+                }
+            }
+            
+            int count = this.size + 2 * crossings;
+            long[] times = new long[count];
+            double[] latitudes = new double[count];
+            double[] longitudes = new double[count];
+            int[] segments = new int[crossings + 2];
+            int j = 0;
+            int segment = 1;
+            
+            for(int i = 0; i < this.size; i++)
+            {
+                if(i > 0 && Math.abs(this.longitudes[i]
+                                - this.longitudes[i - 1]) > Math.PI)
+                {
+                    double lon0 = this.longitudes[i - 1];
+                    double edge = Math.copySign(Math.PI, lon0);
+                    double span = wrap(this.longitudes[i] - lon0);
+                    double fraction = (edge - lon0) / span;
+                    long time = this.times[i - 1] + Math.round(fraction
+                                    * (this.times[i] - this.times[i - 1]));
+                    double lat = this.latitudes[i - 1] + fraction
+                                    * (this.latitudes[i]
+                                                    - this.latitudes[i - 1]);
+                    
+                    times[j] = time;
+                    latitudes[j] = lat;
+                    longitudes[j] = edge;
+                    j++;
+                    segments[segment++] = j;
+                    times[j] = time;
+                    latitudes[j] = lat;
+                    longitudes[j] = -edge;
+                    j++;
+                }
+                
+                times[j] = this.times[i];
+                latitudes[j] = this.latitudes[i];
+                longitudes[j] = this.longitudes[i];
+                j++;
+            }
+            
+            segments[segment] = j;
+            
+            return new GroundTrack(start, end, times, latitudes, longitudes,
+                            segments);
+        }
+        
+        /**
+         * @param lat1
+         *            latitude of the first point
+         * @param lon1
+         *            longitude of the first point
+         * @param lat2
+         *            latitude of the second point
+         * @param lon2
+         *            longitude of the second point
+         * @return great-circle angle between two points (rad)
+         */
+        private double distance(double lat1, double lon1, double lat2,
+                        double lon2)
+        {
+            double sinLat = Math.sin((lat2 - lat1) / 2);
+            double sinLon = Math.sin((lon2 - lon1) / 2);
+            double a = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2)
+                            * sinLon * sinLon;
+            
+            return 2 * Math.asin(Math.min(1, Math.sqrt(a)));
+        }
+    }
+    
+    /**
+     * Cache key identifying one revolution of one set of orbital elements
+     * 
+     */
+    private static class RevolutionKey
+    {
+        private final OrbitalElements elements;
+        private final long revolution;
+        
+        public RevolutionKey(OrbitalElements elements, long revolution)
+        {
+            this.elements = elements;
+            this.revolution = revolution;
+        }
+        
+        @Override
+        public int hashCode()
+        {
+            return 31 * this.elements.hashCode() + Long.hashCode(
+                            this.revolution);
+        }
+        
+        @Override
+        public boolean equals(Object obj)
+        {
+            if(!(obj instanceof RevolutionKey))
+            {
+                return false;
+            }
+            
+            RevolutionKey other = (RevolutionKey) obj;
+            
+            return this.revolution == other.revolution && this.elements
+                            .equals(other.elements);
+        }
+    }
+}
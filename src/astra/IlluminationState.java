@@ -0,0 +1,23 @@
+package astra;
+
+/**
+ * Illumination of a satellite by the Sun.
+ * 
+ */
+public enum IlluminationState
+{
+    /**
+     * The whole solar disc is visible.
+     */
+    SUNLIT,
+    
+    /**
+     * The Earth hides part of the solar disc.
+     */
+    PENUMBRA,
+    
+    /**
+     * The Earth hides the whole solar disc.
+     */
+    UMBRA
+}
@@ -0,0 +1,183 @@
+package astra;
+
+import java.util.List;
+
+/**
+ * Positions of tracked satellites at a moment between two ticks of a
+ * {@link TrackingEngine}, interpolated linearly from the snapshots either
+ * side of it.
+ * 
+ * Over one tick a satellite in low orbit moves a small fraction of a
+ * revolution, so its sub-satellite point is close to a straight line between
+ * the two snapshots. This lets a display show smooth motion many times a
+ * second, even when the clock runs much faster than real time, while the
+ * whole catalogue is only propagated once per tick. Nothing is copied: each
+ * position is interpolated when it is read.
+ * 
+ * A satellite is interpolated only if it has the same index in both
+ * snapshots, which is the case unless the tracked satellites changed between
+ * the ticks; otherwise its position in the later snapshot is used as it is.
+ * 
+ */
+public final class InterpolatedSnapshot
+{
+    private final TrackingSnapshot from;
+    private final TrackingSnapshot to;
+    private final long time;
+    private final double fraction;
+    
+    /**
+     * Constructor for the {@link InterpolatedSnapshot} class
+     * 
+     * @param from
+     *            the earlier snapshot, or <code>null</code> to use
+     *            <code>to</code> as it is
+     * @param to
+     *            the later snapshot
+     * @param time
+     *            time to interpolate to (milliseconds since the Unix epoch),
+     *            which is clamped to the times of the two snapshots
+     */
+    public InterpolatedSnapshot(TrackingSnapshot from, TrackingSnapshot to,
+                    long time)
+    {
+        if(to == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.from = from;
+        this.to = to;
+        
+        if(from == null || from.getTime() >= to.getTime())
+        {
+            this.time = to.getTime();
+            this.fraction = 1;
+        }
+        else
+        {
+            this.time = Math.max(from.getTime(), Math.min(to.getTime(),
+                            time));
+            this.fraction = (double) (this.time - from.getTime())
+                            / (to.getTime() - from.getTime());
+        }
+    }
+    
+    /**
+     * @return time of the interpolated positions (milliseconds since the Unix
+     *         epoch)
+     */
+    public long getTime()
+    {
+        return this.time;
+    }
+    
+    /**
+     * @return the satellites, in index order
+     */
+    public List<Satellite> getSatellites()
+    {
+        return this.to.getSatellites();
+    }
+    
+    /**
+     * @return number of satellites
+     */
+    public int size()
+    {
+        return this.to.size();
+    }
+    
+    /**
+     * @param satellite
+     *            a satellite
+     * @return index of <code>satellite</code>, or -1 if it is not tracked
+     */
+    public int indexOf(Satellite satellite)
+    {
+        return this.to.indexOf(satellite);
+    }
+    
+    /**
+     * @param index
+     *            index of the satellite
+     * @return geodetic latitude of the sub-satellite point (rad)
+     */
+    public double getLatitude(int index)
+    {
+        double latitude = this.to.getLatitude(index);
+        
+        if(!this.isInterpolated(index))
+        {
+            return latitude;
+        }
+        
+        double previous = this.from.getLatitude(index);
+        
+        return previous + (latitude - previous) * this.fraction;
+    }
+    
+    /**
+     * @param index
+     *            index of the satellite
+     * @return longitude of the sub-satellite point (rad), interpolated the
+     *         short way round, so it may lie just outside [-pi, pi]
+     */
+    public double getLongitude(int index)
+    {
+        double longitude = this.to.getLongitude(index);
+        
+        if(!this.isInterpolated(index))
+        {
+            return longitude;
+        }
+        
+        double previous = this.from.getLongitude(index);
+        double change = Math.IEEEremainder(longitude - previous, 2 * Math.PI);
+        
+        return previous + change * this.fraction;
+    }
+    
+    /**
+     * @param index
+     *            index of the satellite
+     * @return altitude above the reference ellipsoid (km)
+     */
+    public double getAltitude(int index)
+    {
+        double altitude = this.to.getAltitude(index);
+        
+        if(!this.isInterpolated(index))
+        {
+            return altitude;
+        }
+        
+        double previous = this.from.getAltitude(index);
+        
+        return previous + (altitude - previous) * this.fraction;
+    }
+    
+    /**
+     * @param index
+     *            index of the satellite
+     * @return whether the satellite at <code>index</code> is interpolated
+     */
+    private boolean isInterpolated(int index)
+    {
+        return this.fraction < 1 && index < this.from.size() && this.from
+                        .getSatellites().get(index) == this.to.getSatellites()
+                                        .get(index);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "InterpolatedSnapshot [time=" + this.time + ", size="
+                        + this.size() + "]";
+    }
+}
@@ -0,0 +1,154 @@
+package astra;
+
+/**
+ * Analytical propagator solving Kepler's equation for the mean elements of a
+ * {@link Satellite}, optionally applying the secular perturbations caused by
+ * the Earth's oblateness (J2).
+ * 
+ * This is considerably cheaper than SGP4: each call is one Newton solve of
+ * Kepler's equation (typically converging in three or four iterations) and a
+ * perifocal-to-inertial rotation, with all element-derived quantities cached
+ * on the satellite.
+ * 
+ */
+public class KeplerPropagator implements Propagator
+{
+    private final int MAX_ITERATIONS = 15;
+    private final double TOLERANCE = 1e-12;
+    
+    private final boolean secular;
+    
+    /**
+     * Constructor for the {@link KeplerPropagator} class
+     * 
+     * @param secular
+     *            whether to apply J2 secular rates and the mean motion
+     *            derivative (<code>true</code>) or to use pure two-body motion
+     *            (<code>false</code>)
+     */
+    public KeplerPropagator(boolean secular)
+    {
+        this.secular = secular;
+    }
+    
+    /**
+     * @return whether J2 secular rates are applied
+     */
+    public boolean isSecular()
+    {
+        return secular;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see astra.Propagator#propagate(astra.Satellite, long,
+     * astra.StateVector)
+     */
+    @Override
+    public void propagate(Satellite satellite, long time, StateVector state)
+    {
+        if(satellite == null || state == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        OrbitalElements elements = satellite.getElements();
+        double dt = (time - elements.getEpoch()) / 1000.0;
+        
+        double a = elements.getSemiMajorAxis();
+        double e = elements.getEccentricity();
+        double i = elements.getInclination();
+        double raan;
+        double argp;
+        double m;
+        
+        if(this.secular)
+        {
+            raan = elements.getRightAscension()
+                            + elements.getRightAscensionRate() * dt;
+            argp = elements.getPerigee() + elements.getPerigeeRate() * dt;
+            m = elements.getMeanAnomaly() + elements.getMeanAnomalyRate() * dt
+                            + 0.5 * elements.getMeanMotionDot() * dt * dt;
+        }
+        else
+        {
+            raan = elements.getRightAscension();
+            argp = elements.getPerigee();
+            m = elements.getMeanAnomaly() + elements.getMeanMotion() * dt;
+        }
+        
+        double ecc = this.solveKepler(m % (2 * Math.PI), e);
+        double cosE = Math.cos(ecc);
+        double sinE = Math.sin(ecc);
+        double root = Math.sqrt(1 - e * e);
+        
+        // position and velocity in the perifocal frame
+        double r = a * (1 - e * cosE);
+        double px = a * (cosE - e);
+        double py = a * root * sinE;
+        double vScale = Math.sqrt(Earth.MU * a) / r;
+        double vpx = -vScale * sinE;
+        double vpy = vScale * root * cosE;
+        
+        // rotate into the inertial frame
+        double cosO = Math.cos(raan);
+        double sinO = Math.sin(raan);
+        double cosW = Math.cos(argp);
+        double sinW = Math.sin(argp);
+        double cosI = Math.cos(i);
+        double sinI = Math.sin(i);
+        
+        double p1 = cosO * cosW - sinO * sinW * cosI;
+        double p2 = sinO * cosW + cosO * sinW * cosI;
+        double p3 = sinW * sinI;
+        double q1 = -cosO * sinW - sinO * cosW * cosI;
+        double q2 = -sinO * sinW + cosO * cosW * cosI;
+        double q3 = cosW * sinI;
+        
+        state.set(time, px * p1 + py * q1, px * p2 + py * q2,
+                        px * p3 + py * q3, vpx * p1 + vpy * q1,
+                        vpx * p2 + vpy * q2, vpx * p3 + vpy * q3);
+    }
+    
+    /**
+     * Solves Kepler's equation <code>M = E - e sin E</code> for the eccentric
+     * anomaly using Newton's method, exiting as soon as the correction falls
+     * below tolerance
+     * 
+     * @param m
+     *            mean anomaly (rad)
+     * @param e
+     *            eccentricity
+     * @return eccentric anomaly (rad)
+     */
+    private double solveKepler(double m, double e)
+    {
+        double ecc = e < 0.8 ? m : Math.PI;
+        
+        for(int k = 0; k < this.MAX_ITERATIONS; k++)
+        {
+            double delta = (ecc - e * Math.sin(ecc) - m)
+                            / (1 - e * Math.cos(ecc));
+            ecc -= delta;
+            
+            if(Math.abs(delta) < this.TOLERANCE)
+            {
+                break;
+            }
+        }
+        
+        return ecc;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "KeplerPropagator [secular=" + secular + "]";
+    }
+}
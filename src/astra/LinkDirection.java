@@ -0,0 +1,20 @@
+package astra;
+
+/**
+ * Direction of a radio link between a ground station and a satellite.
+ * 
+ */
+public enum LinkDirection
+{
+    /**
+     * Ground station to satellite. The station corrects its transmit
+     * frequency so that the satellite receives the nominal frequency.
+     */
+    UPLINK,
+    
+    /**
+     * Satellite to ground station. The station corrects its receive frequency
+     * to match the shifted signal.
+     */
+    DOWNLINK
+}
@@ -0,0 +1,172 @@
+package astra;
+
+/**
+ * Look angles for a batch of satellites as seen from one
+ * {@link GroundStation}, stored as parallel primitive arrays so that a batch
+ * can be reused between calls without allocation.
+ * 
+ * Entries below the horizon are rejected by a cheap pre-check and have
+ * <code>NaN</code> look angles; only their visibility flag is meaningful.
+ * 
+ */
+public class LookAngleBatch
+{
+    private final double[] azimuth;
+    private final double[] elevation;
+    private final double[] range;
+    private final double[] rangeRate;
+    private final boolean[] visible;
+    
+    private int size;
+    
+    /**
+     * Constructor for the {@link LookAngleBatch} class
+     * 
+     * @param capacity
+     *            maximum number of entries in the batch
+     * @throws IllegalArgumentException
+     *             if <code>capacity</code> is negative
+     */
+    public LookAngleBatch(int capacity)
+    {
+        if(capacity < 0)
+        {
+            throw new IllegalArgumentException("Negative capacity");
+        }
+        
+        this.azimuth = new double[capacity];
+        this.elevation = new double[capacity];
+        this.range = new double[capacity];
+        this.rangeRate = new double[capacity];
+        this.visible = new boolean[capacity];
+        this.size = 0;
+    }
+    
+    /**
+     * @return maximum number of entries in the batch
+     */
+    public int getCapacity()
+    {
+        return visible.length;
+    }
+    
+    /**
+     * @return number of entries computed by the last batch look-angle
+     *         calculation stored in this batch
+     */
+    public int getSize()
+    {
+        return size;
+    }
+    
+    /**
+     * @param size
+     *            number of valid entries
+     */
+    void setSize(int size)
+    {
+        this.size = size;
+    }
+    
+    /**
+     * Stores the look angles of entry <code>i</code>
+     * 
+     * @param i
+     *            index of the entry
+     * @param azimuth
+     *            azimuth (rad)
+     * @param elevation
+     *            elevation (rad)
+     * @param range
+     *            slant range (km)
+     * @param rangeRate
+     *            range-rate (km/s)
+     * @param visible
+     *            whether the entry is above the station's elevation mask
+     */
+    void set(int i, double azimuth, double elevation, double range,
+                    double rangeRate, boolean visible)
+    {
+        this.azimuth[i] = azimuth;
+        this.elevation[i] = elevation;
+        this.range[i] = range;
+        this.rangeRate[i] = rangeRate;
+        this.visible[i] = visible;
+    }
+    
+    /**
+     * @param i
+     *            index of the entry
+     * @return whether entry <code>i</code> is above the station's elevation
+     *         mask
+     */
+    public boolean isVisible(int i)
+    {
+        this.checkIndex(i);
+        
+        return visible[i];
+    }
+    
+    /**
+     * @param i
+     *            index of the entry
+     * @return azimuth of entry <code>i</code> (rad)
+     */
+    public double getAzimuth(int i)
+    {
+        this.checkIndex(i);
+        
+        return azimuth[i];
+    }
+    
+    /**
+     * @param i
+     *            index of the entry
+     * @return elevation of entry <code>i</code> (rad)
+     */
+    public double getElevation(int i)
+    {
+        this.checkIndex(i);
+        
+        return elevation[i];
+    }
+    
+    /**
+     * @param i
+     *            index of the entry
+     * @return slant range of entry <code>i</code> (km)
+     */
+    public double getRange(int i)
+    {
+        this.checkIndex(i);
+        
+        return range[i];
+    }
+    
+    /**
+     * @param i
+     *            index of the entry
+     * @return range-rate of entry <code>i</code> (km/s)
+     */
+    public double getRangeRate(int i)
+    {
+        this.checkIndex(i);
+        
+        return rangeRate[i];
+    }
+    
+    /**
+     * @param i
+     *            index to check
+     * @throws IndexOutOfBoundsException
+     *             if <code>i</code> is not a valid entry
+     */
+    private void checkIndex(int i)
+    {
+        if(i < 0 || i >= this.size)
+        {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: "
+                            + this.size);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package astra;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes look angles from one or more {@link GroundStation}s to satellites
+ * at a given time, propagating each satellite only once regardless of the
+ * number of stations.
+ * 
+ * Instances reuse internal buffers between calls and are therefore not safe
+ * for concurrent use; create one per thread.
+ * 
+ */
+public class LookAngleCalculator
+{
+    private final Propagator propagator;
+    private final FrameTransformer transformer;
+    
+    private final StateVector state;
+    private final double[] single;
+    private double[] ecef;
+    
+    /**
+     * Constructor for the {@link LookAngleCalculator} class
+     * 
+     * @param propagator
+     *            propagator used to compute satellite positions
+     * @param transformer
+     *            frame transformer used to convert positions to ECEF
+     */
+    public LookAngleCalculator(Propagator propagator,
+                    FrameTransformer transformer)
+    {
+        if(propagator == null || transformer == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.propagator = propagator;
+        this.transformer = transformer;
+        this.state = new StateVector();
+        this.single = new double[6];
+        this.ecef = new double[0];
+    }
+    
+    /**
+     * @return the propagator used by this calculator
+     */
+    public Propagator getPropagator()
+    {
+        return propagator;
+    }
+    
+    /**
+     * @return the frame transformer used by this calculator
+     */
+    public FrameTransformer getTransformer()
+    {
+        return transformer;
+    }
+    
+    /**
+     * Computes the look angles to <code>satellite</code> from
+     * <code>station</code> at <code>time</code>, including range-rate
+     * 
+     * @param satellite
+     *            the satellite being observed
+     * @param station
+     *            the observing station
+     * @param time
+     *            time of the observation (milliseconds since the Unix epoch)
+     * @param angles
+     *            object to store the look angles in
+     */
+    public void compute(Satellite satellite, GroundStation station, long time,
+                    LookAngles angles)
+    {
+        if(satellite == null || station == null || angles == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.propagator.propagate(satellite, time, this.state);
+        this.transformer.toEcef(this.state, this.single);
+        station.computeLookAngles(this.single, 0, true, angles);
+    }
+    
+    /**
+     * Computes the look angles to every satellite in <code>satellites</code>
+     * from every station in <code>stations</code> at <code>time</code>
+     * 
+     * @param satellites
+     *            the satellites being observed
+     * @param stations
+     *            the observing stations
+     * @param time
+     *            time of the observation (milliseconds since the Unix epoch)
+     * @return a batch of look angles per station, indexed in the same order
+     *         as <code>satellites</code>
+     */
+    public Map<GroundStation, LookAngleBatch> compute(
+                    List<Satellite> satellites, List<GroundStation> stations,
+                    long time)
+    {
+        if(satellites == null || stations == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        int count = satellites.size();
+        
+        if(this.ecef.length < 6 * count)
+        {
+            this.ecef = new double[6 * count];
+        }
+        
+        for(int i = 0; i < count; i++)
+        {
+            this.propagator.propagate(satellites.get(i), time, this.state);
+            this.transformer.toEcef(this.state, this.single);
+            System.arraycopy(this.single, 0, this.ecef, 6 * i, 6);
+        }
+        
+        Map<GroundStation, LookAngleBatch> batches =
+                        new LinkedHashMap<GroundStation, LookAngleBatch>();
+        
+        for(GroundStation station : stations)
+        {
+            LookAngleBatch batch = new LookAngleBatch(count);
+            station.computeLookAngles(this.ecef, 6, count, batch);
+            batches.put(station, batch);
+        }
+        
+        return batches;
+    }
+}
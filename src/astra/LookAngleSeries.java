@@ -0,0 +1,157 @@
+package astra;
+
+/**
+ * Elevation, range and Doppler shift of a satellite seen from a station,
+ * sampled evenly over a window of time, for plotting against time.
+ * 
+ * A day sampled every second is 86,400 points per quantity, far more than
+ * can be drawn; series are meant to be reduced to the width of the plot with
+ * a {@link SeriesDownsampler} before drawing.
+ * 
+ * Instances are immutable.
+ * 
+ */
+public final class LookAngleSeries
+{
+    private final Satellite satellite;
+    private final GroundStation station;
+    private final long[] times;
+    private final double[] elevations;
+    private final double[] ranges;
+    private final double[] rangeRates;
+    
+    /**
+     * Constructor for the {@link LookAngleSeries} class
+     * 
+     * @param calculator
+     *            calculator used to find the look angles
+     * @param satellite
+     *            the satellite
+     * @param station
+     *            the station
+     * @param start
+     *            time of the first sample (milliseconds since the Unix
+     *            epoch)
+     * @param end
+     *            time of the last sample (milliseconds since the Unix epoch)
+     * @param count
+     *            number of samples
+     * @throws IllegalArgumentException
+     *             if the window is empty or <code>count</code> is less than
+     *             two
+     */
+    public LookAngleSeries(LookAngleCalculator calculator, Satellite satellite,
+                    GroundStation station, long start, long end, int count)
+    {
+        if(calculator == null || satellite == null || station == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(end <= start)
+        {
+            throw new IllegalArgumentException("Empty window");
+        }
+        
+        if(count < 2)
+        {
+            throw new IllegalArgumentException("Fewer than two samples");
+        }
+        
+        LookAngles angles = new LookAngles();
+        
+        this.satellite = satellite;
+        this.station = station;
+        this.times = new long[count];
+        this.elevations = new double[count];
+        this.ranges = new double[count];
+        this.rangeRates = new double[count];
+        
+        for(int i = 0; i < count; i++)
+        {
+            long time = start + (end - start) * i / (count - 1);
+            
+            calculator.compute(satellite, station, time, angles);
+            
+            this.times[i] = time;
+            this.elevations[i] = angles.getElevation();
+            this.ranges[i] = angles.getRange();
+            this.rangeRates[i] = angles.getRangeRate();
+        }
+    }
+    
+    /**
+     * @return the satellite
+     */
+    public Satellite getSatellite()
+    {
+        return satellite;
+    }
+    
+    /**
+     * @return the station
+     */
+    public GroundStation getStation()
+    {
+        return station;
+    }
+    
+    /**
+     * @return number of samples
+     */
+    public int getCount()
+    {
+        return times.length;
+    }
+    
+    /**
+     * @param index
+     *            index of a sample
+     * @return time of the sample (milliseconds since the Unix epoch)
+     */
+    public long getTime(int index)
+    {
+        return times[index];
+    }
+    
+    /**
+     * @param index
+     *            index of a sample
+     * @return elevation of the satellite (rad), negative below the horizon
+     */
+    public double getElevation(int index)
+    {
+        return elevations[index];
+    }
+    
+    /**
+     * @param index
+     *            index of a sample
+     * @return range from the station to the satellite (km)
+     */
+    public double getRange(int index)
+    {
+        return ranges[index];
+    }
+    
+    /**
+     * @param index
+     *            index of a sample
+     * @return rate of change of the range (km/s), positive when receding
+     */
+    public double getRangeRate(int index)
+    {
+        return rangeRates[index];
+    }
+    
+    /**
+     * @param index
+     *            index of a sample
+     * @return first-order Doppler shift of a downlink, as a fraction of its
+     *         nominal frequency, positive when approaching
+     */
+    public double getDoppler(int index)
+    {
+        return -rangeRates[index] / DopplerService.SPEED_OF_LIGHT;
+    }
+}
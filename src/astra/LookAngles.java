@@ -0,0 +1,98 @@
+package astra;
+
+/**
+ * Azimuth, elevation, range and range-rate of a satellite as seen from a
+ * {@link GroundStation}. Angles are in radians, range in kilometres and
+ * range-rate in kilometres per second (positive when receding).
+ * 
+ * Instances are mutable so that they can be reused in loops.
+ * 
+ */
+public class LookAngles
+{
+    private double azimuth;
+    private double elevation;
+    private double range;
+    private double rangeRate;
+    
+    /**
+     * Constructor for the {@link LookAngles} class. Initialises all fields to
+     * zero.
+     * 
+     */
+    public LookAngles()
+    {
+        this.azimuth = 0;
+        this.elevation = 0;
+        this.range = 0;
+        this.rangeRate = 0;
+    }
+    
+    /**
+     * Sets every field at once
+     * 
+     * @param azimuth
+     *            azimuth, clockwise from north (rad)
+     * @param elevation
+     *            elevation above the horizon (rad)
+     * @param range
+     *            slant range (km)
+     * @param rangeRate
+     *            rate of change of range (km/s)
+     */
+    public void set(double azimuth, double elevation, double range,
+                    double rangeRate)
+    {
+        this.azimuth = azimuth;
+        this.elevation = elevation;
+        this.range = range;
+        this.rangeRate = rangeRate;
+    }
+    
+    /**
+     * @return azimuth, clockwise from north (rad)
+     */
+    public double getAzimuth()
+    {
+        return azimuth;
+    }
+    
+    /**
+     * @return elevation above the horizon (rad)
+     */
+    public double getElevation()
+    {
+        return elevation;
+    }
+    
+    /**
+     * @return slant range (km)
+     */
+    public double getRange()
+    {
+        return range;
+    }
+    
+    /**
+     * @return rate of change of range (km/s), or <code>NaN</code> if no
+     *         velocity was available
+     */
+    public double getRangeRate()
+    {
+        return rangeRate;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "LookAngles [azimuth=" + Math.toDegrees(azimuth)
+                        + ", elevation=" + Math.toDegrees(elevation)
+                        + ", range=" + range + ", rangeRate=" + rangeRate
+                        + "]";
+    }
+}
@@ -0,0 +1,288 @@
+package astra;
+
+/**
+ * Immutable set of mean orbital elements derived from a {@link Satellite},
+ * converted to SI-style units (kilometres, seconds, radians) and augmented with
+ * the secular rates caused by the Earth's oblateness (J2).
+ * 
+ * Deriving these values involves a cube root and a handful of trigonometric
+ * calls, so a satellite caches its elements (see
+ * {@link Satellite#getElements()}) rather than recomputing them for every
+ * propagation.
+ * 
+ */
+public final class OrbitalElements
+{
+    private static final double TWO_PI = 2.0 * Math.PI;
+    private static final double SECONDS_PER_DAY = 86400.0;
+    
+    private final long epoch;
+    private final double meanMotion;
+    private final double meanMotionDot;
+    private final double semiMajorAxis;
+    private final double eccentricity;
+    private final double inclination;
+    private final double rightAscension;
+    private final double perigee;
+    private final double meanAnomaly;
+    
+    // J2 secular rates
+    private final double rightAscensionRate;
+    private final double perigeeRate;
+    private final double meanAnomalyRate;
+    
+    /**
+     * Derives orbital elements from the TLE fields of <code>satellite</code>
+     * 
+     * @param satellite
+     *            the satellite to derive the elements of
+     * @throws NullPointerException
+     *             if <code>satellite</code> is <code>null</code>
+     * @throws IllegalArgumentException
+     *             if the satellite's mean motion is not positive or its
+     *             eccentricity is outside of [0, 1)
+     */
+    public OrbitalElements(Satellite satellite)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(satellite.getMeanMotion() <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive mean motion");
+        }
+        
+        if(satellite.getEccentricity() < 0 || satellite.getEccentricity() >= 1)
+        {
+            throw new IllegalArgumentException("Eccentricity out of range");
+        }
+        
+        this.epoch = satellite.getEpoch().getTimeInMillis();
+        this.meanMotion = satellite.getMeanMotion() * TWO_PI / SECONDS_PER_DAY;
+        this.meanMotionDot = 2.0 * satellite.getFtdmm2() * TWO_PI
+                        / (SECONDS_PER_DAY * SECONDS_PER_DAY);
+        this.semiMajorAxis = Math.cbrt(Earth.MU
+                        / (this.meanMotion * this.meanMotion));
+        this.eccentricity = satellite.getEccentricity();
+        this.inclination = Math.toRadians(satellite.getInclination());
+        this.rightAscension = Math.toRadians(satellite.getRightAscension());
+        this.perigee = Math.toRadians(satellite.getPerigee());
+        this.meanAnomaly = Math.toRadians(satellite.getMeanAnomaly());
+        
+        double p = this.semiMajorAxis * (1 - this.eccentricity
+                        * this.eccentricity);
+        double k = 0.75 * this.meanMotion * Earth.J2 * (Earth.RADIUS / p)
+                        * (Earth.RADIUS / p);
+        double cosI = Math.cos(this.inclination);
+        
+        this.rightAscensionRate = -2.0 * k * cosI;
+        this.perigeeRate = k * (5.0 * cosI * cosI - 1.0);
+        this.meanAnomalyRate = this.meanMotion + k * Math.sqrt(1
+                        - this.eccentricity * this.eccentricity)
+                        * (3.0 * cosI * cosI - 1.0);
+    }
+    
+    /**
+     * @return epoch of the elements (milliseconds since the Unix epoch)
+     */
+    public long getEpoch()
+    {
+        return epoch;
+    }
+    
+    /**
+     * @return mean motion (rad/s)
+     */
+    public double getMeanMotion()
+    {
+        return meanMotion;
+    }
+    
+    /**
+     * @return first time derivative of mean motion (rad/s^2)
+     */
+    public double getMeanMotionDot()
+    {
+        return meanMotionDot;
+    }
+    
+    /**
+     * @return semi-major axis (km)
+     */
+    public double getSemiMajorAxis()
+    {
+        return semiMajorAxis;
+    }
+    
+    /**
+     * @return eccentricity
+     */
+    public double getEccentricity()
+    {
+        return eccentricity;
+    }
+    
+    /**
+     * @return inclination (rad)
+     */
+    public double getInclination()
+    {
+        return inclination;
+    }
+    
+    /**
+     * @return right ascension of the ascending node at epoch (rad)
+     */
+    public double getRightAscension()
+    {
+        return rightAscension;
+    }
+    
+    /**
+     * @return argument of perigee at epoch (rad)
+     */
+    public double getPerigee()
+    {
+        return perigee;
+    }
+    
+    /**
+     * @return mean anomaly at epoch (rad)
+     */
+    public double getMeanAnomaly()
+    {
+        return meanAnomaly;
+    }
+    
+    /**
+     * @return secular rate of the right ascension of the ascending node due to
+     *         J2 (rad/s)
+     */
+    public double getRightAscensionRate()
+    {
+        return rightAscensionRate;
+    }
+    
+    /**
+     * @return secular rate of the argument of perigee due to J2 (rad/s)
+     */
+    public double getPerigeeRate()
+    {
+        return perigeeRate;
+    }
+    
+    /**
+     * @return mean anomaly rate including the J2 correction (rad/s)
+     */
+    public double getMeanAnomalyRate()
+    {
+        return meanAnomalyRate;
+    }
+    
+    /**
+     * @return orbital period (s)
+     */
+    public double getPeriod()
+    {
+        return TWO_PI / meanMotion;
+    }
+    
+    /**
+     * @return distance from the centre of the Earth at perigee (km)
+     */
+    public double getPerigeeRadius()
+    {
+        return semiMajorAxis * (1 - eccentricity);
+    }
+    
+    /**
+     * @return distance from the centre of the Earth at apogee (km)
+     */
+    public double getApogeeRadius()
+    {
+        return semiMajorAxis * (1 + eccentricity);
+    }
+    
+    /**
+     * @return upper bound on the geocentric angular rate of the satellite,
+     *         reached at perigee (rad/s)
+     */
+    public double getMaxAngularRate()
+    {
+        double e = eccentricity;
+        
+        return meanMotion * (1 + e) * (1 + e) / Math.pow(1 - e * e, 1.5);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode()
+    {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + (int) (epoch ^ (epoch >>> 32));
+        result = prime * result + Double.hashCode(meanMotion);
+        result = prime * result + Double.hashCode(meanMotionDot);
+        result = prime * result + Double.hashCode(eccentricity);
+        result = prime * result + Double.hashCode(inclination);
+        result = prime * result + Double.hashCode(rightAscension);
+        result = prime * result + Double.hashCode(perigee);
+        result = prime * result + Double.hashCode(meanAnomaly);
+        return result;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if(this == obj)
+        {
+            return true;
+        }
+        if(obj == null)
+        {
+            return false;
+        }
+        if(getClass() != obj.getClass())
+        {
+            return false;
+        }
+        OrbitalElements other = (OrbitalElements) obj;
+        return epoch == other.epoch
+                        && Double.compare(meanMotion, other.meanMotion) == 0
+                        && Double.compare(meanMotionDot,
+                                        other.meanMotionDot) == 0
+                        && Double.compare(eccentricity,
+                                        other.eccentricity) == 0
+                        && Double.compare(inclination, other.inclination) == 0
+                        && Double.compare(rightAscension,
+                                        other.rightAscension) == 0
+                        && Double.compare(perigee, other.perigee) == 0
+                        && Double.compare(meanAnomaly, other.meanAnomaly) == 0;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "OrbitalElements [epoch=" + epoch + ", semiMajorAxis="
+                        + semiMajorAxis + ", eccentricity=" + eccentricity
+                        + ", inclination=" + inclination + ", rightAscension="
+                        + rightAscension + ", perigee=" + perigee
+                        + ", meanAnomaly=" + meanAnomaly + "]";
+    }
+}
@@ -0,0 +1,420 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Spatial index of the sub-satellite points of the tracked satellites,
+ * answering "what is overhead" queries without propagating anything.
+ * 
+ * Register the index as a listener of a {@link TrackingEngine}. At each tick
+ * the sub-satellite points are bucketed into a grid of equal-angle
+ * latitude/longitude cells with a counting sort, which takes a few
+ * milliseconds for tens of thousands of satellites. A query then only visits
+ * the cells overlapping its region, so it costs microseconds.
+ * 
+ * Each rebuild produces a new immutable grid, so queries may run on any
+ * thread while the index is being updated; a query sees either the previous
+ * tick or the latest one, never a mixture.
+ * 
+ */
+public class OverheadIndex implements TrackingListener
+{
+    private static final double HALF_PI = Math.PI / 2;
+    private static final double TWO_PI = 2 * Math.PI;
+    
+    private final double DEFAULT_CELL_SIZE = 2;
+    
+    private final int rows;
+    private final int columns;
+    private final double cellSize;
+    
+    private volatile Grid grid;
+    
+    /**
+     * Constructor for the {@link OverheadIndex} class. Cells are two degrees
+     * square.
+     * 
+     */
+    public OverheadIndex()
+    {
+        this.rows = (int) Math.round(180 / this.DEFAULT_CELL_SIZE);
+        this.columns = 2 * this.rows;
+        this.cellSize = Math.PI / this.rows;
+        this.grid = new Grid(this, null);
+    }
+    
+    /**
+     * Constructor for the {@link OverheadIndex} class
+     * 
+     * @param cellSize
+     *            approximate size of each cell (degrees), rounded so that a
+     *            whole number of cells spans each meridian
+     * @throws IllegalArgumentException
+     *             if <code>cellSize</code> is not in (0, 90]
+     */
+    public OverheadIndex(double cellSize)
+    {
+        if(!(cellSize > 0 && cellSize <= 90))
+        {
+            throw new IllegalArgumentException("Cell size out of range");
+        }
+        
+        this.rows = (int) Math.round(180 / cellSize);
+        this.columns = 2 * this.rows;
+        this.cellSize = Math.PI / this.rows;
+        this.grid = new Grid(this, null);
+    }
+    
+    /**
+     * Rebuilds the index from the latest snapshot. Satellites whose position
+     * could not be computed are left out.
+     * 
+     * @param snapshot
+     *            the latest snapshot
+     */
+    @Override
+    public void update(TrackingSnapshot snapshot)
+    {
+        if(snapshot == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.grid = new Grid(this, snapshot);
+    }
+    
+    /**
+     * @return time of the snapshot the index was last built from
+     *         (milliseconds since the Unix epoch), or zero if it has never
+     *         been built
+     */
+    public long getTime()
+    {
+        return grid.time;
+    }
+    
+    /**
+     * @return number of satellites in the index
+     */
+    public int size()
+    {
+        return grid.satellites.length;
+    }
+    
+    /**
+     * Finds the satellites whose sub-satellite point lies within a distance
+     * of a point. Distances are measured along the surface of a spherical
+     * Earth of equatorial radius.
+     * 
+     * @param latitude
+     *            latitude of the point (rad)
+     * @param longitude
+     *            longitude of the point (rad)
+     * @param radius
+     *            maximum distance (km)
+     * @return the satellites found
+     * @throws IllegalArgumentException
+     *             if <code>radius</code> is negative
+     */
+    public List<Satellite> findWithin(double latitude, double longitude,
+                    double radius)
+    {
+        if(radius < 0)
+        {
+            throw new IllegalArgumentException("Negative radius");
+        }
+        
+        Grid grid = this.grid;
+        List<Satellite> found = new ArrayList<Satellite>();
+        double angle = Math.min(radius / Earth.RADIUS, Math.PI);
+        double cosAngle = Math.cos(angle);
+        double cosLat = Math.cos(latitude);
+        double qx = cosLat * Math.cos(longitude);
+        double qy = cosLat * Math.sin(longitude);
+        double qz = Math.sin(latitude);
+        
+        int rowMin = this.row(latitude - angle);
+        int rowMax = this.row(latitude + angle);
+        int colMin = 0;
+        int colMax = this.columns - 1;
+        
+        // the circle spans every longitude once it reaches a pole
+        if(latitude - angle > -HALF_PI && latitude + angle < HALF_PI)
+        {
+            double halfWidth = Math.asin(Math.sin(angle) / cosLat);
+            
+            colMin = this.column(longitude - halfWidth);
+            colMax = Math.min(colMin + this.columns - 1, this.column(longitude
+                            + halfWidth));
+        }
+        
+        for(int r = rowMin; r <= rowMax; r++)
+        {
+            for(int c = colMin; c <= colMax; c++)
+            {
+                int cell = r * this.columns + Math.floorMod(c, this.columns);
+                
+                for(int i = grid.offsets[cell]; i < grid.offsets[cell
+                                + 1]; i++)
+                {
+                    if(grid.x[i] * qx + grid.y[i] * qy + grid.z[i]
+                                    * qz >= cosAngle)
+                    {
+                        found.add(grid.satellites[i]);
+                    }
+                }
+            }
+        }
+        
+        return found;
+    }
+    
+    /**
+     * Finds the satellites whose sub-satellite point lies within a polygon.
+     * The polygon is taken to be drawn on a cylindrical map: its edges are
+     * straight in latitude and longitude. Longitudes may be unwrapped beyond
+     * [-&pi;, &pi;] so that a polygon straddling the antimeridian can be
+     * given as a single ring, as a {@link Footprint} is.
+     * 
+     * @param latitudes
+     *            latitude of each vertex (rad)
+     * @param longitudes
+     *            longitude of each vertex (rad)
+     * @param count
+     *            number of vertices
+     * @return the satellites found
+     * @throws IllegalArgumentException
+     *             if there are fewer than three vertices, or more than the
+     *             arrays hold
+     */
+    public List<Satellite> findWithin(double[] latitudes, double[] longitudes,
+                    int count)
+    {
+        if(latitudes == null || longitudes == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(count < 3 || count > latitudes.length || count > longitudes.length)
+        {
+            throw new IllegalArgumentException("Invalid vertex count");
+        }
+        
+        Grid grid = this.grid;
+        List<Satellite> found = new ArrayList<Satellite>();
+        double latMin = latitudes[0];
+        double latMax = latitudes[0];
+        double lonMin = longitudes[0];
+        double lonMax = longitudes[0];
+        
+        for(int i = 1; i < count; i++)
+        {
+            latMin = Math.min(latMin, latitudes[i]);
+            latMax = Math.max(latMax, latitudes[i]);
+            lonMin = Math.min(lonMin, longitudes[i]);
+            lonMax = Math.max(lonMax, longitudes[i]);
+        }
+        
+        int rowMin = this.row(latMin);
+        int rowMax = this.row(latMax);
+        int colMin = this.column(lonMin);
+        int colMax = Math.min(colMin + this.columns - 1, this.column(lonMax));
+        
+        for(int r = rowMin; r <= rowMax; r++)
+        {
+            for(int c = colMin; c <= colMax; c++)
+            {
+                int cell = r * this.columns + Math.floorMod(c, this.columns);
+                
+                for(int i = grid.offsets[cell]; i < grid.offsets[cell
+                                + 1]; i++)
+                {
+                    // try each copy of the point within the polygon's span
+                    double lon = grid.longitudes[i] + TWO_PI * Math.ceil(
+                                    (lonMin - grid.longitudes[i]) / TWO_PI);
+                    
+                    for(; lon <= lonMax; lon += TWO_PI)
+                    {
+                        if(OverheadIndex.contains(latitudes, longitudes, count,
+                                        grid.latitudes[i], lon))
+                        {
+                            found.add(grid.satellites[i]);
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+        
+        return found;
+    }
+    
+    /**
+     * Finds the satellites whose sub-satellite point lies within a footprint.
+     * The footprint's circle is used rather than its polygon, which is both
+     * exact and quicker.
+     * 
+     * @param footprint
+     *            the footprint
+     * @return the satellites found
+     */
+    public List<Satellite> findWithin(Footprint footprint)
+    {
+        if(footprint == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        return this.findWithin(footprint.getCentreLatitude(), footprint
+                        .getCentreLongitude(), footprint.getRadius()
+                                        * Earth.RADIUS);
+    }
+    
+    /**
+     * @param latitude
+     *            a latitude (rad)
+     * @return the row containing <code>latitude</code>, clamped to the grid
+     */
+    private int row(double latitude)
+    {
+        int row = (int) Math.floor((latitude + HALF_PI) / this.cellSize);
+        
+        return Math.max(0, Math.min(this.rows - 1, row));
+    }
+    
+    /**
+     * @param longitude
+     *            a longitude (rad)
+     * @return the column containing <code>longitude</code>, not wrapped
+     */
+    private int column(double longitude)
+    {
+        return (int) Math.floor((longitude + Math.PI) / this.cellSize);
+    }
+    
+    /**
+     * Even-odd test of whether a point lies within a polygon in the
+     * latitude/longitude plane
+     * 
+     * @param latitudes
+     *            latitude of each vertex (rad)
+     * @param longitudes
+     *            longitude of each vertex (rad)
+     * @param count
+     *            number of vertices
+     * @param latitude
+     *            latitude of the point (rad)
+     * @param longitude
+     *            longitude of the point (rad)
+     * @return whether the point lies within the polygon
+     */
+    private static boolean contains(double[] latitudes, double[] longitudes,
+                    int count, double latitude, double longitude)
+    {
+        boolean inside = false;
+        
+        for(int i = 0, j = count - 1; i < count; j = i++)
+        {
+            if((latitudes[i] > latitude) != (latitudes[j] > latitude)
+                            && longitude < longitudes[i] + (longitudes[j]
+                                            - longitudes[i]) * (latitude
+                                                            - latitudes[i])
+                                            / (latitudes[j] - latitudes[i]))
+            {
+                inside = !inside;
+            }
+        }
+        
+        return inside;
+    }
+    
+    /**
+     * Sub-satellite points sorted by cell. The points of cell <i>k</i> occupy
+     * indices <code>offsets[k]</code> to <code>offsets[k + 1]</code> of the
+     * other arrays.
+     * 
+     */
+    private static final class Grid
+    {
+        private final long time;
+        private final int[] offsets;
+        private final Satellite[] satellites;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final double[] x;
+        private final double[] y;
+        private final double[] z;
+        
+        /**
+         * Builds a grid from a snapshot
+         * 
+         * @param index
+         *            the index defining the cells
+         * @param snapshot
+         *            the snapshot, or <code>null</code> for an empty grid
+         */
+        public Grid(OverheadIndex index, TrackingSnapshot snapshot)
+        {
+            int size = snapshot == null ? 0 : snapshot.size();
+            int[] cells = new int[size];
+            int count = 0;
+            
+            this.time = snapshot == null ? 0 : snapshot.getTime();
+            this.offsets = new int[index.rows * index.columns + 1];
+            
+            for(int i = 0; i < size; i++)
+            {
+                double latitude = snapshot.getLatitude(i);
+                
+                if(Double.isNaN(latitude))
+                {
+                    cells[i] = -1;
+                    continue;
+                }
+                
+                cells[i] = index.row(latitude) * index.columns + Math.floorMod(
+                                index.column(snapshot.getLongitude(i)),
+                                index.columns);
+                this.offsets[cells[i] + 1]++;
+                count++;
+            }
+            
+            for(int k = 1; k < this.offsets.length; k++)
+            {
+                this.offsets[k] += this.offsets[k - 1];
+            }
+            
+            this.satellites = new Satellite[count];
+            this.latitudes = new double[count];
+            this.longitudes = new double[count];
+            this.x = new double[count];
+            this.y = new double[count];
+            this.z = new double[count];
+            
+            int[] next = new int[this.offsets.length - 1];
+            
+            System.arraycopy(this.offsets, 0, next, 0, next.length);
+            
+            for(int i = 0; i < size; i++)
+            {
+                if(cells[i] < 0)
+                {
+                    continue;
+                }
+                
+                int j = next[cells[i]]++;
+                double latitude = snapshot.getLatitude(i);
+                double longitude = snapshot.getLongitude(i);
+                double cosLat = Math.cos(latitude);
+                
+                this.satellites[j] = snapshot.getSatellites().get(i);
+                this.latitudes[j] = latitude;
+                this.longitudes[j] = longitude;
+                this.x[j] = cosLat * Math.cos(longitude);
+                this.y[j] = cosLat * Math.sin(longitude);
+                this.z[j] = Math.sin(latitude);
+            }
+        }
+    }
+}
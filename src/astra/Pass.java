@@ -0,0 +1,156 @@
+package astra;
+
+/**
+ * A pass of a {@link Satellite} over a {@link GroundStation}: the interval
+ * from acquisition of signal (AOS), when the satellite rises above the
+ * station's elevation mask, to loss of signal (LOS), when it sets again.
+ * 
+ * Times are in milliseconds since the Unix epoch and angles in radians. A
+ * pass already in progress at the start of a search window, or still in
+ * progress at its end, is truncated to the window.
+ * 
+ */
+public final class Pass
+{
+    private final Satellite satellite;
+    private final GroundStation station;
+    private final long aos;
+    private final long culmination;
+    private final long los;
+    private final double maxElevation;
+    private final double aosAzimuth;
+    private final double losAzimuth;
+    
+    /**
+     * Constructor for the {@link Pass} class
+     * 
+     * @param satellite
+     *            the satellite making the pass
+     * @param station
+     *            the station observing the pass
+     * @param aos
+     *            time of acquisition of signal
+     * @param culmination
+     *            time of maximum elevation
+     * @param los
+     *            time of loss of signal
+     * @param maxElevation
+     *            maximum elevation reached (rad)
+     * @param aosAzimuth
+     *            azimuth at acquisition of signal (rad)
+     * @param losAzimuth
+     *            azimuth at loss of signal (rad)
+     * @throws IllegalArgumentException
+     *             if the times are out of order
+     */
+    public Pass(Satellite satellite, GroundStation station, long aos,
+                    long culmination, long los, double maxElevation,
+                    double aosAzimuth, double losAzimuth)
+    {
+        if(satellite == null || station == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(aos > culmination || culmination > los)
+        {
+            throw new IllegalArgumentException("Pass times out of order");
+        }
+        
+        this.satellite = satellite;
+        this.station = station;
+        this.aos = aos;
+        this.culmination = culmination;
+        this.los = los;
+        this.maxElevation = maxElevation;
+        this.aosAzimuth = aosAzimuth;
+        this.losAzimuth = losAzimuth;
+    }
+    
+    /**
+     * @return the satellite making the pass
+     */
+    public Satellite getSatellite()
+    {
+        return satellite;
+    }
+    
+    /**
+     * @return the station observing the pass
+     */
+    public GroundStation getStation()
+    {
+        return station;
+    }
+    
+    /**
+     * @return time of acquisition of signal
+     */
+    public long getAos()
+    {
+        return aos;
+    }
+    
+    /**
+     * @return time of maximum elevation
+     */
+    public long getCulmination()
+    {
+        return culmination;
+    }
+    
+    /**
+     * @return time of loss of signal
+     */
+    public long getLos()
+    {
+        return los;
+    }
+    
+    /**
+     * @return duration of the pass (ms)
+     */
+    public long getDuration()
+    {
+        return los - aos;
+    }
+    
+    /**
+     * @return maximum elevation reached (rad)
+     */
+    public double getMaxElevation()
+    {
+        return maxElevation;
+    }
+    
+    /**
+     * @return azimuth at acquisition of signal (rad)
+     */
+    public double getAosAzimuth()
+    {
+        return aosAzimuth;
+    }
+    
+    /**
+     * @return azimuth at loss of signal (rad)
+     */
+    public double getLosAzimuth()
+    {
+        return losAzimuth;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "Pass [satellite=" + satellite.getName() + ", station="
+                        + station.getName() + ", aos=" + aos
+                        + ", culmination=" + culmination + ", los=" + los
+                        + ", maxElevation=" + Math.toDegrees(maxElevation)
+                        + "]";
+    }
+}
@@ -0,0 +1,164 @@
+package astra;
+
+/**
+ * The path of a {@link Pass} across the sky of its station, as a polyline of
+ * look angles sampled evenly from acquisition to loss of signal.
+ * 
+ * Each point is also given in polar sky-plot coordinates: the station's
+ * zenith at the origin, the horizon on the unit circle, north up and east to
+ * the right, as on a map. An arc is computed once and may then be drawn at
+ * any size without propagating the satellite again.
+ * 
+ * Instances are immutable.
+ * 
+ */
+public final class PassArc
+{
+    private final Pass pass;
+    private final long[] times;
+    private final double[] azimuths;
+    private final double[] elevations;
+    private final double[] x;
+    private final double[] y;
+    
+    /**
+     * Constructor for the {@link PassArc} class
+     * 
+     * @param pass
+     *            the pass
+     * @param calculator
+     *            calculator used to find the look angles
+     * @param segments
+     *            number of segments to divide the arc into
+     * @throws IllegalArgumentException
+     *             if <code>segments</code> is not positive
+     */
+    public PassArc(Pass pass, LookAngleCalculator calculator, int segments)
+    {
+        if(pass == null || calculator == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(segments <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive segment count");
+        }
+        
+        LookAngles angles = new LookAngles();
+        
+        this.pass = pass;
+        this.times = new long[segments + 1];
+        this.azimuths = new double[segments + 1];
+        this.elevations = new double[segments + 1];
+        this.x = new double[segments + 1];
+        this.y = new double[segments + 1];
+        
+        for(int i = 0; i <= segments; i++)
+        {
+            long time = pass.getAos() + pass.getDuration() * i / segments;
+            
+            calculator.compute(pass.getSatellite(), pass.getStation(), time,
+                            angles);
+            
+            this.times[i] = time;
+            this.azimuths[i] = angles.getAzimuth();
+            this.elevations[i] = angles.getElevation();
+            this.x[i] = PassArc.skyX(angles.getAzimuth(), angles
+                            .getElevation());
+            this.y[i] = PassArc.skyY(angles.getAzimuth(), angles
+                            .getElevation());
+        }
+    }
+    
+    /**
+     * @return the pass
+     */
+    public Pass getPass()
+    {
+        return pass;
+    }
+    
+    /**
+     * @return number of points
+     */
+    public int getPointCount()
+    {
+        return times.length;
+    }
+    
+    /**
+     * @param index
+     *            index of a point
+     * @return time of the point (milliseconds since the Unix epoch)
+     */
+    public long getTime(int index)
+    {
+        return times[index];
+    }
+    
+    /**
+     * @param index
+     *            index of a point
+     * @return azimuth of the point, clockwise from north (rad)
+     */
+    public double getAzimuth(int index)
+    {
+        return azimuths[index];
+    }
+    
+    /**
+     * @param index
+     *            index of a point
+     * @return elevation of the point (rad)
+     */
+    public double getElevation(int index)
+    {
+        return elevations[index];
+    }
+    
+    /**
+     * @param index
+     *            index of a point
+     * @return sky-plot abscissa of the point, positive east
+     */
+    public double getX(int index)
+    {
+        return x[index];
+    }
+    
+    /**
+     * @param index
+     *            index of a point
+     * @return sky-plot ordinate of the point, positive south, as for raster
+     *         rows
+     */
+    public double getY(int index)
+    {
+        return y[index];
+    }
+    
+    /**
+     * @param azimuth
+     *            azimuth, clockwise from north (rad)
+     * @param elevation
+     *            elevation (rad)
+     * @return sky-plot abscissa of the direction, positive east
+     */
+    public static double skyX(double azimuth, double elevation)
+    {
+        return (1 - elevation / (Math.PI / 2)) * Math.sin(azimuth);
+    }
+    
+    /**
+     * @param azimuth
+     *            azimuth, clockwise from north (rad)
+     * @param elevation
+     *            elevation (rad)
+     * @return sky-plot ordinate of the direction, positive south
+     */
+    public static double skyY(double azimuth, double elevation)
+    {
+        return -(1 - elevation / (Math.PI / 2)) * Math.cos(azimuth);
+    }
+}
@@ -0,0 +1,228 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Predicts the passes of many satellites over many ground stations.
+ * 
+ * Most satellite/station pairs in a large catalogue can never see each other,
+ * and most of the rest only can for a small part of each orbit. Each pair is
+ * therefore first tested with a {@link VisibilityFilter}, and only the
+ * per-orbit windows it leaves are searched by the {@link PassPredictor}. The
+ * surviving pairs are searched in parallel.
+ * 
+ */
+public class PassPlanner
+{
+    private final Propagator propagator;
+    private final FrameTransformer transformer;
+    private final VisibilityFilter filter;
+    private final PassPredictor predictor;
+    
+    private volatile long pairCount;
+    private volatile long discardedCount;
+    private volatile long searchedTime;
+    
+    /**
+     * Constructor for the {@link PassPlanner} class. The propagator must be
+     * safe to share between threads.
+     * 
+     * @param propagator
+     *            propagator used to compute satellite positions
+     * @param transformer
+     *            frame transformer used to convert positions to ECEF
+     */
+    public PassPlanner(Propagator propagator, FrameTransformer transformer)
+    {
+        if(propagator == null || transformer == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.propagator = propagator;
+        this.transformer = transformer;
+        this.filter = new VisibilityFilter(propagator, transformer);
+        this.predictor = new PassPredictor(propagator, transformer);
+    }
+    
+    /**
+     * @return the propagator used by this planner
+     */
+    public Propagator getPropagator()
+    {
+        return propagator;
+    }
+    
+    /**
+     * @return the frame transformer used by this planner
+     */
+    public FrameTransformer getTransformer()
+    {
+        return transformer;
+    }
+    
+    /**
+     * Finds every pass of every satellite in <code>satellites</code> over
+     * every station in <code>stations</code> between <code>start</code> and
+     * <code>end</code>. Satellites whose elements are invalid are skipped.
+     * 
+     * @param satellites
+     *            the satellites
+     * @param stations
+     *            the observing stations
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @return passes ordered by acquisition of signal
+     * @throws IllegalArgumentException
+     *             if <code>end</code> is before <code>start</code>
+     */
+    public List<Pass> plan(List<Satellite> satellites,
+                    List<GroundStation> stations, long start, long end)
+    {
+        if(satellites == null || stations == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(end < start)
+        {
+            throw new IllegalArgumentException("Window ends before it starts");
+        }
+        
+        List<Satellite> valid = new ArrayList<Satellite>(satellites.size());
+        
+        // derive (and cache) elements up front, so that worker threads never
+        // race to do so
+        for(Satellite satellite : satellites)
+        {
+            try
+            {
+                satellite.getElements();
+                valid.add(satellite);
+            }
+            catch(IllegalArgumentException e)
+            {
+                continue;
+            }
+        }
+        
+        AtomicLong discarded = new AtomicLong();
+        AtomicLong searched = new AtomicLong();
+        
+        List<Candidate> candidates = valid.parallelStream()
+                        .flatMap(satellite -> stations.stream().map(
+                                        station -> new Candidate(satellite,
+                                                        station)))
+                        .filter(candidate -> {
+                            if(!candidate.prepare(start, end))
+                            {
+                                discarded.incrementAndGet();
+                                return false;
+                            }
+                            
+                            searched.addAndGet(candidate.getSearchedTime());
+                            return true;
+                        }).collect(Collectors.toList());
+        
+        List<Pass> passes = candidates.parallelStream()
+                        .flatMap(candidate -> this.predictor.predict(
+                                        candidate.satellite, candidate.station,
+                                        candidate.windows).stream())
+                        .collect(Collectors.toList());
+        
+        Collections.sort(passes, Comparator.comparingLong(Pass::getAos));
+        
+        this.pairCount = (long) valid.size() * stations.size();
+        this.discardedCount = discarded.get();
+        this.searchedTime = searched.get();
+        
+        return passes;
+    }
+    
+    /**
+     * @return number of satellite/station pairs considered by the most recent
+     *         call to {@link #plan(List, List, long, long)}
+     */
+    public long getPairCount()
+    {
+        return pairCount;
+    }
+    
+    /**
+     * @return number of satellite/station pairs discarded without any search
+     *         by the most recent call to {@link #plan(List, List, long, long)}
+     */
+    public long getDiscardedCount()
+    {
+        return discardedCount;
+    }
+    
+    /**
+     * @return total length of the windows searched, summed over every pair,
+     *         by the most recent call to {@link #plan(List, List, long, long)}
+     *         (ms)
+     */
+    public long getSearchedTime()
+    {
+        return searchedTime;
+    }
+    
+    /**
+     * A satellite/station pair and the windows in which it must be searched
+     * 
+     */
+    private class Candidate
+    {
+        private final Satellite satellite;
+        private final GroundStation station;
+        private List<TimeWindow> windows;
+        
+        public Candidate(Satellite satellite, GroundStation station)
+        {
+            this.satellite = satellite;
+            this.station = station;
+        }
+        
+        /**
+         * Applies the visibility filter to the pair
+         * 
+         * @param start
+         *            start of the window
+         * @param end
+         *            end of the window
+         * @return whether any part of the window remains to be searched
+         */
+        public boolean prepare(long start, long end)
+        {
+            if(!filter.isPossiblyVisible(this.satellite, this.station, start,
+                            end))
+            {
+                return false;
+            }
+            
+            this.windows = filter.getWindows(this.satellite, this.station,
+                            start, end);
+            
+            return !this.windows.isEmpty();
+        }
+        
+        public long getSearchedTime()
+        {
+            long total = 0;
+            
+            for(TimeWindow window : this.windows)
+            {
+                total += window.getDuration();
+            }
+            
+            return total;
+        }
+    }
+}
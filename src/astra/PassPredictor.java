@@ -0,0 +1,266 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Predicts the passes of a {@link Satellite} over a {@link GroundStation}.
+ * 
+ * The elevation of the satellite is searched with a
+ * {@link ZeroCrossingSearch}. Below the horizon, elevation cannot change
+ * faster than the geocentric angle between the station and the satellite, so
+ * the coarse scan takes steps of several minutes; it only slows down as the
+ * satellite approaches the horizon. Rise and set times are then refined to a
+ * tenth of a second, and the culmination is found by golden-section search.
+ * 
+ * A predictor may be shared between threads provided its propagator can be.
+ * 
+ */
+public class PassPredictor
+{
+    private final long MIN_STEP = 1000;
+    private final long TOLERANCE = 100;
+    private final int STEPS_PER_ORBIT = 8;
+    private final double SAFETY = 1.25;
+    
+    private final Propagator propagator;
+    private final FrameTransformer transformer;
+    
+    /**
+     * Constructor for the {@link PassPredictor} class
+     * 
+     * @param propagator
+     *            propagator used to compute satellite positions
+     * @param transformer
+     *            frame transformer used to convert positions to ECEF
+     */
+    public PassPredictor(Propagator propagator, FrameTransformer transformer)
+    {
+        if(propagator == null || transformer == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.propagator = propagator;
+        this.transformer = transformer;
+    }
+    
+    /**
+     * @return the propagator used by this predictor
+     */
+    public Propagator getPropagator()
+    {
+        return propagator;
+    }
+    
+    /**
+     * @return the frame transformer used by this predictor
+     */
+    public FrameTransformer getTransformer()
+    {
+        return transformer;
+    }
+    
+    /**
+     * Finds every pass of <code>satellite</code> over <code>station</code>
+     * between <code>start</code> and <code>end</code>
+     * 
+     * @param satellite
+     *            the satellite
+     * @param station
+     *            the observing station
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @return passes in chronological order
+     * @throws IllegalArgumentException
+     *             if <code>end</code> is before <code>start</code>
+     */
+    public List<Pass> predict(Satellite satellite, GroundStation station,
+                    long start, long end)
+    {
+        if(satellite == null || station == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        ElevationFunction elevation = new ElevationFunction(satellite,
+                        station);
+        ZeroCrossingSearch search = this.createSearch(satellite);
+        List<Crossing> crossings = search.search(elevation, start, end);
+        
+        List<Pass> passes = new ArrayList<Pass>();
+        boolean inPass = elevation.value(start) >= 0;
+        long aos = start;
+        
+        for(Crossing crossing : crossings)
+        {
+            if(crossing.isRising())
+            {
+                aos = crossing.getTime();
+                inPass = true;
+            }
+            else if(inPass)
+            {
+                passes.add(this.createPass(search, elevation, aos,
+                                crossing.getTime()));
+                inPass = false;
+            }
+        }
+        
+        if(inPass)
+        {
+            passes.add(this.createPass(search, elevation, aos, end));
+        }
+        
+        return passes;
+    }
+    
+    /**
+     * Finds every pass of <code>satellite</code> over <code>station</code>
+     * within <code>windows</code>. Passes in progress at the edge of a window
+     * are truncated to it, so windows should be padded generously, as those
+     * from {@link VisibilityFilter} are.
+     * 
+     * @param satellite
+     *            the satellite
+     * @param station
+     *            the observing station
+     * @param windows
+     *            disjoint windows to search, in chronological order
+     * @return passes in chronological order
+     */
+    public List<Pass> predict(Satellite satellite, GroundStation station,
+                    List<TimeWindow> windows)
+    {
+        if(satellite == null || station == null || windows == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        List<Pass> passes = new ArrayList<Pass>();
+        
+        for(TimeWindow window : windows)
+        {
+            passes.addAll(this.predict(satellite, station, window.getStart(),
+                            window.getEnd()));
+        }
+        
+        return passes;
+    }
+    
+    /**
+     * @param satellite
+     *            the satellite being searched for
+     * @return a search whose maximum step is a fraction of the orbital period
+     */
+    private ZeroCrossingSearch createSearch(Satellite satellite)
+    {
+        long period = (long) (1000 * satellite.getElements().getPeriod());
+        long maxStep = Math.max(this.MIN_STEP, period / this.STEPS_PER_ORBIT);
+        
+        return new ZeroCrossingSearch(this.MIN_STEP, maxStep, this.TOLERANCE);
+    }
+    
+    /**
+     * @param search
+     *            search used to find the culmination
+     * @param elevation
+     *            elevation function of the satellite
+     * @param aos
+     *            time of acquisition of signal
+     * @param los
+     *            time of loss of signal
+     * @return the pass between <code>aos</code> and <code>los</code>
+     */
+    private Pass createPass(ZeroCrossingSearch search,
+                    ElevationFunction elevation, long aos, long los)
+    {
+        long culmination = search.maximise(elevation::value, aos, los);
+        double maxElevation = elevation.value(culmination)
+                        + elevation.getMask();
+        double aosAzimuth = elevation.azimuth(aos);
+        double losAzimuth = elevation.azimuth(los);
+        
+        return new Pass(elevation.getSatellite(), elevation.getStation(), aos,
+                        culmination, los, maxElevation, aosAzimuth, losAzimuth);
+    }
+    
+    /**
+     * Elevation of a satellite above a station's elevation mask, with a
+     * bound on its rate of change
+     * 
+     */
+    private class ElevationFunction implements SearchFunction
+    {
+        private final Satellite satellite;
+        private final GroundStation station;
+        private final double mask;
+        private final double belowRate;
+        private final double aboveRate;
+        
+        private final LookAngleCalculator calculator;
+        private final LookAngles angles;
+        
+        public ElevationFunction(Satellite satellite, GroundStation station)
+        {
+            OrbitalElements elements = satellite.getElements();
+            double perigee = elements.getPerigeeRadius();
+            double height = Math.max(1, perigee - Earth.RADIUS
+                            - station.getAltitude());
+            
+            this.satellite = satellite;
+            this.station = station;
+            this.mask = Math.toRadians(station.getMinElevation());
+            
+            // below the horizon, elevation changes no faster than the
+            // geocentric angle between station and satellite; overhead it is
+            // amplified by the ratio of orbital radius to height
+            this.belowRate = SAFETY * (elements.getMaxAngularRate()
+                            + Earth.ROTATION_RATE);
+            this.aboveRate = this.belowRate * perigee / height;
+            
+            this.calculator = new LookAngleCalculator(propagator, transformer);
+            this.angles = new LookAngles();
+        }
+        
+        public Satellite getSatellite()
+        {
+            return this.satellite;
+        }
+        
+        public GroundStation getStation()
+        {
+            return this.station;
+        }
+        
+        public double getMask()
+        {
+            return this.mask;
+        }
+        
+        @Override
+        public double value(long time)
+        {
+            this.calculator.compute(this.satellite, this.station, time,
+                            this.angles);
+            
+            return this.angles.getElevation() - this.mask;
+        }
+        
+        @Override
+        public double maxRate(double value)
+        {
+            return value + this.mask < 0 ? this.belowRate : this.aboveRate;
+        }
+        
+        public double azimuth(long time)
+        {
+            this.calculator.compute(this.satellite, this.station, time,
+                            this.angles);
+            
+            return this.angles.getAzimuth();
+        }
+    }
+}
@@ -0,0 +1,962 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps a rolling schedule of the passes of a set of satellites over a set of
+ * ground stations, from the present to a fixed horizon ahead of it.
+ * 
+ * Each time the schedule is advanced, passes which have ended are forgotten
+ * and only the newly uncovered stretch at the far end of the horizon is
+ * searched. A pass straddling the old end of the horizon is stitched back
+ * together with its continuation. Satellites whose elements have changed
+ * since the last advance, and stations added since then, are searched over
+ * the whole horizon; everything else is left alone.
+ * 
+ * After each advance the schedule of each station is published as an
+ * immutable index, with passes bucketed by the stretches of time they
+ * overlap, so that queries such as "the next passes over this station" may be
+ * made from any thread and examine only the passes in progress at the time
+ * asked about and those returned, however long the schedule.
+ * 
+ * Passes are searched for without holding the lock taken by the setters, so
+ * that changing the satellites or stations never waits for an advance in
+ * progress; changes made during an advance are taken up by the next one.
+ * 
+ */
+public class PassScheduler
+{
+    private final long BUCKET_SIZE = 600000;
+    private final long STOP_TIMEOUT = 1000;
+    
+    private final PassPlanner planner;
+    private final long horizon;
+    
+    // what to schedule, guarded by this
+    private final Map<Integer, Satellite> satellites;
+    private final Map<Integer, OrbitalElements> elements;
+    private final Set<Integer> changed;
+    private final List<GroundStation> stations;
+    
+    // the schedule itself, guarded by advancing
+    private final Object advancing;
+    private final Map<GroundStation, List<Pass>> passes;
+    private boolean computed;
+    private long start;
+    private long end;
+    
+    private final FailureReporter failures;
+    private final AtomicBoolean requested;
+    private volatile Schedule schedule;
+    private volatile long recomputedCount;
+    private volatile long scannedCount;
+    private volatile LongSupplier timeSource;
+    private volatile ScheduledExecutorService executor;
+    
+    /**
+     * Constructor for the {@link PassScheduler} class. The propagator must be
+     * safe to share between threads.
+     * 
+     * @param propagator
+     *            propagator used to compute satellite positions
+     * @param transformer
+     *            frame transformer used to convert positions to ECEF
+     * @param horizon
+     *            how far ahead of the present to schedule passes (ms)
+     * @throws IllegalArgumentException
+     *             if <code>horizon</code> is not positive
+     */
+    public PassScheduler(Propagator propagator, FrameTransformer transformer,
+                    long horizon)
+    {
+        if(propagator == null || transformer == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(horizon <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive horizon");
+        }
+        
+        this.planner = new PassPlanner(propagator, transformer);
+        this.horizon = horizon;
+        this.satellites = new LinkedHashMap<Integer, Satellite>();
+        this.elements = new HashMap<Integer, OrbitalElements>();
+        this.changed = new HashSet<Integer>();
+        this.stations = new ArrayList<GroundStation>();
+        this.advancing = new Object();
+        this.passes = new IdentityHashMap<GroundStation, List<Pass>>();
+        this.computed = false;
+        this.failures = new FailureReporter();
+        this.requested = new AtomicBoolean();
+        this.schedule = new Schedule(0, 0, Collections
+                        .<GroundStation, StationIndex> emptyMap());
+        this.timeSource = System::currentTimeMillis;
+    }
+    
+    /**
+     * @return how far ahead of the present passes are scheduled (ms)
+     */
+    public long getHorizon()
+    {
+        return horizon;
+    }
+    
+    /**
+     * Sets the source of the current time used when running in the
+     * background, which is the system clock by default
+     * 
+     * @param timeSource
+     *            supplier of the current time (milliseconds since the Unix
+     *            epoch)
+     */
+    public void setTimeSource(LongSupplier timeSource)
+    {
+        if(timeSource == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.timeSource = timeSource;
+    }
+    
+    /**
+     * Sets the satellites to schedule. Satellites are told apart by catalogue
+     * number; those which are new, or whose elements differ from the ones
+     * previously set, are searched afresh at the next advance, which is
+     * brought forward if the scheduler is running.
+     * 
+     * @param satellites
+     *            the satellites
+     */
+    public synchronized void setSatellites(Collection<Satellite> satellites)
+    {
+        if(satellites == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        Map<Integer, Satellite> current =
+                        new LinkedHashMap<Integer, Satellite>();
+        Map<Integer, OrbitalElements> currentElements =
+                        new HashMap<Integer, OrbitalElements>();
+        
+        for(Satellite satellite : satellites)
+        {
+            OrbitalElements elements = PassScheduler.elementsOf(satellite);
+            Integer number = satellite.getNum();
+            
+            if(!this.satellites.containsKey(number) || !Objects.equals(
+                            elements, this.elements.get(number)))
+            {
+                this.changed.add(number);
+            }
+            
+            current.put(number, satellite);
+            currentElements.put(number, elements);
+        }
+        
+        // removed satellites have their passes dropped
+        for(Integer number : this.satellites.keySet())
+        {
+            if(!current.containsKey(number))
+            {
+                this.changed.add(number);
+            }
+        }
+        
+        this.satellites.clear();
+        this.satellites.putAll(current);
+        this.elements.clear();
+        this.elements.putAll(currentElements);
+        this.advanceNow();
+    }
+    
+    /**
+     * Adds satellites to those scheduled, such as each batch of a catalogue
+     * as it loads, leaving the others alone. A satellite replaces any with
+     * the same catalogue number, and is searched afresh at the next advance
+     * if it is new or its elements differ, which is brought forward if the
+     * scheduler is running.
+     * 
+     * @param satellites
+     *            the satellites to add
+     */
+    public synchronized void addSatellites(Collection<Satellite> satellites)
+    {
+        if(satellites == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        for(Satellite satellite : satellites)
+        {
+            OrbitalElements elements = PassScheduler.elementsOf(satellite);
+            Integer number = satellite.getNum();
+            
+            if(!this.satellites.containsKey(number) || !Objects.equals(
+                            elements, this.elements.get(number)))
+            {
+                this.changed.add(number);
+            }
+            
+            this.satellites.put(number, satellite);
+            this.elements.put(number, elements);
+        }
+        
+        this.advanceNow();
+    }
+    
+    /**
+     * Sets the stations to schedule. Stations which are new are searched at
+     * the next advance, which is brought forward if the scheduler is running;
+     * those removed are dropped from the schedule by it.
+     * 
+     * @param stations
+     *            the stations
+     */
+    public synchronized void setStations(List<GroundStation> stations)
+    {
+        if(stations == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        Set<GroundStation> current = Collections.newSetFromMap(
+                        new IdentityHashMap<GroundStation, Boolean>());
+        
+        current.addAll(stations);
+        this.stations.clear();
+        this.stations.addAll(current);
+        this.advanceNow();
+    }
+    
+    /**
+     * Brings the schedule up to <code>time</code>: forgets passes which have
+     * ended, searches satellites and stations which have changed, and extends
+     * the schedule to the horizon. Moving backwards in time, or further
+     * forwards than the end of the schedule, starts it afresh.
+     * 
+     * @param time
+     *            the present (milliseconds since the Unix epoch)
+     */
+    public void advance(long time)
+    {
+        synchronized(this.advancing)
+        {
+            List<Satellite> satellites;
+            List<GroundStation> stations;
+            Set<Integer> recompute;
+            
+            // take what to schedule, and plan it without holding the lock
+            synchronized(this)
+            {
+                satellites = new ArrayList<Satellite>(this.satellites
+                                .values());
+                stations = new ArrayList<GroundStation>(this.stations);
+                recompute = new HashSet<Integer>(this.changed);
+                this.changed.clear();
+            }
+            
+            this.advance(time, satellites, stations, recompute);
+        }
+    }
+    
+    /**
+     * Finds the next passes over a station: those which have not ended by
+     * <code>time</code>, in order of acquisition of signal, including any in
+     * progress
+     * 
+     * @param station
+     *            the station
+     * @param time
+     *            time to find passes after (milliseconds since the Unix
+     *            epoch)
+     * @param count
+     *            maximum number of passes to return
+     * @return the passes, fewer than <code>count</code> if the schedule runs
+     *         out, or none if the station is not scheduled
+     * @throws IllegalArgumentException
+     *             if <code>count</code> is negative
+     */
+    public List<Pass> getNextPasses(GroundStation station, long time,
+                    int count)
+    {
+        if(station == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(count < 0)
+        {
+            throw new IllegalArgumentException("Negative count");
+        }
+        
+        StationIndex index = this.schedule.index.get(station);
+        List<Pass> found = new ArrayList<Pass>(count);
+        
+        if(index != null)
+        {
+            this.scannedCount = index.find(time, Long.MAX_VALUE, count, found);
+        }
+        
+        return found;
+    }
+    
+    /**
+     * Finds the passes over a station which overlap a window
+     * 
+     * @param station
+     *            the station
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @return the passes in order of acquisition of signal, or none if the
+     *         station is not scheduled
+     */
+    public List<Pass> getPasses(GroundStation station, long start, long end)
+    {
+        if(station == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        StationIndex index = this.schedule.index.get(station);
+        List<Pass> found = new ArrayList<Pass>();
+        
+        if(index != null)
+        {
+            this.scannedCount = index.find(start, end, Integer.MAX_VALUE,
+                            found);
+        }
+        
+        return found;
+    }
+    
+    /**
+     * @return time from which passes have been scheduled (milliseconds since
+     *         the Unix epoch), or zero before the first advance
+     */
+    public long getStart()
+    {
+        return schedule.start;
+    }
+    
+    /**
+     * @param time
+     *            a time (milliseconds since the Unix epoch)
+     * @return whether <code>time</code> falls within the schedule last
+     *         published, so that advancing to it would not start afresh
+     */
+    public boolean covers(long time)
+    {
+        Schedule schedule = this.schedule;
+        
+        return schedule.end != 0 && time >= schedule.start
+                        && time <= schedule.end;
+    }
+    
+    /**
+     * @return time up to which passes have been scheduled (milliseconds since
+     *         the Unix epoch), or zero before the first advance
+     */
+    public long getEnd()
+    {
+        return schedule.end;
+    }
+    
+    /**
+     * @return number of satellites searched over the whole horizon by the
+     *         most recent advance because they were new or had changed
+     */
+    public long getRecomputedCount()
+    {
+        return recomputedCount;
+    }
+    
+    /**
+     * @return number of passes examined by the most recent query for passes
+     *         over a station, including those it returned
+     */
+    public long getScannedCount()
+    {
+        return scannedCount;
+    }
+    
+    /**
+     * @return the failures of background advances since the scheduler last
+     *         started
+     */
+    public FailureReporter getFailures()
+    {
+        return failures;
+    }
+    
+    /**
+     * Starts advancing the schedule to the current time every
+     * <code>period</code> milliseconds on a background thread
+     * 
+     * @param period
+     *            time between advances (ms)
+     * @throws IllegalStateException
+     *             if the scheduler is already running
+     */
+    public synchronized void start(long period)
+    {
+        if(period <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive period");
+        }
+        
+        if(this.executor != null)
+        {
+            throw new IllegalStateException("Scheduler already running");
+        }
+        
+        this.failures.reset();
+        
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Pass scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleWithFixedDelay(this::tick, 0, period,
+                        TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stops advancing the schedule, waiting briefly for an advance in
+     * progress to finish. Does nothing if the scheduler is not running.
+     * 
+     */
+    public void stop()
+    {
+        ScheduledExecutorService executor;
+        
+        // wait without holding the lock, which the setters need
+        synchronized(this)
+        {
+            executor = this.executor;
+            this.executor = null;
+        }
+        
+        if(executor != null)
+        {
+            executor.shutdownNow();
+            
+            try
+            {
+                executor.awaitTermination(this.STOP_TIMEOUT,
+                                TimeUnit.MILLISECONDS);
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Advances the schedule to the current time on the background thread as
+     * soon as it is free, rather than at the next period, such as after the
+     * time source has jumped. Returns at once, and requests made before the
+     * advance begins are served by that one advance. Does nothing if the
+     * scheduler is not running.
+     * 
+     */
+    public void advanceNow()
+    {
+        ScheduledExecutorService executor = this.executor;
+        
+        if(executor != null && this.requested.compareAndSet(false, true))
+        {
+            try
+            {
+                executor.execute(this::tick);
+            }
+            catch(RejectedExecutionException e)
+            {
+                // stopped meanwhile
+                this.requested.set(false);
+            }
+        }
+    }
+    
+    /**
+     * @return whether the scheduler is running in the background
+     */
+    public synchronized boolean isRunning()
+    {
+        return executor != null;
+    }
+    
+    /**
+     * Brings the schedule up to <code>time</code>, holding the lock on
+     * <code>advancing</code> but not that on the scheduler
+     * 
+     * @param time
+     *            the present (milliseconds since the Unix epoch)
+     * @param satellites
+     *            the satellites to schedule
+     * @param stations
+     *            the stations to schedule
+     * @param recompute
+     *            numbers of the satellites changed since the last advance
+     */
+    private void advance(long time, List<Satellite> satellites,
+                    List<GroundStation> stations, Set<Integer> recompute)
+    {
+        List<GroundStation> newStations = new ArrayList<GroundStation>();
+        Set<GroundStation> current = Collections.newSetFromMap(
+                        new IdentityHashMap<GroundStation, Boolean>());
+        
+        current.addAll(stations);
+        this.passes.keySet().retainAll(current);
+        
+        for(GroundStation station : stations)
+        {
+            if(!this.passes.containsKey(station))
+            {
+                this.passes.put(station, new ArrayList<Pass>());
+                newStations.add(station);
+            }
+        }
+        
+        if(!this.computed || time < this.start || time > this.end)
+        {
+            for(List<Pass> list : this.passes.values())
+            {
+                list.clear();
+            }
+            
+            // everything is new, and the extension below searches it all
+            this.end = time;
+            this.computed = true;
+            
+            for(Satellite satellite : satellites)
+            {
+                recompute.add(satellite.getNum());
+            }
+            
+            newStations.clear();
+        }
+        
+        this.start = time;
+        
+        for(List<Pass> list : this.passes.values())
+        {
+            list.removeIf(pass -> pass.getLos() < time
+                            || recompute.contains(pass.getSatellite()
+                                            .getNum()));
+        }
+        
+        List<Satellite> changedSatellites = new ArrayList<Satellite>();
+        List<Satellite> unchangedSatellites = new ArrayList<Satellite>();
+        
+        for(Satellite satellite : satellites)
+        {
+            if(recompute.contains(satellite.getNum()))
+            {
+                changedSatellites.add(satellite);
+            }
+            else
+            {
+                unchangedSatellites.add(satellite);
+            }
+        }
+        
+        if(this.end > time)
+        {
+            this.add(this.planner.plan(changedSatellites, stations, time,
+                            this.end));
+            this.add(this.planner.plan(unchangedSatellites, newStations, time,
+                            this.end));
+        }
+        
+        if(time + this.horizon > this.end)
+        {
+            this.extend(this.planner.plan(satellites, stations, this.end,
+                            time + this.horizon));
+            this.end = time + this.horizon;
+        }
+        
+        this.recomputedCount = changedSatellites.size();
+        this.publish();
+    }
+    
+    /**
+     * Advances the schedule to the current time
+     * 
+     */
+    private void tick()
+    {
+        this.requested.set(false);
+        
+        try
+        {
+            this.advance(this.timeSource.getAsLong());
+        }
+        catch(RuntimeException e)
+        {
+            this.failures.report(e);
+        }
+    }
+    
+    /**
+     * Adds passes to the schedule
+     * 
+     * @param found
+     *            the passes
+     */
+    private void add(List<Pass> found)
+    {
+        for(Pass pass : found)
+        {
+            this.passes.get(pass.getStation()).add(pass);
+        }
+    }
+    
+    /**
+     * Adds passes found beyond the end of the schedule, joining any which
+     * continue a pass truncated at the end
+     * 
+     * @param found
+     *            the passes, found from the end of the schedule onwards
+     */
+    private void extend(List<Pass> found)
+    {
+        // index of the pass of each satellite truncated at the end, by station
+        Map<GroundStation, Map<Integer, Integer>> truncated;
+        
+        truncated = new IdentityHashMap<GroundStation, Map<Integer, Integer>>();
+        
+        for(Map.Entry<GroundStation, List<Pass>> entry : this.passes
+                        .entrySet())
+        {
+            Map<Integer, Integer> indices = new HashMap<Integer, Integer>();
+            List<Pass> list = entry.getValue();
+            
+            for(int i = 0; i < list.size(); i++)
+            {
+                if(list.get(i).getLos() == this.end)
+                {
+                    indices.put(list.get(i).getSatellite().getNum(), i);
+                }
+            }
+            
+            truncated.put(entry.getKey(), indices);
+        }
+        
+        for(Pass pass : found)
+        {
+            List<Pass> list = this.passes.get(pass.getStation());
+            Integer i = truncated.get(pass.getStation()).get(pass
+                            .getSatellite().getNum());
+            
+            if(pass.getAos() == this.end && i != null)
+            {
+                list.set(i, PassScheduler.join(list.get(i), pass));
+            }
+            else
+            {
+                list.add(pass);
+            }
+        }
+    }
+    
+    /**
+     * Publishes an index of the schedule of each station
+     * 
+     */
+    private void publish()
+    {
+        Map<GroundStation, StationIndex> index =
+                        new IdentityHashMap<GroundStation, StationIndex>();
+        
+        for(Map.Entry<GroundStation, List<Pass>> entry : this.passes
+                        .entrySet())
+        {
+            index.put(entry.getKey(), new StationIndex(this.start, this.end,
+                            this.BUCKET_SIZE, entry.getValue()));
+        }
+        
+        this.schedule = new Schedule(this.start, this.end, index);
+    }
+    
+    /**
+     * @param first
+     *            a pass truncated at the end of a window
+     * @param second
+     *            its continuation
+     * @return the whole pass
+     */
+    private static Pass join(Pass first, Pass second)
+    {
+        Pass higher = first.getMaxElevation() >= second.getMaxElevation()
+                        ? first : second;
+        
+        return new Pass(first.getSatellite(), first.getStation(),
+                        first.getAos(), higher.getCulmination(),
+                        second.getLos(), higher.getMaxElevation(),
+                        first.getAosAzimuth(), second.getLosAzimuth());
+    }
+    
+    /**
+     * @param satellite
+     *            a satellite
+     * @return its elements, or <code>null</code> if they are invalid
+     */
+    private static OrbitalElements elementsOf(Satellite satellite)
+    {
+        try
+        {
+            return satellite.getElements();
+        }
+        catch(IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+    
+    /**
+     * A published schedule: its window, and the index of each station
+     * 
+     */
+    private static final class Schedule
+    {
+        private final long start;
+        private final long end;
+        private final Map<GroundStation, StationIndex> index;
+        
+        /**
+         * @param start
+         *            start of the schedule
+         * @param end
+         *            end of the schedule
+         * @param index
+         *            index of the schedule of each station
+         */
+        public Schedule(long start, long end,
+                        Map<GroundStation, StationIndex> index)
+        {
+            this.start = start;
+            this.end = end;
+            this.index = index;
+        }
+    }
+    
+    /**
+     * The passes over one station sorted by acquisition of signal, with the
+     * passes overlapping each bucket of time, so that the passes in progress
+     * at a time are found without scanning those which ended before it
+     * 
+     */
+    private static final class StationIndex
+    {
+        private final long origin;
+        private final long bucketSize;
+        private final Pass[] passes;
+        private final long[] aos;
+        private final int[] offsets;
+        private final int[] members;
+        
+        /**
+         * @param start
+         *            start of the schedule
+         * @param end
+         *            end of the schedule
+         * @param bucketSize
+         *            length of each bucket (ms)
+         * @param passes
+         *            the passes
+         */
+        public StationIndex(long start, long end, long bucketSize,
+                        List<Pass> passes)
+        {
+            int buckets = (int) ((end - start) / bucketSize) + 1;
+            
+            this.origin = start;
+            this.bucketSize = bucketSize;
+            this.passes = passes.toArray(new Pass[passes.size()]);
+            this.aos = new long[this.passes.length];
+            this.offsets = new int[buckets + 1];
+            
+            Arrays.sort(this.passes, Comparator.comparingLong(
+                            Pass::getAos));
+            
+            for(int i = 0; i < this.passes.length; i++)
+            {
+                this.aos[i] = this.passes[i].getAos();
+                
+                for(int b = this.firstBucket(i); b <= this.lastBucket(i); b++)
+                {
+                    this.offsets[b + 1]++;
+                }
+            }
+            
+            for(int b = 0; b < buckets; b++)
+            {
+                this.offsets[b + 1] += this.offsets[b];
+            }
+            
+            // passes are added in order, so each bucket lists them in order
+            int[] next = Arrays.copyOf(this.offsets, buckets);
+            
+            this.members = new int[this.offsets[buckets]];
+            
+            for(int i = 0; i < this.passes.length; i++)
+            {
+                for(int b = this.firstBucket(i); b <= this.lastBucket(i); b++)
+                {
+                    this.members[next[b]++] = i;
+                }
+            }
+        }
+        
+        /**
+         * Finds the passes in progress at <code>time</code>, followed by
+         * those acquired after it, in order of acquisition of signal
+         * 
+         * @param time
+         *            a time (milliseconds since the Unix epoch)
+         * @param end
+         *            time before which the passes must be acquired
+         * @param count
+         *            maximum number of passes to find
+         * @param found
+         *            list to add the passes to
+         * @return number of passes examined
+         */
+        public int find(long time, long end, int count, List<Pass> found)
+        {
+            int after = this.upper(time);
+            int scanned = 0;
+            int from;
+            int to;
+            
+            // passes acquired by the time are those in its bucket, or all of
+            // them before the schedule starts
+            if(time < this.origin)
+            {
+                from = 0;
+                to = after;
+            }
+            else
+            {
+                int bucket = this.bucket(time);
+                
+                from = this.offsets[bucket];
+                to = this.offsets[bucket + 1];
+            }
+            
+            for(int k = from; k < to && found.size() < count; k++)
+            {
+                int i = time < this.origin ? k : this.members[k];
+                
+                if(i >= after)
+                {
+                    break;
+                }
+                
+                scanned++;
+                
+                if(this.passes[i].getLos() > time && this.aos[i] < end)
+                {
+                    found.add(this.passes[i]);
+                }
+            }
+            
+            for(int i = after; i < this.passes.length && this.aos[i] < end
+                            && found.size() < count; i++)
+            {
+                scanned++;
+                found.add(this.passes[i]);
+            }
+            
+            return scanned;
+        }
+        
+        /**
+         * @param time
+         *            a time
+         * @return index of the first pass acquired after <code>time</code>
+         */
+        private int upper(long time)
+        {
+            int low = 0;
+            int high = this.aos.length;
+            
+            while(low < high)
+            {
+                int middle = (low + high) >>> 1;
+                
+                if(this.aos[middle] <= time)
+                {
+                    low = middle + 1;
+                }
+                else
+                {
+                    high = middle;
+                }
+            }
+            
+            return low;
+        }
+        
+        /**
+         * @param time
+         *            a time no earlier than the start of the schedule
+         * @return index of the bucket holding <code>time</code>, the last if
+         *         it is beyond the end
+         */
+        private int bucket(long time)
+        {
+            long bucket = (time - this.origin) / this.bucketSize;
+            
+            return (int) Math.min(bucket, this.offsets.length - 2);
+        }
+        
+        /**
+         * @param i
+         *            index of a pass
+         * @return index of the first bucket the pass overlaps
+         */
+        private int firstBucket(int i)
+        {
+            return this.bucket(Math.max(this.origin, this.aos[i]));
+        }
+        
+        /**
+         * @param i
+         *            index of a pass
+         * @return index of the last bucket the pass overlaps, before the
+         *         first if it ended before the schedule starts
+         */
+        private int lastBucket(int i)
+        {
+            long los = this.passes[i].getLos();
+            
+            return los <= this.origin ? -1 : this.bucket(los - 1);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package astra;
+
+/**
+ * Douglas-Peucker simplification of polylines in the plane, for drawing
+ * tracks and outlines with no more vertices than are visible at the scale
+ * they are drawn at.
+ * 
+ * The first and last points are always kept. Between them, the point
+ * furthest from the chord joining them is kept if it lies further than the
+ * tolerance, and each half is then simplified in turn; otherwise every point
+ * between them is dropped. Recursion is replaced by an explicit stack, so
+ * long polylines cannot overflow the call stack.
+ * 
+ */
+public final class PolylineSimplifier
+{
+    private PolylineSimplifier()
+    {
+    }
+    
+    /**
+     * Simplifies part of a polyline
+     * 
+     * @param x
+     *            abscissa of each point
+     * @param y
+     *            ordinate of each point
+     * @param start
+     *            index of the first point
+     * @param end
+     *            index one past the last point
+     * @param tolerance
+     *            maximum distance between the polyline and its
+     *            simplification, in the units of the coordinates
+     * @param kept
+     *            array to store the indices of the points kept in, in
+     *            order, which must have room for <code>end - start</code>
+     *            indices
+     * @return number of points kept
+     * @throws IllegalArgumentException
+     *             if the range is invalid, the tolerance is negative or
+     *             <code>kept</code> is too small
+     */
+    public static int simplify(double[] x, double[] y, int start, int end,
+                    double tolerance, int[] kept)
+    {
+        if(x == null || y == null || kept == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(start < 0 || end < start || end > x.length || end > y.length)
+        {
+            throw new IllegalArgumentException("Invalid range");
+        }
+        
+        if(!(tolerance >= 0))
+        {
+            throw new IllegalArgumentException("Negative tolerance");
+        }
+        
+        if(kept.length < end - start)
+        {
+            throw new IllegalArgumentException("Output too small");
+        }
+        
+        if(end - start <= 2)
+        {
+            for(int i = start; i < end; i++)
+            {
+                kept[i - start] = i;
+            }
+            
+            return end - start;
+        }
+        
+        boolean[] keep = new boolean[end - start];
+        int[] stack = new int[2 * (end - start)];
+        int top = 0;
+        double tolerance2 = tolerance * tolerance;
+        
+        keep[0] = true;
+        keep[end - start - 1] = true;
+        stack[top++] = start;
+        stack[top++] = end - 1;
+        
+        while(top > 0)
+        {
+            int last = stack[--top];
+            int first = stack[--top];
+            double dx = x[last] - x[first];
+            double dy = y[last] - y[first];
+            double length2 = dx * dx + dy * dy;
+            double furthest2 = tolerance2;
+            int furthest = -1;
+            
+            for(int i = first + 1; i < last; i++)
+            {
+                double px = x[i] - x[first];
+                double py = y[i] - y[first];
+                double distance2;
+                
+                if(length2 == 0)
+                {
+                    // the chord is a point
+                    distance2 = px * px + py * py;
+                }
+                else
+                {
+                    double cross = px * dy - py * dx;
+                    
+                    distance2 = cross * cross / length2;
+                }
+                
+                if(distance2 > furthest2)
+                {
+                    furthest2 = distance2;
+                    furthest = i;
+                }
+            }
+            
+            if(furthest >= 0)
+            {
+                keep[furthest - start] = true;
+                stack[top++] = first;
+                stack[top++] = furthest;
+                stack[top++] = furthest;
+                stack[top++] = last;
+            }
+        }
+        
+        int count = 0;
+        
+        for(int i = 0; i < keep.length; i++)
+        {
+            if(keep[i])
+            {
+                kept[count++] = start + i;
+            }
+        }
+        
+        return count;
+    }
+}
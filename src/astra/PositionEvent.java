@@ -0,0 +1,86 @@
+package astra;
+
+/**
+ * The position of a satellite at a tracking tick.
+ * 
+ */
+public final class PositionEvent extends TrackingEvent
+{
+    private final double latitude;
+    private final double longitude;
+    private final double altitude;
+    private final double speed;
+    
+    /**
+     * Constructor for the {@link PositionEvent} class
+     * 
+     * @param time
+     *            time of the position (milliseconds since the Unix epoch)
+     * @param satellite
+     *            the satellite
+     * @param latitude
+     *            geodetic latitude of the sub-satellite point (rad)
+     * @param longitude
+     *            longitude of the sub-satellite point (rad)
+     * @param altitude
+     *            altitude above the reference ellipsoid (km)
+     * @param speed
+     *            inertial speed (km/s)
+     */
+    public PositionEvent(long time, Satellite satellite, double latitude,
+                    double longitude, double altitude, double speed)
+    {
+        super(time, satellite);
+        
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.altitude = altitude;
+        this.speed = speed;
+    }
+    
+    /**
+     * @return geodetic latitude of the sub-satellite point (rad)
+     */
+    public double getLatitude()
+    {
+        return latitude;
+    }
+    
+    /**
+     * @return longitude of the sub-satellite point (rad)
+     */
+    public double getLongitude()
+    {
+        return longitude;
+    }
+    
+    /**
+     * @return altitude above the reference ellipsoid (km)
+     */
+    public double getAltitude()
+    {
+        return altitude;
+    }
+    
+    /**
+     * @return inertial speed (km/s)
+     */
+    public double getSpeed()
+    {
+        return speed;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "PositionEvent [time=" + this.getTime() + ", satellite="
+                        + this.getSatellite().getName() + ", latitude="
+                        + latitude + ", longitude=" + longitude
+                        + ", altitude=" + altitude + ", speed=" + speed + "]";
+    }
+}
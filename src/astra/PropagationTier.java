@@ -0,0 +1,28 @@
+package astra;
+
+/**
+ * Accuracy/speed trade-off available when propagating a {@link Satellite}.
+ * Tiers are listed from cheapest to most accurate.
+ * 
+ */
+public enum PropagationTier
+{
+    /**
+     * Unperturbed two-body Keplerian motion. Suitable for "what's roughly up"
+     * screening; errors grow by tens of kilometres per day for low orbits.
+     */
+    TWO_BODY,
+    
+    /**
+     * Keplerian motion with the secular drift of the node, perigee and mean
+     * anomaly caused by J2, plus the TLE mean motion derivative. Suitable for
+     * coarse ground tracks and previews.
+     */
+    J2_SECULAR,
+    
+    /**
+     * Full SGP4/SDP4, as intended for use with TLEs. No implementation is
+     * bundled; one must be registered with a {@link PropagatorRegistry}.
+     */
+    SGP4
+}
@@ -0,0 +1,50 @@
+package astra;
+
+/**
+ * Predicts the position and velocity of a {@link Satellite} at an arbitrary
+ * time from its orbital elements.
+ * 
+ * Implementations differ in accuracy and cost; see {@link PropagationTier}
+ * and {@link PropagatorRegistry} for choosing between them. States are
+ * expressed in the True Equator, Mean Equinox (TEME) frame used by TLEs.
+ * 
+ */
+public interface Propagator
+{
+    /**
+     * Propagates <code>satellite</code> to <code>time</code>, writing the
+     * result into <code>state</code>. This form performs no allocation once
+     * the satellite's elements have been cached, so it should be preferred in
+     * loops.
+     * 
+     * @param satellite
+     *            the satellite to propagate
+     * @param time
+     *            the time to propagate to (milliseconds since the Unix epoch)
+     * @param state
+     *            the state vector to store the result in
+     * @throws NullPointerException
+     *             if <code>satellite</code> or <code>state</code> are
+     *             <code>null</code>
+     */
+    void propagate(Satellite satellite, long time, StateVector state);
+    
+    /**
+     * Propagates <code>satellite</code> to <code>time</code>
+     * 
+     * @param satellite
+     *            the satellite to propagate
+     * @param time
+     *            the time to propagate to (milliseconds since the Unix epoch)
+     * @return the state of the satellite at <code>time</code>
+     * @throws NullPointerException
+     *             if <code>satellite</code> is <code>null</code>
+     */
+    default StateVector propagate(Satellite satellite, long time)
+    {
+        StateVector state = new StateVector();
+        this.propagate(satellite, time, state);
+        
+        return state;
+    }
+}
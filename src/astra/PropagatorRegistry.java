@@ -0,0 +1,91 @@
+package astra;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Maps each {@link PropagationTier} to the {@link Propagator} implementing it,
+ * so that callers can choose an accuracy/speed trade-off per request.
+ * 
+ * The two-body and J2 tiers are registered by default. The SGP4 tier is left
+ * empty for a full SGP4 implementation to be plugged in.
+ * 
+ */
+public class PropagatorRegistry
+{
+    private final Map<PropagationTier, Propagator> propagators;
+    
+    /**
+     * Constructor for the {@link PropagatorRegistry} class. Registers the
+     * built-in Keplerian propagators.
+     * 
+     */
+    public PropagatorRegistry()
+    {
+        this.propagators = new EnumMap<PropagationTier, Propagator>(
+                        PropagationTier.class);
+        
+        this.register(PropagationTier.TWO_BODY, new KeplerPropagator(false));
+        this.register(PropagationTier.J2_SECULAR, new KeplerPropagator(true));
+    }
+    
+    /**
+     * Registers <code>propagator</code> as the implementation of
+     * <code>tier</code>, replacing any existing implementation
+     * 
+     * @param tier
+     *            the tier being implemented
+     * @param propagator
+     *            the implementation
+     */
+    public synchronized void register(PropagationTier tier,
+                    Propagator propagator)
+    {
+        if(tier == null || propagator == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.propagators.put(tier, propagator);
+    }
+    
+    /**
+     * @param tier
+     *            the tier to check
+     * @return whether an implementation is registered for <code>tier</code>
+     */
+    public synchronized boolean isRegistered(PropagationTier tier)
+    {
+        if(tier == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        return this.propagators.containsKey(tier);
+    }
+    
+    /**
+     * @param tier
+     *            the tier to look up
+     * @return the propagator implementing <code>tier</code>
+     * @throws IllegalStateException
+     *             if no propagator is registered for <code>tier</code>
+     */
+    public synchronized Propagator get(PropagationTier tier)
+    {
+        if(tier == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        Propagator propagator = this.propagators.get(tier);
+        
+        if(propagator == null)
+        {
+            throw new IllegalStateException("No propagator registered for "
+                            + tier);
+        }
+        
+        return propagator;
+    }
+}
@@ -35,6 +35,12 @@ public class Satellite
     private float meanMotion;
     private int revolutions;
     
+    // derived elements, rebuilt lazily after any Keplerian field changes
+    private volatile OrbitalElements elements;
+    
+    // formatted description, rebuilt lazily after any field changes
+    private volatile SatelliteDescription description;
+    
     private final String TIMESTAMP_FORMAT = "yyyy-MM-dd";
     
     /**
@@ -160,6 +166,7 @@ public class Satellite
         }
         
         this.name = name;
+        this.description = null;
     }
     
     /**
@@ -182,6 +189,7 @@ public class Satellite
         }
         
         this.num = num;
+        this.description = null;
     }
     
     /**
@@ -204,6 +212,7 @@ public class Satellite
         }
         
         this.classification = classification;
+        this.description = null;
     }
     
     /**
@@ -226,6 +235,7 @@ public class Satellite
         }
         
         this.launchYear = launchYear;
+        this.description = null;
     }
     
     /**
@@ -248,6 +258,7 @@ public class Satellite
         }
         
         this.launchNum = launchNum;
+        this.description = null;
     }
     
     /**
@@ -270,6 +281,7 @@ public class Satellite
         }
         
         this.launchPiece = launchPiece;
+        this.description = null;
     }
     
     /**
@@ -292,6 +304,8 @@ public class Satellite
         }
         
         this.epoch = epoch;
+        this.elements = null;
+        this.description = null;
     }
     
     /**
@@ -309,6 +323,8 @@ public class Satellite
     public void setFtdmm2(float ftdmm2)
     {
         this.ftdmm2 = ftdmm2;
+        this.elements = null;
+        this.description = null;
     }
     
     /**
@@ -326,6 +342,7 @@ public class Satellite
     public void setStdmm6(float stdmm6)
     {
         this.stdmm6 = stdmm6;
+        this.description = null;
     }
     
     /**
@@ -343,6 +360,7 @@ public class Satellite
     public void setDrag(float drag)
     {
         this.drag = drag;
+        this.description = null;
     }
     
     /**
@@ -360,6 +378,7 @@ public class Satellite
     public void setEphemeris(int ephemeris)
     {
         this.ephemeris = ephemeris;
+        this.description = null;
     }
     
     /**
@@ -377,6 +396,8 @@ public class Satellite
     public void setInclination(float inclination)
     {
         this.inclination = inclination;
+        this.elements = null;
+        this.description = null;
     }
     
     /**
@@ -394,6 +415,8 @@ public class Satellite
     public void setRightAscension(float rightAscension)
     {
         this.rightAscension = rightAscension;
+        this.elements = null;
+        this.description = null;
     }
     
     /**
@@ -411,6 +434,8 @@ public class Satellite
     public void setEccentricity(float eccentricity)
     {
         this.eccentricity = eccentricity;
+        this.elements = null;
+        this.description = null;
     }
     
     /**
@@ -428,6 +453,8 @@ public class Satellite
     public void setPerigee(float perigee)
     {
         this.perigee = perigee;
+        this.elements = null;
+        this.description = null;
     }
     
     /**
@@ -445,6 +472,8 @@ public class Satellite
     public void setMeanAnomaly(float meanAnomaly)
     {
         this.meanAnomaly = meanAnomaly;
+        this.elements = null;
+        this.description = null;
     }
     
     /**
@@ -462,6 +491,8 @@ public class Satellite
     public void setMeanMotion(float meanMotion)
     {
         this.meanMotion = meanMotion;
+        this.elements = null;
+        this.description = null;
     }
     
     /**
@@ -484,6 +515,50 @@ public class Satellite
         }
         
         this.revolutions = revolutions;
+        this.description = null;
+    }
+    
+    /**
+     * Returns the orbital elements derived from this satellite's TLE fields.
+     * The elements are computed on first use and cached until one of the
+     * fields they depend on is changed.
+     * 
+     * @return orbital elements
+     * @throws IllegalArgumentException
+     *             if the mean motion or eccentricity of the satellite cannot
+     *             describe a closed orbit
+     */
+    public OrbitalElements getElements()
+    {
+        OrbitalElements current = this.elements;
+        
+        if(current == null)
+        {
+            current = new OrbitalElements(this);
+            this.elements = current;
+        }
+        
+        return current;
+    }
+    
+    /**
+     * Returns a description of this satellite's fields, formatted for
+     * display. The description is built on first use and cached until any
+     * field is changed.
+     * 
+     * @return description of the satellite
+     */
+    public SatelliteDescription getDescription()
+    {
+        SatelliteDescription current = this.description;
+        
+        if(current == null)
+        {
+            current = new SatelliteDescription(this);
+            this.description = current;
+        }
+        
+        return current;
     }
     
     /*
@@ -0,0 +1,91 @@
+package astra;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The fields of a {@link Satellite}, formatted for display.
+ * 
+ * Descriptions are immutable and are usually obtained from
+ * {@link Satellite#getDescription()}, which caches them until the satellite
+ * changes, so that displaying a satellite repeatedly costs nothing.
+ * 
+ */
+public final class SatelliteDescription
+{
+    private final Satellite satellite;
+    private final String[] values;
+    private final Map<String, String> map;
+    
+    /**
+     * Constructor for the {@link SatelliteDescription} class
+     * 
+     * @param satellite
+     *            the satellite to describe
+     */
+    public SatelliteDescription(Satellite satellite)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        SatelliteProperty[] properties = SatelliteProperty.values();
+        Map<String, String> map = new LinkedHashMap<String, String>();
+        
+        this.satellite = satellite;
+        this.values = new String[properties.length];
+        
+        for(SatelliteProperty property : properties)
+        {
+            this.values[property.ordinal()] = property.format(satellite);
+            map.put(property.getLabel(), this.values[property.ordinal()]);
+        }
+        
+        this.map = Collections.unmodifiableMap(map);
+    }
+    
+    /**
+     * @return the satellite described
+     */
+    public Satellite getSatellite()
+    {
+        return satellite;
+    }
+    
+    /**
+     * @param property
+     *            a property
+     * @return the formatted value of the property
+     */
+    public String get(SatelliteProperty property)
+    {
+        if(property == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        return values[property.ordinal()];
+    }
+    
+    /**
+     * @return formatted values keyed by label, in the order of
+     *         {@link SatelliteProperty}
+     */
+    public Map<String, String> asMap()
+    {
+        return map;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "SatelliteDescription " + map;
+    }
+}
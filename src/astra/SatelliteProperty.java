@@ -0,0 +1,142 @@
+package astra;
+
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Calendar;
+import java.util.function.Function;
+
+/**
+ * A displayable field of a {@link Satellite}, with its label and how to read
+ * and format it.
+ * 
+ * Properties are listed in the order in which they appear in a two-line
+ * element set, which is the order a {@link SatelliteDescription} presents
+ * them in.
+ * 
+ */
+public enum SatelliteProperty
+{
+    NAME("Name", satellite -> satellite.getName()),
+    
+    NUMBER("Catalogue number", satellite -> String.valueOf(satellite
+                    .getNum())),
+    
+    CLASSIFICATION("Classification", satellite -> satellite
+                    .getClassification()),
+    
+    LAUNCH_YEAR("Launch year", satellite -> SatelliteProperty.formatYear(
+                    satellite.getLaunchYear())),
+    
+    LAUNCH_NUMBER("Launch number", satellite -> String.valueOf(satellite
+                    .getLaunchNum())),
+    
+    LAUNCH_PIECE("Launch piece", satellite -> String.valueOf(satellite
+                    .getLaunchPiece())),
+    
+    EPOCH("Epoch (UTC)", satellite -> SatelliteProperty.formatTime(satellite
+                    .getEpoch())),
+    
+    MEAN_MOTION_DOT("Mean motion derivative / 2", satellite -> String
+                    .valueOf(satellite.getFtdmm2())),
+    
+    MEAN_MOTION_DDOT("Mean motion second derivative / 6", satellite -> String
+                    .valueOf(satellite.getStdmm6())),
+    
+    DRAG("BSTAR drag term", satellite -> String.valueOf(satellite
+                    .getDrag())),
+    
+    EPHEMERIS("Ephemeris type", satellite -> String.valueOf(satellite
+                    .getEphemeris())),
+    
+    INCLINATION("Inclination (\u00b0)", satellite -> String.valueOf(satellite
+                    .getInclination())),
+    
+    RIGHT_ASCENSION("Right ascension (\u00b0)", satellite -> String.valueOf(
+                    satellite.getRightAscension())),
+    
+    ECCENTRICITY("Eccentricity", satellite -> String.valueOf(satellite
+                    .getEccentricity())),
+    
+    PERIGEE("Argument of perigee (\u00b0)", satellite -> String.valueOf(
+                    satellite.getPerigee())),
+    
+    MEAN_ANOMALY("Mean anomaly (\u00b0)", satellite -> String.valueOf(
+                    satellite.getMeanAnomaly())),
+    
+    MEAN_MOTION("Mean motion (rev/day)", satellite -> String.valueOf(
+                    satellite.getMeanMotion())),
+    
+    REVOLUTIONS("Revolutions at epoch", satellite -> String.valueOf(
+                    satellite.getRevolutions()));
+    
+    // formatters are immutable, unlike SimpleDateFormat, so can be shared
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter
+                    .ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneOffset.UTC);
+    
+    private final String label;
+    private final Function<Satellite, String> formatter;
+    
+    /**
+     * Constructor for the {@link SatelliteProperty} enum
+     * 
+     * @param label
+     *            label to display the property under
+     * @param formatter
+     *            reads and formats the property of a satellite
+     */
+    private SatelliteProperty(String label,
+                    Function<Satellite, String> formatter)
+    {
+        this.label = label;
+        this.formatter = formatter;
+    }
+    
+    /**
+     * @return label to display the property under
+     */
+    public String getLabel()
+    {
+        return label;
+    }
+    
+    /**
+     * Reads and formats the property of a satellite
+     * 
+     * @param satellite
+     *            the satellite
+     * @return the formatted value, or an empty string if it is not set
+     */
+    public String format(Satellite satellite)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        String value = this.formatter.apply(satellite);
+        
+        return value == null ? "" : value;
+    }
+    
+    /**
+     * @param calendar
+     *            a calendar, or <code>null</code>
+     * @return its year, or <code>null</code>
+     */
+    private static String formatYear(Calendar calendar)
+    {
+        return calendar == null ? null : String.valueOf(calendar.get(
+                        Calendar.YEAR));
+    }
+    
+    /**
+     * @param calendar
+     *            a calendar, or <code>null</code>
+     * @return its time in UTC, or <code>null</code>
+     */
+    private static String formatTime(Calendar calendar)
+    {
+        return calendar == null ? null : TIME_FORMAT.format(calendar
+                        .toInstant());
+    }
+}
@@ -9,6 +9,7 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.TimeZone;
 
 /**
  * @author Jack McPherson
@@ -62,7 +63,7 @@ public class SatelliteReader
     private final int RANGE_START_EPOCH_YEAR = 17;
     private final int RANGE_END_EPOCH_YEAR = 20;
     private final int RANGE_START_EPOCH_DAY = 20;
-    private final int RANGE_END_EPOCH_DAY = 31;
+    private final int RANGE_END_EPOCH_DAY = 32;
     private final int RANGE_START_FTDMM2 = 33;
     private final int RANGE_END_FTDMM2 = 43;
     private final int RANGE_START_STDMM6 = 45;
@@ -143,6 +144,37 @@ public class SatelliteReader
         }
     }
     
+    /**
+     * @return number of entries in the TLE file, which is known before any of
+     *         them are parsed
+     */
+    public int getEntryCount()
+    {
+        return this.lines.size() / this.LINE_STEP;
+    }
+    
+    /**
+     * Reads one entry of the TLE file, such as to parse a large file a few
+     * entries at a time
+     * 
+     * @param index
+     *            index of the entry, counting from zero
+     * @return satellite
+     * @throws ParseException
+     *             if the entry is invalid
+     * @throws IndexOutOfBoundsException
+     *             if there is no such entry
+     */
+    public Satellite read(int index) throws ParseException
+    {
+        if(index < 0 || index >= this.getEntryCount())
+        {
+            throw new IndexOutOfBoundsException();
+        }
+        
+        return this.readEntry(index * this.LINE_STEP);
+    }
+    
     public List<Satellite> read() throws ParseException
     {
         List<Satellite> satellites = new ArrayList<Satellite>();
@@ -786,6 +818,16 @@ public class SatelliteReader
         return stdmm6;
     }
     
+    /**
+     * Parses the epoch of a TLE, which is in UTC
+     * 
+     * @param yearString
+     *            last two digits of the year, where 57 to 99 are in the
+     *            twentieth century and 00 to 56 in the twenty-first
+     * @param dayFracString
+     *            day of the year, counting from one, and fraction of the day
+     * @return the epoch, or <code>null</code> if it is invalid
+     */
     private static Calendar parseEpoch(String yearString, String dayFracString)
     {
         if(yearString == null || dayFracString == null)
@@ -793,21 +835,36 @@ public class SatelliteReader
             throw new NullPointerException();
         }
         
-        int year = Integer.parseInt("20" + yearString);
+        String[] parts = dayFracString.split("\\.");
+        int year = 0;
         int day = 0;
+        double fraction = 0;
         
         try
         {
-            day = Integer.parseInt(dayFracString.split("\\.")[0]);
+            year = Integer.parseInt(yearString);
+            day = Integer.parseInt(parts[0]);
+            
+            if(parts.length > 1)
+            {
+                fraction = Double.parseDouble("0." + parts[1]);
+            }
+        }
+        catch(NumberFormatException | ArrayIndexOutOfBoundsException e)
+        {
+            return null;
         }
-        catch(ArrayIndexOutOfBoundsException e)
+        
+        if(year < 0 || year > 99 || day < 1 || day > 366)
         {
             return null;
         }
         
-        Calendar epoch = Calendar.getInstance();
-        epoch.set(Calendar.YEAR, year);
-        epoch.set(Calendar.DAY_OF_YEAR, day);
+        Calendar epoch = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        epoch.clear();
+        epoch.set(year < 57 ? 2000 + year : 1900 + year, Calendar.JANUARY, 1);
+        epoch.setTimeInMillis(epoch.getTimeInMillis() + (day - 1)
+                        * 86400000L + Math.round(fraction * 86400000));
         
         return epoch;
     }
@@ -0,0 +1,32 @@
+package astra;
+
+/**
+ * A continuous function of time whose zero crossings mark events, such as the
+ * elevation of a satellite above a station's mask (rise and set) or the
+ * separation of a satellite from the Earth's shadow (eclipse entry and exit).
+ * 
+ * Along with its value, the function provides an upper bound on how fast it
+ * can change. {@link ZeroCrossingSearch} uses the bound to take the largest
+ * step that cannot skip over a crossing.
+ * 
+ */
+public interface SearchFunction
+{
+    /**
+     * @param time
+     *            time (milliseconds since the Unix epoch)
+     * @return value of the function at <code>time</code>
+     */
+    double value(long time);
+    
+    /**
+     * Returns an upper bound on the rate of change of the function from the
+     * moment its value is <code>value</code> until it next crosses zero
+     * 
+     * @param value
+     *            current value of the function
+     * @return upper bound on the magnitude of the derivative (units per
+     *         second); must be positive
+     */
+    double maxRate(double value);
+}
@@ -0,0 +1,161 @@
+package astra;
+
+/**
+ * The field of view of a sensor at a {@link GroundStation}: a circular cone
+ * about a fixed pointing direction.
+ * 
+ * The pointing direction is given as an azimuth and elevation in degrees, as
+ * it would be entered by an operator. The whole cone must lie above the
+ * horizon, so that anything within it is in front of the Earth.
+ * 
+ */
+public final class SensorCone
+{
+    private final GroundStation station;
+    private final double azimuth;
+    private final double elevation;
+    private final double halfAngle;
+    
+    // position of the station and unit vector along the axis (ECEF)
+    private final double[] position;
+    private final double axisX;
+    private final double axisY;
+    private final double axisZ;
+    
+    /**
+     * Constructor for the {@link SensorCone} class
+     * 
+     * @param station
+     *            station the sensor is located at
+     * @param azimuth
+     *            azimuth of the axis, clockwise from north (&deg;)
+     * @param elevation
+     *            elevation of the axis (&deg;)
+     * @param halfAngle
+     *            angle between the axis and the edge of the cone (&deg;)
+     * @throws IllegalArgumentException
+     *             if <code>halfAngle</code> is not in (0, 90), or the cone
+     *             extends below the horizon or past the zenith
+     */
+    public SensorCone(GroundStation station, double azimuth, double elevation,
+                    double halfAngle)
+    {
+        if(station == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(!(halfAngle > 0 && halfAngle < 90))
+        {
+            throw new IllegalArgumentException("Half-angle out of range");
+        }
+        
+        if(elevation - halfAngle < 0 || elevation > 90)
+        {
+            throw new IllegalArgumentException("Cone below the horizon");
+        }
+        
+        this.station = station;
+        this.azimuth = azimuth;
+        this.elevation = elevation;
+        this.halfAngle = halfAngle;
+        
+        this.position = station.getPosition();
+        
+        double lat = Math.toRadians(station.getLatitude());
+        double lon = Math.toRadians(station.getLongitude());
+        double az = Math.toRadians(azimuth);
+        double el = Math.toRadians(elevation);
+        double east = Math.cos(el) * Math.sin(az);
+        double north = Math.cos(el) * Math.cos(az);
+        double up = Math.sin(el);
+        
+        this.axisX = -Math.sin(lon) * east - Math.sin(lat) * Math.cos(lon)
+                        * north + Math.cos(lat) * Math.cos(lon) * up;
+        this.axisY = Math.cos(lon) * east - Math.sin(lat) * Math.sin(lon)
+                        * north + Math.cos(lat) * Math.sin(lon) * up;
+        this.axisZ = Math.cos(lat) * north + Math.sin(lat) * up;
+    }
+    
+    /**
+     * @return station the sensor is located at
+     */
+    public GroundStation getStation()
+    {
+        return station;
+    }
+    
+    /**
+     * @return azimuth of the axis, clockwise from north (&deg;)
+     */
+    public double getAzimuth()
+    {
+        return azimuth;
+    }
+    
+    /**
+     * @return elevation of the axis (&deg;)
+     */
+    public double getElevation()
+    {
+        return elevation;
+    }
+    
+    /**
+     * @return angle between the axis and the edge of the cone (&deg;)
+     */
+    public double getHalfAngle()
+    {
+        return halfAngle;
+    }
+    
+    /**
+     * @return unit vector along the axis of the cone (ECEF)
+     */
+    public double[] getAxis()
+    {
+        return new double[] { axisX, axisY, axisZ };
+    }
+    
+    /**
+     * Computes the angle between the axis of the cone and the line of sight
+     * to a satellite
+     * 
+     * @param ecef
+     *            array holding the satellite's ECEF position (km)
+     * @param offset
+     *            index of the x component of position in <code>ecef</code>
+     * @return angle off the axis (rad)
+     */
+    public double offAxisAngle(double[] ecef, int offset)
+    {
+        if(ecef == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        double dx = ecef[offset] - this.position[0];
+        double dy = ecef[offset + 1] - this.position[1];
+        double dz = ecef[offset + 2] - this.position[2];
+        
+        double cx = dy * this.axisZ - dz * this.axisY;
+        double cy = dz * this.axisX - dx * this.axisZ;
+        double cz = dx * this.axisY - dy * this.axisX;
+        
+        return Math.atan2(Math.sqrt(cx * cx + cy * cy + cz * cz), dx
+                        * this.axisX + dy * this.axisY + dz * this.axisZ);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "SensorCone [station=" + station.getName() + ", azimuth="
+                        + azimuth + ", elevation=" + elevation
+                        + ", halfAngle=" + halfAngle + "]";
+    }
+}
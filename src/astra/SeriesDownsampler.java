@@ -0,0 +1,129 @@
+package astra;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of time series, for plotting
+ * long series with no more points than there are pixels to draw them in,
+ * while keeping their peaks and troughs.
+ * 
+ * The first and last points are always kept. The points between them are
+ * split into buckets of equal length, one per point to keep, and from each
+ * bucket the point kept is the one forming the largest triangle with the
+ * point kept from the bucket before and the mean of the bucket after. A
+ * series is downsampled in a single pass, in time proportional to its
+ * length.
+ * 
+ */
+public final class SeriesDownsampler
+{
+    private SeriesDownsampler()
+    {
+    }
+    
+    /**
+     * Downsamples part of a series
+     * 
+     * @param x
+     *            abscissa of each point, in increasing order
+     * @param y
+     *            ordinate of each point
+     * @param start
+     *            index of the first point
+     * @param end
+     *            index one past the last point
+     * @param threshold
+     *            number of points to keep; if there are no more points than
+     *            this, every point is kept
+     * @param kept
+     *            array to store the indices of the points kept in, in
+     *            order, which must have room for <code>threshold</code>
+     *            indices, or for <code>end - start</code> if that is fewer
+     * @return number of points kept
+     * @throws IllegalArgumentException
+     *             if the range is invalid, <code>threshold</code> is less
+     *             than two or <code>kept</code> is too small
+     */
+    public static int downsample(double[] x, double[] y, int start, int end,
+                    int threshold, int[] kept)
+    {
+        if(x == null || y == null || kept == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(start < 0 || end < start || end > x.length || end > y.length)
+        {
+            throw new IllegalArgumentException("Invalid range");
+        }
+        
+        if(threshold < 2)
+        {
+            throw new IllegalArgumentException("Threshold below two");
+        }
+        
+        int length = end - start;
+        
+        if(kept.length < Math.min(threshold, length))
+        {
+            throw new IllegalArgumentException("Output too small");
+        }
+        
+        if(length <= threshold)
+        {
+            for(int i = start; i < end; i++)
+            {
+                kept[i - start] = i;
+            }
+            
+            return length;
+        }
+        
+        // the first and last points are kept, and the rest share the buckets
+        double bucket = (double) (length - 2) / (threshold - 2);
+        int previous = start;
+        int count = 0;
+        
+        kept[count++] = start;
+        
+        for(int i = 0; i < threshold - 2; i++)
+        {
+            int first = start + (int) (i * bucket) + 1;
+            int last = start + (int) ((i + 1) * bucket) + 1;
+            int next = Math.min(start + (int) ((i + 2) * bucket) + 1, end);
+            double meanX = 0;
+            double meanY = 0;
+            
+            for(int j = last; j < next; j++)
+            {
+                meanX += x[j];
+                meanY += y[j];
+            }
+            
+            meanX /= next - last;
+            meanY /= next - last;
+            
+            double largest = -1;
+            int chosen = first;
+            
+            for(int j = first; j < last; j++)
+            {
+                // twice the area of the triangle, which compares the same
+                double area = Math.abs((x[previous] - meanX) * (y[j]
+                                - y[previous]) - (x[previous] - x[j])
+                                * (meanY - y[previous]));
+                
+                if(area > largest)
+                {
+                    largest = area;
+                    chosen = j;
+                }
+            }
+            
+            kept[count++] = chosen;
+            previous = chosen;
+        }
+        
+        kept[count++] = end - 1;
+        
+        return count;
+    }
+}
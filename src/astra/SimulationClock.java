@@ -0,0 +1,193 @@
+package astra;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A clock for the displayed time, which can run at a multiple of real time,
+ * be paused, or be moved to any moment, independently of the wall clock.
+ * 
+ * The clock is anchored to a moment of wall time and the simulated time then;
+ * the current time is extrapolated from the anchor at the current rate. Every
+ * change re-anchors the clock at the present, so that the time never jumps
+ * except when sought. The anchor is replaced as a whole, so the time can be
+ * read from any thread without locking.
+ * 
+ * The clock is a {@link LongSupplier}, so it can be given as the time source
+ * of a {@link TrackingEngine} or {@link PassScheduler}.
+ * 
+ */
+public class SimulationClock implements LongSupplier
+{
+    private final LongSupplier wallClock;
+    
+    private volatile Anchor anchor;
+    
+    /**
+     * Constructor for the {@link SimulationClock} class, running at real time
+     * from the present
+     */
+    public SimulationClock()
+    {
+        this(System::currentTimeMillis);
+    }
+    
+    /**
+     * Constructor for the {@link SimulationClock} class, running at real time
+     * from the present
+     * 
+     * @param wallClock
+     *            source of wall time (milliseconds since the Unix epoch)
+     */
+    public SimulationClock(LongSupplier wallClock)
+    {
+        if(wallClock == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        long now = wallClock.getAsLong();
+        
+        this.wallClock = wallClock;
+        this.anchor = new Anchor(now, now, 1, false);
+    }
+    
+    /**
+     * @return the simulated time (milliseconds since the Unix epoch)
+     */
+    public long getTime()
+    {
+        return this.anchor.at(this.wallClock.getAsLong());
+    }
+    
+    /**
+     * @return the simulated time (milliseconds since the Unix epoch)
+     */
+    @Override
+    public long getAsLong()
+    {
+        return this.getTime();
+    }
+    
+    /**
+     * @return simulated time per unit of wall time, while running
+     */
+    public double getRate()
+    {
+        return this.anchor.rate;
+    }
+    
+    /**
+     * @return whether the clock is paused
+     */
+    public boolean isPaused()
+    {
+        return this.anchor.paused;
+    }
+    
+    /**
+     * Starts the clock, if it is paused
+     */
+    public synchronized void play()
+    {
+        this.reanchor(this.anchor.rate, false);
+    }
+    
+    /**
+     * Stops the clock at the present simulated time
+     */
+    public synchronized void pause()
+    {
+        this.reanchor(this.anchor.rate, true);
+    }
+    
+    /**
+     * @param rate
+     *            simulated time per unit of wall time, such as 100 to run a
+     *            hundred times faster than real time
+     * @throws IllegalArgumentException
+     *             if <code>rate</code> is not positive and finite
+     */
+    public synchronized void setRate(double rate)
+    {
+        if(!(rate > 0) || Double.isInfinite(rate))
+        {
+            throw new IllegalArgumentException("Invalid rate");
+        }
+        
+        this.reanchor(rate, this.anchor.paused);
+    }
+    
+    /**
+     * Moves the clock to a moment, keeping its rate and whether it is paused
+     * 
+     * @param time
+     *            the new simulated time (milliseconds since the Unix epoch)
+     */
+    public synchronized void seek(long time)
+    {
+        Anchor anchor = this.anchor;
+        
+        this.anchor = new Anchor(this.wallClock.getAsLong(), time,
+                        anchor.rate, anchor.paused);
+    }
+    
+    /**
+     * Returns the clock to real time: the present, at a rate of one, running
+     */
+    public synchronized void reset()
+    {
+        long now = this.wallClock.getAsLong();
+        
+        this.anchor = new Anchor(now, now, 1, false);
+    }
+    
+    /**
+     * Re-anchors the clock at the present
+     * 
+     * @param rate
+     *            the new rate
+     * @param paused
+     *            whether the clock is now paused
+     */
+    private void reanchor(double rate, boolean paused)
+    {
+        long wall = this.wallClock.getAsLong();
+        
+        this.anchor = new Anchor(wall, this.anchor.at(wall), rate, paused);
+    }
+    
+    /**
+     * A moment of wall time and the simulated time then, with the rate and
+     * state of the clock from then on
+     */
+    private static final class Anchor
+    {
+        private final long wall;
+        private final long time;
+        private final double rate;
+        private final boolean paused;
+        
+        public Anchor(long wall, long time, double rate, boolean paused)
+        {
+            this.wall = wall;
+            this.time = time;
+            this.rate = rate;
+            this.paused = paused;
+        }
+        
+        /**
+         * @param wall
+         *            a moment of wall time
+         * @return simulated time at <code>wall</code>
+         */
+        public long at(long wall)
+        {
+            if(this.paused)
+            {
+                return this.time;
+            }
+            
+            return this.time + Math.round((wall - this.wall) * this.rate);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package astra;
+
+/**
+ * Cartesian position and velocity of a satellite at an instant. Positions are
+ * in kilometres and velocities in kilometres per second.
+ * 
+ * Instances are mutable so that they can be reused by propagators when
+ * propagating many times in a row.
+ * 
+ */
+public class StateVector
+{
+    private long time;
+    
+    private double x;
+    private double y;
+    private double z;
+    
+    private double vx;
+    private double vy;
+    private double vz;
+    
+    /**
+     * Constructor for the {@link StateVector} class. Initialises all fields to
+     * zero.
+     * 
+     */
+    public StateVector()
+    {
+        this.time = 0;
+        this.x = 0;
+        this.y = 0;
+        this.z = 0;
+        this.vx = 0;
+        this.vy = 0;
+        this.vz = 0;
+    }
+    
+    /**
+     * Sets every field of the state vector at once
+     * 
+     * @param time
+     *            time of the state (milliseconds since the Unix epoch)
+     * @param x
+     *            x component of position (km)
+     * @param y
+     *            y component of position (km)
+     * @param z
+     *            z component of position (km)
+     * @param vx
+     *            x component of velocity (km/s)
+     * @param vy
+     *            y component of velocity (km/s)
+     * @param vz
+     *            z component of velocity (km/s)
+     */
+    public void set(long time, double x, double y, double z, double vx,
+                    double vy, double vz)
+    {
+        this.time = time;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.vx = vx;
+        this.vy = vy;
+        this.vz = vz;
+    }
+    
+    /**
+     * @return time of the state (milliseconds since the Unix epoch)
+     */
+    public long getTime()
+    {
+        return time;
+    }
+    
+    /**
+     * @return x component of position (km)
+     */
+    public double getX()
+    {
+        return x;
+    }
+    
+    /**
+     * @return y component of position (km)
+     */
+    public double getY()
+    {
+        return y;
+    }
+    
+    /**
+     * @return z component of position (km)
+     */
+    public double getZ()
+    {
+        return z;
+    }
+    
+    /**
+     * @return x component of velocity (km/s)
+     */
+    public double getVx()
+    {
+        return vx;
+    }
+    
+    /**
+     * @return y component of velocity (km/s)
+     */
+    public double getVy()
+    {
+        return vy;
+    }
+    
+    /**
+     * @return z component of velocity (km/s)
+     */
+    public double getVz()
+    {
+        return vz;
+    }
+    
+    /**
+     * @return distance from the centre of the Earth (km)
+     */
+    public double getRadius()
+    {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+    
+    /**
+     * @return speed (km/s)
+     */
+    public double getSpeed()
+    {
+        return Math.sqrt(vx * vx + vy * vy + vz * vz);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "StateVector [time=" + time + ", x=" + x + ", y=" + y + ", z="
+                        + z + ", vx=" + vx + ", vy=" + vy + ", vz=" + vz + "]";
+    }
+}
@@ -0,0 +1,77 @@
+package astra;
+
+/**
+ * Low-precision solar ephemeris, accurate to about 0.01 degrees between 1950
+ * and 2050 (Astronomical Almanac, section C).
+ * 
+ * The Sun's position is identical for every satellite at a given instant, so
+ * positions are cached per timestamp; batch shadow tests over a catalogue
+ * then evaluate the model once. An ephemeris may be shared between threads.
+ * 
+ */
+public class SunEphemeris
+{
+    /**
+     * Astronomical unit (km)
+     */
+    public static final double ASTRONOMICAL_UNIT = 149597870.7;
+    
+    /**
+     * Mean radius of the Sun (km)
+     */
+    public static final double RADIUS = 696000.0;
+    
+    private static final double JULIAN_DATE_UNIX_EPOCH = 2440587.5;
+    private static final double JULIAN_DATE_J2000 = 2451545.0;
+    
+    private final int CACHE_SIZE = 64;
+    
+    private final TimeCache<SunPosition> positions;
+    
+    /**
+     * Constructor for the {@link SunEphemeris} class
+     * 
+     */
+    public SunEphemeris()
+    {
+        this.positions = new TimeCache<SunPosition>(SunEphemeris::compute,
+                        this.CACHE_SIZE);
+    }
+    
+    /**
+     * @param time
+     *            time (milliseconds since the Unix epoch)
+     * @return position of the Sun at <code>time</code>
+     */
+    public SunPosition getPosition(long time)
+    {
+        return this.positions.get(time);
+    }
+    
+    /**
+     * Evaluates the solar model without caching
+     * 
+     * @param time
+     *            time (milliseconds since the Unix epoch)
+     * @return position of the Sun at <code>time</code>
+     */
+    public static SunPosition compute(long time)
+    {
+        double n = time / Earth.MILLIS_PER_DAY + JULIAN_DATE_UNIX_EPOCH
+                        - JULIAN_DATE_J2000;
+        double meanLongitude = Math.toRadians(280.460 + 0.9856474 * n);
+        double meanAnomaly = Math.toRadians(357.528 + 0.9856003 * n);
+        double longitude = meanLongitude + Math.toRadians(1.915 * Math.sin(
+                        meanAnomaly) + 0.020 * Math.sin(2 * meanAnomaly));
+        double obliquity = Math.toRadians(23.439 - 0.0000004 * n);
+        double distance = ASTRONOMICAL_UNIT * (1.00014 - 0.01671 * Math.cos(
+                        meanAnomaly) - 0.00014 * Math.cos(2 * meanAnomaly));
+        
+        double cosLongitude = Math.cos(longitude);
+        double sinLongitude = Math.sin(longitude);
+        
+        return new SunPosition(time, distance * cosLongitude, distance
+                        * Math.cos(obliquity) * sinLongitude, distance * Math
+                                        .sin(obliquity) * sinLongitude);
+    }
+}
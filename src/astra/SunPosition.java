@@ -0,0 +1,87 @@
+package astra;
+
+/**
+ * Position of the Sun relative to the centre of the Earth at an instant, in
+ * the equatorial frame of date (which the TEME frame approximates to well
+ * within the accuracy of the solar model).
+ * 
+ */
+public final class SunPosition
+{
+    private final long time;
+    private final double x;
+    private final double y;
+    private final double z;
+    
+    /**
+     * Constructor for the {@link SunPosition} class
+     * 
+     * @param time
+     *            time of the position (milliseconds since the Unix epoch)
+     * @param x
+     *            x component of position (km)
+     * @param y
+     *            y component of position (km)
+     * @param z
+     *            z component of position (km)
+     */
+    public SunPosition(long time, double x, double y, double z)
+    {
+        this.time = time;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+    
+    /**
+     * @return time of the position (milliseconds since the Unix epoch)
+     */
+    public long getTime()
+    {
+        return time;
+    }
+    
+    /**
+     * @return x component of position (km)
+     */
+    public double getX()
+    {
+        return x;
+    }
+    
+    /**
+     * @return y component of position (km)
+     */
+    public double getY()
+    {
+        return y;
+    }
+    
+    /**
+     * @return z component of position (km)
+     */
+    public double getZ()
+    {
+        return z;
+    }
+    
+    /**
+     * @return distance from the centre of the Earth (km)
+     */
+    public double getDistance()
+    {
+        return Math.sqrt(x * x + y * y + z * z);
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "SunPosition [time=" + time + ", x=" + x + ", y=" + y + ", z="
+                        + z + "]";
+    }
+}
@@ -0,0 +1,90 @@
+package astra;
+
+import java.util.function.LongFunction;
+
+/**
+ * Small direct-mapped cache of values that depend only on time, such as the
+ * Earth's rotation angle or the position of the Sun. These are identical for
+ * every satellite at a given instant, so computing them once per timestamp and
+ * sharing the result removes most of their cost from batch operations.
+ * 
+ * The cache is safe for concurrent use: entries are immutable and a lost race
+ * merely causes a value to be computed twice.
+ * 
+ * @param <V>
+ *            type of the cached values
+ */
+public class TimeCache<V>
+{
+    private final LongFunction<V> function;
+    private final Entry<V>[] entries;
+    private final int mask;
+    
+    /**
+     * Constructor for the {@link TimeCache} class
+     * 
+     * @param function
+     *            computes the value for a given time
+     * @param size
+     *            number of slots in the cache, rounded up to a power of two
+     * @throws IllegalArgumentException
+     *             if <code>size</code> is not positive
+     */
+    @SuppressWarnings("unchecked")
+    public TimeCache(LongFunction<V> function, int size)
+    {
+        if(function == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(size <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive cache size");
+        }
+        
+        int capacity = Integer.highestOneBit(size);
+        
+        if(capacity < size)
+        {
+            capacity <<= 1;
+        }
+        
+        this.function = function;
+        this.entries = (Entry<V>[]) new Entry<?>[capacity];
+        this.mask = capacity - 1;
+    }
+    
+    /**
+     * @param time
+     *            time (milliseconds since the Unix epoch)
+     * @return the value at <code>time</code>, computed if it is not cached
+     */
+    public V get(long time)
+    {
+        int slot = (int) (time ^ (time >>> 32)) & this.mask;
+        Entry<V> entry = this.entries[slot];
+        
+        if(entry != null && entry.time == time)
+        {
+            return entry.value;
+        }
+        
+        V value = this.function.apply(time);
+        this.entries[slot] = new Entry<V>(time, value);
+        
+        return value;
+    }
+    
+    private static final class Entry<V>
+    {
+        private final long time;
+        private final V value;
+        
+        private Entry(long time, V value)
+        {
+            this.time = time;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package astra;
+
+/**
+ * A closed interval of time, [start, end], in milliseconds since the Unix
+ * epoch.
+ * 
+ */
+public final class TimeWindow
+{
+    private final long start;
+    private final long end;
+    
+    /**
+     * Constructor for the {@link TimeWindow} class
+     * 
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @throws IllegalArgumentException
+     *             if <code>end</code> is before <code>start</code>
+     */
+    public TimeWindow(long start, long end)
+    {
+        if(end < start)
+        {
+            throw new IllegalArgumentException("Window ends before it starts");
+        }
+        
+        this.start = start;
+        this.end = end;
+    }
+    
+    /**
+     * @return start of the window (milliseconds since the Unix epoch)
+     */
+    public long getStart()
+    {
+        return start;
+    }
+    
+    /**
+     * @return end of the window (milliseconds since the Unix epoch)
+     */
+    public long getEnd()
+    {
+        return end;
+    }
+    
+    /**
+     * @return length of the window (ms)
+     */
+    public long getDuration()
+    {
+        return end - start;
+    }
+    
+    /**
+     * @param time
+     *            time (milliseconds since the Unix epoch)
+     * @return whether <code>time</code> lies within the window
+     */
+    public boolean contains(long time)
+    {
+        return time >= start && time <= end;
+    }
+    
+    /**
+     * @param other
+     *            another window
+     * @return whether the two windows share at least one instant
+     */
+    public boolean overlaps(TimeWindow other)
+    {
+        if(other == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        return other.start <= end && other.end >= start;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode()
+    {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + (int) (end ^ (end >>> 32));
+        result = prime * result + (int) (start ^ (start >>> 32));
+        return result;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if(this == obj)
+        {
+            return true;
+        }
+        if(obj == null)
+        {
+            return false;
+        }
+        if(getClass() != obj.getClass())
+        {
+            return false;
+        }
+        TimeWindow other = (TimeWindow) obj;
+        return start == other.start && end == other.end;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "TimeWindow [start=" + start + ", end=" + end + "]";
+    }
+}
@@ -0,0 +1,558 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Propagates the selected and watched satellites on a fixed tick and publishes
+ * each result as an immutable {@link TrackingSnapshot}.
+ * 
+ * Ticks are driven by a single scheduler thread; the propagation within a
+ * tick is split into chunks and spread across all cores, so the number of
+ * satellites that can be tracked at a given rate grows with the machine. A
+ * tick which finishes after the next one was due counts as a missed deadline.
+ * 
+ * An exception thrown by a listener is reported to the engine's
+ * {@link FailureReporter} rather than stopping the ticks, and the other
+ * listeners are still updated.
+ * 
+ */
+public class TrackingEngine
+{
+    private final int MIN_CHUNK = 256;
+    private final long STOP_TIMEOUT = 1000;
+    
+    private final Propagator propagator;
+    private final FrameTransformer transformer;
+    private final List<TrackingListener> listeners;
+    
+    private Satellite selected;
+    private final Set<Satellite> watched;
+    private volatile Satellite[] tracked;
+    
+    private volatile LongSupplier timeSource;
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> ticking;
+    private volatile TrackingSnapshot snapshot;
+    
+    private long period;
+    private long startNanos;
+    private long ticks;
+    
+    private volatile long tickCount;
+    private volatile long missedCount;
+    private volatile long maxDuration;
+    private volatile long totalDuration;
+    private final FailureReporter failures;
+    
+    /**
+     * Constructor for the {@link TrackingEngine} class. The propagator must
+     * be safe to share between threads.
+     * 
+     * @param propagator
+     *            propagator used to compute satellite positions
+     * @param transformer
+     *            frame transformer used to convert positions to geodetic
+     *            coordinates
+     */
+    public TrackingEngine(Propagator propagator, FrameTransformer transformer)
+    {
+        if(propagator == null || transformer == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.propagator = propagator;
+        this.transformer = transformer;
+        this.listeners = new CopyOnWriteArrayList<TrackingListener>();
+        this.selected = null;
+        this.watched = Collections.newSetFromMap(
+                        new IdentityHashMap<Satellite, Boolean>());
+        this.tracked = new Satellite[0];
+        this.timeSource = System::currentTimeMillis;
+        this.failures = new FailureReporter();
+    }
+    
+    /**
+     * @param timeSource
+     *            source of the time to propagate to at each tick
+     *            (milliseconds since the Unix epoch)
+     */
+    public void setTimeSource(LongSupplier timeSource)
+    {
+        if(timeSource == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.timeSource = timeSource;
+    }
+    
+    /**
+     * @param satellite
+     *            the selected satellite, tracked first in every snapshot, or
+     *            <code>null</code> for none
+     */
+    public synchronized void setSelected(Satellite satellite)
+    {
+        this.selected = satellite;
+        this.updateTracked();
+    }
+    
+    /**
+     * @return the selected satellite, or <code>null</code> if there is none
+     */
+    public synchronized Satellite getSelected()
+    {
+        return selected;
+    }
+    
+    /**
+     * @param satellite
+     *            satellite to track in addition to the selected one
+     */
+    public synchronized void watch(Satellite satellite)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.watched.add(satellite);
+        this.updateTracked();
+    }
+    
+    /**
+     * @param satellite
+     *            satellite to stop watching
+     */
+    public synchronized void unwatch(Satellite satellite)
+    {
+        this.watched.remove(satellite);
+        this.updateTracked();
+    }
+    
+    /**
+     * @param satellites
+     *            satellites to track in addition to the selected one,
+     *            replacing any watched before
+     */
+    public synchronized void setWatched(Collection<Satellite> satellites)
+    {
+        if(satellites == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.watched.clear();
+        this.watched.addAll(satellites);
+        this.updateTracked();
+    }
+    
+    /**
+     * Adds satellites to those watched, such as each batch of a catalogue as
+     * it loads. The satellites already tracked are left in place and only
+     * the new ones are appended, rather than rebuilding the tracked set.
+     * 
+     * @param satellites
+     *            satellites to track in addition to those already watched
+     */
+    public synchronized void watchAll(Collection<Satellite> satellites)
+    {
+        if(satellites == null || satellites.contains(null))
+        {
+            throw new NullPointerException();
+        }
+        
+        List<Satellite> added = new ArrayList<Satellite>(satellites.size());
+        
+        for(Satellite satellite : satellites)
+        {
+            if(this.watched.add(satellite) && satellite != this.selected)
+            {
+                added.add(satellite);
+            }
+        }
+        
+        int count = this.tracked.length;
+        Satellite[] tracked = Arrays.copyOf(this.tracked, count + added
+                        .size());
+        
+        for(int i = 0; i < added.size(); i++)
+        {
+            tracked[count + i] = added.get(i);
+        }
+        
+        this.tracked = tracked;
+    }
+    
+    /**
+     * @return the satellites tracked at each tick, selected satellite first
+     */
+    public List<Satellite> getTracked()
+    {
+        return Collections.unmodifiableList(Arrays.asList(this.tracked
+                        .clone()));
+    }
+    
+    /**
+     * @param listener
+     *            listener to receive each snapshot
+     */
+    public void addListener(TrackingListener listener)
+    {
+        if(listener == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.listeners.add(listener);
+    }
+    
+    /**
+     * @param listener
+     *            listener to stop receiving snapshots
+     */
+    public void removeListener(TrackingListener listener)
+    {
+        this.listeners.remove(listener);
+    }
+    
+    /**
+     * @return the most recent snapshot, or <code>null</code> if there has
+     *         been no tick yet
+     */
+    public TrackingSnapshot getSnapshot()
+    {
+        return snapshot;
+    }
+    
+    /**
+     * Starts ticking every <code>period</code> milliseconds
+     * 
+     * @param period
+     *            time between ticks (ms)
+     * @throws IllegalStateException
+     *             if the engine is already running
+     */
+    public synchronized void start(long period)
+    {
+        if(period <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive period");
+        }
+        
+        if(this.executor != null)
+        {
+            throw new IllegalStateException("Engine already running");
+        }
+        
+        this.period = period;
+        this.ticks = 0;
+        this.tickCount = 0;
+        this.missedCount = 0;
+        this.maxDuration = 0;
+        this.totalDuration = 0;
+        this.failures.reset();
+        this.startNanos = System.nanoTime();
+        
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Tracking engine");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticking = this.executor.scheduleAtFixedRate(this::tick, 0,
+                        period, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Changes the time between ticks of the running engine, such as to keep
+     * the simulated time between ticks short when a {@link SimulationClock}
+     * is running fast. The next tick is due one new period from now, and
+     * deadlines are measured from then on.
+     * 
+     * @param period
+     *            time between ticks (ms)
+     * @throws IllegalStateException
+     *             if the engine is not running
+     */
+    public synchronized void setPeriod(long period)
+    {
+        if(period <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive period");
+        }
+        
+        if(this.executor == null)
+        {
+            throw new IllegalStateException("Engine not running");
+        }
+        
+        if(period == this.period)
+        {
+            return;
+        }
+        
+        this.period = period;
+        this.ticking.cancel(false);
+        
+        // runs between ticks, which share the executor's thread
+        this.executor.execute(() -> {
+            this.startNanos = System.nanoTime() - this.ticks * period
+                            * 1000000;
+        });
+        this.ticking = this.executor.scheduleAtFixedRate(this::tick, period,
+                        period, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * @return time between ticks while running (ms)
+     */
+    public synchronized long getPeriod()
+    {
+        return period;
+    }
+    
+    /**
+     * Stops ticking, waiting briefly for a tick in progress to finish so that
+     * the statistics are final. Does nothing if the engine is not running.
+     * 
+     */
+    public synchronized void stop()
+    {
+        if(this.executor != null)
+        {
+            this.executor.shutdownNow();
+            
+            try
+            {
+                this.executor.awaitTermination(this.STOP_TIMEOUT,
+                                TimeUnit.MILLISECONDS);
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            
+            this.executor = null;
+            this.ticking = null;
+        }
+    }
+    
+    /**
+     * @return whether the engine is ticking
+     */
+    public synchronized boolean isRunning()
+    {
+        return executor != null;
+    }
+    
+    /**
+     * @return number of ticks since the engine last started
+     */
+    public long getTickCount()
+    {
+        return tickCount;
+    }
+    
+    /**
+     * @return number of ticks since the engine last started which finished
+     *         after the next tick was due
+     */
+    public long getMissedCount()
+    {
+        return missedCount;
+    }
+    
+    /**
+     * @return longest time taken by a tick since the engine last started (ns)
+     */
+    public long getMaxDuration()
+    {
+        return maxDuration;
+    }
+    
+    /**
+     * @return mean time taken by a tick since the engine last started (ns)
+     */
+    public double getMeanDuration()
+    {
+        long count = tickCount;
+        
+        return count == 0 ? 0 : (double) totalDuration / count;
+    }
+    
+    /**
+     * @return reporter of exceptions thrown by listeners, reset whenever the
+     *         engine starts
+     */
+    public FailureReporter getFailures()
+    {
+        return failures;
+    }
+    
+    /**
+     * Propagates every tracked satellite to <code>time</code>, spreading the
+     * work across all cores
+     * 
+     * @param time
+     *            time to propagate to (milliseconds since the Unix epoch)
+     * @return snapshot of the tracked satellites
+     */
+    public TrackingSnapshot compute(long time)
+    {
+        return this.compute(time, this.tracked);
+    }
+    
+    /**
+     * Propagates some satellites to <code>time</code>, whether or not they
+     * are tracked, such as only those within view of a map
+     * 
+     * @param time
+     *            time to propagate to (milliseconds since the Unix epoch)
+     * @param satellites
+     *            the satellites to propagate
+     * @return snapshot of <code>satellites</code>, in the same order
+     */
+    public TrackingSnapshot compute(long time, List<Satellite> satellites)
+    {
+        if(satellites == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        return this.compute(time, satellites.toArray(
+                        new Satellite[satellites.size()]));
+    }
+    
+    /**
+     * @param time
+     *            time to propagate to (milliseconds since the Unix epoch)
+     * @param satellites
+     *            the satellites to propagate, which the snapshot keeps
+     * @return snapshot of <code>satellites</code>
+     */
+    private TrackingSnapshot compute(long time, Satellite[] satellites)
+    {
+        int count = satellites.length;
+        double[] geodetic = new double[3 * count];
+        double[] speeds = new double[count];
+        int chunks = Math.max(1, Math.min(4 * Runtime.getRuntime()
+                        .availableProcessors(), count / this.MIN_CHUNK));
+        
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            StateVector state = new StateVector();
+            double[] position = new double[3];
+            int first = (int) ((long) count * chunk / chunks);
+            int last = (int) ((long) count * (chunk + 1) / chunks);
+            
+            for(int i = first; i < last; i++)
+            {
+                try
+                {
+                    this.propagator.propagate(satellites[i], time, state);
+                }
+                catch(IllegalArgumentException e)
+                {
+                    // invalid elements
+                    geodetic[3 * i] = Double.NaN;
+                    geodetic[3 * i + 1] = Double.NaN;
+                    geodetic[3 * i + 2] = Double.NaN;
+                    speeds[i] = Double.NaN;
+                    continue;
+                }
+                
+                position[0] = state.getX();
+                position[1] = state.getY();
+                position[2] = state.getZ();
+                this.transformer.toGeodetic(time, position, position, 1);
+                System.arraycopy(position, 0, geodetic, 3 * i, 3);
+                speeds[i] = state.getSpeed();
+            }
+        });
+        
+        return new TrackingSnapshot(time, satellites, geodetic, speeds);
+    }
+    
+    /**
+     * Computes and publishes one snapshot, and records whether it met its
+     * deadline
+     * 
+     */
+    private void tick()
+    {
+        long begin = System.nanoTime();
+        TrackingSnapshot snapshot = this.compute(this.timeSource.getAsLong());
+        
+        this.snapshot = snapshot;
+        
+        for(TrackingListener listener : this.listeners)
+        {
+            try
+            {
+                listener.update(snapshot);
+            }
+            catch(RuntimeException e)
+            {
+                this.failures.report(e);
+            }
+        }
+        
+        long finish = System.nanoTime();
+        long duration = finish - begin;
+        long deadline = this.startNanos + (this.ticks + 1) * this.period
+                        * 1000000;
+        
+        this.ticks++;
+        
+        if(finish > deadline)
+        {
+            this.missedCount++;
+        }
+        
+        if(duration > this.maxDuration)
+        {
+            this.maxDuration = duration;
+        }
+        
+        this.totalDuration += duration;
+        this.tickCount = this.ticks;
+    }
+    
+    /**
+     * Rebuilds the array of tracked satellites after a change
+     * 
+     */
+    private void updateTracked()
+    {
+        List<Satellite> tracked = new ArrayList<Satellite>(this.watched.size()
+                        + 1);
+        
+        if(this.selected != null)
+        {
+            tracked.add(this.selected);
+        }
+        
+        for(Satellite satellite : this.watched)
+        {
+            if(satellite != this.selected)
+            {
+                tracked.add(satellite);
+            }
+        }
+        
+        this.tracked = tracked.toArray(new Satellite[tracked.size()]);
+    }
+}
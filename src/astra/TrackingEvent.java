@@ -0,0 +1,47 @@
+package astra;
+
+/**
+ * An event concerning a {@link Satellite}, published by a
+ * {@link TrackingEventPublisher}.
+ * 
+ */
+public abstract class TrackingEvent
+{
+    private final long time;
+    private final Satellite satellite;
+    
+    /**
+     * Constructor for the {@link TrackingEvent} class
+     * 
+     * @param time
+     *            time of the event (milliseconds since the Unix epoch)
+     * @param satellite
+     *            the satellite concerned
+     */
+    protected TrackingEvent(long time, Satellite satellite)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.time = time;
+        this.satellite = satellite;
+    }
+    
+    /**
+     * @return time of the event (milliseconds since the Unix epoch)
+     */
+    public long getTime()
+    {
+        return time;
+    }
+    
+    /**
+     * @return the satellite concerned
+     */
+    public Satellite getSatellite()
+    {
+        return satellite;
+    }
+}
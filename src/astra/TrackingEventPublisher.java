@@ -0,0 +1,602 @@
+package astra;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Flow.Subscriber;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes position updates and AOS/LOS events from a
+ * {@link TrackingEngine} to any number of {@link Flow.Subscriber}s.
+ * 
+ * Register the publisher as a listener of the engine. At each tick it turns
+ * the snapshot into events and hands them to every subscription without
+ * blocking: each subscription holds its undelivered events itself, either
+ * conflated to the latest position per satellite or buffered up to a limit
+ * (see {@link DeliveryMode}). Events are delivered in batches, one batch per
+ * unit of demand, on an executor. A slow subscriber therefore only delays or
+ * loses its own events, and never stalls the engine or other subscribers.
+ * 
+ * AOS and LOS are detected as changes in visibility between consecutive
+ * ticks, so their times are accurate to the tick period; use a
+ * {@link PassPredictor} where precise times are needed.
+ * 
+ */
+public class TrackingEventPublisher implements
+                Flow.Publisher<List<TrackingEvent>>, TrackingListener
+{
+    private static final int DEFAULT_BATCH_SIZE = 256;
+    private static final int DEFAULT_BUFFER_SIZE = 4096;
+    
+    private final List<GroundStation> stations;
+    private final Executor executor;
+    private final int batchSize;
+    private final List<EventSubscription> subscriptions;
+    private final AtomicLong dropped;
+    
+    private final Map<Satellite, boolean[]> visibility;
+    private final double[] ecef;
+    private final LookAngles angles;
+    private volatile boolean closed;
+    
+    /**
+     * Constructor for the {@link TrackingEventPublisher} class. Events are
+     * delivered on the common fork/join pool.
+     * 
+     * @param stations
+     *            stations to detect AOS and LOS for
+     */
+    public TrackingEventPublisher(List<GroundStation> stations)
+    {
+        this(stations, ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+    
+    /**
+     * Constructor for the {@link TrackingEventPublisher} class
+     * 
+     * @param stations
+     *            stations to detect AOS and LOS for
+     * @param executor
+     *            executor on which events are delivered
+     * @param batchSize
+     *            maximum number of events delivered in one batch
+     * @throws IllegalArgumentException
+     *             if <code>batchSize</code> is not positive
+     */
+    public TrackingEventPublisher(List<GroundStation> stations,
+                    Executor executor, int batchSize)
+    {
+        if(stations == null || executor == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(batchSize <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive batch size");
+        }
+        
+        this.stations = new ArrayList<GroundStation>(stations);
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.subscriptions = new CopyOnWriteArrayList<EventSubscription>();
+        this.dropped = new AtomicLong();
+        this.visibility = new IdentityHashMap<Satellite, boolean[]>();
+        this.ecef = new double[3];
+        this.angles = new LookAngles();
+        this.closed = false;
+    }
+    
+    /**
+     * Subscribes to every event, conflating positions
+     * 
+     * @param subscriber
+     *            the subscriber
+     */
+    @Override
+    public void subscribe(Subscriber<? super List<TrackingEvent>> subscriber)
+    {
+        this.subscribe(subscriber, null, null, DeliveryMode.CONFLATE,
+                        DEFAULT_BUFFER_SIZE);
+    }
+    
+    /**
+     * Subscribes to the events of some satellites and stations
+     * 
+     * @param subscriber
+     *            the subscriber
+     * @param satellites
+     *            satellites to receive events for, or <code>null</code> for
+     *            all
+     * @param stations
+     *            stations to receive AOS and LOS events for, or
+     *            <code>null</code> for all
+     * @param mode
+     *            how to hold events until they are requested
+     * @param bufferSize
+     *            maximum number of events held for the subscriber, beyond the
+     *            latest position of each satellite when conflating
+     * @throws IllegalArgumentException
+     *             if <code>bufferSize</code> is not positive
+     */
+    public void subscribe(Subscriber<? super List<TrackingEvent>> subscriber,
+                    Collection<Satellite> satellites,
+                    Collection<GroundStation> stations, DeliveryMode mode,
+                    int bufferSize)
+    {
+        if(subscriber == null || mode == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(bufferSize <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive buffer size");
+        }
+        
+        EventSubscription subscription = new EventSubscription(subscriber,
+                        TrackingEventPublisher.identitySet(satellites),
+                        TrackingEventPublisher.identitySet(stations), mode,
+                        bufferSize);
+        
+        this.subscriptions.add(subscription);
+        subscriber.onSubscribe(subscription);
+        
+        if(this.closed)
+        {
+            subscription.complete();
+        }
+    }
+    
+    /**
+     * @return number of active subscriptions
+     */
+    public int getSubscriberCount()
+    {
+        return subscriptions.size();
+    }
+    
+    /**
+     * @return number of events dropped because a subscriber's buffer was full
+     */
+    public long getDroppedCount()
+    {
+        return dropped.get();
+    }
+    
+    /**
+     * Converts a snapshot into events and offers them to every subscription.
+     * Must be called from one thread at a time, as it is by a
+     * {@link TrackingEngine}.
+     * 
+     * @param snapshot
+     *            the latest snapshot
+     */
+    @Override
+    public void update(TrackingSnapshot snapshot)
+    {
+        if(snapshot == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(this.closed || this.subscriptions.isEmpty())
+        {
+            return;
+        }
+        
+        int count = snapshot.size();
+        PositionEvent[] positions = new PositionEvent[count];
+        List<VisibilityEvent> changes = new ArrayList<VisibilityEvent>();
+        
+        for(int i = 0; i < count; i++)
+        {
+            Satellite satellite = snapshot.getSatellites().get(i);
+            
+            positions[i] = new PositionEvent(snapshot.getTime(), satellite,
+                            snapshot.getLatitude(i), snapshot.getLongitude(i),
+                            snapshot.getAltitude(i), snapshot.getSpeed(i));
+            this.detectChanges(snapshot, i, changes);
+        }
+        
+        for(EventSubscription subscription : this.subscriptions)
+        {
+            subscription.offer(positions, changes);
+        }
+    }
+    
+    /**
+     * Completes every subscription once its held events are delivered, and
+     * refuses further events
+     * 
+     */
+    public void close()
+    {
+        this.closed = true;
+        
+        for(EventSubscription subscription : this.subscriptions)
+        {
+            subscription.complete();
+        }
+    }
+    
+    /**
+     * Appends any AOS or LOS of one satellite since the previous tick
+     * 
+     * @param snapshot
+     *            the latest snapshot
+     * @param index
+     *            index of the satellite in <code>snapshot</code>
+     * @param changes
+     *            list to append events to
+     */
+    private void detectChanges(TrackingSnapshot snapshot, int index,
+                    List<VisibilityEvent> changes)
+    {
+        if(this.stations.isEmpty() || Double.isNaN(snapshot.getLatitude(
+                        index)))
+        {
+            return;
+        }
+        
+        Satellite satellite = snapshot.getSatellites().get(index);
+        boolean[] previous = this.visibility.get(satellite);
+        boolean first = previous == null;
+        
+        if(first)
+        {
+            previous = new boolean[this.stations.size()];
+            this.visibility.put(satellite, previous);
+        }
+        
+        Geodetic.toEcef(snapshot.getLatitude(index), snapshot.getLongitude(
+                        index), snapshot.getAltitude(index), this.ecef);
+        
+        for(int j = 0; j < this.stations.size(); j++)
+        {
+            GroundStation station = this.stations.get(j);
+            
+            station.computeLookAngles(this.ecef, 0, false, this.angles);
+            
+            boolean visible = this.angles.getElevation() >= Math.toRadians(
+                            station.getMinElevation());
+            
+            // a pass already in progress when first seen counts as an AOS
+            if(visible != previous[j] || (first && visible))
+            {
+                changes.add(new VisibilityEvent(snapshot.getTime(), satellite,
+                                station, visible));
+                previous[j] = visible;
+            }
+        }
+    }
+    
+    /**
+     * @param items
+     *            items, or <code>null</code>
+     * @return an identity set of <code>items</code>, or <code>null</code>
+     */
+    private static <T> Set<T> identitySet(Collection<T> items)
+    {
+        if(items == null)
+        {
+            return null;
+        }
+        
+        Set<T> set = Collections.newSetFromMap(new IdentityHashMap<T, Boolean>(
+                        items.size()));
+        
+        set.addAll(items);
+        
+        return set;
+    }
+    
+    /**
+     * One subscriber's events awaiting delivery, and its demand
+     * 
+     */
+    private class EventSubscription implements Flow.Subscription
+    {
+        private final Subscriber<? super List<TrackingEvent>> subscriber;
+        private final Set<Satellite> satellites;
+        private final Set<GroundStation> stations;
+        private final DeliveryMode mode;
+        private final int bufferSize;
+        
+        private final ArrayDeque<TrackingEvent> queue;
+        private final Map<Satellite, PositionEvent> latest;
+        private final AtomicInteger work;
+        
+        private long demand;
+        private boolean cancelled;
+        private boolean completing;
+        private boolean done;
+        private Throwable error;
+        
+        public EventSubscription(
+                        Subscriber<? super List<TrackingEvent>> subscriber,
+                        Set<Satellite> satellites, Set<GroundStation> stations,
+                        DeliveryMode mode, int bufferSize)
+        {
+            this.subscriber = subscriber;
+            this.satellites = satellites;
+            this.stations = stations;
+            this.mode = mode;
+            this.bufferSize = bufferSize;
+            this.queue = new ArrayDeque<TrackingEvent>();
+            this.latest = new IdentityHashMap<Satellite, PositionEvent>();
+            this.work = new AtomicInteger();
+        }
+        
+        @Override
+        public void request(long n)
+        {
+            synchronized(this)
+            {
+                if(n <= 0)
+                {
+                    this.error = new IllegalArgumentException(
+                                    "Non-positive request");
+                }
+                else
+                {
+                    this.demand = this.demand + n < 0 ? Long.MAX_VALUE
+                                    : this.demand + n;
+                }
+            }
+            
+            this.signal();
+        }
+        
+        @Override
+        public void cancel()
+        {
+            synchronized(this)
+            {
+                this.cancelled = true;
+                this.queue.clear();
+                this.latest.clear();
+            }
+            
+            subscriptions.remove(this);
+        }
+        
+        /**
+         * Holds the events this subscriber is interested in
+         * 
+         * @param positions
+         *            latest position of every tracked satellite
+         * @param changes
+         *            AOS and LOS events since the previous tick
+         */
+        public void offer(PositionEvent[] positions,
+                        List<VisibilityEvent> changes)
+        {
+            synchronized(this)
+            {
+                if(this.cancelled || this.completing)
+                {
+                    return;
+                }
+                
+                for(PositionEvent position : positions)
+                {
+                    if(this.wants(position.getSatellite()))
+                    {
+                        if(this.mode == DeliveryMode.CONFLATE)
+                        {
+                            this.latest.put(position.getSatellite(),
+                                            position);
+                        }
+                        else
+                        {
+                            this.enqueue(position);
+                        }
+                    }
+                }
+                
+                for(VisibilityEvent change : changes)
+                {
+                    if(this.wants(change.getSatellite())
+                                    && this.wants(change.getStation()))
+                    {
+                        this.enqueue(change);
+                    }
+                }
+            }
+            
+            this.signal();
+        }
+        
+        /**
+         * Completes the subscription once its held events are delivered
+         * 
+         */
+        public void complete()
+        {
+            synchronized(this)
+            {
+                this.completing = true;
+            }
+            
+            this.signal();
+        }
+        
+        /**
+         * @param satellite
+         *            a satellite
+         * @return whether the subscriber wants events for it
+         */
+        private boolean wants(Satellite satellite)
+        {
+            return this.satellites == null || this.satellites.contains(
+                            satellite);
+        }
+        
+        /**
+         * @param station
+         *            a station
+         * @return whether the subscriber wants AOS and LOS events for it
+         */
+        private boolean wants(GroundStation station)
+        {
+            return this.stations == null || this.stations.contains(station);
+        }
+        
+        /**
+         * Appends an event, dropping the oldest if the buffer is full
+         * 
+         * @param event
+         *            the event
+         */
+        private void enqueue(TrackingEvent event)
+        {
+            if(this.queue.size() == this.bufferSize)
+            {
+                this.queue.poll();
+                dropped.incrementAndGet();
+            }
+            
+            this.queue.add(event);
+        }
+        
+        /**
+         * Schedules a drain unless one is already in progress
+         * 
+         */
+        private void signal()
+        {
+            if(this.work.getAndIncrement() == 0)
+            {
+                executor.execute(this::drain);
+            }
+        }
+        
+        /**
+         * Delivers batches while there is demand and events to deliver
+         * 
+         */
+        private void drain()
+        {
+            int missed = 1;
+            
+            do
+            {
+                while(true)
+                {
+                    List<TrackingEvent> batch;
+                    Throwable failure = null;
+                    boolean finish = false;
+                    
+                    synchronized(this)
+                    {
+                        if(this.cancelled || this.done)
+                        {
+                            break;
+                        }
+                        
+                        if(this.error != null)
+                        {
+                            failure = this.error;
+                            this.done = true;
+                        }
+                        else if(this.demand > 0 && this.hasPending())
+                        {
+                            this.demand--;
+                        }
+                        else if(this.completing && !this.hasPending())
+                        {
+                            finish = true;
+                            this.done = true;
+                        }
+                        else
+                        {
+                            break;
+                        }
+                        
+                        batch = failure == null && !finish ? this.take()
+                                        : null;
+                    }
+                    
+                    if(failure != null || finish)
+                    {
+                        subscriptions.remove(this);
+                        
+                        if(failure != null)
+                        {
+                            this.subscriber.onError(failure);
+                        }
+                        else
+                        {
+                            this.subscriber.onComplete();
+                        }
+                        
+                        break;
+                    }
+                    
+                    try
+                    {
+                        this.subscriber.onNext(batch);
+                    }
+                    catch(RuntimeException e)
+                    {
+                        // a subscriber which throws breaks the protocol
+                        this.cancel();
+                    }
+                }
+                
+                missed = this.work.addAndGet(-missed);
+            }
+            while(missed != 0);
+        }
+        
+        /**
+         * @return whether there are events awaiting delivery
+         */
+        private boolean hasPending()
+        {
+            return !this.queue.isEmpty() || !this.latest.isEmpty();
+        }
+        
+        /**
+         * Removes up to a batch of events, visibility and buffered events
+         * first
+         * 
+         * @return the batch
+         */
+        private List<TrackingEvent> take()
+        {
+            List<TrackingEvent> batch = new ArrayList<TrackingEvent>(Math.min(
+                            batchSize, this.queue.size()
+                                            + this.latest.size()));
+            
+            while(batch.size() < batchSize && !this.queue.isEmpty())
+            {
+                batch.add(this.queue.poll());
+            }
+            
+            Iterator<PositionEvent> positions = this.latest.values()
+                            .iterator();
+            
+            while(batch.size() < batchSize && positions.hasNext())
+            {
+                batch.add(positions.next());
+                positions.remove();
+            }
+            
+            return batch;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package astra;
+
+/**
+ * Receives snapshots from a {@link TrackingEngine}.
+ * 
+ */
+@FunctionalInterface
+public interface TrackingListener
+{
+    /**
+     * Called on the engine's thread after each tick. Implementations should
+     * return promptly, handing any slow work to another thread.
+     * 
+     * @param snapshot
+     *            the latest snapshot
+     */
+    void update(TrackingSnapshot snapshot);
+}
@@ -0,0 +1,162 @@
+package astra;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Positions of the tracked satellites at one tick of a
+ * {@link TrackingEngine}.
+ * 
+ * Snapshots are immutable, so they can be handed to other threads, such as a
+ * user interface, without copying or locking.
+ * 
+ */
+public final class TrackingSnapshot
+{
+    private final long time;
+    private final List<Satellite> satellites;
+    private final double[] geodetic;
+    private final double[] speeds;
+    private final Map<Satellite, Integer> indices;
+    
+    /**
+     * Constructor for the {@link TrackingSnapshot} class. The arrays are used
+     * directly and must not be modified afterwards.
+     * 
+     * @param time
+     *            time of the snapshot (milliseconds since the Unix epoch)
+     * @param satellites
+     *            the tracked satellites
+     * @param geodetic
+     *            interleaved latitude (rad), longitude (rad) and altitude (km)
+     *            of each satellite
+     * @param speeds
+     *            speed of each satellite (km/s)
+     */
+    TrackingSnapshot(long time, Satellite[] satellites, double[] geodetic,
+                    double[] speeds)
+    {
+        this.time = time;
+        this.satellites = Collections.unmodifiableList(Arrays.asList(
+                        satellites));
+        this.geodetic = geodetic;
+        this.speeds = speeds;
+        this.indices = new IdentityHashMap<Satellite, Integer>(
+                        satellites.length);
+        
+        for(int i = 0; i < satellites.length; i++)
+        {
+            this.indices.putIfAbsent(satellites[i], i);
+        }
+    }
+    
+    /**
+     * @return time of the snapshot (milliseconds since the Unix epoch)
+     */
+    public long getTime()
+    {
+        return time;
+    }
+    
+    /**
+     * @return the tracked satellites, in index order
+     */
+    public List<Satellite> getSatellites()
+    {
+        return satellites;
+    }
+    
+    /**
+     * @return number of tracked satellites
+     */
+    public int size()
+    {
+        return satellites.size();
+    }
+    
+    /**
+     * @param satellite
+     *            a satellite
+     * @return index of <code>satellite</code> in the snapshot, or -1 if it is
+     *         not tracked
+     */
+    public int indexOf(Satellite satellite)
+    {
+        Integer index = indices.get(satellite);
+        
+        return index == null ? -1 : index;
+    }
+    
+    /**
+     * @param index
+     *            index of the satellite
+     * @return geodetic latitude of the sub-satellite point (rad)
+     */
+    public double getLatitude(int index)
+    {
+        return geodetic[3 * this.checkIndex(index)];
+    }
+    
+    /**
+     * @param index
+     *            index of the satellite
+     * @return longitude of the sub-satellite point (rad)
+     */
+    public double getLongitude(int index)
+    {
+        return geodetic[3 * this.checkIndex(index) + 1];
+    }
+    
+    /**
+     * @param index
+     *            index of the satellite
+     * @return altitude above the reference ellipsoid (km)
+     */
+    public double getAltitude(int index)
+    {
+        return geodetic[3 * this.checkIndex(index) + 2];
+    }
+    
+    /**
+     * @param index
+     *            index of the satellite
+     * @return inertial speed (km/s)
+     */
+    public double getSpeed(int index)
+    {
+        return speeds[this.checkIndex(index)];
+    }
+    
+    /**
+     * @param index
+     *            index to check
+     * @return <code>index</code>
+     * @throws IndexOutOfBoundsException
+     *             if <code>index</code> is not a valid satellite index
+     */
+    private int checkIndex(int index)
+    {
+        if(index < 0 || index >= speeds.length)
+        {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: "
+                            + speeds.length);
+        }
+        
+        return index;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "TrackingSnapshot [time=" + time + ", size=" + speeds.length
+                        + "]";
+    }
+}
@@ -0,0 +1,386 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hands updates from background threads to a single consumer thread, such as
+ * the JavaFX application thread, coalescing those which arrive faster than
+ * the consumer takes them.
+ * 
+ * Each component being updated gets a channel of its own. A {@link Latest}
+ * channel keeps only the last value posted to it; a {@link Batch} channel
+ * collects every item posted to it and delivers them together as one list.
+ * However many updates are posted, at most one flush is queued on the
+ * executor at a time, and it delivers whatever is pending on every channel,
+ * in the order the channels first became pending. Posting never blocks on
+ * the consumer, so a busy consumer sees fewer, larger updates rather than a
+ * growing queue.
+ * 
+ */
+public class UpdateDispatcher
+{
+    private final Executor executor;
+    private final AtomicLong postedCount;
+    private final AtomicLong coalescedCount;
+    private final AtomicLong droppedCount;
+    private final AtomicLong deliveredCount;
+    private final AtomicLong flushCount;
+    private final FailureReporter failures;
+    
+    private List<Channel> pending;
+    private boolean scheduled;
+    private boolean closed;
+    
+    /**
+     * Constructor for the {@link UpdateDispatcher} class
+     * 
+     * @param executor
+     *            executor on which updates are delivered, such as
+     *            <code>Platform::runLater</code>
+     */
+    public UpdateDispatcher(Executor executor)
+    {
+        if(executor == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.executor = executor;
+        this.postedCount = new AtomicLong();
+        this.coalescedCount = new AtomicLong();
+        this.droppedCount = new AtomicLong();
+        this.deliveredCount = new AtomicLong();
+        this.flushCount = new AtomicLong();
+        this.failures = new FailureReporter();
+        this.pending = new ArrayList<Channel>();
+        this.scheduled = false;
+        this.closed = false;
+    }
+    
+    /**
+     * @param handler
+     *            receives the latest value posted since the last flush
+     * @return a new channel which keeps only the latest value
+     */
+    public <T> Latest<T> latest(Consumer<T> handler)
+    {
+        if(handler == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        return new Latest<T>(this, handler);
+    }
+    
+    /**
+     * @param handler
+     *            receives every item posted since the last flush, in the
+     *            order they were posted
+     * @return a new channel which batches items
+     */
+    public <T> Batch<T> batch(Consumer<List<T>> handler)
+    {
+        if(handler == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        return new Batch<T>(this, handler);
+    }
+    
+    /**
+     * Discards every pending update and drops any posted afterwards
+     */
+    public void close()
+    {
+        synchronized(this)
+        {
+            this.closed = true;
+            this.droppedCount.addAndGet(this.pending.size());
+            
+            for(Channel channel : this.pending)
+            {
+                channel.take();
+            }
+            
+            this.pending = new ArrayList<Channel>();
+        }
+    }
+    
+    /**
+     * @return number of updates posted
+     */
+    public long getPostedCount()
+    {
+        return postedCount.get();
+    }
+    
+    /**
+     * @return number of updates merged into one already pending on the same
+     *         channel, rather than delivered on their own
+     */
+    public long getCoalescedCount()
+    {
+        return coalescedCount.get();
+    }
+    
+    /**
+     * @return number of pending updates discarded, because they were posted
+     *         after the dispatcher was closed or were pending when it was
+     */
+    public long getDroppedCount()
+    {
+        return droppedCount.get();
+    }
+    
+    /**
+     * @return number of times a handler has been called
+     */
+    public long getDeliveredCount()
+    {
+        return deliveredCount.get();
+    }
+    
+    /**
+     * @return number of flushes run on the executor
+     */
+    public long getFlushCount()
+    {
+        return flushCount.get();
+    }
+    
+    /**
+     * @return reporter of exceptions thrown by handlers, which do not stop
+     *         the other handlers of the same flush being called
+     */
+    public FailureReporter getFailures()
+    {
+        return failures;
+    }
+    
+    /**
+     * Records an update to a channel and queues a flush if none is queued.
+     * The channel stores the update itself, under the dispatcher's lock.
+     * 
+     * @param channel
+     *            the channel updated
+     * @param update
+     *            stores the update in the channel
+     */
+    private void post(Channel channel, Runnable update)
+    {
+        boolean schedule = false;
+        
+        this.postedCount.incrementAndGet();
+        
+        synchronized(this)
+        {
+            if(this.closed)
+            {
+                this.droppedCount.incrementAndGet();
+                return;
+            }
+            
+            if(channel.pending)
+            {
+                this.coalescedCount.incrementAndGet();
+            }
+            else
+            {
+                channel.pending = true;
+                this.pending.add(channel);
+            }
+            
+            update.run();
+            
+            if(!this.scheduled)
+            {
+                this.scheduled = true;
+                schedule = true;
+            }
+        }
+        
+        if(schedule)
+        {
+            this.executor.execute(this::flush);
+        }
+    }
+    
+    /**
+     * Delivers every pending update. Runs on the executor.
+     */
+    private void flush()
+    {
+        List<Runnable> deliveries = new ArrayList<Runnable>();
+        
+        synchronized(this)
+        {
+            for(Channel channel : this.pending)
+            {
+                deliveries.add(channel.take());
+            }
+            
+            this.pending = new ArrayList<Channel>();
+            this.scheduled = false;
+        }
+        
+        this.flushCount.incrementAndGet();
+        
+        for(Runnable delivery : deliveries)
+        {
+            try
+            {
+                delivery.run();
+                this.deliveredCount.incrementAndGet();
+            }
+            catch(RuntimeException e)
+            {
+                this.failures.report(e);
+            }
+        }
+    }
+    
+    /**
+     * A component's share of a dispatcher. Its state is guarded by the
+     * dispatcher's lock.
+     */
+    abstract static class Channel
+    {
+        protected final UpdateDispatcher dispatcher;
+        
+        private boolean pending;
+        
+        protected Channel(UpdateDispatcher dispatcher)
+        {
+            this.dispatcher = dispatcher;
+            this.pending = false;
+        }
+        
+        /**
+         * Removes the pending update from the channel
+         * 
+         * @return delivers the update to the channel's handler
+         */
+        protected abstract Runnable take();
+        
+        /**
+         * @param update
+         *            stores the update in the channel
+         */
+        protected void update(Runnable update)
+        {
+            this.dispatcher.post(this, update);
+        }
+        
+        /**
+         * Marks the channel as no longer pending
+         */
+        protected void taken()
+        {
+            this.pending = false;
+        }
+    }
+    
+    /**
+     * Channel which keeps only the latest value posted to it
+     */
+    public static final class Latest<T> extends Channel
+    {
+        private final Consumer<T> handler;
+        
+        private T value;
+        
+        private Latest(UpdateDispatcher dispatcher, Consumer<T> handler)
+        {
+            super(dispatcher);
+            this.handler = handler;
+            this.value = null;
+        }
+        
+        /**
+         * Replaces any value not yet delivered
+         * 
+         * @param value
+         *            the value, which may be <code>null</code>
+         */
+        public void post(T value)
+        {
+            this.update(() -> {
+                this.value = value;
+            });
+        }
+        
+        @Override
+        protected Runnable take()
+        {
+            T value = this.value;
+            
+            this.value = null;
+            this.taken();
+            
+            return () -> this.handler.accept(value);
+        }
+    }
+    
+    /**
+     * Channel which delivers every item posted to it, batched
+     */
+    public static final class Batch<T> extends Channel
+    {
+        private final Consumer<List<T>> handler;
+        
+        private List<T> items;
+        
+        private Batch(UpdateDispatcher dispatcher, Consumer<List<T>> handler)
+        {
+            super(dispatcher);
+            this.handler = handler;
+            this.items = new ArrayList<T>();
+        }
+        
+        /**
+         * @param item
+         *            item to add to the next batch
+         */
+        public void post(T item)
+        {
+            this.update(() -> {
+                this.items.add(item);
+            });
+        }
+        
+        /**
+         * Adds items to the next batch, as a single update
+         * 
+         * @param items
+         *            items to add to the next batch
+         */
+        public void postAll(Collection<? extends T> items)
+        {
+            if(items == null)
+            {
+                throw new NullPointerException();
+            }
+            
+            this.update(() -> {
+                this.items.addAll(items);
+            });
+        }
+        
+        @Override
+        protected Runnable take()
+        {
+            List<T> items = this.items;
+            
+            this.items = new ArrayList<T>();
+            this.taken();
+            
+            return () -> this.handler.accept(items);
+        }
+    }
+}
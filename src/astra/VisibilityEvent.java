@@ -0,0 +1,70 @@
+package astra;
+
+/**
+ * Acquisition (AOS) or loss (LOS) of signal between a satellite and a ground
+ * station, as observed at a tracking tick.
+ * 
+ */
+public final class VisibilityEvent extends TrackingEvent
+{
+    private final GroundStation station;
+    private final boolean acquisition;
+    
+    /**
+     * Constructor for the {@link VisibilityEvent} class
+     * 
+     * @param time
+     *            time of the tick at which the change was observed
+     *            (milliseconds since the Unix epoch)
+     * @param satellite
+     *            the satellite
+     * @param station
+     *            the station
+     * @param acquisition
+     *            <code>true</code> for AOS, <code>false</code> for LOS
+     */
+    public VisibilityEvent(long time, Satellite satellite,
+                    GroundStation station, boolean acquisition)
+    {
+        super(time, satellite);
+        
+        if(station == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.station = station;
+        this.acquisition = acquisition;
+    }
+    
+    /**
+     * @return the station
+     */
+    public GroundStation getStation()
+    {
+        return station;
+    }
+    
+    /**
+     * @return <code>true</code> if the satellite rose above the station's
+     *         elevation mask (AOS), <code>false</code> if it set (LOS)
+     */
+    public boolean isAcquisition()
+    {
+        return acquisition;
+    }
+    
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString()
+    {
+        return "VisibilityEvent [time=" + this.getTime() + ", satellite="
+                        + this.getSatellite().getName() + ", station="
+                        + station.getName() + ", "
+                        + (acquisition ? "AOS" : "LOS") + "]";
+    }
+}
@@ -0,0 +1,396 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Cheap geometric tests which rule out satellite/station pairs, or parts of a
+ * time window, in which a satellite can never be above a station's elevation
+ * mask. These are used to avoid running a full {@link PassPredictor} search
+ * where it cannot find anything.
+ * 
+ * Both tests work from the satellite's orbital elements alone: the
+ * inclination bounds the latitude of the sub-satellite point, and the apogee
+ * altitude bounds how far from that point the satellite can be seen.
+ * 
+ */
+public class VisibilityFilter
+{
+    private final double MARGIN = Math.toRadians(0.5);
+    private final double MIN_APOGEE_HEIGHT = 80;
+    private final double GEOSYNCHRONOUS_MEAN_MOTION = 1.00273791;
+    private final double GEOSYNCHRONOUS_TOLERANCE = 0.01;
+    private final long MIN_PADDING = 120000;
+    private final double PADDING_FRACTION = 0.02;
+    
+    private final Propagator propagator;
+    private final FrameTransformer transformer;
+    
+    /**
+     * Constructor for the {@link VisibilityFilter} class
+     * 
+     * @param propagator
+     *            propagator used to locate geosynchronous satellites
+     * @param transformer
+     *            frame transformer used to locate geosynchronous satellites
+     */
+    public VisibilityFilter(Propagator propagator, FrameTransformer transformer)
+    {
+        if(propagator == null || transformer == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.propagator = propagator;
+        this.transformer = transformer;
+    }
+    
+    /**
+     * Computes the geocentric half-angle of the region of the Earth from which
+     * a satellite at <code>radius</code> appears above
+     * <code>elevation</code>
+     * 
+     * @param radius
+     *            distance of the satellite from the centre of the Earth (km)
+     * @param elevation
+     *            minimum elevation (rad)
+     * @return Earth central angle from the sub-satellite point to the edge of
+     *         the visible region (rad), or zero if the satellite is below the
+     *         surface
+     */
+    public static double footprintAngle(double radius, double elevation)
+    {
+        double ratio = Earth.RADIUS * Math.cos(elevation) / radius;
+        
+        if(ratio >= 1)
+        {
+            return 0;
+        }
+        
+        return Math.max(0, Math.acos(ratio) - elevation);
+    }
+    
+    /**
+     * Determines whether <code>satellite</code> could possibly rise above the
+     * elevation mask of <code>station</code> between <code>start</code> and
+     * <code>end</code>. A <code>false</code> result is definite; a
+     * <code>true</code> result only means a full search is required.
+     * 
+     * @param satellite
+     *            the satellite
+     * @param station
+     *            the observing station
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @return whether the satellite might be visible from the station
+     */
+    public boolean isPossiblyVisible(Satellite satellite,
+                    GroundStation station, long start, long end)
+    {
+        if(satellite == null || station == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        OrbitalElements elements = satellite.getElements();
+        
+        // decayed, or too low to clear the atmosphere
+        if(elements.getApogeeRadius() - Earth.RADIUS < this.MIN_APOGEE_HEIGHT)
+        {
+            return false;
+        }
+        
+        double reach = this.reach(elements, station);
+        double inclination = VisibilityFilter.maxLatitude(elements);
+        double latitude = Math.abs(Math.toRadians(station.getLatitude()));
+        
+        // station out of reach of the ground track
+        if(latitude > inclination + reach)
+        {
+            return false;
+        }
+        
+        if(this.isGeosynchronous(elements))
+        {
+            return this.isGeosynchronousVisible(satellite, station, reach,
+                            start, end);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Computes the parts of [<code>start</code>, <code>end</code>] in which
+     * the sub-satellite latitude of <code>satellite</code> is close enough to
+     * <code>station</code> for the satellite to be visible. Each revolution
+     * contributes at most two windows: one on the northbound half of the orbit
+     * and one on the southbound half.
+     * 
+     * @param satellite
+     *            the satellite
+     * @param station
+     *            the observing station
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @return disjoint windows in chronological order, padded to allow for
+     *         perturbations neglected here
+     */
+    public List<TimeWindow> getWindows(Satellite satellite,
+                    GroundStation station, long start, long end)
+    {
+        if(satellite == null || station == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(end < start)
+        {
+            throw new IllegalArgumentException("Window ends before it starts");
+        }
+        
+        OrbitalElements elements = satellite.getElements();
+        List<TimeWindow> windows = new ArrayList<TimeWindow>();
+        
+        double reach = this.reach(elements, station);
+        double latitude = Math.toRadians(station.getLatitude());
+        double sinI = Math.sin(elements.getInclination());
+        double low = Math.sin(Math.max(-Math.PI / 2, latitude - reach));
+        double high = Math.sin(Math.min(Math.PI / 2, latitude + reach));
+        
+        // the latitude band is crossed if sin(i) sin(u) lies in [low, high]
+        if(Math.abs(sinI) < 1e-9)
+        {
+            if(low <= 0 && high >= 0)
+            {
+                windows.add(new TimeWindow(start, end));
+            }
+            
+            return windows;
+        }
+        
+        double a = low / sinI;
+        double b = high / sinI;
+        
+        if(a > 1 || b < -1)
+        {
+            return windows;
+        }
+        
+        if(a <= -1 && b >= 1)
+        {
+            windows.add(new TimeWindow(start, end));
+            
+            return windows;
+        }
+        
+        double alpha = Math.asin(Math.max(-1, a));
+        double beta = Math.asin(Math.min(1, b));
+        double[][] arguments = { { alpha, beta },
+                        { Math.PI - beta, Math.PI - alpha } };
+        
+        double rate = elements.getMeanAnomalyRate();
+        double period = 2 * Math.PI / rate;
+        long padding = Math.max(this.MIN_PADDING, (long) (1000
+                        * this.PADDING_FRACTION * period));
+        
+        // revolutions are counted from perigee passages
+        double first = elements.getMeanAnomaly() + rate * (start - padding
+                        - elements.getEpoch()) / 1000.0;
+        long revolution = (long) Math.floor(first / (2 * Math.PI)) - 1;
+        
+        while(true)
+        {
+            double perigeeOffset = (2 * Math.PI * revolution
+                            - elements.getMeanAnomaly()) / rate;
+            long perigeeTime = elements.getEpoch() + (long) (1000
+                            * perigeeOffset);
+            
+            if(perigeeTime > end + padding)
+            {
+                break;
+            }
+            
+            double perigee = elements.getPerigee() + elements.getPerigeeRate()
+                            * perigeeOffset;
+            
+            for(double[] argument : arguments)
+            {
+                double m1 = VisibilityFilter.meanAnomaly(argument[0] - perigee,
+                                elements.getEccentricity());
+                double m2 = VisibilityFilter.meanAnomaly(argument[1] - perigee,
+                                elements.getEccentricity());
+                double span = m2 - m1;
+                
+                if(span < 0)
+                {
+                    span += 2 * Math.PI;
+                }
+                
+                long from = perigeeTime + (long) (1000 * m1 / rate) - padding;
+                long to = perigeeTime + (long) (1000 * (m1 + span) / rate)
+                                + padding;
+                
+                if(to >= start && from <= end)
+                {
+                    windows.add(new TimeWindow(Math.max(start, from),
+                                    Math.min(end, to)));
+                }
+            }
+            
+            revolution++;
+        }
+        
+        return VisibilityFilter.merge(windows);
+    }
+    
+    /**
+     * @param elements
+     *            orbital elements of the satellite
+     * @param station
+     *            the observing station
+     * @return the largest Earth central angle at which the satellite can be
+     *         seen from the station, with margin (rad)
+     */
+    private double reach(OrbitalElements elements, GroundStation station)
+    {
+        return VisibilityFilter.footprintAngle(elements.getApogeeRadius(),
+                        Math.toRadians(station.getMinElevation()))
+                        + this.MARGIN;
+    }
+    
+    /**
+     * @param elements
+     *            orbital elements
+     * @return whether the orbit is close to geosynchronous
+     */
+    private boolean isGeosynchronous(OrbitalElements elements)
+    {
+        double revolutionsPerDay = elements.getMeanMotion() * 86400
+                        / (2 * Math.PI);
+        
+        return Math.abs(revolutionsPerDay - this.GEOSYNCHRONOUS_MEAN_MOTION)
+                        < this.GEOSYNCHRONOUS_TOLERANCE
+                        && elements.getEccentricity()
+                                        < this.GEOSYNCHRONOUS_TOLERANCE;
+    }
+    
+    /**
+     * Checks whether a geosynchronous satellite, which stays near a fixed
+     * longitude, can come within reach of the station during the window
+     * 
+     * @param satellite
+     *            geosynchronous satellite
+     * @param station
+     *            observing station
+     * @param reach
+     *            Earth central angle at which the satellite is visible (rad)
+     * @param start
+     *            start of the window
+     * @param end
+     *            end of the window
+     * @return whether the satellite might be visible from the station
+     */
+    private boolean isGeosynchronousVisible(Satellite satellite,
+                    GroundStation station, double reach, long start, long end)
+    {
+        OrbitalElements elements = satellite.getElements();
+        StateVector state = new StateVector();
+        double[] ecef = new double[6];
+        
+        this.propagator.propagate(satellite, start, state);
+        this.transformer.toEcef(state, ecef);
+        
+        double longitude = Math.atan2(ecef[1], ecef[0]);
+        double latitude = Math.asin(ecef[2] / state.getRadius());
+        double stationLatitude = Math.toRadians(station.getLatitude());
+        double stationLongitude = Math.toRadians(station.getLongitude());
+        
+        double separation = Math.acos(Math.max(-1, Math.min(1, Math.sin(
+                        latitude) * Math.sin(stationLatitude) + Math.cos(
+                                        latitude) * Math.cos(stationLatitude)
+                                        * Math.cos(longitude
+                                                        - stationLongitude))));
+        
+        // longitude drift relative to the Earth over the window
+        double drift = Math.abs(elements.getMeanMotion()
+                        - Earth.ROTATION_RATE) * (end - start) / 1000.0;
+        double wobble = 2 * VisibilityFilter.maxLatitude(elements);
+        
+        return separation <= reach + drift + wobble;
+    }
+    
+    /**
+     * @param elements
+     *            orbital elements
+     * @return maximum geocentric latitude of the sub-satellite point (rad)
+     */
+    private static double maxLatitude(OrbitalElements elements)
+    {
+        double inclination = elements.getInclination();
+        
+        return inclination > Math.PI / 2 ? Math.PI - inclination : inclination;
+    }
+    
+    /**
+     * @param trueAnomaly
+     *            true anomaly (rad)
+     * @param e
+     *            eccentricity
+     * @return mean anomaly (rad), in [0, 2&pi;)
+     */
+    private static double meanAnomaly(double trueAnomaly, double e)
+    {
+        double half = trueAnomaly / 2;
+        double eccentric = 2 * Math.atan2(Math.sqrt(1 - e) * Math.sin(half),
+                        Math.sqrt(1 + e) * Math.cos(half));
+        double mean = (eccentric - e * Math.sin(eccentric)) % (2 * Math.PI);
+        
+        return mean < 0 ? mean + 2 * Math.PI : mean;
+    }
+    
+    /**
+     * @param windows
+     *            possibly overlapping windows
+     * @return the union of <code>windows</code> as disjoint windows in
+     *         chronological order
+     */
+    private static List<TimeWindow> merge(List<TimeWindow> windows)
+    {
+        Collections.sort(windows, Comparator.comparingLong(
+                        TimeWindow::getStart));
+        
+        List<TimeWindow> merged = new ArrayList<TimeWindow>();
+        TimeWindow current = null;
+        
+        for(TimeWindow window : windows)
+        {
+            if(current == null)
+            {
+                current = window;
+            }
+            else if(window.getStart() <= current.getEnd())
+            {
+                current = new TimeWindow(current.getStart(), Math.max(
+                                current.getEnd(), window.getEnd()));
+            }
+            else
+            {
+                merged.add(current);
+                current = window;
+            }
+        }
+        
+        if(current != null)
+        {
+            merged.add(current);
+        }
+        
+        return merged;
+    }
+}
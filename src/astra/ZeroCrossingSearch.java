@@ -0,0 +1,288 @@
+package astra;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * Coarse-to-fine search for the zero crossings of a {@link SearchFunction}
+ * over a time window.
+ * 
+ * The coarse scan steps by the function's distance from zero divided by its
+ * maximum rate of change, which is the largest step that cannot jump over a
+ * crossing. Far from an event this is many minutes; close to one it shrinks
+ * to the minimum step. Each bracketed crossing is then refined with Brent's
+ * method to the requested tolerance.
+ * 
+ */
+public class ZeroCrossingSearch
+{
+    private final double GOLDEN = (Math.sqrt(5) - 1) / 2;
+    
+    private final long minStep;
+    private final long maxStep;
+    private final long tolerance;
+    
+    /**
+     * Constructor for the {@link ZeroCrossingSearch} class
+     * 
+     * @param minStep
+     *            smallest coarse step (ms)
+     * @param maxStep
+     *            largest coarse step (ms)
+     * @param tolerance
+     *            precision to which crossings are refined (ms)
+     * @throws IllegalArgumentException
+     *             if any argument is not positive or <code>minStep</code>
+     *             exceeds <code>maxStep</code>
+     */
+    public ZeroCrossingSearch(long minStep, long maxStep, long tolerance)
+    {
+        if(minStep <= 0 || maxStep <= 0 || tolerance <= 0)
+        {
+            throw new IllegalArgumentException("Non-positive step");
+        }
+        
+        if(minStep > maxStep)
+        {
+            throw new IllegalArgumentException("Minimum step exceeds maximum");
+        }
+        
+        this.minStep = minStep;
+        this.maxStep = maxStep;
+        this.tolerance = tolerance;
+    }
+    
+    /**
+     * @return smallest coarse step (ms)
+     */
+    public long getMinStep()
+    {
+        return minStep;
+    }
+    
+    /**
+     * @return largest coarse step (ms)
+     */
+    public long getMaxStep()
+    {
+        return maxStep;
+    }
+    
+    /**
+     * @return precision to which crossings are refined (ms)
+     */
+    public long getTolerance()
+    {
+        return tolerance;
+    }
+    
+    /**
+     * Finds every zero crossing of <code>function</code> in
+     * [<code>start</code>, <code>end</code>]
+     * 
+     * @param function
+     *            the function to search
+     * @param start
+     *            start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the window (milliseconds since the Unix epoch)
+     * @return crossings in chronological order
+     * @throws IllegalArgumentException
+     *             if <code>end</code> is before <code>start</code>
+     */
+    public List<Crossing> search(SearchFunction function, long start, long end)
+    {
+        if(function == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(end < start)
+        {
+            throw new IllegalArgumentException("Window ends before it starts");
+        }
+        
+        List<Crossing> crossings = new ArrayList<Crossing>();
+        long t = start;
+        double v = function.value(t);
+        
+        while(t < end)
+        {
+            long step = (long) (1000.0 * Math.abs(v) / function.maxRate(v));
+            step = Math.max(this.minStep, Math.min(this.maxStep, step));
+            
+            long next = Math.min(end, t + step);
+            double w = function.value(next);
+            
+            if((v < 0) != (w < 0))
+            {
+                long root = this.refine(function, t, v, next, w);
+                crossings.add(new Crossing(root, w >= 0));
+            }
+            
+            t = next;
+            v = w;
+        }
+        
+        return crossings;
+    }
+    
+    /**
+     * Refines a bracketed crossing using Brent's method
+     * 
+     * @param function
+     *            the function being searched
+     * @param a
+     *            start of the bracket
+     * @param fa
+     *            value at <code>a</code>
+     * @param b
+     *            end of the bracket
+     * @param fb
+     *            value at <code>b</code>
+     * @return time of the crossing, to within the tolerance
+     */
+    private long refine(SearchFunction function, long a, double fa, long b,
+                    double fb)
+    {
+        // work in offsets from the start of the bracket to keep precision
+        double xa = 0;
+        double xb = b - a;
+        double xc = xa;
+        double fc = fa;
+        double d = xb - xa;
+        double e = d;
+        
+        while(true)
+        {
+            if((fb < 0) == (fc < 0))
+            {
+                xc = xa;
+                fc = fa;
+                d = xb - xa;
+                e = d;
+            }
+            
+            if(Math.abs(fc) < Math.abs(fb))
+            {
+                xa = xb;
+                xb = xc;
+                xc = xa;
+                fa = fb;
+                fb = fc;
+                fc = fa;
+            }
+            
+            double tol = this.tolerance / 2.0;
+            double m = (xc - xb) / 2;
+            
+            if(Math.abs(m) <= tol || fb == 0)
+            {
+                return a + Math.round(xb);
+            }
+            
+            if(Math.abs(e) >= tol && Math.abs(fa) > Math.abs(fb))
+            {
+                double s = fb / fa;
+                double p;
+                double q;
+                
+                if(xa == xc)
+                {
+                    // secant step
+                    p = 2 * m * s;
+                    q = 1 - s;
+                }
+                else
+                {
+                    // inverse quadratic interpolation
+                    double r = fb / fc;
+                    double t = fa / fc;
+                    p = s * (2 * m * t * (t - r) - (xb - xa) * (r - 1));
+                    q = (t - 1) * (r - 1) * (s - 1);
+                }
+                
+                if(p > 0)
+                {
+                    q = -q;
+                }
+                else
+                {
+                    p = -p;
+                }
+                
+                if(2 * p < Math.min(3 * m * q - Math.abs(tol * q),
+                                Math.abs(e * q)))
+                {
+                    e = d;
+                    d = p / q;
+                }
+                else
+                {
+                    d = m;
+                    e = m;
+                }
+            }
+            else
+            {
+                d = m;
+                e = m;
+            }
+            
+            xa = xb;
+            fa = fb;
+            xb += Math.abs(d) > tol ? d : Math.copySign(tol, m);
+            fb = function.value(a + Math.round(xb));
+        }
+    }
+    
+    /**
+     * Finds the maximum of a unimodal function on [<code>start</code>,
+     * <code>end</code>] by golden-section search
+     * 
+     * @param function
+     *            the function to maximise
+     * @param start
+     *            start of the interval (milliseconds since the Unix epoch)
+     * @param end
+     *            end of the interval (milliseconds since the Unix epoch)
+     * @return time of the maximum, to within the tolerance
+     */
+    public long maximise(LongToDoubleFunction function, long start, long end)
+    {
+        if(function == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        double a = start;
+        double b = end;
+        double c = b - this.GOLDEN * (b - a);
+        double d = a + this.GOLDEN * (b - a);
+        double fc = function.applyAsDouble(Math.round(c));
+        double fd = function.applyAsDouble(Math.round(d));
+        
+        while(b - a > this.tolerance)
+        {
+            if(fc > fd)
+            {
+                b = d;
+                d = c;
+                fd = fc;
+                c = b - this.GOLDEN * (b - a);
+                fc = function.applyAsDouble(Math.round(c));
+            }
+            else
+            {
+                a = c;
+                c = d;
+                fc = fd;
+                d = a + this.GOLDEN * (b - a);
+                fd = function.applyAsDouble(Math.round(d));
+            }
+        }
+        
+        return Math.round((a + b) / 2);
+    }
+}
@@ -1,7 +1,9 @@
 package astra.gui;
 
+import java.util.Collections;
 import java.util.List;
 
+import astra.GroundStation;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
@@ -9,6 +11,8 @@ public class Astra extends Application
 {
     private String tlePath;
     private final String WINDOW_TITLE = "Astra";
+    private final String USAGE = "Usage: astra "
+                    + "[--station=name,lat,lon[,alt[,mask]]] tle_file";
     
     private AstraController controller;
     
@@ -21,7 +25,8 @@ public class Astra extends Application
     public void start(Stage stage) throws Exception
     {
         // get the path of the TLE file
-        List<String> params = this.getParameters().getRaw();
+        List<String> params = this.getParameters().getUnnamed();
+        String station = this.getParameters().getNamed().get("station");
         
         try
         {
@@ -29,24 +34,28 @@ public class Astra extends Application
         }
         catch (IndexOutOfBoundsException e)
         {
-            System.err.println("Usage: astra tle_file");
+            System.err.println(this.USAGE);
         }
         
-
         // initialise controller
         this.controller = new AstraController();
         
-        // initialise model
-        AstraModel model = null;
+        // initialise model, empty until the catalogue loads
+        AstraModel model = new AstraModel();
+        this.controller.setModel(model);
         
-        try
+        // the station whose passes are plotted, if one is given
+        if(station != null)
         {
-           model = new AstraModel(this.tlePath);
-           this.controller.setModel(model);
-        }
-        catch (Exception e)
-        {
-            this.controller.pushError(e);
+            try
+            {
+                model.setStations(Collections.singletonList(
+                                Astra.parseStation(station)));
+            }
+            catch (IllegalArgumentException e)
+            {
+                System.err.println(this.USAGE);
+            }
         }
         
         // initialise view
@@ -56,5 +65,45 @@ public class Astra extends Application
         stage.setScene(view.getScene());
         stage.setTitle(this.WINDOW_TITLE);
         stage.show();
+        
+        this.controller.startTracking();
+        
+        // parse the catalogue in the background so the window is usable
+        if(this.tlePath != null)
+        {
+            this.controller.loadCatalogue(this.tlePath);
+        }
+    }
+    
+    /**
+     * @param station
+     *          a station as <code>name,lat,lon[,alt[,mask]]</code>, with
+     *          angles in degrees and the altitude in kilometres
+     * @return the station
+     * @throws IllegalArgumentException
+     *          if <code>station</code> is malformed
+     * */
+    private static GroundStation parseStation(String station)
+    {
+        String[] fields = station.split(",");
+        
+        if(fields.length < 3 || fields.length > 5)
+        {
+            throw new IllegalArgumentException("Malformed station");
+        }
+        
+        double altitude = fields.length > 3 ? Double.parseDouble(fields[3])
+                        : 0;
+        double mask = fields.length > 4 ? Double.parseDouble(fields[4]) : 0;
+        
+        return new GroundStation(fields[0].trim(), Double.parseDouble(
+                        fields[1]), Double.parseDouble(fields[2]), altitude,
+                        mask);
+    }
+    
+    @Override
+    public void stop() throws Exception
+    {
+        this.controller.stopTracking();
     }
 }
@@ -1,17 +1,45 @@
 package astra.gui;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import astra.PassScheduler;
 import astra.Satellite;
+import astra.SimulationClock;
+import astra.TrackingEngine;
+import astra.TrackingSnapshot;
+import astra.UpdateDispatcher;
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 
 /**
  * Controller component of the Astra application
  * 
+ * Updates from background threads reach the view through an
+ * {@link UpdateDispatcher}, with one channel per view component, so that
+ * however fast they arrive the application thread handles at most one batch
+ * of them at a time.
+ * 
+ * Everything shown follows the model's {@link SimulationClock}. The faster
+ * the clock runs, the more often the tracking engine ticks, so that the
+ * simulated time between ticks stays short enough for the map to interpolate
+ * across; at a thousand times real time it ticks every 60 ms.
+ * 
  * */
 public class AstraController
 {
+    private final long TRACKING_PERIOD = 1000;
+    private final long MIN_TRACKING_PERIOD = 50;
+    private final long MAX_TRACKING_STEP = 60000; // simulated ms per tick
+    private final long SCHEDULE_PERIOD = 60000;
+    private final long FRAME_PERIOD = 33; // about 30 frames per second
+    
+    private final UpdateDispatcher dispatcher;
+    private final UpdateDispatcher.Latest<TrackingSnapshot> descriptionUpdates;
+    private final UpdateDispatcher.Batch<Satellite> catalogueUpdates;
+    
     private AstraModel model;
     private AstraView view;
     
@@ -21,6 +49,11 @@ public class AstraController
      * */
     public AstraController()
     {
+        this.dispatcher = new UpdateDispatcher(Platform::runLater);
+        this.descriptionUpdates = this.dispatcher.latest(
+                        this::updateDescription);
+        this.catalogueUpdates = this.dispatcher.batch(this::addSatellites);
+        this.dispatcher.getFailures().setListener(this::reportFailure);
         this.model = null;
         this.view = null;
     }
@@ -40,6 +73,11 @@ public class AstraController
             throw new NullPointerException();
         }
         
+        this.dispatcher = new UpdateDispatcher(Platform::runLater);
+        this.descriptionUpdates = this.dispatcher.latest(
+                        this::updateDescription);
+        this.catalogueUpdates = this.dispatcher.batch(this::addSatellites);
+        this.dispatcher.getFailures().setListener(this::reportFailure);
         this.model = model;
         this.view = view;
         
@@ -80,6 +118,16 @@ public class AstraController
         this.updateView();
     }
     
+    /**
+     * @return dispatcher of updates to the view, whose counts show how many
+     *          updates have been coalesced or dropped
+     * 
+     * */
+    public UpdateDispatcher getUpdateDispatcher()
+    {
+        return this.dispatcher;
+    }
+    
     /**
      * Assigns appropriate event handlers to each action in the view
      * 
@@ -88,6 +136,200 @@ public class AstraController
     {
         // event handlers
         view.addSatelliteSelectionHandler(new SatelliteSelectionHandler());
+        
+        // live position updates arrive on the tracking thread
+        this.model.getTrackingEngine().addListener(
+                        this.descriptionUpdates::post);
+        
+        this.view.getTimeControls().bind(this.model.getClock(),
+                        this::followClock);
+        this.view.getCatalogueTable().setTimeSource(this.model.getClock());
+    }
+    
+    /**
+     * Loads a TLE file in the background. Satellites are added to the model
+     * and the view in batches as they are parsed, and progress is shown in
+     * the view until loading finishes.
+     * 
+     * @param fileName
+     *          the path to the TLE file to load
+     * */
+    public void loadCatalogue(String fileName)
+    {
+        if(fileName == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        CatalogueLoader loader = new CatalogueLoader(fileName,
+                        this.catalogueUpdates::postAll);
+        
+        loader.setOnFailed(event -> {
+            Throwable e = loader.getException();
+            
+            this.pushError(e instanceof Exception ? (Exception) e
+                            : new RuntimeException(e));
+        });
+        
+        this.view.showProgress(loader);
+        
+        Thread thread = new Thread(loader, "Catalogue loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * Adds satellites to the model and the view
+     * 
+     * @param satellites
+     *          the satellites to add
+     * */
+    private void addSatellites(List<Satellite> satellites)
+    {
+        this.model.addSatellites(satellites);
+        this.view.addSatellites(satellites);
+    }
+    
+    /**
+     * Starts tracking the selected satellite by the simulation clock, keeping
+     * the pass schedule up to date, and plotting and charting the passes over
+     * the first station
+     * 
+     * */
+    public void startTracking()
+    {
+        this.model.getTrackingEngine().setSelected(
+                        this.view.getSelectedSatellite());
+        this.model.getTrackingEngine().getFailures().setListener(
+                        this::reportFailure);
+        this.model.getTrackingEngine().start(this.getTrackingPeriod());
+        this.model.getPassScheduler().getFailures().setListener(
+                        this::reportFailure);
+        this.model.getPassScheduler().start(this.SCHEDULE_PERIOD);
+        this.view.getMapView().setSelected(this.view.getSelectedSatellite());
+        this.view.getMapView().getFailures().setListener(
+                        this::reportFailure);
+        this.view.getMapView().start(this.model, this.FRAME_PERIOD);
+        this.view.getSkyView().setSelected(this.view.getSelectedSatellite());
+        
+        this.view.getLookAngleChart().setSelected(
+                        this.view.getSelectedSatellite());
+        
+        if(!this.model.getStations().isEmpty())
+        {
+            this.view.getSkyView().start(this.model, this.model.getStations()
+                            .get(0));
+            this.view.getLookAngleChart().getFailures().setListener(
+                            this::reportFailure);
+            this.view.getLookAngleChart().start(this.model, this.model
+                            .getStations().get(0), this.dispatcher);
+        }
+    }
+    
+    /**
+     * Catches up with a change to the clock: retimes the tracking engine for
+     * the new rate, shows catalogue epoch ages against the new time and, if
+     * the clock has left the window already scheduled, asks for the pass
+     * schedule to be brought to the new time rather than waiting for its
+     * next advance, without waiting for it to be done.
+     * 
+     * */
+    private void followClock()
+    {
+        TrackingEngine engine = this.model.getTrackingEngine();
+        PassScheduler scheduler = this.model.getPassScheduler();
+        
+        if(engine.isRunning())
+        {
+            engine.setPeriod(this.getTrackingPeriod());
+        }
+        
+        this.view.getCatalogueTable().refresh();
+        
+        if(!scheduler.covers(this.model.getClock().getTime()))
+        {
+            scheduler.advanceNow();
+        }
+    }
+    
+    /**
+     * @return time between tracking ticks for the current rate of the clock
+     *          (ms)
+     * 
+     * */
+    private long getTrackingPeriod()
+    {
+        SimulationClock clock = this.model.getClock();
+        
+        if(clock.isPaused())
+        {
+            return this.TRACKING_PERIOD;
+        }
+        
+        return Math.max(this.MIN_TRACKING_PERIOD, Math.min(
+                        this.TRACKING_PERIOD, Math.round(this.MAX_TRACKING_STEP
+                                        / clock.getRate())));
+    }
+    
+    /**
+     * Stops real-time tracking
+     * 
+     * */
+    public void stopTracking()
+    {
+        if(this.model != null)
+        {
+            this.model.getTrackingEngine().stop();
+            this.model.getPassScheduler().stop();
+        }
+        
+        if(this.view != null)
+        {
+            this.view.getMapView().stop();
+            this.view.getSkyView().stop();
+            this.view.getLookAngleChart().stop();
+        }
+    }
+    
+    /**
+     * Shows the description of the selected satellite, followed by its live
+     * position if it is in <code>snapshot</code>. The view updates the
+     * existing rows in place, so this is cheap to call at every tick.
+     * 
+     * @param snapshot
+     *          the latest tracking snapshot, or <code>null</code> if there is
+     *          none yet
+     * */
+    private void updateDescription(TrackingSnapshot snapshot)
+    {
+        Satellite selectedSatellite = this.view.getSelectedSatellite();
+        
+        // nothing is selected until the catalogue has loaded
+        if(selectedSatellite == null)
+        {
+            return;
+        }
+        
+        Map<String, String> description = this.model.getSatelliteDescription(
+                        selectedSatellite);
+        int index = snapshot == null ? -1 : snapshot.indexOf(
+                        selectedSatellite);
+        
+        if(index >= 0)
+        {
+            description = new LinkedHashMap<String, String>(description);
+            
+            description.put("Latitude", String.format("%.4f",
+                            Math.toDegrees(snapshot.getLatitude(index))));
+            description.put("Longitude", String.format("%.4f",
+                            Math.toDegrees(snapshot.getLongitude(index))));
+            description.put("Altitude", String.format("%.1f",
+                            snapshot.getAltitude(index)));
+            description.put("Speed", String.format("%.3f",
+                            snapshot.getSpeed(index)));
+        }
+        
+        this.view.setSatelliteDescription(description);
     }
     
     /**
@@ -98,8 +340,7 @@ public class AstraController
     public void updateView()
     {
         this.view.setSatelliteList(this.model.getSatelliteList());
-        this.view.setSatelliteDescription(this.model.getSatelliteDescription(
-                        this.view.getSelectedSatellite()));
+        this.updateDescription(this.model.getTrackingEngine().getSnapshot());
     }
     
     private class SatelliteSelectionHandler implements ChangeListener<Satellite>
@@ -109,12 +350,28 @@ public class AstraController
                         Satellite arg1, Satellite arg2)
         {
             Satellite selectedSatellite = view.getSelectedSatellite();
-            Map<String, String> satelliteDescription =
-                            model.getSatelliteDescription(selectedSatellite);
-            view.setSatelliteDescription(satelliteDescription);
+            model.getTrackingEngine().setSelected(selectedSatellite);
+            view.getMapView().setSelected(selectedSatellite);
+            view.getSkyView().setSelected(selectedSatellite);
+            view.getLookAngleChart().setSelected(selectedSatellite);
+            
+            // the whole catalogue is tracked, so the latest snapshot usually
+            // has the new selection and its live rows can stay in place
+            descriptionUpdates.post(model.getTrackingEngine().getSnapshot());
         }
     }
 
+    /**
+     * Shows a failure of work done on a background thread
+     * 
+     * @param e
+     *          the exception thrown
+     * */
+    private void reportFailure(RuntimeException e)
+    {
+        Platform.runLater(() -> this.pushError(e));
+    }
+    
     /**
      * Pushes an error forward into the view
      * 
@@ -3,13 +3,25 @@ package astra.gui;
 import java.io.IOException;
 import java.text.ParseException;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import astra.FootprintGenerator;
+import astra.FrameTransformer;
+import astra.GroundStation;
+import astra.GroundTrackGenerator;
+import astra.LookAngleCalculator;
+import astra.OverheadIndex;
+import astra.PassScheduler;
+import astra.PropagationTier;
+import astra.PropagatorRegistry;
 import astra.Satellite;
 import astra.SatelliteReader;
+import astra.SimulationClock;
+import astra.TrackingEngine;
 
 /**
  * Model component of the Astra application
@@ -17,7 +29,49 @@ import astra.SatelliteReader;
  * */
 public class AstraModel
 {   
+    private final long PASS_HORIZON = 7 * 86400000L;
+    private final double GROUND_TRACK_TOLERANCE = 5;
+    
     private List<Satellite> satellites;
+    private Set<Satellite> satelliteSet;
+    private List<GroundStation> stations;
+    private SimulationClock clock;
+    private PropagatorRegistry propagators;
+    private TrackingEngine trackingEngine;
+    private OverheadIndex overheadIndex;
+    private PassScheduler passScheduler;
+    private GroundTrackGenerator groundTrackGenerator;
+    private FootprintGenerator footprintGenerator;
+    
+    /**
+     * Constructor for the {@link AstraModel} class. The catalogue starts out
+     * empty, to be filled by {@link #addSatellites(List)} as it loads.
+     * 
+     * */
+    public AstraModel()
+    {
+        this.satellites = new ArrayList<Satellite>();
+        this.satelliteSet = AstraModel.identitySet(this.satellites);
+        this.stations = new ArrayList<GroundStation>();
+        this.clock = new SimulationClock();
+        this.propagators = new PropagatorRegistry();
+        this.trackingEngine = new TrackingEngine(this.propagators.get(
+                        PropagationTier.J2_SECULAR), new FrameTransformer());
+        this.trackingEngine.setTimeSource(this.clock);
+        this.overheadIndex = new OverheadIndex();
+        
+        // the whole catalogue is watched, so the index covers everything
+        this.trackingEngine.addListener(this.overheadIndex);
+        
+        this.passScheduler = new PassScheduler(this.propagators.get(
+                        PropagationTier.J2_SECULAR), new FrameTransformer(),
+                        this.PASS_HORIZON);
+        this.passScheduler.setTimeSource(this.clock);
+        this.groundTrackGenerator = new GroundTrackGenerator(
+                        this.propagators.get(PropagationTier.J2_SECULAR),
+                        new FrameTransformer(), this.GROUND_TRACK_TOLERANCE);
+        this.footprintGenerator = new FootprintGenerator();
+    }
     
     /**
      * Constructor for the {@link AstraModel} class
@@ -32,6 +86,8 @@ public class AstraModel
     public AstraModel(String defaultTLEFileName) throws IOException,
         ParseException
     {
+        this();
+        
         if(defaultTLEFileName == null)
         {
             throw new NullPointerException();
@@ -39,7 +95,7 @@ public class AstraModel
                
         SatelliteReader reader = new SatelliteReader(defaultTLEFileName);
         
-        this.satellites = reader.read();
+        this.setSatelliteList(reader.read());
     }
     
     /**
@@ -52,70 +108,180 @@ public class AstraModel
     }
     
     /**
-     * @param satellite
-     *          the satellite to return the description for
-     * @return satellite description
+     * Replaces the satellite list, such as after fresh TLEs are loaded. Only
+     * satellites whose elements have changed have their passes recomputed.
+     * 
+     * @param satellites
+     *          the new satellite list
      * 
      * */
-    public Map<String, String> getSatelliteDescription(Satellite satellite)
+    public void setSatelliteList(List<Satellite> satellites)
     {
-        if(satellite == null)
+        if(satellites == null)
         {
             throw new NullPointerException();
         }
         
-        if(!this.satellites.contains(satellite))
-        {
-            throw new IllegalArgumentException("No such satellite exists");
-        }
-        
-        String satelliteString = satellite.toString();
-        
-        int startIndex = satelliteString.indexOf("[") + 1;
-        int endIndex = satelliteString.indexOf("]");
-        
-        String strippedSatelliteString = satelliteString.trim().substring(
-                        startIndex, endIndex);
-        
-        List<String> pairs = new ArrayList<String>(
-                        Arrays.asList(strippedSatelliteString.split(","))); 
-        
-        List<String> cells = new ArrayList<String>();
-        
-        for(int i=0;i<pairs.size();i++)
+        this.satellites = new ArrayList<Satellite>(satellites);
+        this.satelliteSet = AstraModel.identitySet(satellites);
+        this.trackingEngine.setWatched(satellites);
+        this.passScheduler.setSatellites(satellites);
+    }
+    
+    /**
+     * Appends satellites to the catalogue, such as a batch delivered while a
+     * TLE file is loading
+     * 
+     * @param batch
+     *          the satellites to add
+     * 
+     * */
+    public void addSatellites(List<Satellite> batch)
+    {
+        if(batch == null)
         {
-            cells.addAll(Arrays.asList(pairs.get(i).split("=")));
+            throw new NullPointerException();
         }
         
-        Map<String, String> description = new HashMap<String, String>();
+        this.satellites.addAll(batch);
+        this.satelliteSet.addAll(batch);
         
-        for(int i=1;i<pairs.size();i++)
+        // only the batch is added, rather than resetting every satellite
+        this.trackingEngine.watchAll(batch);
+        this.passScheduler.addSatellites(batch);
+    }
+    
+    /**
+     * @return ground stations whose passes are scheduled
+     * 
+     * */
+    public List<GroundStation> getStations()
+    {
+        return this.stations;
+    }
+    
+    /**
+     * Replaces the ground stations whose passes are scheduled
+     * 
+     * @param stations
+     *          the new stations
+     * 
+     * */
+    public void setStations(List<GroundStation> stations)
+    {
+        if(stations == null)
         {
-            if(i % 2 != 0)
-            {
-                description.put(AstraModel.capitalise(cells.get(i - 1).trim()),
-                                cells.get(i));
-            }
+            throw new NullPointerException();
         }
         
-        return description;
+        this.stations = new ArrayList<GroundStation>(stations);
+        this.passScheduler.setStations(stations);
     }
     
     /**
-     * Capitalises <code>s</code>
+     * @return clock of the displayed time, which the tracking engine and pass
+     *          schedule follow
      * 
-     * @param s
-     *          string to be capitalised
-     * @return capitalised string
+     * */
+    public SimulationClock getClock()
+    {
+        return this.clock;
+    }
+    
+    /**
+     * @return tracking engine
      * 
      * */
-    private static String capitalise(String s)
+    public TrackingEngine getTrackingEngine()
     {
-        if(s == null)
+        return this.trackingEngine;
+    }
+    
+    /**
+     * @return index of the current sub-satellite points of the catalogue,
+     *          updated at each tracking tick
+     * 
+     * */
+    public OverheadIndex getOverheadIndex()
+    {
+        return this.overheadIndex;
+    }
+    
+    /**
+     * @return rolling seven-day pass schedule of the catalogue
+     * 
+     * */
+    public PassScheduler getPassScheduler()
+    {
+        return this.passScheduler;
+    }
+    
+    /**
+     * @return generator of the ground tracks drawn on the map
+     * 
+     * */
+    public GroundTrackGenerator getGroundTrackGenerator()
+    {
+        return this.groundTrackGenerator;
+    }
+    
+    /**
+     * @return generator of the footprints drawn on the map
+     * 
+     * */
+    public FootprintGenerator getFootprintGenerator()
+    {
+        return this.footprintGenerator;
+    }
+    
+    /**
+     * @return a new look angle calculator using the same propagator as the
+     *          pass schedule; calculators are not thread-safe, so each thread
+     *          needs its own
+     * 
+     * */
+    public LookAngleCalculator createLookAngleCalculator()
+    {
+        return new LookAngleCalculator(this.propagators.get(
+                        PropagationTier.J2_SECULAR), new FrameTransformer());
+    }
+    
+    /**
+     * @param satellite
+     *          the satellite to return the description for
+     * @return satellite description, keyed by label in display order; it is
+     *          cached by the satellite, so this is cheap to call repeatedly
+     * 
+     * */
+    public Map<String, String> getSatelliteDescription(Satellite satellite)
+    {
+        if(satellite == null)
         {
             throw new NullPointerException();
         }
         
-        return s.substring(0, 1).toUpperCase() + s.substring(1);
+        if(!this.satelliteSet.contains(satellite))
+        {
+            throw new IllegalArgumentException("No such satellite exists");
+        }
+        
+        return satellite.getDescription().asMap();
+    }
+    
+    /**
+     * @param satellites
+     *          satellites
+     * @return a set of <code>satellites</code> by identity, for constant-time
+     *          membership tests
+     * 
+     * */
+    private static Set<Satellite> identitySet(List<Satellite> satellites)
+    {
+        Set<Satellite> set = Collections.newSetFromMap(
+                        new IdentityHashMap<Satellite, Boolean>());
+        
+        set.addAll(satellites);
+        
+        return set;
     }
 }
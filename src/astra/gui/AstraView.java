@@ -1,25 +1,34 @@
 package astra.gui;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import astra.Satellite;
 import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.beans.value.ChangeListener;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Worker;
+import javafx.geometry.Orientation;
+import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
-import javafx.scene.control.ListCell;
-import javafx.scene.control.ListView;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.control.SplitPane;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.layout.BorderPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
 
 /**
  * View component of the Astra application
@@ -27,15 +36,25 @@ import javafx.scene.layout.BorderPane;
  */
 public class AstraView
 {
-    private final int WIDTH = 800;
-    private final int HEIGHT = 600;
+    private final int WIDTH = 1200;
+    private final int HEIGHT = 800;
+    private final double STATUS_SPACING = 8;
+    private final double SKY_VIEW_SIZE = 300;
     
     private ObservableList<Satellite> satellites;
-    private ObservableList<Entry<String, String>> satelliteDescription;
+    private ObservableList<DescriptionRow> satelliteDescription;
+    private Map<String, DescriptionRow> satelliteDescriptionRows;
     
     private BorderPane root;
-    private ListView<Satellite> satelliteListDisplay;
-    private TableView<Entry<String, String>> satelliteDescriptionDisplay;
+    private CatalogueTable satelliteListDisplay;
+    private MapView mapView;
+    private LookAngleChart lookAngleChart;
+    private TableView<DescriptionRow> satelliteDescriptionDisplay;
+    private SkyView skyView;
+    private TimeControls timeControls;
+    private HBox statusBar;
+    private ProgressBar progressBar;
+    private Label statusLabel;
     private Alert errorAlert;
     
     /**
@@ -47,9 +66,12 @@ public class AstraView
         this.root = new BorderPane();
         this.satellites = FXCollections.observableArrayList();
         this.satelliteDescription = FXCollections.observableArrayList();
+        this.satelliteDescriptionRows = new HashMap<String, DescriptionRow>();
         
+        this.addTimeControls();
         this.addSatelliteListDisplay();
         this.addSatelliteDescriptionDisplay();
+        this.addStatusBar();
     }
     
     /**
@@ -71,8 +93,103 @@ public class AstraView
             throw new NullPointerException();
         }
         
-        this.satellites.clear();
+        this.satellites.setAll(list);
+        this.satelliteListDisplay.setSatellites(list);
+    }
+    
+    /**
+     * Appends satellites to the satellite list, selecting the first one if
+     * the list was empty
+     * 
+     * @param list
+     *            satellites to add
+     */
+    public void addSatellites(List<Satellite> list)
+    {
+        if(list == null)
+        {
+            throw new NullPointerException();
+        }
+        
         this.satellites.addAll(list);
+        this.satelliteListDisplay.addSatellites(list);
+    }
+    
+    /**
+     * Shows the progress of a background task in the status bar until it
+     * finishes
+     * 
+     * @param worker
+     *            the task
+     */
+    public void showProgress(Worker<?> worker)
+    {
+        if(worker == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.progressBar.progressProperty().bind(worker.progressProperty());
+        this.statusLabel.textProperty().bind(worker.messageProperty());
+        this.statusBar.setVisible(true);
+        
+        worker.runningProperty().addListener((observable, wasRunning,
+                        running) -> {
+            if(!running)
+            {
+                this.progressBar.progressProperty().unbind();
+                this.statusLabel.textProperty().unbind();
+                this.statusBar.setVisible(false);
+            }
+        });
+    }
+    
+    /**
+     * @return world map
+     * 
+     */
+    public MapView getMapView()
+    {
+        return this.mapView;
+    }
+    
+    /**
+     * @return charts of the look angles to the selected satellite from the
+     *            ground station
+     * 
+     */
+    public LookAngleChart getLookAngleChart()
+    {
+        return this.lookAngleChart;
+    }
+    
+    /**
+     * @return sky plot of the passes over the ground station, hidden until
+     *            it is started
+     * 
+     */
+    public SkyView getSkyView()
+    {
+        return this.skyView;
+    }
+    
+    /**
+     * @return controls of the simulation clock, disabled until they are bound
+     *            to one
+     * 
+     */
+    public TimeControls getTimeControls()
+    {
+        return this.timeControls;
+    }
+    
+    /**
+     * @return table of the satellite catalogue
+     * 
+     */
+    public CatalogueTable getCatalogueTable()
+    {
+        return this.satelliteListDisplay;
     }
     
     /**
@@ -94,26 +211,23 @@ public class AstraView
     }
     
     /**
-     * @return selected satellite
+     * @return selected satellite, or <code>null</code> if the table is empty
      * 
      */
     public Satellite getSelectedSatellite()
     {
-        Satellite selectedSatellite = this.satelliteListDisplay
-                        .getSelectionModel().getSelectedItem();
-        
-        // default to top of satellite list
-        if(selectedSatellite == null)
-        {
-            selectedSatellite = this.satellites.get(0);
-        }
-        
-        return selectedSatellite;
+        // defaults to the top of the table, which is empty while loading
+        return this.satelliteListDisplay.getSelectedSatellite();
     }
     
     /**
+     * Shows a satellite description. Rows are kept for as long as their field
+     * is shown and their values are updated in place, so refreshing live
+     * fields only redraws the cells whose values have changed; the rows are
+     * only replaced when the set of fields changes.
+     * 
      * @param description
-     *            satellite description
+     *            satellite description, in display order
      * 
      */
     public void setSatelliteDescription(Map<String, String> description)
@@ -123,75 +237,130 @@ public class AstraView
             throw new NullPointerException();
         }
         
-        List<Entry<String, String>> entryList = new ArrayList<
-                        Entry<String, String>>(description.entrySet());
-        Collections.reverse(entryList); // cheap hack to get ordering right
+        if(!this.hasFields(description))
+        {
+            List<DescriptionRow> rows = new ArrayList<DescriptionRow>(
+                            description.size());
+            
+            for(String label : description.keySet())
+            {
+                rows.add(this.satelliteDescriptionRows.computeIfAbsent(label,
+                                DescriptionRow::new));
+            }
+            
+            this.satelliteDescriptionRows.keySet().retainAll(
+                            description.keySet());
+            this.satelliteDescription.setAll(rows);
+        }
         
-        this.satelliteDescription = FXCollections.observableArrayList(
-                        entryList);
-        this.satelliteDescriptionDisplay.setItems(this.satelliteDescription);
+        for(Map.Entry<String, String> entry : description.entrySet())
+        {
+            this.satelliteDescriptionRows.get(entry.getKey()).setValue(
+                            entry.getValue());
+        }
     }
     
     /**
-     * Adds the satellite list display to the GUI
+     * @param description
+     *            satellite description
+     * @return whether the description table already shows exactly the fields
+     *            of <code>description</code>, in the same order
      * 
      */
-    private void addSatelliteListDisplay()
+    private boolean hasFields(Map<String, String> description)
     {
-        this.satelliteListDisplay = new ListView<Satellite>();
-        this.setupSatelliteListDisplay();
-        this.satelliteListDisplay.getSelectionModel().select(0); // default
-        this.satelliteListDisplay.setItems(this.satellites);
-        this.root.setLeft(this.satelliteListDisplay);
+        if(description.size() != this.satelliteDescription.size())
+        {
+            return false;
+        }
+        
+        Iterator<DescriptionRow> rows = this.satelliteDescription.iterator();
+        
+        for(String label : description.keySet())
+        {
+            if(!label.equals(rows.next().getLabel()))
+            {
+                return false;
+            }
+        }
+        
+        return true;
     }
     
     /**
-     * Sets up the entries of the {@link ListView} storing the satellite list
+     * Adds the controls of the simulation clock, above everything else, to
+     * the GUI
      * 
      */
-    private void setupSatelliteListDisplay()
+    private void addTimeControls()
     {
-        this.setupListSelectionListening(); // selection listening
+        this.timeControls = new TimeControls();
+        this.root.setTop(this.timeControls.getRoot());
     }
     
     /**
-     * Sets up event listener for list selection. This avoids using a mouse
-     * event handler (which clobbers list entry highlighting).
+     * Adds the world map, and the satellite catalogue table and look angle
+     * charts in tabs below it, to the GUI
      * 
      */
-    private void setupListSelectionListening()
+    private void addSatelliteListDisplay()
     {
-        this.satelliteListDisplay.setCellFactory((list) -> {
-            return new ListCell<Satellite>()
-            {
-                @Override
-                protected void updateItem(Satellite item, boolean empty)
-                {
-                    super.updateItem(item, empty);
-                    
-                    if(item == null || empty)
-                    {
-                        setText(null);
-                    }
-                    else
-                    {
-                        setText(item.getName());
-                    }
-                }
-            };
-        });
+        this.satelliteListDisplay = new CatalogueTable();
+        this.mapView = new MapView();
+        this.lookAngleChart = new LookAngleChart();
+        
+        Tab catalogueTab = new Tab("Catalogue",
+                        this.satelliteListDisplay.getRoot());
+        Tab chartTab = new Tab("Look angles", this.lookAngleChart.getRoot());
+        TabPane tabs = new TabPane(catalogueTab, chartTab);
+        tabs.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
+        
+        // the map above the tabs, sharing the height between them
+        SplitPane centre = new SplitPane(this.mapView.getRoot(), tabs);
+        centre.setOrientation(Orientation.VERTICAL);
+        this.root.setCenter(centre);
     }
     
     /**
-     * Adds the satellite description display to the GUI
+     * Adds the satellite description display, with the sky plot below it, to
+     * the GUI
      * 
      */
     private void addSatelliteDescriptionDisplay()
     {
-        this.satelliteDescriptionDisplay = new TableView<Entry<String, String>>(
+        this.satelliteDescriptionDisplay = new TableView<DescriptionRow>(
                         this.satelliteDescription);
         this.setupSatelliteDescriptionDisplay();
-        this.root.setRight(this.satelliteDescriptionDisplay);
+        
+        // the sky plot only takes up room once there is a station to plot
+        this.skyView = new SkyView();
+        this.skyView.getRoot().setPrefSize(this.SKY_VIEW_SIZE,
+                        this.SKY_VIEW_SIZE);
+        this.skyView.getRoot().managedProperty().bind(this.skyView.getRoot()
+                        .visibleProperty());
+        this.skyView.getRoot().setVisible(false);
+        
+        VBox right = new VBox(this.satelliteDescriptionDisplay,
+                        this.skyView.getRoot());
+        VBox.setVgrow(this.satelliteDescriptionDisplay, Priority.ALWAYS);
+        this.root.setRight(right);
+    }
+    
+    /**
+     * Adds the status bar, hidden until there is progress to show, to the GUI
+     * 
+     */
+    private void addStatusBar()
+    {
+        this.progressBar = new ProgressBar();
+        this.statusLabel = new Label();
+        this.statusBar = new HBox(this.STATUS_SPACING, this.progressBar,
+                        this.statusLabel);
+        this.statusBar.setAlignment(Pos.CENTER_LEFT);
+        this.statusBar.setVisible(false);
+        this.statusBar.managedProperty().bind(this.statusBar
+                        .visibleProperty());
+        this.root.setBottom(this.statusBar);
     }
     
     /**
@@ -201,9 +370,9 @@ public class AstraView
      */
     private void setupSatelliteDescriptionDisplay()
     {
-        TableColumn<Entry<String, String>, String> keyColumn = new TableColumn<>(
+        TableColumn<DescriptionRow, String> keyColumn = new TableColumn<>(
                         "Field");
-        TableColumn<Entry<String, String>, String> valueColumn = new TableColumn<>(
+        TableColumn<DescriptionRow, String> valueColumn = new TableColumn<>(
                         "Value");
         
         // field factories
@@ -212,7 +381,7 @@ public class AstraView
         });
         
         keyColumn.setCellValueFactory(cell -> {
-            return new ReadOnlyObjectWrapper<>(cell.getValue().getKey());
+            return new ReadOnlyObjectWrapper<>(cell.getValue().getLabel());
         });
         
         // value factories
@@ -220,8 +389,9 @@ public class AstraView
             return new ValueCell();
         });
         
+        // cells observe the row's value, so they redraw when it changes
         valueColumn.setCellValueFactory(cell -> {
-            return new ReadOnlyObjectWrapper<>(cell.getValue().getValue());
+            return cell.getValue().valueProperty();
         });
         
         // add TableColumns to our TableView
@@ -229,11 +399,13 @@ public class AstraView
         this.satelliteDescriptionDisplay.getColumns().add(valueColumn);
     }
     
-    private class KeyCell extends TableCell<Entry<String, String>, String>
+    private class KeyCell extends TableCell<DescriptionRow, String>
     {
         @Override
         protected void updateItem(String key, boolean empty)
         {
+            super.updateItem(key, empty);
+            
             if(empty || key == null)
             {
                 setText(null);
@@ -246,11 +418,13 @@ public class AstraView
         }
     }
     
-    private class ValueCell extends TableCell<Entry<String, String>, String>
+    private class ValueCell extends TableCell<DescriptionRow, String>
     {
         @Override
         protected void updateItem(String value, boolean empty)
         {
+            super.updateItem(value, empty);
+            
             if(empty || value == null)
             {
                 setText(null);
@@ -265,8 +439,8 @@ public class AstraView
     
     /**
      * Adds <code>handler</code> as the event handler for satellite selection
-     * events. These events are fired whenever the user clicks on an entry in
-     * the satellite list display.
+     * events. These events are fired whenever the user clicks on a row of the
+     * satellite catalogue table.
      * 
      * @param handler
      *            the {@link ChangeListener} for handling the selection
@@ -278,8 +452,8 @@ public class AstraView
             throw new NullPointerException();
         }
         
-        this.satelliteListDisplay.getSelectionModel().selectedItemProperty()
-                        .addListener(handler);
+        this.satelliteListDisplay.selectedSatelliteProperty().addListener(
+                        handler);
     }
     
     /**
@@ -0,0 +1,135 @@
+package astra.gui;
+
+import java.util.Comparator;
+
+import astra.Earth;
+
+/**
+ * Columns of the catalogue table. Each column knows how to format a row and
+ * how to order rows by their precomputed keys.
+ * 
+ * */
+public enum CatalogueColumn
+{
+    NAME("Name", Comparator.comparing(CatalogueRow::getNameKey))
+    {
+        @Override
+        public String format(CatalogueRow row, long time)
+        {
+            return row.getName();
+        }
+    },
+    NUMBER("Number", Comparator.comparingInt(CatalogueRow::getNumber))
+    {
+        @Override
+        public String format(CatalogueRow row, long time)
+        {
+            return Integer.toString(row.getNumber());
+        }
+    },
+    INCLINATION("Inclination (\u00b0)", Comparator.comparingDouble(
+                    CatalogueRow::getInclination))
+    {
+        @Override
+        public String format(CatalogueRow row, long time)
+        {
+            return String.format("%.4f", row.getInclination());
+        }
+    },
+    PERIOD("Period (min)", Comparator.comparingDouble(
+                    CatalogueRow::getPeriod))
+    {
+        @Override
+        public String format(CatalogueRow row, long time)
+        {
+            return CatalogueColumn.formatNumber("%.2f", row.getPeriod());
+        }
+    },
+    APOGEE("Apogee (km)", Comparator.comparingDouble(
+                    CatalogueRow::getApogee))
+    {
+        @Override
+        public String format(CatalogueRow row, long time)
+        {
+            return CatalogueColumn.formatNumber("%.0f", row.getApogee());
+        }
+    },
+    PERIGEE("Perigee (km)", Comparator.comparingDouble(
+                    CatalogueRow::getPerigee))
+    {
+        @Override
+        public String format(CatalogueRow row, long time)
+        {
+            return CatalogueColumn.formatNumber("%.0f", row.getPerigee());
+        }
+    },
+    // the older the elements, the earlier the epoch, whatever the time the
+    // age is measured from, so the order needs no time
+    EPOCH_AGE("Epoch age (days)", (a, b) -> Long.compare(b.getEpoch(), a
+                    .getEpoch()))
+    {
+        @Override
+        public String format(CatalogueRow row, long time)
+        {
+            return String.format("%.1f", (time - row.getEpoch())
+                            / Earth.MILLIS_PER_DAY);
+        }
+    };
+    
+    private final String label;
+    private final Comparator<CatalogueRow> comparator;
+    
+    /**
+     * @param label
+     *          column heading
+     * @param comparator
+     *          ascending order of the column
+     * */
+    private CatalogueColumn(String label, Comparator<CatalogueRow> comparator)
+    {
+        this.label = label;
+        this.comparator = comparator;
+    }
+    
+    /**
+     * @return column heading
+     * 
+     * */
+    public String getLabel()
+    {
+        return label;
+    }
+    
+    /**
+     * @return ascending order of the column
+     * 
+     * */
+    public Comparator<CatalogueRow> getComparator()
+    {
+        return comparator;
+    }
+    
+    /**
+     * @param row
+     *          a row
+     * @param time
+     *          time the epoch age is measured from, that of the simulation
+     *          clock (milliseconds since the Unix epoch)
+     * @return text of the cell of this column in <code>row</code>
+     * 
+     * */
+    public abstract String format(CatalogueRow row, long time);
+    
+    /**
+     * @param pattern
+     *          format of the number
+     * @param value
+     *          the number, or NaN if it is unknown
+     * @return the number formatted, or a dash if it is unknown
+     * 
+     * */
+    private static String formatNumber(String pattern, double value)
+    {
+        return Double.isNaN(value) ? "-" : String.format(pattern, value);
+    }
+}
@@ -0,0 +1,169 @@
+package astra.gui;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Sort keys of a catalogue, precomputed so that the table can be re-sorted in
+ * linear time.
+ * 
+ * For each column every row is given a dense rank: its position among the
+ * distinct values of the column, so that equal values share a rank. Sorting
+ * by any combination of columns is then a stable counting sort on the ranks
+ * of each column in turn, from the last column to the first, which touches
+ * only <code>int</code> arrays. Building the index sorts the rows once per
+ * column, so it belongs off the application thread.
+ * 
+ * */
+public final class CatalogueIndex
+{
+    private final CatalogueRow[] rows;
+    private final int[][] ranks;
+    private final int[] rankCounts;
+    
+    /**
+     * Constructor for the {@link CatalogueIndex} class
+     * 
+     * @param rows
+     *          the rows to index, which the index keeps and does not copy
+     * */
+    public CatalogueIndex(CatalogueRow[] rows)
+    {
+        if(rows == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        CatalogueColumn[] columns = CatalogueColumn.values();
+        
+        this.rows = rows;
+        this.ranks = new int[columns.length][];
+        this.rankCounts = new int[columns.length];
+        
+        Integer[] order = new Integer[rows.length];
+        
+        for(CatalogueColumn column : columns)
+        {
+            Comparator<CatalogueRow> comparator = column.getComparator();
+            int[] ranks = new int[rows.length];
+            int rank = -1;
+            
+            for(int i = 0; i < order.length; i++)
+            {
+                order[i] = i;
+            }
+            
+            Arrays.sort(order, (a, b) -> comparator.compare(rows[a], rows[b]));
+            
+            for(int i = 0; i < order.length; i++)
+            {
+                if(i == 0 || comparator.compare(rows[order[i - 1]],
+                                rows[order[i]]) != 0)
+                {
+                    rank++;
+                }
+                
+                ranks[order[i]] = rank;
+            }
+            
+            this.ranks[column.ordinal()] = ranks;
+            this.rankCounts[column.ordinal()] = rank + 1;
+        }
+    }
+    
+    /**
+     * @return number of rows indexed
+     * 
+     * */
+    public int size()
+    {
+        return rows.length;
+    }
+    
+    /**
+     * Sorts the rows by one or more columns. Rows that compare equal on every
+     * column keep their original order.
+     * 
+     * @param columns
+     *          columns to sort by, most significant first
+     * @param descending
+     *          whether each column is sorted in descending order
+     * @return the rows in sorted order
+     * @throws IllegalArgumentException
+     *          if the arrays differ in length
+     * */
+    public CatalogueRow[] sort(CatalogueColumn[] columns, boolean[] descending)
+    {
+        if(columns == null || descending == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(columns.length != descending.length)
+        {
+            throw new IllegalArgumentException("Mismatched sort order");
+        }
+        
+        int[] order = new int[this.rows.length];
+        int[] sorted = new int[this.rows.length];
+        
+        for(int i = 0; i < order.length; i++)
+        {
+            order[i] = i;
+        }
+        
+        // least significant column first, relying on each pass being stable
+        for(int c = columns.length - 1; c >= 0; c--)
+        {
+            int[] ranks = this.ranks[columns[c].ordinal()];
+            int count = this.rankCounts[columns[c].ordinal()];
+            int[] starts = new int[count + 1];
+            
+            for(int i = 0; i < order.length; i++)
+            {
+                starts[this.key(ranks[i], count, descending[c]) + 1]++;
+            }
+            
+            for(int k = 1; k <= count; k++)
+            {
+                starts[k] += starts[k - 1];
+            }
+            
+            for(int i = 0; i < order.length; i++)
+            {
+                int row = order[i];
+                
+                sorted[starts[this.key(ranks[row], count, descending[c])]++] =
+                                row;
+            }
+            
+            int[] swap = order;
+            order = sorted;
+            sorted = swap;
+        }
+        
+        CatalogueRow[] result = new CatalogueRow[order.length];
+        
+        for(int i = 0; i < order.length; i++)
+        {
+            result[i] = this.rows[order[i]];
+        }
+        
+        return result;
+    }
+    
+    /**
+     * @param rank
+     *          dense rank of a row in a column
+     * @param count
+     *          number of distinct ranks in the column
+     * @param descending
+     *          whether the column is sorted in descending order
+     * @return position of the rank's bucket in the counting sort
+     * 
+     * */
+    private int key(int rank, int count, boolean descending)
+    {
+        return descending ? count - 1 - rank : rank;
+    }
+}
@@ -0,0 +1,81 @@
+package astra.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import astra.Satellite;
+import astra.SatelliteReader;
+import javafx.concurrent.Task;
+
+/**
+ * Background task that reads a TLE file, handing the satellites on in batches
+ * as they are parsed so that the user can browse the catalogue before it has
+ * finished loading
+ * 
+ * */
+public class CatalogueLoader extends Task<List<Satellite>>
+{
+    private final int BATCH_SIZE = 500;
+    
+    private final String fileName;
+    private final Consumer<List<Satellite>> batchHandler;
+    
+    /**
+     * Constructor for the {@link CatalogueLoader} class
+     * 
+     * @param fileName
+     *          the path to the TLE file to load
+     * @param batchHandler
+     *          receives each batch of parsed satellites, in file order, on
+     *          the loading thread
+     * */
+    public CatalogueLoader(String fileName,
+                    Consumer<List<Satellite>> batchHandler)
+    {
+        if(fileName == null || batchHandler == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.fileName = fileName;
+        this.batchHandler = batchHandler;
+    }
+    
+    /**
+     * Parses the file, reporting progress as the number of entries parsed out
+     * of the total
+     * 
+     * @return every satellite in the file
+     * @throws Exception
+     *          if the file cannot be read or is not valid TLE
+     * */
+    @Override
+    protected List<Satellite> call() throws Exception
+    {
+        this.updateMessage("Reading " + this.fileName);
+        
+        SatelliteReader reader = new SatelliteReader(this.fileName);
+        int count = reader.getEntryCount();
+        List<Satellite> satellites = new ArrayList<Satellite>(count);
+        List<Satellite> batch = new ArrayList<Satellite>(this.BATCH_SIZE);
+        
+        for(int i = 0; i < count && !this.isCancelled(); i++)
+        {
+            batch.add(reader.read(i));
+            
+            if(batch.size() == this.BATCH_SIZE || i == count - 1)
+            {
+                this.batchHandler.accept(batch);
+                satellites.addAll(batch);
+                batch = new ArrayList<Satellite>(this.BATCH_SIZE);
+                
+                this.updateProgress(i + 1, count);
+                this.updateMessage("Loaded " + (i + 1) + " of " + count
+                                + " satellites");
+            }
+        }
+        
+        return satellites;
+    }
+}
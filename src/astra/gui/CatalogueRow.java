@@ -0,0 +1,182 @@
+package astra.gui;
+
+import java.util.Locale;
+
+import astra.Earth;
+import astra.OrbitalElements;
+import astra.Satellite;
+
+/**
+ * Row of the catalogue table. Everything the table sorts and filters on is
+ * computed once, when the row is created, and held in primitive fields so
+ * that comparisons neither allocate nor re-derive anything from the
+ * satellite.
+ * 
+ * A satellite whose elements are invalid still has a row, with its name,
+ * number, inclination and epoch, but with no period, apogee or perigee.
+ * 
+ * */
+public final class CatalogueRow
+{
+    private final Satellite satellite;
+    private final String name;
+    private final String nameKey;
+    private final int number;
+    private final String numberKey;
+    private final double inclination;
+    private final double period;
+    private final double apogee;
+    private final double perigee;
+    private final long epoch;
+    
+    /**
+     * Constructor for the {@link CatalogueRow} class
+     * 
+     * @param satellite
+     *          the satellite the row describes
+     * */
+    public CatalogueRow(Satellite satellite)
+    {
+        if(satellite == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        OrbitalElements elements = CatalogueRow.elementsOf(satellite);
+        
+        this.satellite = satellite;
+        this.name = satellite.getName().trim();
+        this.nameKey = this.name.toLowerCase(Locale.ROOT);
+        this.number = satellite.getNum();
+        this.numberKey = Integer.toString(this.number);
+        this.inclination = satellite.getInclination();
+        this.epoch = satellite.getEpoch().getTimeInMillis();
+        
+        if(elements == null)
+        {
+            this.period = Double.NaN;
+            this.apogee = Double.NaN;
+            this.perigee = Double.NaN;
+        }
+        else
+        {
+            this.period = elements.getPeriod() / 60;
+            this.apogee = elements.getApogeeRadius() - Earth.RADIUS;
+            this.perigee = elements.getPerigeeRadius() - Earth.RADIUS;
+        }
+    }
+    
+    /**
+     * @param query
+     *          search text, already trimmed and in lower case
+     * @return whether the name contains <code>query</code> or the catalogue
+     *          number starts with it
+     * 
+     * */
+    public boolean matches(String query)
+    {
+        return this.nameKey.contains(query) || this.numberKey.startsWith(
+                        query);
+    }
+    
+    /**
+     * @return the satellite the row describes
+     * 
+     * */
+    public Satellite getSatellite()
+    {
+        return satellite;
+    }
+    
+    /**
+     * @return name, without padding
+     * 
+     * */
+    public String getName()
+    {
+        return name;
+    }
+    
+    /**
+     * @return name in lower case, for sorting and searching
+     * 
+     * */
+    public String getNameKey()
+    {
+        return nameKey;
+    }
+    
+    /**
+     * @return catalogue number
+     * 
+     * */
+    public int getNumber()
+    {
+        return number;
+    }
+    
+    /**
+     * @return inclination (degrees)
+     * 
+     * */
+    public double getInclination()
+    {
+        return inclination;
+    }
+    
+    /**
+     * @return orbital period (minutes), or NaN if the elements are invalid
+     * 
+     * */
+    public double getPeriod()
+    {
+        return period;
+    }
+    
+    /**
+     * @return altitude of apogee above the equatorial radius (km), or NaN
+     *          if the elements are invalid
+     * 
+     * */
+    public double getApogee()
+    {
+        return apogee;
+    }
+    
+    /**
+     * @return altitude of perigee above the equatorial radius (km), or NaN
+     *          if the elements are invalid
+     * 
+     * */
+    public double getPerigee()
+    {
+        return perigee;
+    }
+    
+    /**
+     * @return epoch of the elements (milliseconds since the Unix epoch)
+     * 
+     * */
+    public long getEpoch()
+    {
+        return epoch;
+    }
+    
+    /**
+     * @param satellite
+     *          a satellite
+     * @return its elements, or <code>null</code> if they are invalid
+     * 
+     * */
+    private static OrbitalElements elementsOf(Satellite satellite)
+    {
+        try
+        {
+            return satellite.getElements();
+        }
+        catch(IllegalArgumentException e)
+        {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,487 @@
+package astra.gui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.function.LongSupplier;
+
+import astra.Satellite;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableColumn.SortType;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+
+/**
+ * Sortable, filterable table of the satellite catalogue, with a search field
+ * above it.
+ * 
+ * The table is virtualised, so only the visible rows have cells. Sorting
+ * bypasses the table's default policy, which compares boxed cell values, and
+ * instead reorders the rows with a {@link CatalogueIndex} built in the
+ * background whenever the catalogue changes. Until the index catches up, such
+ * as while the catalogue is loading, rows are sorted with the columns'
+ * comparators instead. Filtering tests a precomputed lower-case name and
+ * number, so changing the search text allocates nothing per row.
+ * 
+ * */
+public class CatalogueTable
+{
+    private final List<CatalogueRow> catalogue;
+    private final ObservableList<CatalogueRow> rows;
+    private final FilteredList<CatalogueRow> filteredRows;
+    private final ReadOnlyObjectWrapper<Satellite> selectedSatellite;
+    private final Executor indexer;
+    
+    private final TextField filterField;
+    private final TableView<CatalogueRow> table;
+    private final VBox root;
+    
+    private CatalogueColumn[] sortColumns;
+    private boolean[] sortDescending;
+    private CatalogueIndex index;
+    private int version;
+    private boolean indexing;
+    private LongSupplier timeSource;
+    
+    /**
+     * Constructor for the {@link CatalogueTable} class
+     * 
+     * */
+    public CatalogueTable()
+    {
+        this.catalogue = new ArrayList<CatalogueRow>();
+        this.rows = FXCollections.observableArrayList();
+        this.filteredRows = new FilteredList<CatalogueRow>(this.rows);
+        this.selectedSatellite = new ReadOnlyObjectWrapper<Satellite>();
+        this.indexer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Catalogue indexer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sortColumns = new CatalogueColumn[0];
+        this.sortDescending = new boolean[0];
+        this.index = null;
+        this.version = 0;
+        this.indexing = false;
+        this.timeSource = System::currentTimeMillis;
+        
+        this.filterField = new TextField();
+        this.filterField.setPromptText("Filter by name or number");
+        this.table = new TableView<CatalogueRow>(this.filteredRows);
+        this.root = new VBox(this.filterField, this.table);
+        VBox.setVgrow(this.table, Priority.ALWAYS);
+        
+        this.setupColumns();
+        this.setupSorting();
+        this.setupFiltering();
+        this.setupSelection();
+    }
+    
+    /**
+     * @return root JavaFX node
+     * 
+     * */
+    public VBox getRoot()
+    {
+        return this.root;
+    }
+    
+    /**
+     * Sets the source of the time epoch ages are measured from, which is the
+     * system clock by default, and shows the ages against it
+     * 
+     * @param timeSource
+     *          supplier of the time, such as the simulation clock
+     *          (milliseconds since the Unix epoch)
+     * 
+     * */
+    public void setTimeSource(LongSupplier timeSource)
+    {
+        if(timeSource == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.timeSource = timeSource;
+        this.refresh();
+    }
+    
+    /**
+     * Reformats the visible cells, such as when the time epoch ages are
+     * measured from has jumped
+     * 
+     * */
+    public void refresh()
+    {
+        this.table.refresh();
+    }
+    
+    /**
+     * Replaces the catalogue
+     * 
+     * @param satellites
+     *          the new catalogue
+     * 
+     * */
+    public void setSatellites(List<Satellite> satellites)
+    {
+        if(satellites == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.catalogue.clear();
+        this.catalogue.addAll(CatalogueTable.rowsOf(satellites));
+        this.catalogueChanged();
+        this.showRows(this.sortRows());
+    }
+    
+    /**
+     * Appends satellites to the catalogue, merging them into place if the
+     * table is sorted, and selects the first row if the table was empty
+     * 
+     * @param satellites
+     *          satellites to add
+     * 
+     * */
+    public void addSatellites(List<Satellite> satellites)
+    {
+        if(satellites == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        List<CatalogueRow> batch = CatalogueTable.rowsOf(satellites);
+        boolean wasEmpty = this.rows.isEmpty();
+        
+        this.catalogue.addAll(batch);
+        this.catalogueChanged();
+        
+        if(this.sortColumns.length == 0)
+        {
+            this.rows.addAll(batch);
+        }
+        else
+        {
+            this.showRows(this.merge(batch));
+        }
+        
+        if(wasEmpty && !this.filteredRows.isEmpty())
+        {
+            this.table.getSelectionModel().select(0);
+        }
+    }
+    
+    /**
+     * @return selected satellite, or the one in the top row if there is no
+     *          selection, or <code>null</code> if the table is empty
+     * 
+     * */
+    public Satellite getSelectedSatellite()
+    {
+        Satellite selectedSatellite = this.selectedSatellite.get();
+        
+        if(selectedSatellite == null && !this.filteredRows.isEmpty())
+        {
+            selectedSatellite = this.filteredRows.get(0).getSatellite();
+        }
+        
+        return selectedSatellite;
+    }
+    
+    /**
+     * @return the satellite in the selected row, or <code>null</code> if
+     *          there is no selection
+     * 
+     * */
+    public ReadOnlyObjectProperty<Satellite> selectedSatelliteProperty()
+    {
+        return this.selectedSatellite.getReadOnlyProperty();
+    }
+    
+    /**
+     * Adds a column for each {@link CatalogueColumn}. Each cell holds its
+     * whole row and is formatted by its column, so no cell values are boxed.
+     * 
+     * */
+    private void setupColumns()
+    {
+        for(CatalogueColumn catalogueColumn : CatalogueColumn.values())
+        {
+            TableColumn<CatalogueRow, CatalogueRow> column =
+                            new TableColumn<CatalogueRow, CatalogueRow>(
+                                            catalogueColumn.getLabel());
+            
+            column.setUserData(catalogueColumn);
+            column.setCellValueFactory(cell -> {
+                return new ReadOnlyObjectWrapper<CatalogueRow>(
+                                cell.getValue());
+            });
+            column.setCellFactory(c -> {
+                return new CatalogueCell(catalogueColumn);
+            });
+            
+            this.table.getColumns().add(column);
+        }
+    }
+    
+    /**
+     * Replaces the table's sort policy. The table asks for a sort whenever
+     * its contents change, so the rows are only reordered when the sort order
+     * itself has changed.
+     * 
+     * */
+    private void setupSorting()
+    {
+        this.table.setSortPolicy(table -> {
+            int count = table.getSortOrder().size();
+            CatalogueColumn[] columns = new CatalogueColumn[count];
+            boolean[] descending = new boolean[count];
+            
+            for(int i = 0; i < count; i++)
+            {
+                TableColumn<CatalogueRow, ?> column = table.getSortOrder().get(
+                                i);
+                
+                columns[i] = (CatalogueColumn) column.getUserData();
+                descending[i] = column.getSortType() == SortType.DESCENDING;
+            }
+            
+            if(!Arrays.equals(columns, this.sortColumns) || !Arrays.equals(
+                            descending, this.sortDescending))
+            {
+                this.sortColumns = columns;
+                this.sortDescending = descending;
+                this.showRows(this.sortRows());
+            }
+            
+            return true;
+        });
+    }
+    
+    /**
+     * Filters the rows on the search text as it is typed
+     * 
+     * */
+    private void setupFiltering()
+    {
+        this.filterField.textProperty().addListener((observable, oldText,
+                        text) -> {
+            String query = text.trim().toLowerCase(Locale.ROOT);
+            
+            this.filteredRows.setPredicate(query.isEmpty() ? null
+                            : row -> row.matches(query));
+        });
+    }
+    
+    /**
+     * Tracks the satellite in the selected row
+     * 
+     * */
+    private void setupSelection()
+    {
+        this.table.getSelectionModel().selectedItemProperty().addListener((
+                        observable, oldRow, row) -> {
+            this.selectedSatellite.set(row == null ? null
+                            : row.getSatellite());
+        });
+    }
+    
+    /**
+     * @return the catalogue in the current sort order, from the index if it
+     *          is up to date
+     * 
+     * */
+    private CatalogueRow[] sortRows()
+    {
+        if(this.sortColumns.length == 0)
+        {
+            return this.catalogue.toArray(new CatalogueRow[0]);
+        }
+        
+        if(this.index != null && this.index.size() == this.catalogue.size())
+        {
+            return this.index.sort(this.sortColumns, this.sortDescending);
+        }
+        
+        CatalogueRow[] sorted = this.catalogue.toArray(new CatalogueRow[0]);
+        
+        Arrays.sort(sorted, this.comparator());
+        
+        return sorted;
+    }
+    
+    /**
+     * @param batch
+     *          rows just added to the catalogue
+     * @return the rows currently shown with <code>batch</code> merged into
+     *          place
+     * 
+     * */
+    private CatalogueRow[] merge(List<CatalogueRow> batch)
+    {
+        Comparator<CatalogueRow> comparator = this.comparator();
+        CatalogueRow[] added = batch.toArray(new CatalogueRow[0]);
+        CatalogueRow[] merged = new CatalogueRow[this.rows.size()
+                        + added.length];
+        int i = 0;
+        int j = 0;
+        
+        Arrays.sort(added, comparator);
+        
+        for(int k = 0; k < merged.length; k++)
+        {
+            if(j == added.length || (i < this.rows.size() && comparator
+                            .compare(this.rows.get(i), added[j]) <= 0))
+            {
+                merged[k] = this.rows.get(i++);
+            }
+            else
+            {
+                merged[k] = added[j++];
+            }
+        }
+        
+        return merged;
+    }
+    
+    /**
+     * @return comparator for the current sort order
+     * 
+     * */
+    private Comparator<CatalogueRow> comparator()
+    {
+        Comparator<CatalogueRow> comparator = null;
+        
+        for(int i = 0; i < this.sortColumns.length; i++)
+        {
+            Comparator<CatalogueRow> columnComparator =
+                            this.sortColumns[i].getComparator();
+            
+            if(this.sortDescending[i])
+            {
+                columnComparator = columnComparator.reversed();
+            }
+            
+            comparator = comparator == null ? columnComparator
+                            : comparator.thenComparing(columnComparator);
+        }
+        
+        return comparator;
+    }
+    
+    /**
+     * Shows rows in the table, keeping the selection
+     * 
+     * @param sorted
+     *          the rows, in display order
+     * 
+     * */
+    private void showRows(CatalogueRow[] sorted)
+    {
+        CatalogueRow selected = this.table.getSelectionModel()
+                        .getSelectedItem();
+        
+        this.rows.setAll(sorted);
+        
+        if(selected != null)
+        {
+            this.table.getSelectionModel().select(selected);
+        }
+    }
+    
+    /**
+     * Invalidates the index and starts rebuilding it in the background,
+     * unless a rebuild is already running, in which case another follows it
+     * 
+     * */
+    private void catalogueChanged()
+    {
+        this.version++;
+        this.index = null;
+        
+        if(this.indexing)
+        {
+            return;
+        }
+        
+        int version = this.version;
+        CatalogueRow[] snapshot = this.catalogue.toArray(new CatalogueRow[0]);
+        
+        this.indexing = true;
+        this.indexer.execute(() -> {
+            CatalogueIndex index = new CatalogueIndex(snapshot);
+            
+            Platform.runLater(() -> {
+                this.indexing = false;
+                
+                if(version == this.version)
+                {
+                    this.index = index;
+                }
+                else
+                {
+                    this.catalogueChanged();
+                }
+            });
+        });
+    }
+    
+    /**
+     * @param satellites
+     *          satellites
+     * @return a catalogue row for each satellite, in the same order
+     * 
+     * */
+    private static List<CatalogueRow> rowsOf(List<Satellite> satellites)
+    {
+        List<CatalogueRow> rows = new ArrayList<CatalogueRow>(
+                        satellites.size());
+        
+        for(Satellite satellite : satellites)
+        {
+            rows.add(new CatalogueRow(satellite));
+        }
+        
+        return rows;
+    }
+    
+    private class CatalogueCell extends TableCell<CatalogueRow, CatalogueRow>
+    {
+        private final CatalogueColumn column;
+        
+        public CatalogueCell(CatalogueColumn column)
+        {
+            this.column = column;
+        }
+        
+        @Override
+        protected void updateItem(CatalogueRow row, boolean empty)
+        {
+            super.updateItem(row, empty);
+            
+            if(empty || row == null)
+            {
+                setText(null);
+            }
+            else
+            {
+                setText(this.column.format(row, CatalogueTable.this.timeSource
+                                .getAsLong()));
+            }
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package astra.gui;
+
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
+
+/**
+ * Row of the satellite description table. A row lives for as long as its
+ * field is displayed and its value is updated in place, so a refresh only
+ * redraws the cells whose values have actually changed.
+ * 
+ * */
+public final class DescriptionRow
+{
+    private final String label;
+    private final StringProperty value;
+    
+    /**
+     * Constructor for the {@link DescriptionRow} class
+     * 
+     * @param label
+     *          the name of the field
+     * */
+    public DescriptionRow(String label)
+    {
+        if(label == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.label = label;
+        this.value = new SimpleStringProperty(this, "value");
+    }
+    
+    /**
+     * @return the name of the field
+     * 
+     * */
+    public String getLabel()
+    {
+        return label;
+    }
+    
+    /**
+     * @return the value of the field, which only notifies its listeners when
+     *          set to a different string
+     * 
+     * */
+    public StringProperty valueProperty()
+    {
+        return value;
+    }
+    
+    /**
+     * @return the value of the field
+     * 
+     * */
+    public String getValue()
+    {
+        return this.value.get();
+    }
+    
+    /**
+     * @param value
+     *          the value of the field
+     * 
+     * */
+    public void setValue(String value)
+    {
+        this.value.set(value);
+    }
+}
@@ -0,0 +1,600 @@
+package astra.gui;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import astra.FailureReporter;
+import astra.GroundStation;
+import astra.LookAngleCalculator;
+import astra.LookAngleSeries;
+import astra.Satellite;
+import astra.SeriesDownsampler;
+import astra.SimulationClock;
+import astra.UpdateDispatcher;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Charts of the elevation, range and Doppler shift of the selected satellite
+ * from a ground station over time, one above the other on a shared time
+ * axis.
+ * 
+ * Charting a day directly, at a sample a second, would mean drawing 86,400
+ * points per chart. Instead, only the visible window is sampled, as a
+ * {@link LookAngleSeries}, on a background thread, and each series is then
+ * reduced to one point per pixel column with a {@link SeriesDownsampler},
+ * which keeps the peaks that a pass makes. The application thread only ever
+ * draws these few hundred points.
+ * 
+ * The window zooms about the cursor with the scroll wheel, pans by dragging
+ * and returns to the day ahead of the clock on a double click. Every change
+ * of window asks for the new window to be sampled, but only the latest
+ * request is sampled once the thread is free, so dragging never queues up
+ * stale work. Until the new samples arrive, the previous ones are drawn
+ * shifted into the new window.
+ * 
+ * */
+public class LookAngleChart
+{
+    private final long SAMPLE_STEP = 1000;
+    private final int MAX_SAMPLES = 86400;
+    private final long DEFAULT_WINDOW = 86400000L;
+    private final long MIN_WINDOW = 600000;
+    private final long MAX_WINDOW = 7 * 86400000L;
+    private final double ZOOM_STEP = 1.25;
+    private final long[] TICK_STEPS = { 60000, 300000, 600000, 1800000,
+                    3600000, 3 * 3600000, 6 * 3600000, 12 * 3600000,
+                    86400000 };
+    private final double MIN_TICK_SPACING = 90;
+    private final double LEFT = 64;
+    private final double RIGHT = 12;
+    private final double TOP = 8;
+    private final double BOTTOM = 24;
+    private final double GAP = 12;
+    private final String[] NAMES = { "Elevation (\u00b0)", "Range (km)",
+                    "Doppler (ppm)" };
+    private final Color[] COLOURS = { Color.web("#33cc66"), Color.web(
+                    "#ff8800"), Color.web("#8fb8de") };
+    private final Color BACKGROUND_COLOUR = Color.web("#0b1e33");
+    private final Color GRID_COLOUR = Color.web("#1d3a57");
+    private final Color LABEL_COLOUR = Color.web("#8fb8de");
+    private final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern(
+                    "MM-dd HH:mm").withZone(ZoneOffset.UTC);
+    
+    private final Pane root;
+    private final Canvas canvas;
+    private final AtomicReference<Request> pending;
+    private final FailureReporter failures;
+    
+    private long start;
+    private long end;
+    private double dragX;
+    private Plot plot;
+    private double[] xs;
+    private double[] ys;
+    private volatile Satellite selected;
+    private GroundStation station;
+    private SimulationClock clock;
+    private LookAngleCalculator calculator;
+    private UpdateDispatcher.Latest<Plot> plots;
+    private ExecutorService executor;
+    
+    /**
+     * Constructor for the {@link LookAngleChart} class
+     * 
+     * */
+    public LookAngleChart()
+    {
+        this.canvas = new Canvas();
+        this.root = new Pane(this.canvas);
+        this.pending = new AtomicReference<Request>();
+        this.failures = new FailureReporter();
+        this.plot = null;
+        this.xs = new double[0];
+        this.ys = new double[0];
+        this.selected = null;
+        this.station = null;
+        this.executor = null;
+        
+        this.canvas.widthProperty().bind(this.root.widthProperty());
+        this.canvas.heightProperty().bind(this.root.heightProperty());
+        
+        // a wider chart has room for more points
+        this.canvas.widthProperty().addListener((observable, oldWidth,
+                        width) -> this.request());
+        this.canvas.heightProperty().addListener((observable, oldHeight,
+                        height) -> this.draw());
+        
+        this.setupNavigation();
+    }
+    
+    /**
+     * @return root JavaFX node
+     * 
+     * */
+    public Pane getRoot()
+    {
+        return this.root;
+    }
+    
+    /**
+     * @param satellite
+     *          the satellite to chart, or <code>null</code> for none
+     * 
+     * */
+    public void setSelected(Satellite satellite)
+    {
+        this.selected = satellite;
+        this.request();
+    }
+    
+    /**
+     * @return reporter of exceptions thrown while sampling windows, reset
+     *         whenever the chart starts
+     * 
+     * */
+    public FailureReporter getFailures()
+    {
+        return this.failures;
+    }
+    
+    /**
+     * Starts charting the look angles from a station, over the day ahead of
+     * the model's clock
+     * 
+     * @param model
+     *          the model supplying the clock and propagator
+     * @param station
+     *          the station
+     * @param dispatcher
+     *          dispatcher through which finished charts reach the
+     *          application thread
+     * @throws IllegalStateException
+     *          if the chart is already started
+     * */
+    public void start(AstraModel model, GroundStation station,
+                    UpdateDispatcher dispatcher)
+    {
+        if(model == null || station == null || dispatcher == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(this.executor != null)
+        {
+            throw new IllegalStateException("Already charting");
+        }
+        
+        this.clock = model.getClock();
+        this.calculator = model.createLookAngleCalculator();
+        this.station = station;
+        this.plots = dispatcher.latest(this::show);
+        this.failures.reset();
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Chart sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        this.resetWindow();
+    }
+    
+    /**
+     * Stops charting
+     * 
+     * */
+    public void stop()
+    {
+        if(this.executor != null)
+        {
+            this.executor.shutdownNow();
+            this.executor = null;
+        }
+        
+        // a request left behind would hold up those made after a restart
+        this.pending.set(null);
+    }
+    
+    /**
+     * Zooms with the scroll wheel, pans by dragging with the primary button
+     * and returns to the day ahead of the clock on a double click
+     * 
+     * */
+    private void setupNavigation()
+    {
+        this.root.setOnScroll(event -> {
+            double width = this.canvas.getWidth() - this.LEFT - this.RIGHT;
+            
+            if(event.getDeltaY() == 0 || width <= 0)
+            {
+                return;
+            }
+            
+            double factor = event.getDeltaY() > 0 ? 1 / this.ZOOM_STEP
+                            : this.ZOOM_STEP;
+            long length = Math.max(this.MIN_WINDOW, Math.min(this.MAX_WINDOW,
+                            Math.round((this.end - this.start) * factor)));
+            double fraction = Math.max(0, Math.min(1, (event.getX()
+                            - this.LEFT) / width));
+            long time = this.start + Math.round((this.end - this.start)
+                            * fraction);
+            
+            // the time under the cursor stays under it
+            this.setWindow(time - Math.round(length * fraction), time
+                            + Math.round(length * (1 - fraction)));
+        });
+        
+        this.root.setOnMousePressed(event -> {
+            this.dragX = event.getX();
+        });
+        
+        this.root.setOnMouseDragged(event -> {
+            double width = this.canvas.getWidth() - this.LEFT - this.RIGHT;
+            
+            if(event.getButton() == MouseButton.PRIMARY && width > 0)
+            {
+                long shift = Math.round((this.dragX - event.getX())
+                                / width * (this.end - this.start));
+                
+                this.setWindow(this.start + shift, this.end + shift);
+                this.dragX = event.getX();
+            }
+        });
+        
+        this.root.setOnMouseClicked(event -> {
+            if(event.getButton() == MouseButton.PRIMARY
+                            && event.getClickCount() == 2)
+            {
+                this.resetWindow();
+            }
+        });
+    }
+    
+    /**
+     * Shows the day ahead of the clock
+     * 
+     * */
+    private void resetWindow()
+    {
+        if(this.clock != null)
+        {
+            long time = this.clock.getTime();
+            
+            this.setWindow(time, time + this.DEFAULT_WINDOW);
+        }
+    }
+    
+    /**
+     * Shows a new window, drawing what has already been sampled at once and
+     * asking for the new window to be sampled
+     * 
+     * @param start
+     *          start of the window (milliseconds since the Unix epoch)
+     * @param end
+     *          end of the window (milliseconds since the Unix epoch)
+     * 
+     * */
+    private void setWindow(long start, long end)
+    {
+        this.start = start;
+        this.end = end;
+        this.draw();
+        this.request();
+    }
+    
+    /**
+     * Asks for the current window to be sampled, replacing any request not
+     * yet taken up. Runs on the application thread.
+     * 
+     * */
+    private void request()
+    {
+        Satellite satellite = this.selected;
+        int width = (int) (this.canvas.getWidth() - this.LEFT - this.RIGHT);
+        
+        if(this.executor == null || satellite == null || width < 2)
+        {
+            return;
+        }
+        
+        // a request already waiting will be taken by the task queued for it
+        if(this.pending.getAndSet(new Request(satellite, this.start,
+                        this.end, width)) == null)
+        {
+            this.executor.execute(this::sample);
+        }
+    }
+    
+    /**
+     * Samples the latest requested window and downsamples each series to
+     * the width of the chart. Runs on the sampling thread.
+     * 
+     * */
+    private void sample()
+    {
+        Request request = this.pending.getAndSet(null);
+        
+        if(request == null)
+        {
+            return;
+        }
+        
+        try
+        {
+            long count = Math.max(2, Math.min(this.MAX_SAMPLES, (request.end
+                            - request.start) / this.SAMPLE_STEP + 1));
+            LookAngleSeries series = new LookAngleSeries(this.calculator,
+                            request.satellite, this.station, request.start,
+                            request.end, (int) count);
+            double[] times = new double[series.getCount()];
+            double[][] values = new double[this.NAMES.length][series
+                            .getCount()];
+            
+            for(int i = 0; i < series.getCount(); i++)
+            {
+                times[i] = series.getTime(i);
+                values[0][i] = Math.toDegrees(series.getElevation(i));
+                values[1][i] = series.getRange(i);
+                values[2][i] = series.getDoppler(i) * 1e6;
+            }
+            
+            this.plots.post(new Plot(request, times, values));
+        }
+        catch(RuntimeException e)
+        {
+            this.failures.report(e);
+        }
+    }
+    
+    /**
+     * Shows a finished chart. Runs on the application thread.
+     * 
+     * @param plot
+     *          the chart
+     * 
+     * */
+    private void show(Plot plot)
+    {
+        if(plot.satellite == this.selected)
+        {
+            this.plot = plot;
+            this.draw();
+        }
+    }
+    
+    /**
+     * Draws the charts in the current window. Runs on the application
+     * thread.
+     * 
+     * */
+    private void draw()
+    {
+        GraphicsContext gc = this.canvas.getGraphicsContext2D();
+        double width = this.canvas.getWidth();
+        double height = this.canvas.getHeight();
+        double plotWidth = width - this.LEFT - this.RIGHT;
+        double plotHeight = (height - this.TOP - this.BOTTOM - this.GAP
+                        * (this.NAMES.length - 1)) / this.NAMES.length;
+        
+        gc.setFill(this.BACKGROUND_COLOUR);
+        gc.fillRect(0, 0, width, height);
+        
+        if(plotWidth <= 0 || plotHeight <= 0 || this.end <= this.start)
+        {
+            return;
+        }
+        
+        this.drawTimeAxis(gc, plotWidth, height);
+        
+        for(int q = 0; q < this.NAMES.length; q++)
+        {
+            double top = this.TOP + q * (plotHeight + this.GAP);
+            
+            gc.setStroke(this.GRID_COLOUR);
+            gc.setLineWidth(1);
+            gc.strokeRect(this.LEFT, top, plotWidth, plotHeight);
+            gc.setFill(this.LABEL_COLOUR);
+            gc.setTextAlign(TextAlignment.LEFT);
+            gc.setTextBaseline(VPos.TOP);
+            gc.fillText(this.NAMES[q], this.LEFT + 4, top + 2);
+            
+            if(this.plot != null)
+            {
+                this.drawSeries(gc, q, top, plotWidth, plotHeight);
+            }
+        }
+    }
+    
+    /**
+     * Draws a time grid line and label at each tick, spaced to fit the labels
+     * 
+     * @param gc
+     *          graphics context of the canvas
+     * @param plotWidth
+     *          width of the charts (pixels)
+     * @param height
+     *          height of the canvas (pixels)
+     * 
+     * */
+    private void drawTimeAxis(GraphicsContext gc, double plotWidth,
+                    double height)
+    {
+        double scale = plotWidth / (this.end - this.start);
+        long step = this.TICK_STEPS[this.TICK_STEPS.length - 1];
+        
+        for(long candidate : this.TICK_STEPS)
+        {
+            if(candidate * scale >= this.MIN_TICK_SPACING)
+            {
+                step = candidate;
+                break;
+            }
+        }
+        
+        gc.setStroke(this.GRID_COLOUR);
+        gc.setLineWidth(1);
+        gc.setFill(this.LABEL_COLOUR);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.TOP);
+        
+        for(long tick = Math.floorDiv(this.start, step) * step + step; tick
+                        < this.end; tick += step)
+        {
+            double x = this.LEFT + (tick - this.start) * scale;
+            
+            gc.strokeLine(x, this.TOP, x, height - this.BOTTOM);
+            gc.fillText(this.TIME_FORMAT.format(Instant.ofEpochMilli(tick)),
+                            x, height - this.BOTTOM + 4);
+        }
+    }
+    
+    /**
+     * Draws one downsampled series, clipped to its chart, with its range on
+     * the left and a line at zero if that is in range
+     * 
+     * @param gc
+     *          graphics context of the canvas
+     * @param q
+     *          index of the quantity
+     * @param top
+     *          top of the chart (pixels)
+     * @param plotWidth
+     *          width of the chart (pixels)
+     * @param plotHeight
+     *          height of the chart (pixels)
+     * 
+     * */
+    private void drawSeries(GraphicsContext gc, int q, double top,
+                    double plotWidth, double plotHeight)
+    {
+        Plot plot = this.plot;
+        double minimum = plot.minimum[q];
+        double maximum = plot.maximum[q];
+        double xScale = plotWidth / (this.end - this.start);
+        double yScale = plotHeight / (maximum - minimum);
+        int count = plot.times[q].length;
+        
+        if(this.xs.length < count)
+        {
+            this.xs = new double[count];
+            this.ys = new double[count];
+        }
+        
+        for(int i = 0; i < count; i++)
+        {
+            this.xs[i] = this.LEFT + (plot.times[q][i] - this.start) * xScale;
+            this.ys[i] = top + (maximum - plot.values[q][i]) * yScale;
+        }
+        
+        gc.setFill(this.LABEL_COLOUR);
+        gc.setTextAlign(TextAlignment.RIGHT);
+        gc.setTextBaseline(VPos.TOP);
+        gc.fillText(String.format("%.0f", maximum), this.LEFT - 4, top);
+        gc.setTextBaseline(VPos.BOTTOM);
+        gc.fillText(String.format("%.0f", minimum), this.LEFT - 4, top
+                        + plotHeight);
+        
+        gc.save();
+        gc.beginPath();
+        gc.rect(this.LEFT, top, plotWidth, plotHeight);
+        gc.clip();
+        
+        if(minimum < 0 && maximum > 0)
+        {
+            double zero = top + maximum * yScale;
+            
+            gc.setStroke(this.GRID_COLOUR);
+            gc.strokeLine(this.LEFT, zero, this.LEFT + plotWidth, zero);
+        }
+        
+        gc.setStroke(this.COLOURS[q]);
+        gc.setLineWidth(1.5);
+        gc.strokePolyline(this.xs, this.ys, count);
+        gc.restore();
+    }
+    
+    /**
+     * A window to sample
+     * 
+     * */
+    private static final class Request
+    {
+        private final Satellite satellite;
+        private final long start;
+        private final long end;
+        private final int width;
+        
+        public Request(Satellite satellite, long start, long end, int width)
+        {
+            this.satellite = satellite;
+            this.start = start;
+            this.end = end;
+            this.width = width;
+        }
+    }
+    
+    /**
+     * Downsampled series of each quantity over a window, with the range of
+     * each for scaling its chart
+     * 
+     * */
+    private static final class Plot
+    {
+        private final Satellite satellite;
+        private final double[][] times;
+        private final double[][] values;
+        private final double[] minimum;
+        private final double[] maximum;
+        
+        public Plot(Request request, double[] times, double[][] values)
+        {
+            int[] kept = new int[request.width];
+            
+            this.satellite = request.satellite;
+            this.times = new double[values.length][];
+            this.values = new double[values.length][];
+            this.minimum = new double[values.length];
+            this.maximum = new double[values.length];
+            
+            for(int q = 0; q < values.length; q++)
+            {
+                int count = SeriesDownsampler.downsample(times, values[q], 0,
+                                times.length, request.width, kept);
+                
+                this.times[q] = new double[count];
+                this.values[q] = new double[count];
+                this.minimum[q] = Double.POSITIVE_INFINITY;
+                this.maximum[q] = Double.NEGATIVE_INFINITY;
+                
+                for(int i = 0; i < count; i++)
+                {
+                    this.times[q][i] = times[kept[i]];
+                    this.values[q][i] = values[q][kept[i]];
+                    this.minimum[q] = Math.min(this.minimum[q],
+                                    this.values[q][i]);
+                    this.maximum[q] = Math.max(this.maximum[q],
+                                    this.values[q][i]);
+                }
+                
+                if(!(this.maximum[q] > this.minimum[q]))
+                {
+                    this.minimum[q] -= 1;
+                    this.maximum[q] += 1;
+                }
+            }
+            
+            // elevation always spans the whole sky, so passes compare
+            this.minimum[0] = -90;
+            this.maximum[0] = 90;
+        }
+    }
+}
@@ -0,0 +1,661 @@
+package astra.gui;
+
+import java.util.Arrays;
+
+import astra.Footprint;
+import astra.GroundTrack;
+import astra.InterpolatedSnapshot;
+import astra.PolylineSimplifier;
+
+/**
+ * Draws the world map into an ARGB raster, in an equirectangular projection
+ * with north up, through a {@link MapViewport}.
+ * 
+ * Rendering touches nothing but the raster and its arguments, so it runs on
+ * any thread; only the finished raster need be handed to the JavaFX
+ * application thread.
+ * 
+ * The level of detail follows the zoom, so that the cost of a frame depends
+ * on what is visible rather than on the size of the catalogue. Satellites and
+ * polylines off the raster are culled, and lines are clipped to it, so no
+ * time is spent on pixels that are never shown. Zoomed out, satellites are
+ * binned into small cells and crowded cells are drawn as one cluster, sized
+ * by the number of satellites in it. Tracks and footprints are simplified
+ * with the Douglas-Peucker algorithm in raster coordinates, keeping only the
+ * vertices that move them by half a pixel or more at the current zoom, and
+ * the graticule grows finer as the zoom grows.
+ * 
+ * */
+public class MapRenderer
+{
+    private final int OCEAN_COLOUR = 0xff0b1e33;
+    private final int GRATICULE_COLOUR = 0xff1d3a57;
+    private final int SATELLITE_COLOUR = 0xffd8d8d8;
+    private final int CLUSTER_COLOUR = 0xff8fb8de;
+    private final int SELECTED_COLOUR = 0xffffcc00;
+    private final int TRACK_COLOUR = 0xffff8800;
+    private final int FOOTPRINT_COLOUR = 0xff33cc66;
+    private final int[] GRATICULE_STEPS = { 30, 10, 5, 1 }; // degrees
+    private final int MIN_GRATICULE_SPACING = 60;
+    private final int SELECTED_SIZE = 5;
+    private final int CLUSTER_SIZE = 8;
+    private final int CLUSTER_MIN = 4;
+    private final double SIMPLIFY_TOLERANCE = 0.5;
+    
+    private int[] cells;
+    private int[] counts;
+    private double[] xs;
+    private double[] ys;
+    private int[] kept;
+    
+    /**
+     * Constructor for the {@link MapRenderer} class
+     * 
+     * */
+    public MapRenderer()
+    {
+        this.cells = new int[0];
+        this.counts = new int[0];
+        this.xs = new double[0];
+        this.ys = new double[0];
+        this.kept = new int[0];
+    }
+    
+    /**
+     * Draws one frame of the map
+     * 
+     * @param pixels
+     *          the raster, in rows from the top, each <code>width</code>
+     *          pixels long
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param viewport
+     *          the part of the world to draw
+     * @param snapshot
+     *          positions of the satellites to draw
+     * @param selected
+     *          index of the selected satellite in <code>snapshot</code>, or
+     *          -1 if there is none
+     * @param track
+     *          ground track of the selected satellite, or <code>null</code>
+     * @param footprint
+     *          footprint of the selected satellite, or <code>null</code>
+     * @param clustered
+     *          whether to draw crowded cells as clusters
+     * @throws IllegalArgumentException
+     *          if the raster is smaller than <code>width</code> by
+     *          <code>height</code>
+     * */
+    public void render(int[] pixels, int width, int height,
+                    MapViewport viewport, InterpolatedSnapshot snapshot,
+                    int selected, GroundTrack track, Footprint footprint,
+                    boolean clustered)
+    {
+        if(pixels == null || viewport == null || snapshot == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(width <= 0 || height <= 0 || pixels.length < width * height)
+        {
+            throw new IllegalArgumentException("Raster too small");
+        }
+        
+        double scale = viewport.getScale(width, height);
+        
+        this.drawBackground(pixels, width, height, viewport, scale);
+        
+        if(clustered)
+        {
+            this.drawClusters(pixels, width, height, viewport, scale,
+                            snapshot);
+        }
+        else
+        {
+            this.drawSatellites(pixels, width, height, viewport, scale,
+                            snapshot);
+        }
+        
+        if(track != null)
+        {
+            this.drawTrack(pixels, width, height, viewport, scale, track);
+        }
+        
+        if(footprint != null)
+        {
+            this.drawFootprint(pixels, width, height, viewport, scale,
+                            footprint);
+        }
+        
+        if(selected >= 0 && !Double.isNaN(snapshot.getLatitude(selected)))
+        {
+            int half = this.SELECTED_SIZE / 2;
+            int x = (int) viewport.x(snapshot.getLongitude(selected), width,
+                            scale);
+            int y = (int) viewport.y(snapshot.getLatitude(selected), height,
+                            scale);
+            
+            this.fill(pixels, width, height, x - half, y - half,
+                            this.SELECTED_SIZE, this.SELECTED_COLOUR);
+        }
+    }
+    
+    /**
+     * Draws every visible satellite as a two by two square
+     * 
+     * @param pixels
+     *          the raster
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param viewport
+     *          the part of the world to draw
+     * @param scale
+     *          pixels per radian
+     * @param snapshot
+     *          positions of the satellites
+     * 
+     * */
+    private void drawSatellites(int[] pixels, int width, int height,
+                    MapViewport viewport, double scale,
+                    InterpolatedSnapshot snapshot)
+    {
+        for(int i = 0; i < snapshot.size(); i++)
+        {
+            double latitude = snapshot.getLatitude(i);
+            
+            if(Double.isNaN(latitude))
+            {
+                continue;
+            }
+            
+            double x = viewport.x(snapshot.getLongitude(i), width, scale);
+            double y = viewport.y(latitude, height, scale);
+            
+            if(x >= 0 && x < width && y >= 0 && y < height)
+            {
+                this.fill(pixels, width, height, (int) x, (int) y, 2,
+                                this.SATELLITE_COLOUR);
+            }
+        }
+    }
+    
+    /**
+     * Bins the visible satellites into square cells, then draws each crowded
+     * cell as one cluster and the satellites in every other cell on their own
+     * 
+     * @param pixels
+     *          the raster
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param viewport
+     *          the part of the world to draw
+     * @param scale
+     *          pixels per radian
+     * @param snapshot
+     *          positions of the satellites
+     * 
+     * */
+    private void drawClusters(int[] pixels, int width, int height,
+                    MapViewport viewport, double scale,
+                    InterpolatedSnapshot snapshot)
+    {
+        int size = snapshot.size();
+        int columns = (width + this.CLUSTER_SIZE - 1) / this.CLUSTER_SIZE;
+        int rows = (height + this.CLUSTER_SIZE - 1) / this.CLUSTER_SIZE;
+        
+        if(this.cells.length < size)
+        {
+            this.cells = new int[size];
+        }
+        
+        if(this.counts.length < columns * rows)
+        {
+            this.counts = new int[columns * rows];
+        }
+        
+        Arrays.fill(this.counts, 0, columns * rows, 0);
+        
+        for(int i = 0; i < size; i++)
+        {
+            double latitude = snapshot.getLatitude(i);
+            double x = viewport.x(snapshot.getLongitude(i), width, scale);
+            double y = viewport.y(latitude, height, scale);
+            
+            if(Double.isNaN(latitude) || x < 0 || x >= width || y < 0
+                            || y >= height)
+            {
+                this.cells[i] = -1;
+                continue;
+            }
+            
+            this.cells[i] = (int) y / this.CLUSTER_SIZE * columns + (int) x
+                            / this.CLUSTER_SIZE;
+            this.counts[this.cells[i]]++;
+        }
+        
+        for(int i = 0; i < size; i++)
+        {
+            int cell = this.cells[i];
+            
+            if(cell >= 0 && this.counts[cell] < this.CLUSTER_MIN)
+            {
+                int x = (int) viewport.x(snapshot.getLongitude(i), width,
+                                scale);
+                int y = (int) viewport.y(snapshot.getLatitude(i), height,
+                                scale);
+                
+                this.fill(pixels, width, height, x, y, 2,
+                                this.SATELLITE_COLOUR);
+            }
+        }
+        
+        for(int cell = 0; cell < columns * rows; cell++)
+        {
+            int count = this.counts[cell];
+            
+            if(count < this.CLUSTER_MIN)
+            {
+                continue;
+            }
+            
+            // one pixel wider for each doubling, up to the size of the cell
+            int side = Math.min(this.CLUSTER_SIZE - 1, 33 - Integer
+                            .numberOfLeadingZeros(count));
+            int inset = (this.CLUSTER_SIZE - side) / 2;
+            
+            this.fill(pixels, width, height, cell % columns * this.CLUSTER_SIZE
+                            + inset, cell / columns * this.CLUSTER_SIZE
+                                            + inset, side,
+                            this.CLUSTER_COLOUR);
+        }
+    }
+    
+    /**
+     * Draws the visible segments of a ground track, simplified
+     * 
+     * @param pixels
+     *          the raster
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param viewport
+     *          the part of the world to draw
+     * @param scale
+     *          pixels per radian
+     * @param track
+     *          the ground track
+     * 
+     * */
+    private void drawTrack(int[] pixels, int width, int height,
+                    MapViewport viewport, double scale, GroundTrack track)
+    {
+        this.reserve(track.getPointCount());
+        
+        for(int s = 0; s < track.getSegmentCount(); s++)
+        {
+            int start = track.getSegmentStart(s);
+            int count = track.getSegmentEnd(s) - start;
+            
+            for(int i = 0; i < count; i++)
+            {
+                this.project(viewport, width, height, scale, i, track
+                                .getLatitude(start + i), track.getLongitude(
+                                                start + i));
+            }
+            
+            this.drawPolyline(pixels, width, height, count, 0,
+                            this.TRACK_COLOUR);
+        }
+    }
+    
+    /**
+     * Draws the edge of a footprint, simplified. It is drawn again shifted a
+     * world's width to either side, so that a footprint straddling the edge of
+     * the world is drawn on both sides of it.
+     * 
+     * @param pixels
+     *          the raster
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param viewport
+     *          the part of the world to draw
+     * @param scale
+     *          pixels per radian
+     * @param footprint
+     *          the footprint
+     * 
+     * */
+    private void drawFootprint(int[] pixels, int width, int height,
+                    MapViewport viewport, double scale, Footprint footprint)
+    {
+        int size = footprint.getSize();
+        double world = 2 * Math.PI * scale;
+        
+        if(size < 2)
+        {
+            return;
+        }
+        
+        this.reserve(size + 1);
+        
+        // close the ring by repeating its first vertex
+        for(int i = 0; i <= size; i++)
+        {
+            this.project(viewport, width, height, scale, i, footprint
+                            .getLatitude(i % size), footprint.getLongitude(i
+                                            % size));
+        }
+        
+        // a footprint around a pole closes along the edge of the world
+        if(Math.abs(this.xs[size] - this.xs[0]) > world / 2)
+        {
+            size--;
+        }
+        
+        for(int shift = -1; shift <= 1; shift++)
+        {
+            this.drawPolyline(pixels, width, height, size + 1, shift * world,
+                            this.FOOTPRINT_COLOUR);
+        }
+    }
+    
+    /**
+     * Projects a vertex of a polyline into the vertex buffers. Longitudes are
+     * unwrapped from each vertex to the next, so that a polyline runs on off
+     * the edge of the world rather than jumping across it.
+     * 
+     * @param viewport
+     *          the part of the world to draw
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param scale
+     *          pixels per radian
+     * @param i
+     *          index of the vertex in the polyline
+     * @param latitude
+     *          latitude of the vertex (rad)
+     * @param longitude
+     *          longitude of the vertex (rad)
+     * 
+     * */
+    private void project(MapViewport viewport, int width, int height,
+                    double scale, int i, double latitude, double longitude)
+    {
+        double x = viewport.x(longitude, width, scale);
+        
+        if(i > 0)
+        {
+            double world = 2 * Math.PI * scale;
+            
+            x += world * Math.round((this.xs[i - 1] - x) / world);
+        }
+        
+        this.xs[i] = x;
+        this.ys[i] = viewport.y(latitude, height, scale);
+    }
+    
+    /**
+     * Draws the polyline in the vertex buffers, shifted across, joining only
+     * the vertices kept by simplification; nothing is simplified or drawn if
+     * the polyline lies wholly off the raster
+     * 
+     * @param pixels
+     *          the raster
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param count
+     *          number of vertices
+     * @param shift
+     *          columns to shift the polyline by
+     * @param colour
+     *          ARGB colour
+     * 
+     * */
+    private void drawPolyline(int[] pixels, int width, int height, int count,
+                    double shift, int colour)
+    {
+        double left = Double.POSITIVE_INFINITY;
+        double right = Double.NEGATIVE_INFINITY;
+        double top = Double.POSITIVE_INFINITY;
+        double bottom = Double.NEGATIVE_INFINITY;
+        
+        for(int i = 0; i < count; i++)
+        {
+            left = Math.min(left, this.xs[i]);
+            right = Math.max(right, this.xs[i]);
+            top = Math.min(top, this.ys[i]);
+            bottom = Math.max(bottom, this.ys[i]);
+        }
+        
+        if(right + shift < 0 || left + shift >= width || bottom < 0
+                        || top >= height)
+        {
+            return;
+        }
+        
+        int kept = PolylineSimplifier.simplify(this.xs, this.ys, 0, count,
+                        this.SIMPLIFY_TOLERANCE, this.kept);
+        
+        for(int k = 1; k < kept; k++)
+        {
+            int a = this.kept[k - 1];
+            int b = this.kept[k];
+            
+            this.drawLine(pixels, width, height, this.xs[a] + shift,
+                            this.ys[a], this.xs[b] + shift, this.ys[b],
+                            colour);
+        }
+    }
+    
+    /**
+     * Draws a line, clipped to the raster with the Liang-Barsky algorithm and
+     * then rasterised with Bresenham's
+     * 
+     * @param pixels
+     *          the raster
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param x0
+     *          column of the start
+     * @param y0
+     *          row of the start
+     * @param x1
+     *          column of the end
+     * @param y1
+     *          row of the end
+     * @param colour
+     *          ARGB colour
+     * 
+     * */
+    private void drawLine(int[] pixels, int width, int height, double x0,
+                    double y0, double x1, double y1, int colour)
+    {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double[] p = { -dx, dx, -dy, dy };
+        double[] q = { x0, width - 1 - x0, y0, height - 1 - y0 };
+        double enter = 0;
+        double leave = 1;
+        
+        for(int k = 0; k < 4; k++)
+        {
+            if(p[k] == 0)
+            {
+                if(q[k] < 0)
+                {
+                    return;
+                }
+            }
+            else if(p[k] < 0)
+            {
+                enter = Math.max(enter, q[k] / p[k]);
+            }
+            else
+            {
+                leave = Math.min(leave, q[k] / p[k]);
+            }
+        }
+        
+        if(enter > leave)
+        {
+            return;
+        }
+        
+        int xa = (int) Math.round(x0 + enter * dx);
+        int ya = (int) Math.round(y0 + enter * dy);
+        int xb = (int) Math.round(x0 + leave * dx);
+        int yb = (int) Math.round(y0 + leave * dy);
+        int adx = Math.abs(xb - xa);
+        int ady = -Math.abs(yb - ya);
+        int sx = xa < xb ? 1 : -1;
+        int sy = ya < yb ? 1 : -1;
+        int error = adx + ady;
+        
+        while(true)
+        {
+            this.fill(pixels, width, height, xa, ya, 1, colour);
+            
+            if(xa == xb && ya == yb)
+            {
+                break;
+            }
+            
+            int error2 = 2 * error;
+            
+            if(error2 >= ady)
+            {
+                error += ady;
+                xa += sx;
+            }
+            
+            if(error2 <= adx)
+            {
+                error += adx;
+                ya += sy;
+            }
+        }
+    }
+    
+    /**
+     * Fills a square, clipped to the raster
+     * 
+     * @param pixels
+     *          the raster
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param x
+     *          column of the top left corner
+     * @param y
+     *          row of the top left corner
+     * @param side
+     *          length of each side (pixels)
+     * @param colour
+     *          ARGB colour
+     * 
+     * */
+    private void fill(int[] pixels, int width, int height, int x, int y,
+                    int side, int colour)
+    {
+        int left = Math.max(0, x);
+        int right = Math.min(width, x + side);
+        int bottom = Math.min(height, y + side);
+        
+        for(int row = Math.max(0, y); row < bottom; row++)
+        {
+            for(int column = left; column < right; column++)
+            {
+                pixels[row * width + column] = colour;
+            }
+        }
+    }
+    
+    /**
+     * Draws the ocean and a graticule, using the finest spacing that keeps its
+     * lines a minimum distance apart
+     * 
+     * @param pixels
+     *          the raster
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param viewport
+     *          the part of the world to draw
+     * @param scale
+     *          pixels per radian
+     * 
+     * */
+    private void drawBackground(int[] pixels, int width, int height,
+                    MapViewport viewport, double scale)
+    {
+        int step = this.GRATICULE_STEPS[0];
+        
+        for(int candidate : this.GRATICULE_STEPS)
+        {
+            if(Math.toRadians(candidate) * scale >= this.MIN_GRATICULE_SPACING)
+            {
+                step = candidate;
+            }
+        }
+        
+        Arrays.fill(pixels, 0, width * height, this.OCEAN_COLOUR);
+        
+        for(int degrees = -180; degrees < 180; degrees += step)
+        {
+            double x = viewport.x(Math.toRadians(degrees), width, scale);
+            
+            if(x >= 0 && x < width)
+            {
+                for(int y = 0; y < height; y++)
+                {
+                    pixels[y * width + (int) x] = this.GRATICULE_COLOUR;
+                }
+            }
+        }
+        
+        for(int degrees = -90 + step; degrees < 90; degrees += step)
+        {
+            double y = viewport.y(Math.toRadians(degrees), height, scale);
+            
+            if(y >= 0 && y < height)
+            {
+                Arrays.fill(pixels, (int) y * width, ((int) y + 1) * width,
+                                this.GRATICULE_COLOUR);
+            }
+        }
+    }
+    
+    /**
+     * Grows the vertex buffers to hold at least <code>count</code> vertices
+     * 
+     * @param count
+     *          number of vertices
+     * 
+     * */
+    private void reserve(int count)
+    {
+        if(this.xs.length < count)
+        {
+            this.xs = new double[count];
+            this.ys = new double[count];
+            this.kept = new int[count];
+        }
+    }
+}
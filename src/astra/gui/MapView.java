@@ -0,0 +1,500 @@
+package astra.gui;
+
+import java.nio.IntBuffer;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import astra.FailureReporter;
+import astra.Footprint;
+import astra.FootprintGenerator;
+import astra.GroundTrack;
+import astra.GroundTrackGenerator;
+import astra.InterpolatedSnapshot;
+import astra.OverheadIndex;
+import astra.Satellite;
+import astra.SimulationClock;
+import astra.TrackingEngine;
+import astra.TrackingListener;
+import astra.TrackingSnapshot;
+import javafx.animation.AnimationTimer;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Pane;
+
+/**
+ * World map showing the sub-satellite point of every tracked satellite, and
+ * the ground track and footprint of the selected one.
+ * 
+ * Frames are propagated and drawn into an ARGB raster by a
+ * {@link MapRenderer} on a render thread, at a fixed rate. Only a finished
+ * raster is handed to the application thread, which copies it into an image
+ * and draws that onto the canvas on the next pulse; rasters are recycled
+ * through a pool, so a frame being drawn never shares memory with a frame
+ * being shown. If the application thread falls behind, it skips to the
+ * latest frame.
+ * 
+ * The map zooms about the cursor with the scroll wheel, pans by dragging and
+ * returns to the whole world on a double click. Zoomed out, the positions
+ * from the tracking engine's last two ticks are drawn, clustered, rather than
+ * propagating the whole catalogue every frame. Zoomed in, only the
+ * satellites that the {@link OverheadIndex} finds near the viewport are
+ * propagated, so the cost of a frame follows what is on screen.
+ * 
+ * Frames follow the model's {@link SimulationClock}. Zoomed out, the map is
+ * drawn one tick behind the clock, interpolating between the last two ticks,
+ * so satellites move smoothly however fast the clock runs. When there is
+ * nothing to interpolate across, such as after the clock is paused or moved,
+ * or when the ticks are too far apart for straight lines to be accurate, the
+ * latest tick is drawn as it is.
+ * 
+ * */
+public class MapView
+{
+    private final Pane root;
+    private final Canvas canvas;
+    private final MapRenderer renderer;
+    private final AtomicReference<Frame> ready;
+    private final ConcurrentLinkedQueue<Frame> free;
+    private final AnimationTimer timer;
+    private final FailureReporter failures;
+    private final double DETAIL_ZOOM = 4;
+    private final double ZOOM_STEP = 1.25;
+    private final double MAX_GROUND_RATE = 0.0013; // rad/s, in low orbit
+    private final long MAX_INTERPOLATION_STEP = 120000;
+    
+    private volatile int width;
+    private volatile int height;
+    private volatile Satellite selected;
+    private volatile MapViewport viewport;
+    private volatile TrackingSnapshot[] ticks;
+    
+    private double dragX;
+    private double dragY;
+    private SimulationClock clock;
+    private TrackingEngine engine;
+    private TrackingListener listener;
+    private OverheadIndex overheadIndex;
+    private GroundTrackGenerator groundTracks;
+    private FootprintGenerator footprints;
+    private Footprint footprint;
+    private ScheduledExecutorService executor;
+    private WritableImage image;
+    
+    /**
+     * Constructor for the {@link MapView} class
+     * 
+     * */
+    public MapView()
+    {
+        this.canvas = new Canvas();
+        this.root = new Pane(this.canvas);
+        this.renderer = new MapRenderer();
+        this.ready = new AtomicReference<Frame>();
+        this.free = new ConcurrentLinkedQueue<Frame>();
+        this.selected = null;
+        this.viewport = new MapViewport();
+        this.ticks = new TrackingSnapshot[2];
+        this.failures = new FailureReporter();
+        this.executor = null;
+        this.image = null;
+        
+        // the canvas fills the pane, and frames are drawn at its size
+        this.canvas.widthProperty().bind(this.root.widthProperty());
+        this.canvas.heightProperty().bind(this.root.heightProperty());
+        this.canvas.widthProperty().addListener((observable, oldWidth,
+                        width) -> {
+            this.width = width.intValue();
+        });
+        this.canvas.heightProperty().addListener((observable, oldHeight,
+                        height) -> {
+            this.height = height.intValue();
+        });
+        
+        this.timer = new AnimationTimer()
+        {
+            @Override
+            public void handle(long now)
+            {
+                MapView.this.show();
+            }
+        };
+        
+        this.setupNavigation();
+    }
+    
+    /**
+     * @return root JavaFX node
+     * 
+     * */
+    public Pane getRoot()
+    {
+        return this.root;
+    }
+    
+    /**
+     * @param satellite
+     *          the satellite whose ground track and footprint are drawn, or
+     *          <code>null</code> for none
+     * 
+     * */
+    public void setSelected(Satellite satellite)
+    {
+        this.selected = satellite;
+    }
+    
+    /**
+     * @return the part of the world shown
+     * 
+     * */
+    public MapViewport getViewport()
+    {
+        return this.viewport;
+    }
+    
+    /**
+     * @param viewport
+     *          the part of the world to show
+     * 
+     * */
+    public void setViewport(MapViewport viewport)
+    {
+        if(viewport == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.viewport = viewport;
+    }
+    
+    /**
+     * @return reporter of exceptions thrown while rendering frames, reset
+     *         whenever the map starts rendering
+     * 
+     * */
+    public FailureReporter getFailures()
+    {
+        return this.failures;
+    }
+    
+    /**
+     * Starts rendering frames
+     * 
+     * @param model
+     *          the model supplying the clock, positions, ground tracks and
+     *          footprints
+     * @param period
+     *          time between frames (ms)
+     * @throws IllegalStateException
+     *          if the map is already rendering
+     * */
+    public synchronized void start(AstraModel model, long period)
+    {
+        if(model == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        if(this.executor != null)
+        {
+            throw new IllegalStateException("Already rendering");
+        }
+        
+        this.clock = model.getClock();
+        this.engine = model.getTrackingEngine();
+        this.ticks = new TrackingSnapshot[] { null, this.engine
+                        .getSnapshot() };
+        this.listener = snapshot -> {
+            this.ticks = new TrackingSnapshot[] { this.ticks[1], snapshot };
+        };
+        this.engine.addListener(this.listener);
+        this.overheadIndex = model.getOverheadIndex();
+        this.groundTracks = model.getGroundTrackGenerator();
+        this.footprints = model.getFootprintGenerator();
+        this.footprint = new Footprint(this.footprints.getCapacity());
+        this.failures.reset();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Map renderer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.scheduleAtFixedRate(this::render, 0, period,
+                        TimeUnit.MILLISECONDS);
+        this.timer.start();
+    }
+    
+    /**
+     * Stops rendering frames
+     * 
+     * */
+    public synchronized void stop()
+    {
+        if(this.executor != null)
+        {
+            this.executor.shutdownNow();
+            this.executor = null;
+            this.engine.removeListener(this.listener);
+        }
+        
+        this.timer.stop();
+    }
+    
+    /**
+     * Zooms with the scroll wheel, pans by dragging with the primary button
+     * and shows the whole world again on a double click
+     * 
+     * */
+    private void setupNavigation()
+    {
+        this.root.setOnScroll(event -> {
+            double factor = event.getDeltaY() > 0 ? this.ZOOM_STEP
+                            : 1 / this.ZOOM_STEP;
+            
+            if(event.getDeltaY() != 0)
+            {
+                this.viewport = this.viewport.zoom(factor, event.getX(), event
+                                .getY(), this.width, this.height);
+            }
+        });
+        
+        this.root.setOnMousePressed(event -> {
+            this.dragX = event.getX();
+            this.dragY = event.getY();
+        });
+        
+        this.root.setOnMouseDragged(event -> {
+            if(event.getButton() == MouseButton.PRIMARY)
+            {
+                MapViewport viewport = this.viewport;
+                
+                this.viewport = viewport.pan(event.getX() - this.dragX, event
+                                .getY() - this.dragY, viewport.getScale(
+                                                this.width, this.height));
+                this.dragX = event.getX();
+                this.dragY = event.getY();
+            }
+        });
+        
+        this.root.setOnMouseClicked(event -> {
+            if(event.getButton() == MouseButton.PRIMARY
+                            && event.getClickCount() == 2)
+            {
+                this.viewport = new MapViewport();
+            }
+        });
+    }
+    
+    /**
+     * Draws the satellites into a spare raster, which then replaces any frame
+     * not yet shown. Runs on the render thread.
+     * 
+     * */
+    private void render()
+    {
+        int width = this.width;
+        int height = this.height;
+        
+        if(width <= 0 || height <= 0)
+        {
+            return;
+        }
+        
+        try
+        {
+            long time = this.clock.getTime();
+            MapViewport viewport = this.viewport;
+            boolean clustered = viewport.getZoom() < this.DETAIL_ZOOM;
+            Satellite selected = this.selected;
+            InterpolatedSnapshot snapshot;
+            
+            if(clustered)
+            {
+                snapshot = this.interpolate(time);
+            }
+            else
+            {
+                List<Satellite> visible = this.findVisible(viewport, width,
+                                height, time, selected);
+                
+                snapshot = new InterpolatedSnapshot(null, this.engine.compute(
+                                time, visible), time);
+            }
+            
+            // nothing has been tracked yet
+            if(snapshot == null)
+            {
+                return;
+            }
+            
+            int index = selected == null ? -1 : snapshot.indexOf(selected);
+            GroundTrack track = null;
+            Footprint footprint = null;
+            
+            if(index >= 0 && !Double.isNaN(snapshot.getLatitude(index)))
+            {
+                track = this.groundTracks.getRevolution(selected, snapshot
+                                .getTime());
+                this.footprints.generate(snapshot.getLatitude(index),
+                                snapshot.getLongitude(index), snapshot
+                                                .getAltitude(index),
+                                this.footprint);
+                footprint = this.footprint;
+            }
+            
+            Frame frame = this.free.poll();
+            
+            if(frame == null || frame.width != width || frame.height != height)
+            {
+                frame = new Frame(width, height);
+            }
+            
+            this.renderer.render(frame.pixels, width, height, viewport,
+                            snapshot, index, track, footprint, clustered);
+            
+            Frame skipped = this.ready.getAndSet(frame);
+            
+            if(skipped != null)
+            {
+                this.free.offer(skipped);
+            }
+        }
+        catch(RuntimeException e)
+        {
+            this.failures.report(e);
+        }
+    }
+    
+    /**
+     * Interpolates between the last two ticks of the tracking engine, one
+     * tick behind the clock
+     * 
+     * @param time
+     *          the time on the clock (milliseconds since the Unix epoch)
+     * @return positions to draw, or <code>null</code> if there has been no
+     *          tick yet
+     * 
+     * */
+    private InterpolatedSnapshot interpolate(long time)
+    {
+        TrackingSnapshot[] ticks = this.ticks;
+        TrackingSnapshot previous = ticks[0];
+        TrackingSnapshot latest = ticks[1];
+        
+        if(latest == null)
+        {
+            return null;
+        }
+        
+        long step = previous == null ? 0 : latest.getTime() - previous
+                        .getTime();
+        
+        if(step <= 0 || step > this.MAX_INTERPOLATION_STEP)
+        {
+            return new InterpolatedSnapshot(null, latest, time);
+        }
+        
+        return new InterpolatedSnapshot(previous, latest, time - step);
+    }
+    
+    /**
+     * Finds the satellites that may be within the viewport. The overhead
+     * index holds positions from the last tick, so the viewport is widened by
+     * as far as a satellite in low orbit can have moved since.
+     * 
+     * @param viewport
+     *          the part of the world shown
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @param time
+     *          time of the frame (milliseconds since the Unix epoch)
+     * @param selected
+     *          the selected satellite, which is always included, or
+     *          <code>null</code>
+     * @return the satellites to propagate
+     * 
+     * */
+    private List<Satellite> findVisible(MapViewport viewport, int width,
+                    int height, long time, Satellite selected)
+    {
+        double scale = viewport.getScale(width, height);
+        double margin = this.MAX_GROUND_RATE * (Math.abs(time
+                        - this.overheadIndex.getTime()) / 1000.0 + 1);
+        double north = Math.min(Math.PI / 2, viewport.latitudeAt(0, height,
+                        scale) + margin);
+        double south = Math.max(-Math.PI / 2, viewport.latitudeAt(height,
+                        height, scale) - margin);
+        double west = viewport.longitudeAt(0, width, scale) - margin;
+        double east = viewport.longitudeAt(width, width, scale) + margin;
+        
+        if(east - west >= 2 * Math.PI)
+        {
+            west = viewport.getLongitude() - Math.PI;
+            east = viewport.getLongitude() + Math.PI;
+        }
+        
+        List<Satellite> visible = this.overheadIndex.findWithin(new double[] {
+                        north, north, south, south }, new double[] { west,
+                        east, east, west }, 4);
+        
+        if(selected != null && !visible.contains(selected))
+        {
+            visible.add(selected);
+        }
+        
+        return visible;
+    }
+    
+    /**
+     * Draws the latest finished frame, if there is a new one. Runs on the
+     * application thread at each pulse.
+     * 
+     * */
+    private void show()
+    {
+        Frame frame = this.ready.getAndSet(null);
+        
+        if(frame == null)
+        {
+            return;
+        }
+        
+        if(this.image == null || (int) this.image.getWidth() != frame.width
+                        || (int) this.image.getHeight() != frame.height)
+        {
+            this.image = new WritableImage(frame.width, frame.height);
+        }
+        
+        this.image.getPixelWriter().setPixels(0, 0, frame.width, frame.height,
+                        PixelFormat.getIntArgbPreInstance(), IntBuffer.wrap(
+                                        frame.pixels), frame.width);
+        this.canvas.getGraphicsContext2D().drawImage(this.image, 0, 0);
+        
+        // the pixels have been copied, so the raster can be drawn into again
+        this.free.offer(frame);
+    }
+    
+    /**
+     * A raster and its size
+     * 
+     * */
+    private static final class Frame
+    {
+        private final int width;
+        private final int height;
+        private final int[] pixels;
+        
+        public Frame(int width, int height)
+        {
+            this.width = width;
+            this.height = height;
+            this.pixels = new int[width * height];
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package astra.gui;
+
+/**
+ * The part of the world shown by the map: a centre and a zoom factor, in an
+ * equirectangular projection. At a zoom of one the whole world fits the
+ * raster; each doubling of the zoom halves the span of latitude and
+ * longitude shown.
+ * 
+ * Instances are immutable, so a viewport can be handed from the application
+ * thread to the render thread without copying.
+ * 
+ * */
+public final class MapViewport
+{
+    private static final double MIN_ZOOM = 1;
+    private static final double MAX_ZOOM = 256;
+    
+    private final double latitude;
+    private final double longitude;
+    private final double zoom;
+    
+    /**
+     * Constructor for the {@link MapViewport} class, showing the whole world
+     * 
+     * */
+    public MapViewport()
+    {
+        this(0, 0, MapViewport.MIN_ZOOM);
+    }
+    
+    /**
+     * Constructor for the {@link MapViewport} class
+     * 
+     * @param latitude
+     *          latitude of the centre (rad), clamped to the poles
+     * @param longitude
+     *          longitude of the centre (rad), wrapped into [-&pi;, &pi;)
+     * @param zoom
+     *          zoom factor, clamped to [1, 256]
+     * */
+    public MapViewport(double latitude, double longitude, double zoom)
+    {
+        this.latitude = Math.max(-Math.PI / 2, Math.min(Math.PI / 2,
+                        latitude));
+        this.longitude = MapViewport.wrap(longitude);
+        this.zoom = Math.max(MapViewport.MIN_ZOOM, Math.min(
+                        MapViewport.MAX_ZOOM, zoom));
+    }
+    
+    /**
+     * @return latitude of the centre (rad)
+     * 
+     * */
+    public double getLatitude()
+    {
+        return latitude;
+    }
+    
+    /**
+     * @return longitude of the centre (rad)
+     * 
+     * */
+    public double getLongitude()
+    {
+        return longitude;
+    }
+    
+    /**
+     * @return zoom factor
+     * 
+     * */
+    public double getZoom()
+    {
+        return zoom;
+    }
+    
+    /**
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @return pixels per radian of latitude or longitude
+     * 
+     * */
+    public double getScale(int width, int height)
+    {
+        return this.zoom * Math.min(width / (2 * Math.PI), height / Math.PI);
+    }
+    
+    /**
+     * @param longitude
+     *          a longitude (rad)
+     * @param width
+     *          width of the raster (pixels)
+     * @param scale
+     *          pixels per radian
+     * @return column of <code>longitude</code>, taking the copy of it
+     *          nearest the centre
+     * 
+     * */
+    public double x(double longitude, int width, double scale)
+    {
+        return width / 2.0 + MapViewport.wrap(longitude - this.longitude)
+                        * scale;
+    }
+    
+    /**
+     * @param latitude
+     *          a latitude (rad)
+     * @param height
+     *          height of the raster (pixels)
+     * @param scale
+     *          pixels per radian
+     * @return row of <code>latitude</code>
+     * 
+     * */
+    public double y(double latitude, int height, double scale)
+    {
+        return height / 2.0 + (this.latitude - latitude) * scale;
+    }
+    
+    /**
+     * @param x
+     *          a column
+     * @param width
+     *          width of the raster (pixels)
+     * @param scale
+     *          pixels per radian
+     * @return longitude at <code>x</code> (rad), not wrapped
+     * 
+     * */
+    public double longitudeAt(double x, int width, double scale)
+    {
+        return this.longitude + (x - width / 2.0) / scale;
+    }
+    
+    /**
+     * @param y
+     *          a row
+     * @param height
+     *          height of the raster (pixels)
+     * @param scale
+     *          pixels per radian
+     * @return latitude at <code>y</code> (rad), not clamped
+     * 
+     * */
+    public double latitudeAt(double y, int height, double scale)
+    {
+        return this.latitude - (y - height / 2.0) / scale;
+    }
+    
+    /**
+     * Zooms about a point, which stays where it is on the raster
+     * 
+     * @param factor
+     *          factor to multiply the zoom by
+     * @param x
+     *          column of the point
+     * @param y
+     *          row of the point
+     * @param width
+     *          width of the raster (pixels)
+     * @param height
+     *          height of the raster (pixels)
+     * @return the zoomed viewport
+     * 
+     * */
+    public MapViewport zoom(double factor, double x, double y, int width,
+                    int height)
+    {
+        double scale = this.getScale(width, height);
+        double zoom = Math.max(MapViewport.MIN_ZOOM, Math.min(
+                        MapViewport.MAX_ZOOM, this.zoom * factor));
+        double newScale = scale * zoom / this.zoom;
+        double dx = x - width / 2.0;
+        double dy = y - height / 2.0;
+        
+        return new MapViewport(this.latitude - dy / scale + dy / newScale,
+                        this.longitude + dx / scale - dx / newScale, zoom);
+    }
+    
+    /**
+     * @param dx
+     *          columns to move the map by
+     * @param dy
+     *          rows to move the map by
+     * @param scale
+     *          pixels per radian
+     * @return the panned viewport
+     * 
+     * */
+    public MapViewport pan(double dx, double dy, double scale)
+    {
+        return new MapViewport(this.latitude + dy / scale, this.longitude - dx
+                        / scale, this.zoom);
+    }
+    
+    /**
+     * @param angle
+     *          an angle (rad)
+     * @return <code>angle</code> wrapped into [-&pi;, &pi;)
+     * 
+     * */
+    private static double wrap(double angle)
+    {
+        return angle - 2 * Math.PI * Math.floor((angle + Math.PI) / (2
+                        * Math.PI));
+    }
+}
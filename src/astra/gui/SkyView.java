@@ -0,0 +1,316 @@
+package astra.gui;
+
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import astra.GroundStation;
+import astra.LookAngleCalculator;
+import astra.LookAngles;
+import astra.Pass;
+import astra.PassArc;
+import astra.PassScheduler;
+import astra.Satellite;
+import astra.SimulationClock;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.TextAlignment;
+import javafx.util.Duration;
+
+/**
+ * Polar sky plot of the current and upcoming passes over a ground station:
+ * the zenith at the centre, the horizon at the rim, north up and east to the
+ * right.
+ * 
+ * The passes come from the model's {@link PassScheduler}. The arc of each
+ * pass is computed once, as a {@link PassArc}, when the pass is first shown
+ * and kept until it drops out of the schedule; redrawing an arc only scales
+ * its precomputed coordinates. The plot is redrawn ten times a second, and
+ * the only propagation done per frame is finding the current position of
+ * each satellite whose pass is in progress.
+ * 
+ * */
+public class SkyView
+{
+    private final long FRAME_PERIOD = 100; // ten frames per second
+    private final int PASS_COUNT = 6;
+    private final int ARC_SEGMENTS = 90;
+    private final double MARGIN = 16;
+    private final double POSITION_SIZE = 7;
+    private final double[] RING_ELEVATIONS = { 30, 60 }; // degrees
+    private final Color BACKGROUND_COLOUR = Color.web("#0b1e33");
+    private final Color GRID_COLOUR = Color.web("#1d3a57");
+    private final Color LABEL_COLOUR = Color.web("#8fb8de");
+    private final Color ACTIVE_COLOUR = Color.web("#33cc66");
+    private final Color UPCOMING_COLOUR = Color.web("#5f7f9f");
+    private final Color SELECTED_COLOUR = Color.web("#ffcc00");
+    
+    private final Pane root;
+    private final Canvas canvas;
+    private final Timeline timeline;
+    private final LookAngles angles;
+    private final double[] xs;
+    private final double[] ys;
+    
+    private Map<Pass, PassArc> arcs;
+    private Satellite selected;
+    private GroundStation station;
+    private SimulationClock clock;
+    private PassScheduler scheduler;
+    private LookAngleCalculator calculator;
+    
+    /**
+     * Constructor for the {@link SkyView} class
+     * 
+     * */
+    public SkyView()
+    {
+        this.canvas = new Canvas();
+        this.root = new Pane(this.canvas);
+        this.angles = new LookAngles();
+        this.xs = new double[this.ARC_SEGMENTS + 1];
+        this.ys = new double[this.ARC_SEGMENTS + 1];
+        this.arcs = new IdentityHashMap<Pass, PassArc>();
+        this.selected = null;
+        this.station = null;
+        
+        this.canvas.widthProperty().bind(this.root.widthProperty());
+        this.canvas.heightProperty().bind(this.root.heightProperty());
+        
+        this.timeline = new Timeline(new KeyFrame(Duration.millis(
+                        this.FRAME_PERIOD), event -> this.draw()));
+        this.timeline.setCycleCount(Animation.INDEFINITE);
+    }
+    
+    /**
+     * @return root JavaFX node
+     * 
+     * */
+    public Pane getRoot()
+    {
+        return this.root;
+    }
+    
+    /**
+     * @param satellite
+     *          the satellite whose passes are highlighted, or
+     *          <code>null</code> for none
+     * 
+     * */
+    public void setSelected(Satellite satellite)
+    {
+        this.selected = satellite;
+    }
+    
+    /**
+     * Shows the plot and starts plotting the passes over a station
+     * 
+     * @param model
+     *          the model supplying the clock and pass schedule
+     * @param station
+     *          the station, which should be one of the model's
+     * 
+     * */
+    public void start(AstraModel model, GroundStation station)
+    {
+        if(model == null || station == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.clock = model.getClock();
+        this.scheduler = model.getPassScheduler();
+        this.calculator = model.createLookAngleCalculator();
+        this.station = station;
+        this.arcs = new IdentityHashMap<Pass, PassArc>();
+        this.root.setVisible(true);
+        this.timeline.play();
+    }
+    
+    /**
+     * Stops plotting
+     * 
+     * */
+    public void stop()
+    {
+        this.timeline.stop();
+    }
+    
+    /**
+     * Draws one frame. Runs on the application thread.
+     * 
+     * */
+    private void draw()
+    {
+        GraphicsContext gc = this.canvas.getGraphicsContext2D();
+        double width = this.canvas.getWidth();
+        double height = this.canvas.getHeight();
+        double radius = Math.min(width, height) / 2 - this.MARGIN;
+        double cx = width / 2;
+        double cy = height / 2;
+        
+        gc.setFill(this.BACKGROUND_COLOUR);
+        gc.fillRect(0, 0, width, height);
+        
+        if(radius <= 0)
+        {
+            return;
+        }
+        
+        this.drawGrid(gc, cx, cy, radius);
+        
+        long now = this.clock.getTime();
+        List<Pass> passes = this.scheduler.getNextPasses(this.station, now,
+                        this.PASS_COUNT);
+        Map<Pass, PassArc> arcs = new IdentityHashMap<Pass, PassArc>();
+        
+        // keep the arcs of passes still shown, and compute only new ones
+        for(Pass pass : passes)
+        {
+            PassArc arc = this.arcs.get(pass);
+            
+            if(arc == null)
+            {
+                arc = new PassArc(pass, this.calculator, this.ARC_SEGMENTS);
+            }
+            
+            arcs.put(pass, arc);
+        }
+        
+        this.arcs = arcs;
+        
+        // draw upcoming passes first, so those in progress lie on top
+        for(int i = passes.size() - 1; i >= 0; i--)
+        {
+            Pass pass = passes.get(i);
+            boolean active = pass.getAos() <= now;
+            
+            gc.setStroke(pass.getSatellite() == this.selected
+                            ? this.SELECTED_COLOUR : active ? this.ACTIVE_COLOUR
+                                            : this.UPCOMING_COLOUR);
+            gc.setLineWidth(active ? 2 : 1);
+            this.drawArc(gc, arcs.get(pass), cx, cy, radius);
+        }
+        
+        for(Pass pass : passes)
+        {
+            if(pass.getAos() <= now)
+            {
+                this.drawPosition(gc, pass, now, cx, cy, radius);
+            }
+        }
+    }
+    
+    /**
+     * Draws the horizon, elevation rings, cardinal lines and labels
+     * 
+     * @param gc
+     *          graphics context of the canvas
+     * @param cx
+     *          abscissa of the zenith
+     * @param cy
+     *          ordinate of the zenith
+     * @param radius
+     *          radius of the horizon
+     * 
+     * */
+    private void drawGrid(GraphicsContext gc, double cx, double cy,
+                    double radius)
+    {
+        gc.setStroke(this.GRID_COLOUR);
+        gc.setLineWidth(1);
+        gc.strokeOval(cx - radius, cy - radius, 2 * radius, 2 * radius);
+        
+        for(double elevation : this.RING_ELEVATIONS)
+        {
+            double r = radius * (1 - elevation / 90);
+            
+            gc.strokeOval(cx - r, cy - r, 2 * r, 2 * r);
+        }
+        
+        gc.strokeLine(cx - radius, cy, cx + radius, cy);
+        gc.strokeLine(cx, cy - radius, cx, cy + radius);
+        
+        gc.setFill(this.LABEL_COLOUR);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.fillText("N", cx, cy - radius - this.MARGIN / 2);
+        gc.fillText("S", cx, cy + radius + this.MARGIN / 2);
+        gc.fillText("E", cx + radius + this.MARGIN / 2, cy);
+        gc.fillText("W", cx - radius - this.MARGIN / 2, cy);
+    }
+    
+    /**
+     * Draws a pass arc, scaling its precomputed sky-plot coordinates
+     * 
+     * @param gc
+     *          graphics context of the canvas
+     * @param arc
+     *          the arc
+     * @param cx
+     *          abscissa of the zenith
+     * @param cy
+     *          ordinate of the zenith
+     * @param radius
+     *          radius of the horizon
+     * 
+     * */
+    private void drawArc(GraphicsContext gc, PassArc arc, double cx,
+                    double cy, double radius)
+    {
+        int count = arc.getPointCount();
+        
+        for(int i = 0; i < count; i++)
+        {
+            this.xs[i] = cx + arc.getX(i) * radius;
+            this.ys[i] = cy + arc.getY(i) * radius;
+        }
+        
+        gc.strokePolyline(this.xs, this.ys, count);
+        gc.setFill(gc.getStroke());
+        gc.setTextAlign(TextAlignment.LEFT);
+        gc.fillText(arc.getPass().getSatellite().getName().trim(), this.xs[0],
+                        this.ys[0]);
+    }
+    
+    /**
+     * Draws the current position of a satellite whose pass is in progress
+     * 
+     * @param gc
+     *          graphics context of the canvas
+     * @param pass
+     *          the pass
+     * @param time
+     *          the current time (milliseconds since the Unix epoch)
+     * @param cx
+     *          abscissa of the zenith
+     * @param cy
+     *          ordinate of the zenith
+     * @param radius
+     *          radius of the horizon
+     * 
+     * */
+    private void drawPosition(GraphicsContext gc, Pass pass, long time,
+                    double cx, double cy, double radius)
+    {
+        this.calculator.compute(pass.getSatellite(), this.station, time,
+                        this.angles);
+        
+        double x = cx + PassArc.skyX(this.angles.getAzimuth(), this.angles
+                        .getElevation()) * radius;
+        double y = cy + PassArc.skyY(this.angles.getAzimuth(), this.angles
+                        .getElevation()) * radius;
+        double half = this.POSITION_SIZE / 2;
+        
+        gc.setFill(pass.getSatellite() == this.selected
+                        ? this.SELECTED_COLOUR : this.ACTIVE_COLOUR);
+        gc.fillOval(x - half, y - half, this.POSITION_SIZE,
+                        this.POSITION_SIZE);
+    }
+}
@@ -0,0 +1,225 @@
+package astra.gui;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import astra.SimulationClock;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.Slider;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.util.Duration;
+
+/**
+ * Controls for a {@link SimulationClock}: play and pause, the rate, a return
+ * to the present, and a slider to move the clock between a day before and a
+ * week after the present, with the simulated time shown in UTC.
+ * 
+ * A dragged slider seeks only when it is released, so dragging it does not
+ * restart the propagation of the catalogue for every position passed on the
+ * way. Clicking its track or moving it with the keyboard seeks at once.
+ * 
+ * */
+public class TimeControls
+{
+    private final long DISPLAY_PERIOD = 100; // ten updates per second
+    private final double HOUR = 3600000;
+    private final double[] RATES = { 1, 10, 100, 1000 };
+    private final double SPACING = 8;
+    private final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern(
+                    "yyyy-MM-dd HH:mm:ss 'UTC'").withZone(ZoneOffset.UTC);
+    
+    private final HBox root;
+    private final Button playButton;
+    private final ComboBox<String> rateBox;
+    private final Button nowButton;
+    private final Slider slider;
+    private final Label timeLabel;
+    private final Timeline timeline;
+    
+    private SimulationClock clock;
+    private Runnable onChange;
+    private boolean refreshing;
+    
+    /**
+     * Constructor for the {@link TimeControls} class
+     * 
+     * */
+    public TimeControls()
+    {
+        this.playButton = new Button("Pause");
+        this.rateBox = new ComboBox<String>();
+        this.nowButton = new Button("Now");
+        this.slider = new Slider(-24, 7 * 24, 0); // hours from the present
+        this.timeLabel = new Label();
+        this.root = new HBox(this.SPACING, this.playButton, this.rateBox,
+                        this.nowButton, this.slider, this.timeLabel);
+        this.root.setAlignment(Pos.CENTER_LEFT);
+        this.root.setDisable(true);
+        this.clock = null;
+        this.onChange = () -> {};
+        this.refreshing = false;
+        
+        for(double rate : this.RATES)
+        {
+            this.rateBox.getItems().add(String.format("%.0fx", rate));
+        }
+        
+        this.rateBox.getSelectionModel().select(0);
+        HBox.setHgrow(this.slider, Priority.ALWAYS);
+        
+        this.timeline = new Timeline(new KeyFrame(Duration.millis(
+                        this.DISPLAY_PERIOD), event -> this.refresh()));
+        this.timeline.setCycleCount(Animation.INDEFINITE);
+        
+        this.setupHandlers();
+    }
+    
+    /**
+     * @return root JavaFX node
+     * 
+     * */
+    public HBox getRoot()
+    {
+        return this.root;
+    }
+    
+    /**
+     * Starts controlling and showing a clock
+     * 
+     * @param clock
+     *          the clock
+     * @param onChange
+     *          called on the application thread after each change made to
+     *          the clock through the controls
+     * 
+     * */
+    public void bind(SimulationClock clock, Runnable onChange)
+    {
+        if(clock == null || onChange == null)
+        {
+            throw new NullPointerException();
+        }
+        
+        this.clock = clock;
+        this.onChange = onChange;
+        this.root.setDisable(false);
+        this.refresh();
+        this.timeline.play();
+    }
+    
+    /**
+     * Changes the clock when the controls are used
+     * 
+     * */
+    private void setupHandlers()
+    {
+        this.playButton.setOnAction(event -> {
+            if(this.clock.isPaused())
+            {
+                this.clock.play();
+            }
+            else
+            {
+                this.clock.pause();
+            }
+            
+            this.changed();
+        });
+        
+        this.rateBox.setOnAction(event -> {
+            int index = this.rateBox.getSelectionModel().getSelectedIndex();
+            
+            if(index >= 0)
+            {
+                this.clock.setRate(this.RATES[index]);
+                this.changed();
+            }
+        });
+        
+        this.nowButton.setOnAction(event -> {
+            this.clock.reset();
+            this.changed();
+        });
+        
+        this.slider.valueChangingProperty().addListener((observable,
+                        wasChanging, changing) -> {
+            if(!changing)
+            {
+                this.seek();
+            }
+        });
+        
+        // values set by refresh follow the clock rather than move it
+        this.slider.valueProperty().addListener((observable, oldValue,
+                        value) -> {
+            if(!this.refreshing && !this.slider.isValueChanging())
+            {
+                this.seek();
+            }
+        });
+    }
+    
+    /**
+     * Moves the clock to the time on the slider
+     * 
+     * */
+    private void seek()
+    {
+        this.clock.seek(System.currentTimeMillis() + Math.round(this.slider
+                        .getValue() * this.HOUR));
+        this.changed();
+    }
+    
+    /**
+     * Shows the new state of the clock and tells the listener of the change
+     * 
+     * */
+    private void changed()
+    {
+        this.refresh();
+        this.onChange.run();
+    }
+    
+    /**
+     * Shows the state of the clock. The slider is left alone while it is
+     * being dragged.
+     * 
+     * */
+    private void refresh()
+    {
+        long time = this.clock.getTime();
+        
+        this.timeLabel.setText(this.TIME_FORMAT.format(Instant.ofEpochMilli(
+                        time)));
+        this.playButton.setText(this.clock.isPaused() ? "Play" : "Pause");
+        
+        if(!this.slider.isValueChanging())
+        {
+            this.refreshing = true;
+            this.slider.setValue((time - System.currentTimeMillis())
+                            / this.HOUR);
+            this.refreshing = false;
+        }
+        
+        int index = this.rateBox.getSelectionModel().getSelectedIndex();
+        
+        if(index < 0 || this.RATES[index] != this.clock.getRate())
+        {
+            for(int i = 0; i < this.RATES.length; i++)
+            {
+                if(this.RATES[i] == this.clock.getRate())
+                {
+                    this.rateBox.getSelectionModel().select(i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,247 @@
+/**
+ * Unit tests for the {@link CatalogueIndex} class.
+ */
+package astra.test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import astra.Satellite;
+import astra.gui.CatalogueColumn;
+import astra.gui.CatalogueIndex;
+import astra.gui.CatalogueRow;
+
+public class CatalogueIndexTest
+{
+    private final String[] NAMES = { "ALPHA", "BRAVO", "CHARLIE" };
+    private final float[] INCLINATIONS = { 28.5f, 51.6401f, 98.2f };
+    private final float[] MEAN_MOTIONS = { 14.2f, 15.53976999f };
+    
+    @Test
+    public void testAscendingAndDescending()
+    {
+        CatalogueRow[] rows = this.createRows(200, 1);
+        CatalogueIndex index = new CatalogueIndex(rows);
+        CatalogueColumn[] columns = { CatalogueColumn.NUMBER };
+        CatalogueRow[] ascending = index.sort(columns, new boolean[] {
+                        false });
+        CatalogueRow[] descending = index.sort(columns, new boolean[] {
+                        true });
+        
+        Assert.assertEquals(rows.length, index.size());
+        Assert.assertEquals(rows.length, ascending.length);
+        Assert.assertEquals(rows.length, descending.length);
+        
+        for(int i = 1; i < rows.length; i++)
+        {
+            Assert.assertTrue(ascending[i - 1].getNumber() <= ascending[i]
+                            .getNumber());
+            Assert.assertTrue(descending[i - 1].getNumber() >= descending[i]
+                            .getNumber());
+        }
+    }
+    
+    @Test
+    public void testTiesKeepOriginalOrder()
+    {
+        CatalogueRow[] rows = this.createRows(200, 2);
+        CatalogueIndex index = new CatalogueIndex(rows);
+        CatalogueRow[] sorted = index.sort(new CatalogueColumn[] {
+                        CatalogueColumn.INCLINATION, CatalogueColumn.NAME },
+                        new boolean[] { true, false });
+        
+        for(int i = 1; i < sorted.length; i++)
+        {
+            CatalogueRow previous = sorted[i - 1];
+            CatalogueRow row = sorted[i];
+            int inclination = Double.compare(previous.getInclination(), row
+                            .getInclination());
+            int name = previous.getNameKey().compareTo(row.getNameKey());
+            
+            Assert.assertTrue(inclination >= 0);
+            
+            if(inclination == 0)
+            {
+                Assert.assertTrue(name <= 0);
+                
+                if(name == 0)
+                {
+                    Assert.assertTrue(this.indexOf(rows, previous) < this
+                                    .indexOf(rows, row));
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testMatchesArraysSort()
+    {
+        CatalogueRow[] rows = this.createRows(500, 3);
+        CatalogueIndex index = new CatalogueIndex(rows);
+        CatalogueColumn[] all = CatalogueColumn.values();
+        Random random = new Random(4);
+        
+        for(int trial = 0; trial < 50; trial++)
+        {
+            int count = 1 + random.nextInt(3);
+            CatalogueColumn[] columns = new CatalogueColumn[count];
+            boolean[] descending = new boolean[count];
+            Comparator<CatalogueRow> comparator = null;
+            
+            for(int c = 0; c < count; c++)
+            {
+                columns[c] = all[random.nextInt(all.length)];
+                descending[c] = random.nextBoolean();
+                
+                Comparator<CatalogueRow> next = descending[c] ? columns[c]
+                                .getComparator().reversed() : columns[c]
+                                                .getComparator();
+                
+                comparator = comparator == null ? next : comparator
+                                .thenComparing(next);
+            }
+            
+            CatalogueRow[] expected = rows.clone();
+            
+            // Arrays.sort is stable for objects
+            Arrays.sort(expected, comparator);
+            
+            Assert.assertArrayEquals(expected, index.sort(columns,
+                            descending));
+        }
+    }
+    
+    @Test
+    public void testEmpty()
+    {
+        CatalogueIndex index = new CatalogueIndex(new CatalogueRow[0]);
+        
+        Assert.assertEquals(0, index.sort(new CatalogueColumn[] {
+                        CatalogueColumn.NAME }, new boolean[] {
+                                        false }).length);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testMismatchedOrder()
+    {
+        new CatalogueIndex(this.createRows(5, 5)).sort(new CatalogueColumn[] {
+                        CatalogueColumn.NAME }, new boolean[0]);
+    }
+    
+    @Test
+    public void testEpochAge()
+    {
+        CatalogueRow[] rows = this.createRows(50, 6);
+        CatalogueRow[] sorted = new CatalogueIndex(rows).sort(
+                        new CatalogueColumn[] { CatalogueColumn.EPOCH_AGE },
+                        new boolean[] { false });
+        long day = 86400000L;
+        
+        // the age is measured from the time given, not the system clock
+        Assert.assertEquals("10.0", CatalogueColumn.EPOCH_AGE.format(rows[0],
+                        rows[0].getEpoch() + 10 * day));
+        Assert.assertEquals("-2.5", CatalogueColumn.EPOCH_AGE.format(rows[0],
+                        rows[0].getEpoch() - 60 * 3600000L));
+        
+        // ages grow down the column whatever the time they are measured from
+        for(long time : new long[] { rows[0].getEpoch(), rows[0].getEpoch()
+                        + 1000 * day })
+        {
+            for(int i = 1; i < sorted.length; i++)
+            {
+                Assert.assertTrue(time - sorted[i - 1].getEpoch() <= time
+                                - sorted[i].getEpoch());
+            }
+        }
+    }
+    
+    @Test
+    public void testInvalidElements()
+    {
+        CatalogueRow[] valid = this.createRows(20, 8);
+        CatalogueRow[] rows = Arrays.copyOf(valid, valid.length + 1);
+        Satellite invalid = SatelliteFixtures.createSatellite(99999, 51.6401f,
+                        245.6477f, 0.0005666f, 47.4633f, 0.0f);
+        
+        // one bad satellite in a batch still gets a row, and spoils no other
+        rows[valid.length] = new CatalogueRow(invalid);
+        
+        CatalogueRow row = rows[valid.length];
+        
+        Assert.assertEquals("TEST 99999", CatalogueColumn.NAME.format(row,
+                        0));
+        Assert.assertEquals("99999", CatalogueColumn.NUMBER.format(row, 0));
+        Assert.assertEquals("-", CatalogueColumn.PERIOD.format(row, 0));
+        Assert.assertEquals("-", CatalogueColumn.APOGEE.format(row, 0));
+        Assert.assertEquals("-", CatalogueColumn.PERIGEE.format(row, 0));
+        Assert.assertEquals(SatelliteFixtures.epoch(), row.getEpoch());
+        
+        CatalogueRow[] sorted = new CatalogueIndex(rows).sort(
+                        new CatalogueColumn[] { CatalogueColumn.PERIOD },
+                        new boolean[] { false });
+        
+        Assert.assertSame(row, sorted[sorted.length - 1]);
+        
+        for(int i = 0; i < valid.length; i++)
+        {
+            Assert.assertFalse(Double.isNaN(sorted[i].getPeriod()));
+        }
+    }
+    
+    /**
+     * @param rows
+     *          the rows
+     * @param row
+     *          a row
+     * @return position of <code>row</code> itself in <code>rows</code>
+     */
+    private int indexOf(CatalogueRow[] rows, CatalogueRow row)
+    {
+        for(int i = 0; i < rows.length; i++)
+        {
+            if(rows[i] == row)
+            {
+                return i;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * @param count
+     *          number of rows
+     * @param seed
+     *          seed for the random elements
+     * @return rows drawn from a few names, numbers and orbits, so that many
+     *         rows tie on each column
+     */
+    private CatalogueRow[] createRows(int count, long seed)
+    {
+        Random random = new Random(seed);
+        CatalogueRow[] rows = new CatalogueRow[count];
+        
+        for(int i = 0; i < count; i++)
+        {
+            Calendar epoch = SatelliteFixtures.epochCalendar();
+            
+            epoch.add(Calendar.DAY_OF_YEAR, random.nextInt(3));
+            rows[i] = new CatalogueRow(new Satellite(this.NAMES[random.nextInt(
+                            this.NAMES.length)], 1 + random.nextInt(50), "U",
+                            SatelliteFixtures.launchYear(), 67, 1, epoch, 0.0f,
+                            0.0f, 0.0f, 0, this.INCLINATIONS[random.nextInt(
+                                            this.INCLINATIONS.length)],
+                            245.6477f, 0.0005666f, 129.9909f, 47.4633f,
+                            this.MEAN_MOTIONS[random.nextInt(
+                                            this.MEAN_MOTIONS.length)],
+                            55286));
+        }
+        
+        return rows;
+    }
+}
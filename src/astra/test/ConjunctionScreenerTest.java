@@ -0,0 +1,333 @@
+/**
+ * Unit tests for the {@link ConjunctionScreener} class.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.Conjunction;
+import astra.ConjunctionScreener;
+import astra.KeplerPropagator;
+import astra.Propagator;
+import astra.Satellite;
+import astra.StateVector;
+
+public class ConjunctionScreenerTest
+{
+    private final double THRESHOLD = 25;
+    private final long HOUR = 3600000L;
+    
+    private long epoch;
+    
+    private Propagator propagator;
+    private ConjunctionScreener screener;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.epoch = SatelliteFixtures.epoch();
+        
+        this.propagator = new KeplerPropagator(true);
+        this.screener = new ConjunctionScreener(this.propagator,
+                        this.THRESHOLD, 60000);
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testMatchesBruteForce()
+    {
+        List<Satellite> satellites = this.createCatalogue(120, 1);
+        long end = this.epoch + 2 * this.HOUR;
+        List<Conjunction> actual = this.screener.screen(satellites,
+                        this.epoch, end);
+        List<long[]> expected = this.bruteForce(satellites, this.epoch, end);
+        
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected.size(), actual.size());
+        
+        for(long[] approach : expected)
+        {
+            boolean found = false;
+            
+            for(Conjunction conjunction : actual)
+            {
+                int i = satellites.indexOf(conjunction.getPrimary());
+                int j = satellites.indexOf(conjunction.getSecondary());
+                
+                found |= Math.min(i, j) == approach[0] && Math.max(i, j)
+                                == approach[1] && Math.abs(conjunction
+                                                .getTime() - approach[2])
+                                                                <= 1000;
+            }
+            
+            Assert.assertTrue(found);
+        }
+        
+        for(Conjunction conjunction : actual)
+        {
+            Assert.assertTrue(conjunction.getMissDistance() <= this.THRESHOLD);
+            Assert.assertTrue(conjunction.getRelativeSpeed() > 0);
+            Assert.assertNotSame(conjunction.getPrimary(), conjunction
+                            .getSecondary());
+        }
+        
+        for(int i = 1; i < actual.size(); i++)
+        {
+            Assert.assertTrue(actual.get(i - 1).getTime() <= actual.get(i)
+                            .getTime());
+        }
+    }
+    
+    @Test
+    public void testApproachAtStepBoundary()
+    {
+        List<Satellite> satellites = this.createCatalogue(120, 1);
+        Conjunction found = this.screener.screen(satellites, this.epoch,
+                        this.epoch + 2 * this.HOUR).get(0);
+        List<Satellite> pair = new ArrayList<Satellite>();
+        long tca = found.getTime();
+        
+        pair.add(found.getPrimary());
+        pair.add(found.getSecondary());
+        
+        // steps end half a step after their centres, so the approach falls
+        // at the end of the step centred ten steps after the start; the
+        // window is short of the next crossing of the pair's orbits, half a
+        // revolution later
+        for(long offset = -20; offset <= 20; offset++)
+        {
+            long start = tca - 10 * this.screener.getStep() - 30000 + offset;
+            List<Conjunction> actual = this.screener.screen(pair, start,
+                            start + this.HOUR / 2);
+            
+            Assert.assertEquals(1, actual.size());
+            Assert.assertEquals(tca, actual.get(0).getTime(), 1000);
+            Assert.assertEquals(found.getMissDistance(), actual.get(0)
+                            .getMissDistance(), 0.01);
+        }
+    }
+    
+    @Test
+    public void testShellFilter()
+    {
+        List<Satellite> satellites = this.createCatalogue(20, 2);
+        
+        // geosynchronous, far from every other shell
+        satellites.add(SatelliteFixtures.createSatellite(
+                        SatelliteFixtures.FIRST_NUMBER + 20, 0.1f, 0, 0.0001f,
+                        0, 1.00273791f));
+        
+        this.screener.screen(satellites, this.epoch, this.epoch + this.HOUR);
+        
+        Assert.assertEquals(20, this.screener.getScreenedCount());
+    }
+    
+    @Test
+    public void testFewerChecksThanAllPairs()
+    {
+        List<Satellite> satellites = this.createCatalogue(2000, 3);
+        long steps = this.HOUR / this.screener.getStep() + 1;
+        
+        this.screener.screen(satellites, this.epoch, this.epoch + this.HOUR);
+        
+        Assert.assertTrue(this.screener.getCandidateCount() < steps * 2000
+                        * 1999 / 2 / 20);
+        Assert.assertTrue(this.screener.getRefinedCount() < this.screener
+                        .getCandidateCount());
+    }
+    
+    @Test
+    public void testTooFewSatellites()
+    {
+        List<Satellite> satellites = new ArrayList<Satellite>();
+        
+        Assert.assertTrue(this.screener.screen(satellites, this.epoch,
+                        this.epoch + this.HOUR).isEmpty());
+        
+        satellites.add(SatelliteFixtures.iss());
+        
+        Assert.assertTrue(this.screener.screen(satellites, this.epoch,
+                        this.epoch + this.HOUR).isEmpty());
+    }
+    
+    @Test
+    public void testEmptyWindow()
+    {
+        List<Satellite> satellites = this.createCatalogue(120, 1);
+        
+        // nothing can reach its closest approach within an instant
+        for(Conjunction conjunction : this.screener.screen(satellites,
+                        this.epoch, this.epoch))
+        {
+            Assert.assertEquals(this.epoch, conjunction.getTime());
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowEndsBeforeStart()
+    {
+        this.screener.screen(this.createCatalogue(2, 1), this.epoch,
+                        this.epoch - 1);
+    }
+    
+    /**
+     * Finds approaches by checking every pair every second
+     * 
+     * @param satellites
+     *          the catalogue
+     * @param start
+     *          start of the window
+     * @param end
+     *          end of the window
+     * @return catalogue indices of each pair, in order, and time of closest
+     *         approach
+     */
+    private List<long[]> bruteForce(List<Satellite> satellites, long start,
+                    long end)
+    {
+        int count = satellites.size();
+        int samples = (int) ((end - start) / 1000) + 1;
+        double[][] positions = new double[count][3 * samples];
+        StateVector state = new StateVector();
+        
+        for(int i = 0; i < count; i++)
+        {
+            for(int k = 0; k < samples; k++)
+            {
+                this.propagator.propagate(satellites.get(i), start + 1000 * k,
+                                state);
+                positions[i][3 * k] = state.getX();
+                positions[i][3 * k + 1] = state.getY();
+                positions[i][3 * k + 2] = state.getZ();
+            }
+        }
+        
+        List<long[]> approaches = new ArrayList<long[]>();
+        double[] distances = new double[samples];
+        
+        for(int i = 0; i < count; i++)
+        {
+            for(int j = i + 1; j < count; j++)
+            {
+                for(int k = 0; k < samples; k++)
+                {
+                    double dx = positions[j][3 * k] - positions[i][3 * k];
+                    double dy = positions[j][3 * k + 1] - positions[i][3 * k
+                                    + 1];
+                    double dz = positions[j][3 * k + 2] - positions[i][3 * k
+                                    + 2];
+                    
+                    distances[k] = Math.sqrt(dx * dx + dy * dy + dz * dz);
+                }
+                
+                // local minima near the threshold, refined to the
+                // millisecond since one-second sampling can miss the true
+                // minimum by several kilometres
+                for(int k = 1; k + 1 < samples; k++)
+                {
+                    if(distances[k] <= distances[k - 1] && distances[k]
+                                    < distances[k + 1] && distances[k]
+                                                    < this.THRESHOLD + 10)
+                    {
+                        long time = this.refine(satellites.get(i), satellites
+                                        .get(j), start + 1000 * (k - 1), start
+                                                        + 1000 * (k + 1));
+                        
+                        if(this.distance(satellites.get(i), satellites.get(j),
+                                        time) <= this.THRESHOLD)
+                        {
+                            approaches.add(new long[] { i, j, time });
+                        }
+                    }
+                }
+            }
+        }
+        
+        return approaches;
+    }
+    
+    /**
+     * Finds the time of closest approach of two satellites by ternary search
+     * 
+     * @param first
+     *          a satellite
+     * @param second
+     *          another satellite
+     * @param start
+     *          start of an interval holding a single minimum of distance
+     * @param end
+     *          end of the interval
+     * @return time of closest approach, to the millisecond
+     */
+    private long refine(Satellite first, Satellite second, long start,
+                    long end)
+    {
+        while(end - start > 2)
+        {
+            long left = start + (end - start) / 3;
+            long right = end - (end - start) / 3;
+            
+            if(this.distance(first, second, left) < this.distance(first,
+                            second, right))
+            {
+                end = right;
+            }
+            else
+            {
+                start = left;
+            }
+        }
+        
+        return (start + end) / 2;
+    }
+    
+    /**
+     * @param first
+     *          a satellite
+     * @param second
+     *          another satellite
+     * @param time
+     *          a time
+     * @return distance between the satellites at <code>time</code> (km)
+     */
+    private double distance(Satellite first, Satellite second, long time)
+    {
+        StateVector a = this.propagator.propagate(first, time);
+        StateVector b = this.propagator.propagate(second, time);
+        
+        return Math.sqrt((a.getX() - b.getX()) * (a.getX() - b.getX())
+                        + (a.getY() - b.getY()) * (a.getY() - b.getY())
+                        + (a.getZ() - b.getZ()) * (a.getZ() - b.getZ()));
+    }
+    
+    /**
+     * @param count
+     *          number of satellites
+     * @param seed
+     *          seed for the random elements
+     * @return satellites in crowded low orbits between 700 and 750 km
+     */
+    private List<Satellite> createCatalogue(int count, long seed)
+    {
+        return SatelliteFixtures.createCatalogue(count, seed, 14.6f, 14.75f,
+                        0.002f);
+    }
+}
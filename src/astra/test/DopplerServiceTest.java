@@ -0,0 +1,213 @@
+/**
+ * Unit tests for the {@link DopplerService} class.
+ */
+package astra.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.DopplerSample;
+import astra.DopplerService;
+import astra.FrameTransformer;
+import astra.Frequency;
+import astra.GroundStation;
+import astra.KeplerPropagator;
+import astra.LinkDirection;
+import astra.LookAngleCalculator;
+import astra.LookAngles;
+import astra.Propagator;
+import astra.Satellite;
+
+public class DopplerServiceTest
+{
+    private final double BEACON = 145.8e6;
+    private final double UPLINK = 437.8e6;
+    
+    private Satellite iss;
+    private GroundStation station;
+    private Propagator propagator;
+    private long epoch;
+    
+    private DopplerService service;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.iss = SatelliteFixtures.iss();
+        this.station = new GroundStation("Brisbane", -27.47, 153.03, 0.03);
+        this.propagator = new KeplerPropagator(true);
+        this.epoch = SatelliteFixtures.epoch();
+        
+        List<Frequency> frequencies = Arrays.asList(new Frequency("Beacon",
+                        this.BEACON, LinkDirection.DOWNLINK), new Frequency(
+                                        "Uplink", this.UPLINK,
+                                        LinkDirection.UPLINK));
+        
+        this.service = new DopplerService(this.propagator, this.iss,
+                        this.station, frequencies);
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        this.service.stop();
+    }
+    
+    @Test
+    public void testComputeMatchesLookAngles()
+    {
+        LookAngleCalculator calculator = new LookAngleCalculator(
+                        this.propagator, new FrameTransformer());
+        LookAngles angles = new LookAngles();
+        DopplerSample sample = new DopplerSample(2);
+        long time = this.epoch + 3600000;
+        
+        calculator.compute(this.iss, this.station, time, angles);
+        this.service.compute(time, sample);
+        
+        Assert.assertEquals(time, sample.getTime());
+        Assert.assertEquals(angles.getRange(), sample.getRange(), 1e-9);
+        Assert.assertEquals(angles.getRangeRate(), sample.getRangeRate(),
+                        1e-12);
+        Assert.assertEquals(angles.getElevation(), sample.getElevation(),
+                        1e-12);
+    }
+    
+    @Test
+    public void testCorrectedFrequencies()
+    {
+        DopplerSample sample = new DopplerSample(2);
+        double c = DopplerService.SPEED_OF_LIGHT;
+        
+        this.service.compute(this.epoch + 3600000, sample);
+        
+        double rangeRate = sample.getRangeRate();
+        
+        Assert.assertEquals(this.BEACON * (1 - rangeRate / c), sample
+                        .getFrequency(0), 1e-6);
+        Assert.assertEquals(this.UPLINK / (1 - rangeRate / c), sample
+                        .getFrequency(1), 1e-6);
+        
+        // receding lowers the received frequency and raises the transmitted
+        Assert.assertEquals(rangeRate > 0, sample.getFrequency(0)
+                        < this.BEACON);
+        Assert.assertEquals(rangeRate > 0, sample.getFrequency(1)
+                        > this.UPLINK);
+    }
+    
+    @Test
+    public void testComputeDoesNotAllocate()
+    {
+        java.lang.management.ThreadMXBean bean = ManagementFactory
+                        .getThreadMXBean();
+        
+        Assume.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        
+        com.sun.management.ThreadMXBean threads =
+                        (com.sun.management.ThreadMXBean) bean;
+        long id = Thread.currentThread().getId();
+        DopplerSample sample = new DopplerSample(2);
+        
+        for(int i = 0; i < 20000; i++)
+        {
+            this.service.compute(this.epoch + 100 * i, sample);
+        }
+        
+        long before = threads.getThreadAllocatedBytes(id);
+        
+        for(int i = 0; i < 20000; i++)
+        {
+            this.service.compute(this.epoch + 100 * i, sample);
+        }
+        
+        long allocated = threads.getThreadAllocatedBytes(id) - before;
+        
+        Assert.assertTrue("Allocated " + allocated + " bytes", allocated
+                        < 4096);
+    }
+    
+    @Test
+    public void testStreamTimes() throws InterruptedException
+    {
+        List<Long> times = new ArrayList<Long>();
+        CountDownLatch latch = new CountDownLatch(5);
+        
+        this.service.setTimeSource(() -> this.epoch);
+        this.service.start(20, sample -> {
+            synchronized(times)
+            {
+                times.add(sample.getTime());
+            }
+            
+            latch.countDown();
+        });
+        
+        Assert.assertTrue(this.service.isRunning());
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        this.service.stop();
+        Assert.assertFalse(this.service.isRunning());
+        
+        synchronized(times)
+        {
+            for(int i = 0; i < 5; i++)
+            {
+                Assert.assertEquals(this.epoch + 20 * i, (long) times.get(i));
+            }
+        }
+        
+        Assert.assertTrue(this.service.getTickCount() >= 5);
+        Assert.assertTrue(this.service.getMaxJitter() >= this.service
+                        .getMeanJitter());
+    }
+    
+    @Test
+    public void testFailingListener() throws InterruptedException
+    {
+        IllegalStateException failure = new IllegalStateException();
+        
+        this.service.setTimeSource(() -> this.epoch);
+        this.service.start(20, sample -> {
+            throw failure;
+        });
+        
+        for(int i = 0; i < 500 && this.service.getFailures().getCount() < 3;
+                        i++)
+        {
+            Thread.sleep(10);
+        }
+        
+        Assert.assertTrue(this.service.isRunning());
+        this.service.stop();
+        
+        Assert.assertTrue(this.service.getFailures().getCount() >= 3);
+        Assert.assertTrue(this.service.getTickCount() >= 3);
+        Assert.assertSame(failure, this.service.getFailures().getFirst());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testStartTwice()
+    {
+        this.service.start(100, sample -> {
+        });
+        this.service.start(100, sample -> {
+        });
+    }
+}
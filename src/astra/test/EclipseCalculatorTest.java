@@ -0,0 +1,215 @@
+/**
+ * Unit tests for the {@link EclipseCalculator} class.
+ */
+package astra.test;
+
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.Earth;
+import astra.Eclipse;
+import astra.EclipseCalculator;
+import astra.IlluminationState;
+import astra.KeplerPropagator;
+import astra.Propagator;
+import astra.Satellite;
+import astra.SunEphemeris;
+import astra.SunPosition;
+
+public class EclipseCalculatorTest
+{
+    private Satellite iss;
+    private long epoch;
+    
+    private Propagator propagator;
+    private SunEphemeris ephemeris;
+    private EclipseCalculator conical;
+    private EclipseCalculator cylindrical;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.iss = SatelliteFixtures.iss();
+        this.epoch = SatelliteFixtures.epoch();
+        
+        this.propagator = new KeplerPropagator(true);
+        this.ephemeris = new SunEphemeris();
+        this.conical = new EclipseCalculator(this.propagator, this.ephemeris,
+                        true);
+        this.cylindrical = new EclipseCalculator(this.propagator,
+                        this.ephemeris, false);
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testSunPosition()
+    {
+        Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+        
+        // June solstice, 2017-06-21 04:24 UTC
+        calendar.clear();
+        calendar.set(2017, Calendar.JUNE, 21, 4, 24);
+        
+        SunPosition solstice = SunEphemeris.compute(calendar
+                        .getTimeInMillis());
+        
+        Assert.assertEquals(23.44, this.declination(solstice), 0.02);
+        Assert.assertEquals(1.0163, solstice.getDistance()
+                        / SunEphemeris.ASTRONOMICAL_UNIT, 0.001);
+        
+        // March equinox, 2017-03-20 10:29 UTC
+        calendar.set(2017, Calendar.MARCH, 20, 10, 29);
+        
+        SunPosition equinox = SunEphemeris.compute(calendar
+                        .getTimeInMillis());
+        
+        Assert.assertEquals(0, this.declination(equinox), 0.02);
+        Assert.assertTrue(equinox.getX() > 0);
+    }
+    
+    @Test
+    public void testPositionCached()
+    {
+        Assert.assertSame(this.ephemeris.getPosition(this.epoch),
+                        this.ephemeris.getPosition(this.epoch));
+    }
+    
+    @Test
+    public void testComputeStates()
+    {
+        SunPosition sun = this.ephemeris.getPosition(this.epoch);
+        double d = sun.getDistance();
+        double[] s = { sun.getX() / d, sun.getY() / d, sun.getZ() / d };
+        
+        // a direction perpendicular to the Sun
+        double[] p = { -s[1], s[0], 0 };
+        double norm = Math.hypot(p[0], p[1]);
+        double[] positions = new double[12];
+        
+        for(int k = 0; k < 3; k++)
+        {
+            positions[k] = 7000 * s[k];
+            positions[3 + k] = -7000 * s[k];
+            positions[6 + k] = -7000 * s[k] + Earth.RADIUS * p[k] / norm;
+            positions[9 + k] = -7000 * s[k] + 1.1 * Earth.RADIUS * p[k]
+                            / norm;
+        }
+        
+        IlluminationState[] states = new IlluminationState[4];
+        
+        this.conical.computeStates(this.epoch, positions, 4, states);
+        
+        Assert.assertEquals(IlluminationState.SUNLIT, states[0]);
+        Assert.assertEquals(IlluminationState.UMBRA, states[1]);
+        Assert.assertEquals(IlluminationState.PENUMBRA, states[2]);
+        Assert.assertEquals(IlluminationState.SUNLIT, states[3]);
+        
+        this.cylindrical.computeStates(this.epoch, positions, 4, states);
+        
+        Assert.assertEquals(IlluminationState.SUNLIT, states[0]);
+        Assert.assertEquals(IlluminationState.UMBRA, states[1]);
+        Assert.assertEquals(IlluminationState.SUNLIT, states[3]);
+    }
+    
+    @Test
+    public void testFindEclipsesMatchesScan()
+    {
+        long end = this.epoch + 86400000L;
+        List<Eclipse> eclipses = this.conical.findEclipses(this.iss,
+                        this.epoch, end);
+        IlluminationState previous = this.conical.getState(this.iss,
+                        this.epoch);
+        int index = 0;
+        int entries = 0;
+        
+        Assert.assertTrue(eclipses.size() >= 15);
+        
+        for(long t = this.epoch + 1000; t <= end; t += 1000)
+        {
+            IlluminationState state = this.conical.getState(this.iss, t);
+            
+            if(previous == IlluminationState.SUNLIT
+                            && state != IlluminationState.SUNLIT)
+            {
+                Assert.assertEquals(t, eclipses.get(index).getStart(), 1100);
+                entries++;
+            }
+            else if(previous != IlluminationState.SUNLIT
+                            && state == IlluminationState.SUNLIT)
+            {
+                Assert.assertEquals(t, eclipses.get(index).getEnd(), 1100);
+                index++;
+            }
+            else if(previous == IlluminationState.PENUMBRA
+                            && state == IlluminationState.UMBRA)
+            {
+                Assert.assertEquals(t, eclipses.get(index)
+                                .getUmbraStart(), 1100);
+            }
+            else if(previous == IlluminationState.UMBRA
+                            && state == IlluminationState.PENUMBRA)
+            {
+                Assert.assertEquals(t, eclipses.get(index)
+                                .getUmbraEnd(), 1100);
+            }
+            
+            previous = state;
+        }
+        
+        Assert.assertTrue(entries >= eclipses.size() - 1);
+    }
+    
+    @Test
+    public void testCylindricalBetweenUmbraAndPenumbra()
+    {
+        long end = this.epoch + 86400000L;
+        Eclipse conical = this.conical.findEclipses(this.iss, this.epoch
+                        + 3600000, end).get(1);
+        Eclipse cylindrical = null;
+        
+        for(Eclipse eclipse : this.cylindrical.findEclipses(this.iss,
+                        this.epoch + 3600000, end))
+        {
+            if(eclipse.getStart() < conical.getEnd() && eclipse
+                            .getEnd() > conical.getStart())
+            {
+                cylindrical = eclipse;
+            }
+        }
+        
+        Assert.assertNotNull(cylindrical);
+        Assert.assertTrue(conical.isTotal());
+        Assert.assertTrue(cylindrical.getDuration() < conical.getDuration());
+        Assert.assertTrue(cylindrical.getDuration() > conical.getUmbraEnd()
+                        - conical.getUmbraStart());
+    }
+    
+    /**
+     * @param sun
+     *          position of the Sun
+     * @return declination of the Sun (degrees)
+     */
+    private double declination(SunPosition sun)
+    {
+        return Math.toDegrees(Math.asin(sun.getZ() / sun.getDistance()));
+    }
+}
@@ -0,0 +1,64 @@
+/**
+ * Unit tests for the {@link FailureReporter} class.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import astra.FailureReporter;
+
+public class FailureReporterTest
+{
+    @Test
+    public void testFirstFailureForwarded()
+    {
+        List<RuntimeException> forwarded = new ArrayList<RuntimeException>();
+        FailureReporter failures = new FailureReporter();
+        IllegalStateException first = new IllegalStateException();
+        
+        failures.setListener(forwarded::add);
+        failures.report(first);
+        failures.report(new IllegalArgumentException());
+        failures.report(new IllegalArgumentException());
+        
+        Assert.assertEquals(3, failures.getCount());
+        Assert.assertSame(first, failures.getFirst());
+        Assert.assertEquals(1, forwarded.size());
+        Assert.assertSame(first, forwarded.get(0));
+    }
+    
+    @Test
+    public void testReset()
+    {
+        List<RuntimeException> forwarded = new ArrayList<RuntimeException>();
+        FailureReporter failures = new FailureReporter();
+        IllegalStateException later = new IllegalStateException();
+        
+        failures.setListener(forwarded::add);
+        failures.report(new IllegalArgumentException());
+        failures.reset();
+        
+        Assert.assertEquals(0, failures.getCount());
+        Assert.assertNull(failures.getFirst());
+        
+        failures.report(later);
+        
+        Assert.assertEquals(1, failures.getCount());
+        Assert.assertEquals(2, forwarded.size());
+        Assert.assertSame(later, forwarded.get(1));
+    }
+    
+    @Test
+    public void testNoListener()
+    {
+        FailureReporter failures = new FailureReporter();
+        
+        failures.report(new IllegalStateException());
+        
+        Assert.assertEquals(1, failures.getCount());
+    }
+}
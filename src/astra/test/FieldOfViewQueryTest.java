@@ -0,0 +1,253 @@
+/**
+ * Unit tests for the {@link FieldOfViewQuery} class.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.ConeCrossing;
+import astra.FieldOfViewQuery;
+import astra.FrameTransformer;
+import astra.GroundStation;
+import astra.KeplerPropagator;
+import astra.Propagator;
+import astra.Satellite;
+import astra.SensorCone;
+import astra.StateVector;
+
+public class FieldOfViewQueryTest
+{
+    private final long HOUR = 3600000L;
+    
+    private long epoch;
+    private Satellite iss;
+    private GroundStation brisbane;
+    
+    private Propagator propagator;
+    private FrameTransformer transformer;
+    private FieldOfViewQuery query;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.epoch = SatelliteFixtures.epoch();
+        this.iss = SatelliteFixtures.iss();
+        this.brisbane = new GroundStation("Brisbane", -27.47, 153.03, 0.03);
+        
+        this.propagator = new KeplerPropagator(true);
+        this.transformer = new FrameTransformer();
+        this.query = new FieldOfViewQuery(this.propagator, this.transformer);
+    }
+    
+    @Test
+    public void testMatchesScan()
+    {
+        SensorCone cone = new SensorCone(this.brisbane, 0, 90, 40);
+        long end = this.epoch + 24 * this.HOUR;
+        List<ConeCrossing> crossings = this.query.find(Arrays.asList(
+                        this.iss), cone, this.epoch, end);
+        List<long[]> expected = this.scan(this.iss, cone, this.epoch, end);
+        
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected.size(), crossings.size());
+        
+        for(int i = 0; i < expected.size(); i++)
+        {
+            ConeCrossing crossing = crossings.get(i);
+            
+            Assert.assertEquals(expected.get(i)[0], crossing.getEntry(), 1000);
+            Assert.assertEquals(expected.get(i)[1], crossing.getExit(), 1000);
+            Assert.assertTrue(crossing.getMinAngle() < Math.toRadians(40));
+        }
+    }
+    
+    @Test
+    public void testPruning()
+    {
+        // the ISS never reaches the sky near the zenith of a polar station
+        GroundStation svalbard = new GroundStation("Svalbard", 78.23, 15.41,
+                        0.5);
+        SensorCone cone = new SensorCone(svalbard, 0, 90, 5);
+        
+        Assert.assertFalse(this.query.isPossiblyVisible(this.iss, cone,
+                        this.epoch, this.epoch + 24 * this.HOUR));
+    }
+    
+    @Test
+    public void testPruningIsConservative()
+    {
+        List<Satellite> satellites = SatelliteFixtures.createCatalogue(300, 1,
+                        2, 16, 0.1f);
+        SensorCone cone = new SensorCone(this.brisbane, 120, 50, 10);
+        long end = this.epoch + 2 * this.HOUR;
+        List<ConeCrossing> crossings = this.query.find(satellites, cone,
+                        this.epoch, end);
+        int found = 0;
+        
+        for(Satellite satellite : satellites)
+        {
+            boolean crosses = !this.query.find(satellite, cone, this.epoch,
+                            end).isEmpty();
+            
+            if(crosses)
+            {
+                found++;
+                Assert.assertTrue(this.query.isPossiblyVisible(satellite,
+                                cone, this.epoch, end));
+            }
+        }
+        
+        Assert.assertTrue(found > 0);
+        Assert.assertTrue(crossings.size() >= found);
+        Assert.assertEquals(300, this.query.getSatelliteCount());
+        Assert.assertTrue(this.query.getPrunedCount() > 150);
+        
+        for(int i = 1; i < crossings.size(); i++)
+        {
+            Assert.assertTrue(crossings.get(i - 1).getEntry() <= crossings
+                            .get(i).getEntry());
+        }
+    }
+    
+    @Test
+    public void testInvalidSatellite()
+    {
+        SensorCone cone = new SensorCone(this.brisbane, 0, 90, 40);
+        
+        this.query.find(Arrays.asList(new Satellite(), this.iss), cone,
+                        this.epoch, this.epoch + this.HOUR);
+        
+        Assert.assertEquals(1, this.query.getSatelliteCount());
+    }
+    
+    @Test
+    public void testOffAxisAngle()
+    {
+        SensorCone cone = new SensorCone(this.brisbane, 45, 60, 10);
+        double[] position = this.brisbane.getPosition();
+        double[] axis = cone.getAxis();
+        double[] target = new double[3];
+        
+        for(int i = 0; i < 3; i++)
+        {
+            target[i] = position[i] + 1000 * axis[i];
+        }
+        
+        Assert.assertEquals(0, cone.offAxisAngle(target, 0), 1e-9);
+        Assert.assertEquals(1, axis[0] * axis[0] + axis[1] * axis[1]
+                        + axis[2] * axis[2], 1e-12);
+    }
+    
+    @Test
+    public void testCrossingTruncatedToWindow()
+    {
+        SensorCone cone = new SensorCone(this.brisbane, 0, 90, 40);
+        ConeCrossing whole = this.query.find(this.iss, cone, this.epoch,
+                        this.epoch + 24 * this.HOUR).get(0);
+        long middle = (whole.getEntry() + whole.getExit()) / 2;
+        
+        // a crossing in progress at either end of the window is cut short
+        List<ConeCrossing> from = this.query.find(this.iss, cone, middle,
+                        whole.getExit() + this.HOUR);
+        List<ConeCrossing> until = this.query.find(this.iss, cone, whole
+                        .getEntry() - this.HOUR, middle);
+        
+        Assert.assertEquals(middle, from.get(0).getEntry());
+        Assert.assertEquals(whole.getExit(), from.get(0).getExit(), 1000);
+        Assert.assertEquals(whole.getEntry(), until.get(until.size() - 1)
+                        .getEntry(), 1000);
+        Assert.assertEquals(middle, until.get(until.size() - 1).getExit());
+    }
+    
+    @Test
+    public void testNoSatellites()
+    {
+        SensorCone cone = new SensorCone(this.brisbane, 0, 90, 40);
+        
+        Assert.assertTrue(this.query.find(new ArrayList<Satellite>(), cone,
+                        this.epoch, this.epoch + this.HOUR).isEmpty());
+        Assert.assertEquals(0, this.query.getSatelliteCount());
+        Assert.assertEquals(0, this.query.getPrunedCount());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowEndsBeforeStart()
+    {
+        this.query.find(Arrays.asList(this.iss), new SensorCone(this.brisbane,
+                        0, 90, 40), this.epoch, this.epoch - 1);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testHalfAngleOutOfRange()
+    {
+        new SensorCone(this.brisbane, 0, 90, 90);
+    }
+    
+    @Test
+    public void testConeToHorizon()
+    {
+        // a cone reaching down to the horizon is allowed
+        SensorCone cone = new SensorCone(this.brisbane, 0, 45, 45);
+        
+        Assert.assertEquals(45, cone.getHalfAngle(), 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testConeBelowHorizon()
+    {
+        new SensorCone(this.brisbane, 0, 5, 10);
+    }
+    
+    /**
+     * Finds crossings by stepping one second at a time
+     * 
+     * @param satellite
+     *          the satellite
+     * @param cone
+     *          the cone
+     * @param start
+     *          start of the window
+     * @param end
+     *          end of the window
+     * @return entry and exit times of each crossing
+     */
+    private List<long[]> scan(Satellite satellite, SensorCone cone,
+                    long start, long end)
+    {
+        StateVector state = new StateVector();
+        double[] ecef = new double[6];
+        double halfAngle = Math.toRadians(cone.getHalfAngle());
+        List<long[]> crossings = new ArrayList<long[]>();
+        long entry = -1;
+        
+        for(long t = start; t <= end; t += 1000)
+        {
+            this.propagator.propagate(satellite, t, state);
+            this.transformer.toEcef(state, ecef);
+            
+            boolean inside = cone.offAxisAngle(ecef, 0) <= halfAngle;
+            
+            if(inside && entry < 0)
+            {
+                entry = t;
+            }
+            else if(!inside && entry >= 0)
+            {
+                crossings.add(new long[] { entry, t });
+                entry = -1;
+            }
+        }
+        
+        return crossings;
+    }
+}
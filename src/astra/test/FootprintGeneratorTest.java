@@ -0,0 +1,131 @@
+/**
+ * Unit tests for the {@link FootprintGenerator} class.
+ */
+package astra.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.Earth;
+import astra.Footprint;
+import astra.FootprintGenerator;
+import astra.VisibilityFilter;
+
+public class FootprintGeneratorTest
+{
+    private FootprintGenerator generator;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.generator = new FootprintGenerator();
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testVerticesOnCircle()
+    {
+        double latitude = Math.toRadians(-27.47);
+        double longitude = Math.toRadians(153.03);
+        Footprint footprint = this.generator.generate(latitude, longitude,
+                        420);
+        double radius = VisibilityFilter.footprintAngle(Earth.RADIUS + 420, 0);
+        
+        Assert.assertEquals(radius, footprint.getRadius(), 1e-12);
+        Assert.assertEquals(72, footprint.getSize());
+        Assert.assertFalse(footprint.containsPole());
+        Assert.assertFalse(footprint.crossesAntimeridian());
+        
+        for(int i = 0; i < footprint.getSize(); i++)
+        {
+            Assert.assertEquals(radius, this.distance(latitude, longitude,
+                            footprint.getLatitude(i), footprint.getLongitude(
+                                            i)), 1e-9);
+        }
+    }
+    
+    @Test
+    public void testAltitudeQuantised()
+    {
+        double radius = this.generator.generate(0, 0, 401).getRadius();
+        
+        Assert.assertEquals(radius, this.generator.generate(0, 1, 399)
+                        .getRadius(), 0);
+        Assert.assertEquals(1, this.generator.getCacheSize());
+        
+        this.generator.generate(0, 0, 800);
+        
+        Assert.assertEquals(2, this.generator.getCacheSize());
+    }
+    
+    @Test
+    public void testAntimeridian()
+    {
+        Footprint footprint = this.generator.generate(0, Math.toRadians(178),
+                        800);
+        
+        Assert.assertTrue(footprint.crossesAntimeridian());
+        Assert.assertFalse(footprint.containsPole());
+        
+        for(int i = 1; i < footprint.getSize(); i++)
+        {
+            Assert.assertTrue(Math.abs(footprint.getLongitude(i) - footprint
+                            .getLongitude(i - 1)) < 0.5);
+        }
+    }
+    
+    @Test
+    public void testPole()
+    {
+        Footprint footprint = this.generator.generate(Math.toRadians(-85),
+                        Math.toRadians(20), 800);
+        int size = footprint.getSize();
+        
+        Assert.assertTrue(footprint.containsPole());
+        Assert.assertEquals(74, size);
+        Assert.assertEquals(-Math.PI / 2, footprint.getLatitude(size - 1), 0);
+        Assert.assertEquals(-Math.PI / 2, footprint.getLatitude(size - 2), 0);
+        Assert.assertEquals(2 * Math.PI, Math.abs(footprint.getLongitude(size
+                        - 2) - footprint.getLongitude(0)), 0.1);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testIndexOutOfBounds()
+    {
+        this.generator.generate(0, 0, 400).getLatitude(72);
+    }
+    
+    /**
+     * @param lat1
+     *          latitude of the first point
+     * @param lon1
+     *          longitude of the first point
+     * @param lat2
+     *          latitude of the second point
+     * @param lon2
+     *          longitude of the second point
+     * @return great-circle angle between two points (rad)
+     */
+    private double distance(double lat1, double lon1, double lat2, double lon2)
+    {
+        double a = Math.pow(Math.sin((lat2 - lat1) / 2), 2) + Math.cos(lat1)
+                        * Math.cos(lat2) * Math.pow(Math.sin((lon2 - lon1)
+                                        / 2), 2);
+        
+        return 2 * Math.asin(Math.sqrt(a));
+    }
+}
@@ -0,0 +1,176 @@
+/**
+ * Unit tests for the {@link FrameTransformer} class.
+ */
+package astra.test;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.Earth;
+import astra.EarthRotation;
+import astra.FrameTransformer;
+import astra.Geodetic;
+import astra.StateVector;
+
+public class FrameTransformerTest
+{
+    // 2000-01-01T12:00:00Z
+    private final long J2000 = 946728000000L;
+    
+    private FrameTransformer transformer;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.transformer = new FrameTransformer();
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testGmstAtJ2000()
+    {
+        double actual = Math.toDegrees(EarthRotation.gmst(this.J2000));
+        
+        Assert.assertEquals(280.46061837, actual, 1e-6);
+    }
+    
+    @Test
+    public void testGmstSiderealDay()
+    {
+        long siderealDay = 86164091L;
+        double start = EarthRotation.gmst(this.J2000);
+        double end = EarthRotation.gmst(this.J2000 + siderealDay);
+        
+        Assert.assertEquals(start, end, 1e-6);
+    }
+    
+    @Test
+    public void testRotationCached()
+    {
+        Assert.assertSame(this.transformer.getRotation(this.J2000),
+                        this.transformer.getRotation(this.J2000));
+        Assert.assertNotSame(this.transformer.getRotation(this.J2000),
+                        this.transformer.getRotation(this.J2000 + 1));
+    }
+    
+    @Test
+    public void testToEcefPreservesRadius()
+    {
+        double[] teme = { 7000, 100, -300, -2000, 6500, 1 };
+        double[] ecef = new double[6];
+        
+        this.transformer.toEcef(this.J2000, teme, ecef, 2);
+        
+        for(int i = 0; i < 6; i += 3)
+        {
+            Assert.assertEquals(FrameTransformerTest.norm(teme, i),
+                            FrameTransformerTest.norm(ecef, i), 1e-9);
+            Assert.assertEquals(teme[i + 2], ecef[i + 2], 0);
+        }
+    }
+    
+    @Test
+    public void testToEcefVelocityOfFixedPoint()
+    {
+        // a point co-rotating with the Earth has no velocity in ECEF
+        double r = 42164;
+        StateVector state = new StateVector();
+        EarthRotation rotation = this.transformer.getRotation(this.J2000);
+        double angle = rotation.getAngle();
+        state.set(this.J2000, r * Math.cos(angle), r * Math.sin(angle), 0,
+                        -r * Earth.ROTATION_RATE * Math.sin(angle),
+                        r * Earth.ROTATION_RATE * Math.cos(angle), 0);
+        
+        double[] ecef = new double[6];
+        this.transformer.toEcef(state, ecef);
+        
+        Assert.assertEquals(r, ecef[0], 1e-6);
+        Assert.assertEquals(0, ecef[1], 1e-6);
+        Assert.assertEquals(0, ecef[3], 1e-9);
+        Assert.assertEquals(0, ecef[4], 1e-9);
+    }
+    
+    @Test
+    public void testGeodeticRoundTrip()
+    {
+        double[][] points = { { -27.47, 153.03, 0.05 }, { 89.9, -10, 400 },
+                        { -90, 0, 0 }, { 0, 180, 35786 }, { 51.6, -0.1, 420 } };
+        double[] ecef = new double[3];
+        double[] geodetic = new double[3];
+        
+        for(double[] point : points)
+        {
+            Geodetic.toEcef(Math.toRadians(point[0]), Math.toRadians(point[1]),
+                            point[2], ecef);
+            Geodetic.fromEcef(ecef, geodetic, 1);
+            
+            Assert.assertEquals(point[0], Math.toDegrees(geodetic[0]), 1e-9);
+            Assert.assertEquals(point[2], geodetic[2], 1e-6);
+            
+            if(Math.abs(point[0]) < 90)
+            {
+                Assert.assertEquals(Math.sin(Math.toRadians(point[1])),
+                                Math.sin(geodetic[1]), 1e-9);
+                Assert.assertEquals(Math.cos(Math.toRadians(point[1])),
+                                Math.cos(geodetic[1]), 1e-9);
+            }
+        }
+    }
+    
+    @Test
+    public void testToGeodeticBatch()
+    {
+        int count = 1000;
+        double[] teme = new double[3 * count];
+        double[] geodetic = new double[3 * count];
+        
+        for(int i = 0; i < count; i++)
+        {
+            double angle = 2 * Math.PI * i / count;
+            teme[3 * i] = 6778 * Math.cos(angle);
+            teme[3 * i + 1] = 0;
+            teme[3 * i + 2] = 6778 * Math.sin(angle);
+        }
+        
+        this.transformer.toGeodetic(this.J2000, teme, geodetic, count);
+        
+        for(int i = 0; i < count; i++)
+        {
+            Assert.assertTrue(geodetic[3 * i + 2] > 390);
+            Assert.assertTrue(geodetic[3 * i + 2] < 422);
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testToEcefShortArray()
+    {
+        this.transformer.toEcef(this.J2000, new double[5], new double[6], 2);
+    }
+    
+    /**
+     * @param v
+     *          interleaved vector array
+     * @param offset
+     *          index of the first component
+     * @return the norm of the vector at <code>offset</code>
+     */
+    private static double norm(double[] v, int offset)
+    {
+        return Math.sqrt(v[offset] * v[offset] + v[offset + 1] * v[offset + 1]
+                        + v[offset + 2] * v[offset + 2]);
+    }
+}
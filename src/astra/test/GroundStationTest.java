@@ -0,0 +1,207 @@
+/**
+ * Unit tests for the {@link GroundStation} class.
+ */
+package astra.test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.FrameTransformer;
+import astra.Geodetic;
+import astra.GroundStation;
+import astra.KeplerPropagator;
+import astra.LookAngleBatch;
+import astra.LookAngleCalculator;
+import astra.LookAngles;
+import astra.Satellite;
+
+public class GroundStationTest
+{
+    private GroundStation brisbane;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.brisbane = new GroundStation("Brisbane", -27.47, 153.03, 0.03);
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testLookAnglesOverhead()
+    {
+        double[] ecef = new double[6];
+        Geodetic.toEcef(Math.toRadians(-27.47), Math.toRadians(153.03), 400.03,
+                        ecef);
+        LookAngles angles = new LookAngles();
+        
+        this.brisbane.computeLookAngles(ecef, 0, true, angles);
+        
+        Assert.assertEquals(90.0, Math.toDegrees(angles.getElevation()), 1e-6);
+        Assert.assertEquals(400.0, angles.getRange(), 1e-6);
+        Assert.assertEquals(0.0, angles.getRangeRate(), 1e-9);
+    }
+    
+    @Test
+    public void testLookAnglesAzimuth()
+    {
+        double[] ecef = new double[3];
+        LookAngles angles = new LookAngles();
+        
+        // slightly north of the station
+        Geodetic.toEcef(Math.toRadians(-25), Math.toRadians(153.03), 500,
+                        ecef);
+        this.brisbane.computeLookAngles(ecef, 0, false, angles);
+        Assert.assertEquals(0.0, Math.toDegrees(angles.getAzimuth()), 1e-6);
+        Assert.assertTrue(Double.isNaN(angles.getRangeRate()));
+        
+        // slightly east of the station
+        Geodetic.toEcef(Math.toRadians(-27.47), Math.toRadians(156), 500,
+                        ecef);
+        this.brisbane.computeLookAngles(ecef, 0, false, angles);
+        Assert.assertEquals(90.0, Math.toDegrees(angles.getAzimuth()), 1.0);
+        
+        // slightly west of the station
+        Geodetic.toEcef(Math.toRadians(-27.47), Math.toRadians(150), 500,
+                        ecef);
+        this.brisbane.computeLookAngles(ecef, 0, false, angles);
+        Assert.assertEquals(270.0, Math.toDegrees(angles.getAzimuth()), 1.0);
+    }
+    
+    @Test
+    public void testLookAnglesRangeRateReceding()
+    {
+        double[] ecef = new double[6];
+        Geodetic.toEcef(Math.toRadians(-27.47), Math.toRadians(153.03), 400.03,
+                        ecef);
+        double r = Math.sqrt(ecef[0] * ecef[0] + ecef[1] * ecef[1] + ecef[2]
+                        * ecef[2]);
+        
+        // moving radially outwards at 1 km/s
+        ecef[3] = ecef[0] / r;
+        ecef[4] = ecef[1] / r;
+        ecef[5] = ecef[2] / r;
+        
+        LookAngles angles = new LookAngles();
+        this.brisbane.computeLookAngles(ecef, 0, true, angles);
+        
+        Assert.assertEquals(1.0, angles.getRangeRate(), 1e-3);
+    }
+    
+    @Test
+    public void testBatchHorizonPreCheck()
+    {
+        double[] ecef = new double[9];
+        double[] point = new double[3];
+        
+        Geodetic.toEcef(Math.toRadians(-27.47), Math.toRadians(153.03), 400,
+                        point);
+        System.arraycopy(point, 0, ecef, 0, 3);
+        
+        // antipode, well below the horizon
+        Geodetic.toEcef(Math.toRadians(27.47), Math.toRadians(-26.97), 400,
+                        point);
+        System.arraycopy(point, 0, ecef, 3, 3);
+        
+        Geodetic.toEcef(Math.toRadians(-20), Math.toRadians(150), 800, point);
+        System.arraycopy(point, 0, ecef, 6, 3);
+        
+        LookAngleBatch batch = new LookAngleBatch(3);
+        int visible = this.brisbane.computeLookAngles(ecef, 3, 3, batch);
+        
+        Assert.assertEquals(2, visible);
+        Assert.assertEquals(3, batch.getSize());
+        Assert.assertTrue(batch.isVisible(0));
+        Assert.assertFalse(batch.isVisible(1));
+        Assert.assertTrue(Double.isNaN(batch.getElevation(1)));
+        Assert.assertTrue(batch.isVisible(2));
+        Assert.assertTrue(batch.getElevation(2) > 0);
+    }
+    
+    @Test
+    public void testBatchElevationMask()
+    {
+        GroundStation masked = new GroundStation("Masked", -27.47, 153.03,
+                        0.03, 30);
+        double[] ecef = new double[3];
+        Geodetic.toEcef(Math.toRadians(-15), Math.toRadians(150), 400, ecef);
+        LookAngleBatch batch = new LookAngleBatch(1);
+        
+        int visible = masked.computeLookAngles(ecef, 3, 1, batch);
+        
+        Assert.assertEquals(0, visible);
+        Assert.assertFalse(batch.isVisible(0));
+        Assert.assertTrue(batch.getElevation(0) > 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testBatchInvalidStride()
+    {
+        this.brisbane.computeLookAngles(new double[4], 4, 1,
+                        new LookAngleBatch(1));
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBatchIndexOutOfRange()
+    {
+        LookAngleBatch batch = new LookAngleBatch(2);
+        this.brisbane.computeLookAngles(new double[3], 3, 1, batch);
+        
+        batch.getAzimuth(1);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testLatitudeOutOfRange()
+    {
+        new GroundStation("Nowhere", 91, 0, 0);
+    }
+    
+    @Test
+    public void testCalculatorMatchesSingle()
+    {
+        Satellite iss = SatelliteFixtures.iss();
+        GroundStation london = new GroundStation("London", 51.5, -0.1, 0.01);
+        List<GroundStation> stations = Arrays.asList(this.brisbane, london);
+        
+        LookAngleCalculator calculator = new LookAngleCalculator(
+                        new KeplerPropagator(true), new FrameTransformer());
+        long time = SatelliteFixtures.epoch() + 3600000L;
+        
+        Map<GroundStation, LookAngleBatch> batches = calculator.compute(
+                        Arrays.asList(iss), stations, time);
+        
+        for(GroundStation station : stations)
+        {
+            LookAngles angles = new LookAngles();
+            calculator.compute(iss, station, time, angles);
+            LookAngleBatch batch = batches.get(station);
+            
+            Assert.assertEquals(angles.getElevation() >= 0, batch.isVisible(0));
+            
+            if(batch.isVisible(0))
+            {
+                Assert.assertEquals(angles.getElevation(),
+                                batch.getElevation(0), 1e-12);
+                Assert.assertEquals(angles.getRangeRate(),
+                                batch.getRangeRate(0), 1e-12);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * Unit tests for the {@link GroundTrackGenerator} class.
+ */
+package astra.test;
+
+import java.util.Calendar;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.Earth;
+import astra.FrameTransformer;
+import astra.GroundTrack;
+import astra.GroundTrackGenerator;
+import astra.KeplerPropagator;
+import astra.Propagator;
+import astra.Satellite;
+import astra.StateVector;
+
+public class GroundTrackGeneratorTest
+{
+    private final double TOLERANCE = 2;
+    
+    private Satellite iss;
+    private Satellite molniya;
+    private long epoch;
+    
+    private Propagator propagator;
+    private FrameTransformer transformer;
+    private GroundTrackGenerator generator;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        Calendar launchYear = SatelliteFixtures.launchYear();
+        Calendar epochCalendar = SatelliteFixtures.epochCalendar();
+        
+        this.iss = SatelliteFixtures.iss();
+        this.molniya = new Satellite("MOLNIYA", 40000, "U", launchYear, 67,
+                        2, epochCalendar, 0.0f, 0.0f, 0.0f, 0, 63.4f, 120.0f,
+                        0.72f, 270.0f, 10.0f, 2.00600000f, 1000);
+        this.epoch = SatelliteFixtures.epoch();
+        
+        this.propagator = new KeplerPropagator(true);
+        this.transformer = new FrameTransformer();
+        this.generator = new GroundTrackGenerator(this.propagator,
+                        this.transformer, this.TOLERANCE);
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testWithinTolerance()
+    {
+        for(Satellite satellite : new Satellite[] { this.iss, this.molniya })
+        {
+            GroundTrack track = this.generator.generate(satellite, this.epoch,
+                            this.epoch + 86400000L);
+            
+            for(int s = 0; s < track.getSegmentCount(); s++)
+            {
+                for(int i = track.getSegmentStart(s) + 1; i < track
+                                .getSegmentEnd(s); i++)
+                {
+                    this.checkInterval(satellite, track, i - 1, i);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testAdaptive()
+    {
+        long day = 86400000L;
+        GroundTrack iss = this.generator.generate(this.iss, this.epoch,
+                        this.epoch + day);
+        GroundTrack molniya = this.generator.generate(this.molniya,
+                        this.epoch, this.epoch + day);
+        
+        // far fewer points than one-second sampling
+        Assert.assertTrue(iss.getPointCount() < day / 1000 / 20);
+        Assert.assertTrue(molniya.getPointCount() < day / 1000 / 20);
+        
+        // samples cluster near perigee of the eccentric orbit
+        long shortest = Long.MAX_VALUE;
+        long longest = 0;
+        
+        for(int i = 1; i < molniya.getPointCount(); i++)
+        {
+            long step = molniya.getTime(i) - molniya.getTime(i - 1);
+            
+            if(step > 0)
+            {
+                shortest = Math.min(shortest, step);
+                longest = Math.max(longest, step);
+            }
+        }
+        
+        Assert.assertTrue(longest > 10 * shortest);
+    }
+    
+    @Test
+    public void testSplitAtAntimeridian()
+    {
+        GroundTrack track = this.generator.generate(this.iss, this.epoch,
+                        this.epoch + 86400000L);
+        
+        Assert.assertTrue(track.getSegmentCount() > 1);
+        Assert.assertEquals(track.getPointCount(), track.getSegmentEnd(track
+                        .getSegmentCount() - 1));
+        
+        for(int s = 0; s < track.getSegmentCount(); s++)
+        {
+            int first = track.getSegmentStart(s);
+            int last = track.getSegmentEnd(s) - 1;
+            
+            for(int i = first + 1; i <= last; i++)
+            {
+                Assert.assertTrue(Math.abs(track.getLongitude(i) - track
+                                .getLongitude(i - 1)) < Math.PI);
+            }
+            
+            if(s > 0)
+            {
+                Assert.assertEquals(Math.PI, Math.abs(track.getLongitude(
+                                first)), 0);
+                Assert.assertEquals(-track.getLongitude(first - 1), track
+                                .getLongitude(first), 0);
+            }
+        }
+    }
+    
+    @Test
+    public void testRevolutionCached()
+    {
+        GroundTrack first = this.generator.getRevolution(this.iss, this.epoch
+                        + 1000000);
+        GroundTrack second = this.generator.getRevolution(this.iss, first
+                        .getStart() + 60000);
+        GroundTrack next = this.generator.getRevolution(this.iss, first
+                        .getEnd() + 1000);
+        
+        Assert.assertSame(first, second);
+        Assert.assertNotSame(first, next);
+        Assert.assertEquals(first.getEnd(), next.getStart());
+        Assert.assertEquals(2, this.generator.getCacheSize());
+        Assert.assertTrue(first.getStart() <= this.epoch + 1000000);
+        Assert.assertTrue(first.getEnd() > this.epoch + 1000000);
+        
+        // new elements invalidate the cached revolution
+        this.iss.setMeanMotion(15.5f);
+        
+        Assert.assertNotSame(first, this.generator.getRevolution(this.iss,
+                        this.epoch + 1000000));
+    }
+    
+    /**
+     * Checks the true track at several points between two samples lies within
+     * tolerance of the straight line between them
+     * 
+     * @param satellite
+     *          the satellite
+     * @param track
+     *          the track
+     * @param i
+     *          index of the first sample
+     * @param j
+     *          index of the second sample
+     */
+    private void checkInterval(Satellite satellite, GroundTrack track, int i,
+                    int j)
+    {
+        long t0 = track.getTime(i);
+        long t1 = track.getTime(j);
+        double lat0 = track.getLatitude(i);
+        double lon0 = track.getLongitude(i);
+        double dlon = track.getLongitude(j) - lon0;
+        
+        for(int k = 1; k < 4; k++)
+        {
+            double f = k / 4.0;
+            long t = t0 + (long) (f * (t1 - t0));
+            StateVector state = this.propagator.propagate(satellite, t);
+            double[] position = { state.getX(), state.getY(), state.getZ() };
+            
+            this.transformer.toGeodetic(t, position, position, 1);
+            
+            double lat = lat0 + f * (track.getLatitude(j) - lat0);
+            double lon = lon0 + f * dlon;
+            double a = Math.pow(Math.sin((position[0] - lat) / 2), 2) + Math
+                            .cos(lat) * Math.cos(position[0]) * Math.pow(Math
+                                            .sin((position[1] - lon) / 2), 2);
+            double error = 2 * Earth.RADIUS * Math.asin(Math.sqrt(a));
+            
+            // bisection only checks midpoints, so allow some slack between
+            Assert.assertTrue("Error " + error + " km", error < 4
+                            * this.TOLERANCE);
+        }
+    }
+}
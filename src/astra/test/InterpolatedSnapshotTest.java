@@ -0,0 +1,112 @@
+/**
+ * Unit tests for the {@link InterpolatedSnapshot} class.
+ */
+package astra.test;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.FrameTransformer;
+import astra.InterpolatedSnapshot;
+import astra.KeplerPropagator;
+import astra.Satellite;
+import astra.TrackingEngine;
+import astra.TrackingSnapshot;
+
+public class InterpolatedSnapshotTest
+{
+    private final long STEP = 10000;
+    
+    private long epoch;
+    private Satellite iss;
+    private TrackingEngine engine;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.epoch = SatelliteFixtures.epoch();
+        
+        this.iss = SatelliteFixtures.iss();
+        this.engine = new TrackingEngine(new KeplerPropagator(true),
+                        new FrameTransformer());
+        this.engine.setSelected(this.iss);
+    }
+    
+    @Test
+    public void testEndpoints()
+    {
+        TrackingSnapshot from = this.engine.compute(this.epoch);
+        TrackingSnapshot to = this.engine.compute(this.epoch + this.STEP);
+        InterpolatedSnapshot start = new InterpolatedSnapshot(from, to,
+                        this.epoch);
+        InterpolatedSnapshot end = new InterpolatedSnapshot(from, to,
+                        this.epoch + this.STEP);
+        
+        Assert.assertEquals(this.epoch, start.getTime());
+        Assert.assertEquals(from.getLatitude(0), start.getLatitude(0), 1e-12);
+        Assert.assertEquals(from.getLongitude(0), start.getLongitude(0),
+                        1e-12);
+        Assert.assertEquals(to.getLatitude(0), end.getLatitude(0), 0);
+        Assert.assertEquals(to.getLongitude(0), end.getLongitude(0), 0);
+        Assert.assertEquals(to.getAltitude(0), end.getAltitude(0), 0);
+    }
+    
+    @Test
+    public void testCloseToPropagated()
+    {
+        TrackingSnapshot from = this.engine.compute(this.epoch);
+        TrackingSnapshot to = this.engine.compute(this.epoch + this.STEP);
+        TrackingSnapshot exact = this.engine.compute(this.epoch + this.STEP
+                        / 2);
+        InterpolatedSnapshot middle = new InterpolatedSnapshot(from, to,
+                        this.epoch + this.STEP / 2);
+        
+        // ten seconds is a five-hundredth of a revolution
+        Assert.assertEquals(exact.getLatitude(0), middle.getLatitude(0),
+                        1e-4);
+        Assert.assertEquals(exact.getLongitude(0), middle.getLongitude(0),
+                        1e-4);
+        Assert.assertEquals(exact.getAltitude(0), middle.getAltitude(0), 0.1);
+    }
+    
+    @Test
+    public void testClamped()
+    {
+        TrackingSnapshot from = this.engine.compute(this.epoch);
+        TrackingSnapshot to = this.engine.compute(this.epoch + this.STEP);
+        InterpolatedSnapshot after = new InterpolatedSnapshot(from, to,
+                        this.epoch + 2 * this.STEP);
+        
+        Assert.assertEquals(this.epoch + this.STEP, after.getTime());
+        Assert.assertEquals(to.getLatitude(0), after.getLatitude(0), 0);
+        
+        // without an earlier snapshot, the later one is used as it is
+        InterpolatedSnapshot alone = new InterpolatedSnapshot(null, to,
+                        this.epoch);
+        
+        Assert.assertEquals(this.epoch + this.STEP, alone.getTime());
+        Assert.assertEquals(to.getLongitude(0), alone.getLongitude(0), 0);
+    }
+    
+    @Test
+    public void testChangedSatellites()
+    {
+        Satellite other = new Satellite();
+        TrackingSnapshot from = this.engine.compute(this.epoch, Arrays.asList(
+                        other, this.iss));
+        TrackingSnapshot to = this.engine.compute(this.epoch + this.STEP);
+        InterpolatedSnapshot middle = new InterpolatedSnapshot(from, to,
+                        this.epoch + this.STEP / 2);
+        
+        Assert.assertEquals(1, middle.size());
+        Assert.assertEquals(0, middle.indexOf(this.iss));
+        Assert.assertEquals(to.getLatitude(0), middle.getLatitude(0), 0);
+    }
+}
@@ -0,0 +1,187 @@
+/**
+ * Unit tests for the {@link KeplerPropagator} class.
+ */
+package astra.test;
+
+import java.util.Calendar;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.Earth;
+import astra.KeplerPropagator;
+import astra.OrbitalElements;
+import astra.PropagationTier;
+import astra.Propagator;
+import astra.PropagatorRegistry;
+import astra.Satellite;
+import astra.StateVector;
+
+public class KeplerPropagatorTest
+{
+    private Satellite iss;
+    private Satellite molniya;
+    private long epoch;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        Calendar launchYear = SatelliteFixtures.launchYear();
+        Calendar epochCalendar = SatelliteFixtures.epochCalendar();
+        
+        this.iss = SatelliteFixtures.iss();
+        this.molniya = new Satellite("MOLNIYA 2-9", 7276, "U", launchYear, 26,
+                        1, epochCalendar, 0.0f, 0.0f, 0.0f, 0, 62.7587f,
+                        178.3305f, 0.6865880f, 287.4755f, 12.5476f,
+                        2.450977612f, 3668);
+        this.epoch = SatelliteFixtures.epoch();
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testPropagateAtEpochRadius()
+    {
+        Propagator propagator = new KeplerPropagator(false);
+        OrbitalElements elements = this.molniya.getElements();
+        
+        StateVector state = propagator.propagate(this.molniya, this.epoch);
+        
+        Assert.assertTrue(state.getRadius() >= elements.getPerigeeRadius()
+                        - 1e-6);
+        Assert.assertTrue(state.getRadius() <= elements.getApogeeRadius()
+                        + 1e-6);
+    }
+    
+    @Test
+    public void testPropagateVisViva()
+    {
+        Propagator propagator = new KeplerPropagator(false);
+        double a = this.molniya.getElements().getSemiMajorAxis();
+        
+        for(int i = 0; i < 100; i++)
+        {
+            StateVector state = propagator.propagate(this.molniya,
+                            this.epoch + i * 431000L);
+            double expected = Earth.MU * (2 / state.getRadius() - 1 / a);
+            double actual = state.getSpeed() * state.getSpeed();
+            
+            Assert.assertEquals(expected, actual, 1e-6);
+        }
+    }
+    
+    @Test
+    public void testPropagateTwoBodyPeriodic()
+    {
+        Propagator propagator = new KeplerPropagator(false);
+        long period = Math.round(this.iss.getElements().getPeriod() * 1000);
+        
+        StateVector start = propagator.propagate(this.iss, this.epoch);
+        StateVector end = propagator.propagate(this.iss, this.epoch
+                        + 10 * period);
+        
+        Assert.assertEquals(start.getX(), end.getX(), 0.1);
+        Assert.assertEquals(start.getY(), end.getY(), 0.1);
+        Assert.assertEquals(start.getZ(), end.getZ(), 0.1);
+    }
+    
+    @Test
+    public void testPropagateSecularNodalRegression()
+    {
+        Propagator propagator = new KeplerPropagator(true);
+        long day = 86400000L;
+        
+        double before = KeplerPropagatorTest.node(propagator.propagate(
+                        this.iss, this.epoch));
+        double after = KeplerPropagatorTest.node(propagator.propagate(
+                        this.iss, this.epoch + day));
+        
+        // the ISS node regresses by roughly five degrees a day
+        Assert.assertEquals(-5.0, Math.toDegrees(after - before), 0.2);
+    }
+    
+    @Test
+    public void testPropagateReusesState()
+    {
+        Propagator propagator = new KeplerPropagator(true);
+        StateVector state = new StateVector();
+        
+        propagator.propagate(this.iss, this.epoch + 1000, state);
+        
+        Assert.assertEquals(this.epoch + 1000, state.getTime());
+        Assert.assertTrue(state.getRadius() > Earth.RADIUS);
+    }
+    
+    @Test
+    public void testElementsInvalidatedBySetter()
+    {
+        OrbitalElements before = this.iss.getElements();
+        
+        Assert.assertSame(before, this.iss.getElements());
+        
+        this.iss.setMeanMotion(14.0f);
+        
+        Assert.assertNotSame(before, this.iss.getElements());
+        Assert.assertTrue(this.iss.getElements().getSemiMajorAxis() > before
+                        .getSemiMajorAxis());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testElementsZeroMeanMotion()
+    {
+        new Satellite().getElements();
+    }
+    
+    @Test
+    public void testRegistryDefaults()
+    {
+        PropagatorRegistry registry = new PropagatorRegistry();
+        
+        Assert.assertTrue(registry.isRegistered(PropagationTier.TWO_BODY));
+        Assert.assertTrue(registry.isRegistered(PropagationTier.J2_SECULAR));
+        Assert.assertFalse(registry.isRegistered(PropagationTier.SGP4));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testRegistryUnregisteredTier()
+    {
+        new PropagatorRegistry().get(PropagationTier.SGP4);
+    }
+    
+    @Test
+    public void testRegistryRegister()
+    {
+        PropagatorRegistry registry = new PropagatorRegistry();
+        Propagator propagator = new KeplerPropagator(true);
+        
+        registry.register(PropagationTier.SGP4, propagator);
+        
+        Assert.assertSame(propagator, registry.get(PropagationTier.SGP4));
+    }
+    
+    /**
+     * @param state
+     *          inertial state vector
+     * @return right ascension of the ascending node of the osculating orbit
+     */
+    private static double node(StateVector state)
+    {
+        double hx = state.getY() * state.getVz() - state.getZ() * state.getVy();
+        double hy = state.getZ() * state.getVx() - state.getX() * state.getVz();
+        
+        return Math.atan2(hx, -hy);
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Unit tests for the {@link LookAngleSeries} class.
+ */
+package astra.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.FrameTransformer;
+import astra.GroundStation;
+import astra.KeplerPropagator;
+import astra.LookAngleCalculator;
+import astra.LookAngleSeries;
+import astra.LookAngles;
+import astra.Pass;
+import astra.PassPredictor;
+import astra.Satellite;
+
+public class LookAngleSeriesTest
+{
+    private final long DAY = 86400000L;
+    
+    private long epoch;
+    private Satellite iss;
+    private GroundStation station;
+    private LookAngleCalculator calculator;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.epoch = SatelliteFixtures.epoch();
+        
+        this.iss = SatelliteFixtures.iss();
+        this.station = new GroundStation("Brisbane", -27.47, 153.03, 0.03);
+        this.calculator = new LookAngleCalculator(new KeplerPropagator(true),
+                        new FrameTransformer());
+    }
+    
+    @Test
+    public void testSamples()
+    {
+        LookAngleSeries series = new LookAngleSeries(this.calculator,
+                        this.iss, this.station, this.epoch, this.epoch
+                                        + 3600000, 61);
+        LookAngles angles = new LookAngles();
+        
+        Assert.assertEquals(61, series.getCount());
+        Assert.assertEquals(this.epoch, series.getTime(0));
+        Assert.assertEquals(this.epoch + 3600000, series.getTime(60));
+        Assert.assertEquals(this.epoch + 60000, series.getTime(1));
+        
+        this.calculator.compute(this.iss, this.station, series.getTime(17),
+                        angles);
+        
+        Assert.assertEquals(angles.getElevation(), series.getElevation(17),
+                        0);
+        Assert.assertEquals(angles.getRange(), series.getRange(17), 0);
+        Assert.assertEquals(angles.getRangeRate(), series.getRangeRate(17),
+                        0);
+        Assert.assertEquals(-angles.getRangeRate() / 299792.458, series
+                        .getDoppler(17), 1e-15);
+    }
+    
+    @Test
+    public void testCoversPass()
+    {
+        PassPredictor predictor = new PassPredictor(new KeplerPropagator(
+                        true), new FrameTransformer());
+        Pass pass = predictor.predict(this.iss, this.station, this.epoch,
+                        this.epoch + this.DAY).get(0);
+        LookAngleSeries series = new LookAngleSeries(this.calculator,
+                        this.iss, this.station, pass.getAos(), pass.getLos(),
+                        100);
+        
+        // above the horizon throughout, approaching then receding
+        for(int i = 1; i < series.getCount() - 1; i++)
+        {
+            Assert.assertTrue(series.getElevation(i) > 0);
+        }
+        
+        Assert.assertTrue(series.getDoppler(0) > 0);
+        Assert.assertTrue(series.getDoppler(99) < 0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmptyWindow()
+    {
+        new LookAngleSeries(this.calculator, this.iss, this.station,
+                        this.epoch, this.epoch, 10);
+    }
+}
@@ -0,0 +1,260 @@
+/**
+ * Unit tests for the {@link OverheadIndex} class.
+ */
+package astra.test;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.Earth;
+import astra.Footprint;
+import astra.FootprintGenerator;
+import astra.FrameTransformer;
+import astra.KeplerPropagator;
+import astra.OverheadIndex;
+import astra.Satellite;
+import astra.TrackingEngine;
+import astra.TrackingSnapshot;
+
+public class OverheadIndexTest
+{
+    private long epoch;
+    
+    private TrackingSnapshot snapshot;
+    private OverheadIndex index;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.epoch = SatelliteFixtures.epoch();
+        
+        TrackingEngine engine = new TrackingEngine(new KeplerPropagator(true),
+                        new FrameTransformer());
+        List<Satellite> satellites = SatelliteFixtures.createCatalogue(5000,
+                        1);
+        
+        satellites.add(new Satellite());
+        engine.setWatched(satellites);
+        
+        this.snapshot = engine.compute(this.epoch);
+        this.index = new OverheadIndex();
+        this.index.update(this.snapshot);
+    }
+    
+    @Test
+    public void testSize()
+    {
+        // the invalid satellite is left out
+        Assert.assertEquals(5000, this.index.size());
+        Assert.assertEquals(this.epoch, this.index.getTime());
+    }
+    
+    @Test
+    public void testRadius()
+    {
+        double[][] points = { { -27.47, 153.03 }, { 0, 179.5 }, { 0, -179.5 },
+                        { 89, 0 }, { -85, 100 }, { 45, -60 } };
+        
+        for(double[] point : points)
+        {
+            double latitude = Math.toRadians(point[0]);
+            double longitude = Math.toRadians(point[1]);
+            
+            for(double radius : new double[] { 0, 500, 2000, 8000, 25000 })
+            {
+                List<Satellite> found = this.index.findWithin(latitude,
+                                longitude, radius);
+                
+                Assert.assertEquals(this.scan(latitude, longitude, radius),
+                                this.identitySet(found));
+                Assert.assertEquals(found.size(), this.identitySet(found)
+                                .size());
+            }
+        }
+    }
+    
+    @Test
+    public void testEverything()
+    {
+        Assert.assertEquals(5000, this.index.findWithin(0, 0, Math.PI
+                        * Earth.RADIUS).size());
+    }
+    
+    @Test
+    public void testPolygon()
+    {
+        // a box straddling the antimeridian, with unwrapped longitudes
+        double[] latitudes = { Math.toRadians(-30), Math.toRadians(-30),
+                        Math.toRadians(40), Math.toRadians(40) };
+        double[] longitudes = { Math.toRadians(160), Math.toRadians(200),
+                        Math.toRadians(200), Math.toRadians(160) };
+        Set<Satellite> expected = this.identitySet(Collections
+                        .<Satellite> emptyList());
+        
+        for(int i = 0; i < this.snapshot.size(); i++)
+        {
+            double latitude = Math.toDegrees(this.snapshot.getLatitude(i));
+            double longitude = Math.toDegrees(this.snapshot.getLongitude(i));
+            
+            if(latitude > -30 && latitude < 40 && (longitude > 160
+                            || longitude < -160))
+            {
+                expected.add(this.snapshot.getSatellites().get(i));
+            }
+        }
+        
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected, this.identitySet(this.index.findWithin(
+                        latitudes, longitudes, 4)));
+    }
+    
+    @Test
+    public void testFootprint()
+    {
+        FootprintGenerator generator = new FootprintGenerator();
+        
+        for(double[] point : new double[][] { { 10, 175 }, { 80, 30 } })
+        {
+            double latitude = Math.toRadians(point[0]);
+            double longitude = Math.toRadians(point[1]);
+            Footprint footprint = generator.generate(latitude, longitude,
+                            1000);
+            
+            Assert.assertEquals(point[0] == 80, footprint.containsPole());
+            Assert.assertEquals(this.scan(latitude, longitude, footprint
+                            .getRadius() * Earth.RADIUS), this.identitySet(
+                                            this.index.findWithin(footprint)));
+        }
+    }
+    
+    @Test
+    public void testPoles()
+    {
+        for(double latitude : new double[] { Math.PI / 2, -Math.PI / 2 })
+        {
+            for(double radius : new double[] { 0, 1500, 5000 })
+            {
+                // every longitude names the same point
+                Set<Satellite> expected = this.scan(latitude, 0, radius);
+                
+                Assert.assertEquals(expected, this.identitySet(this.index
+                                .findWithin(latitude, 0, radius)));
+                Assert.assertEquals(expected, this.identitySet(this.index
+                                .findWithin(latitude, Math.PI, radius)));
+            }
+        }
+    }
+    
+    @Test
+    public void testNeverBuilt()
+    {
+        OverheadIndex index = new OverheadIndex();
+        
+        Assert.assertEquals(0, index.size());
+        Assert.assertEquals(0, index.getTime());
+        Assert.assertTrue(index.findWithin(0, 0, Math.PI * Earth.RADIUS)
+                        .isEmpty());
+    }
+    
+    @Test
+    public void testEmptySnapshot()
+    {
+        TrackingEngine engine = new TrackingEngine(new KeplerPropagator(true),
+                        new FrameTransformer());
+        
+        this.index.update(engine.compute(this.epoch));
+        
+        Assert.assertEquals(0, this.index.size());
+        Assert.assertTrue(this.index.findWithin(0, 0, Math.PI * Earth.RADIUS)
+                        .isEmpty());
+    }
+    
+    @Test
+    public void testCoarseCells()
+    {
+        OverheadIndex coarse = new OverheadIndex(90);
+        
+        coarse.update(this.snapshot);
+        
+        Assert.assertEquals(this.scan(0.3, 2.0, 3000), this.identitySet(coarse
+                        .findWithin(0.3, 2.0, 3000)));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testCellSizeOutOfRange()
+    {
+        new OverheadIndex(0);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRadius()
+    {
+        this.index.findWithin(0, 0, -1);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testDegeneratePolygon()
+    {
+        this.index.findWithin(new double[2], new double[2], 2);
+    }
+    
+    /**
+     * Finds satellites within a distance of a point by checking every one
+     * 
+     * @param latitude
+     *          latitude of the point (rad)
+     * @param longitude
+     *          longitude of the point (rad)
+     * @param radius
+     *          maximum distance (km)
+     * @return the satellites found
+     */
+    private Set<Satellite> scan(double latitude, double longitude,
+                    double radius)
+    {
+        Set<Satellite> found = this.identitySet(Collections
+                        .<Satellite> emptyList());
+        
+        for(int i = 0; i < this.snapshot.size(); i++)
+        {
+            double lat = this.snapshot.getLatitude(i);
+            double lon = this.snapshot.getLongitude(i);
+            double cosAngle = Math.sin(latitude) * Math.sin(lat) + Math.cos(
+                            latitude) * Math.cos(lat) * Math.cos(lon
+                                            - longitude);
+            
+            if(!Double.isNaN(lat) && Math.acos(Math.min(1, cosAngle))
+                            * Earth.RADIUS <= radius)
+            {
+                found.add(this.snapshot.getSatellites().get(i));
+            }
+        }
+        
+        return found;
+    }
+    
+    /**
+     * @param satellites
+     *          satellites
+     * @return an identity set of <code>satellites</code>
+     */
+    private Set<Satellite> identitySet(List<Satellite> satellites)
+    {
+        Set<Satellite> set = Collections.newSetFromMap(
+                        new IdentityHashMap<Satellite, Boolean>());
+        
+        set.addAll(satellites);
+        
+        return set;
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Unit tests for the {@link PassArc} class.
+ */
+package astra.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.FrameTransformer;
+import astra.GroundStation;
+import astra.KeplerPropagator;
+import astra.LookAngleCalculator;
+import astra.Pass;
+import astra.PassArc;
+import astra.PassPredictor;
+import astra.Satellite;
+
+public class PassArcTest
+{
+    private final long DAY = 86400000L;
+    private final int SEGMENTS = 60;
+    
+    private Pass pass;
+    private LookAngleCalculator calculator;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        long epoch = SatelliteFixtures.epoch();
+        
+        Satellite iss = SatelliteFixtures.iss();
+        GroundStation station = new GroundStation("Brisbane", -27.47, 153.03,
+                        0.03);
+        PassPredictor predictor = new PassPredictor(new KeplerPropagator(
+                        true), new FrameTransformer());
+        
+        this.pass = predictor.predict(iss, station, epoch, epoch + this.DAY)
+                        .get(0);
+        this.calculator = new LookAngleCalculator(new KeplerPropagator(true),
+                        new FrameTransformer());
+    }
+    
+    @Test
+    public void testEndpoints()
+    {
+        PassArc arc = new PassArc(this.pass, this.calculator, this.SEGMENTS);
+        int last = arc.getPointCount() - 1;
+        
+        Assert.assertSame(this.pass, arc.getPass());
+        Assert.assertEquals(this.SEGMENTS + 1, arc.getPointCount());
+        Assert.assertEquals(this.pass.getAos(), arc.getTime(0));
+        Assert.assertEquals(this.pass.getLos(), arc.getTime(last));
+        
+        // rise and set lie on the horizon, which is the unit circle
+        Assert.assertEquals(0, arc.getElevation(0), 1e-3);
+        Assert.assertEquals(0, arc.getElevation(last), 1e-3);
+        Assert.assertEquals(1, Math.hypot(arc.getX(0), arc.getY(0)), 1e-3);
+        Assert.assertEquals(this.pass.getAosAzimuth(), arc.getAzimuth(0),
+                        1e-3);
+        Assert.assertEquals(this.pass.getLosAzimuth(), arc.getAzimuth(last),
+                        1e-3);
+    }
+    
+    @Test
+    public void testPeakElevation()
+    {
+        PassArc arc = new PassArc(this.pass, this.calculator, this.SEGMENTS);
+        double peak = 0;
+        
+        for(int i = 0; i < arc.getPointCount(); i++)
+        {
+            peak = Math.max(peak, arc.getElevation(i));
+            
+            Assert.assertTrue(arc.getElevation(i) <= this.pass
+                            .getMaxElevation() + 1e-6);
+        }
+        
+        // samples are a few seconds apart, close to the culmination
+        Assert.assertEquals(this.pass.getMaxElevation(), peak, 0.01);
+    }
+    
+    @Test
+    public void testSkyCoordinates()
+    {
+        Assert.assertEquals(0, PassArc.skyX(0, Math.PI / 2), 1e-12);
+        Assert.assertEquals(0, PassArc.skyY(0, Math.PI / 2), 1e-12);
+        
+        // north is up and east is right
+        Assert.assertEquals(-1, PassArc.skyY(0, 0), 1e-12);
+        Assert.assertEquals(1, PassArc.skyX(Math.PI / 2, 0), 1e-12);
+        Assert.assertEquals(0.5, PassArc.skyY(Math.PI, Math.PI / 4), 1e-12);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoSegments()
+    {
+        new PassArc(this.pass, this.calculator, 0);
+    }
+}
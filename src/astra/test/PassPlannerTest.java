@@ -0,0 +1,179 @@
+/**
+ * Unit tests for the {@link PassPlanner} class.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.FrameTransformer;
+import astra.GroundStation;
+import astra.KeplerPropagator;
+import astra.Pass;
+import astra.PassPlanner;
+import astra.PassPredictor;
+import astra.Satellite;
+
+public class PassPlannerTest
+{
+    private final long DAY = 86400000L;
+    
+    private List<Satellite> satellites;
+    private List<GroundStation> stations;
+    private long epoch;
+    
+    private PassPlanner planner;
+    private PassPredictor predictor;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        float[] inclinations = { 51.6401f, 98.2f, 28.5f, 0.1f };
+        float[] meanMotions = { 15.53976999f, 14.2f, 15.1f, 1.00273791f };
+        
+        this.satellites = new ArrayList<Satellite>();
+        
+        for(int i = 0; i < inclinations.length; i++)
+        {
+            this.satellites.add(SatelliteFixtures.createSatellite(
+                            SatelliteFixtures.FIRST_NUMBER + i,
+                            inclinations[i], 245.6477f + 40 * i, 0.0005666f,
+                            47.4633f, meanMotions[i]));
+        }
+        
+        this.stations = Arrays.asList(new GroundStation("Brisbane", -27.47,
+                        153.03, 0.03), new GroundStation("Svalbard", 78.23,
+                                        15.41, 0.5), new GroundStation(
+                                                        "Quito", -0.18, -78.47,
+                                                        2.85, 10));
+        this.epoch = SatelliteFixtures.epoch();
+        
+        KeplerPropagator propagator = new KeplerPropagator(true);
+        FrameTransformer transformer = new FrameTransformer();
+        
+        this.planner = new PassPlanner(propagator, transformer);
+        this.predictor = new PassPredictor(propagator, transformer);
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testPlanMatchesPerPairPrediction()
+    {
+        long end = this.epoch + 2 * this.DAY;
+        List<Pass> actual = this.planner.plan(this.satellites, this.stations,
+                        this.epoch, end);
+        int expected = 0;
+        
+        for(Satellite satellite : this.satellites)
+        {
+            for(GroundStation station : this.stations)
+            {
+                for(Pass pass : this.predictor.predict(satellite, station,
+                                this.epoch, end))
+                {
+                    Assert.assertTrue(this.contains(actual, pass));
+                    expected++;
+                }
+            }
+        }
+        
+        Assert.assertEquals(expected, actual.size());
+        
+        for(int i = 1; i < actual.size(); i++)
+        {
+            Assert.assertTrue(actual.get(i - 1).getAos() <= actual.get(i)
+                            .getAos());
+        }
+    }
+    
+    @Test
+    public void testPlanDiscardsPairs()
+    {
+        this.planner.plan(this.satellites, this.stations, this.epoch,
+                        this.epoch + this.DAY);
+        
+        Assert.assertEquals(12, this.planner.getPairCount());
+        Assert.assertTrue(this.planner.getDiscardedCount() >= 3);
+        Assert.assertTrue(this.planner.getSearchedTime() < 12 * this.DAY);
+    }
+    
+    @Test
+    public void testPlanSkipsInvalidSatellites()
+    {
+        List<Satellite> satellites = new ArrayList<Satellite>(
+                        this.satellites);
+        Satellite invalid = new Satellite();
+        
+        invalid.setEpoch(SatelliteFixtures.epochCalendar());
+        satellites.add(invalid);
+        
+        this.planner.plan(satellites, this.stations, this.epoch, this.epoch
+                        + this.DAY);
+        
+        Assert.assertEquals(12, this.planner.getPairCount());
+    }
+    
+    @Test
+    public void testPlanNothing()
+    {
+        Assert.assertTrue(this.planner.plan(new ArrayList<Satellite>(),
+                        this.stations, this.epoch, this.epoch + this.DAY)
+                        .isEmpty());
+        Assert.assertTrue(this.planner.plan(this.satellites,
+                        new ArrayList<GroundStation>(), this.epoch, this.epoch
+                                        + this.DAY).isEmpty());
+        
+        // only a satellite already in view is found, truncated to the instant
+        for(Pass pass : this.planner.plan(this.satellites, this.stations,
+                        this.epoch, this.epoch))
+        {
+            Assert.assertEquals(this.epoch, pass.getAos());
+            Assert.assertEquals(this.epoch, pass.getLos());
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testPlanEndsBeforeStart()
+    {
+        this.planner.plan(this.satellites, this.stations, this.epoch,
+                        this.epoch - 1);
+    }
+    
+    /**
+     * @return whether <code>passes</code> contains a pass matching
+     *         <code>pass</code> to within a fraction of a second
+     */
+    private boolean contains(List<Pass> passes, Pass pass)
+    {
+        for(Pass other : passes)
+        {
+            if(other.getSatellite() == pass.getSatellite()
+                            && other.getStation() == pass.getStation()
+                            && Math.abs(other.getAos() - pass.getAos()) < 200
+                            && Math.abs(other.getLos() - pass.getLos()) < 200)
+            {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+}
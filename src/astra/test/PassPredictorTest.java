@@ -0,0 +1,181 @@
+/**
+ * Unit tests for the {@link PassPredictor} class.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.FrameTransformer;
+import astra.GroundStation;
+import astra.KeplerPropagator;
+import astra.LookAngleCalculator;
+import astra.LookAngles;
+import astra.Pass;
+import astra.PassPredictor;
+import astra.Propagator;
+import astra.Satellite;
+
+public class PassPredictorTest
+{
+    private final long DAY = 86400000L;
+    
+    private Satellite iss;
+    private GroundStation station;
+    private long epoch;
+    
+    private Propagator propagator;
+    private FrameTransformer transformer;
+    private int evaluations;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.iss = SatelliteFixtures.iss();
+        this.station = new GroundStation("Brisbane", -27.47, 153.03, 0.03);
+        this.epoch = SatelliteFixtures.epoch();
+        
+        Propagator kepler = new KeplerPropagator(true);
+        this.evaluations = 0;
+        this.propagator = (satellite, time, state) -> {
+            this.evaluations++;
+            kepler.propagate(satellite, time, state);
+        };
+        this.transformer = new FrameTransformer();
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testPredictMatchesFixedStepScan()
+    {
+        PassPredictor predictor = new PassPredictor(this.propagator,
+                        this.transformer);
+        List<Pass> actual = predictor.predict(this.iss, this.station,
+                        this.epoch, this.epoch + this.DAY);
+        List<long[]> expected = this.scan(this.epoch, this.epoch + this.DAY);
+        
+        Assert.assertFalse(expected.isEmpty());
+        Assert.assertEquals(expected.size(), actual.size());
+        
+        for(int i = 0; i < expected.size(); i++)
+        {
+            Pass pass = actual.get(i);
+            
+            Assert.assertEquals(expected.get(i)[0], pass.getAos(), 1100);
+            Assert.assertEquals(expected.get(i)[1], pass.getLos(), 1100);
+            Assert.assertTrue(pass.getCulmination() > pass.getAos());
+            Assert.assertTrue(pass.getCulmination() < pass.getLos());
+            Assert.assertTrue(pass.getMaxElevation() > 0);
+            Assert.assertSame(this.iss, pass.getSatellite());
+            Assert.assertSame(this.station, pass.getStation());
+        }
+    }
+    
+    @Test
+    public void testPredictFewerEvaluations()
+    {
+        PassPredictor predictor = new PassPredictor(this.propagator,
+                        this.transformer);
+        long week = 7 * this.DAY;
+        
+        predictor.predict(this.iss, this.station, this.epoch, this.epoch
+                        + week);
+        
+        // fixed one-second stepping would need one evaluation per second
+        Assert.assertTrue(this.evaluations < week / 1000 / 20);
+    }
+    
+    @Test
+    public void testPredictPassInProgress()
+    {
+        PassPredictor predictor = new PassPredictor(this.propagator,
+                        this.transformer);
+        Pass first = predictor.predict(this.iss, this.station, this.epoch,
+                        this.epoch + this.DAY).get(0);
+        long start = first.getCulmination();
+        
+        List<Pass> passes = predictor.predict(this.iss, this.station, start,
+                        start + this.DAY);
+        
+        Assert.assertEquals(start, passes.get(0).getAos());
+        Assert.assertEquals(first.getLos(), passes.get(0).getLos(), 200);
+    }
+    
+    @Test
+    public void testPredictElevationMask()
+    {
+        GroundStation masked = new GroundStation("Masked", -27.47, 153.03,
+                        0.03, 20);
+        PassPredictor predictor = new PassPredictor(this.propagator,
+                        this.transformer);
+        
+        List<Pass> all = predictor.predict(this.iss, this.station, this.epoch,
+                        this.epoch + 3 * this.DAY);
+        List<Pass> high = predictor.predict(this.iss, masked, this.epoch,
+                        this.epoch + 3 * this.DAY);
+        
+        Assert.assertTrue(high.size() < all.size());
+        
+        for(Pass pass : high)
+        {
+            Assert.assertTrue(Math.toDegrees(pass.getMaxElevation()) >= 20);
+        }
+    }
+    
+    /**
+     * Finds passes by stepping one second at a time
+     * 
+     * @param start
+     *          start of the window
+     * @param end
+     *          end of the window
+     * @return AOS and LOS times of each pass
+     */
+    private List<long[]> scan(long start, long end)
+    {
+        LookAngleCalculator calculator = new LookAngleCalculator(
+                        new KeplerPropagator(true), new FrameTransformer());
+        LookAngles angles = new LookAngles();
+        List<long[]> passes = new ArrayList<long[]>();
+        long aos = -1;
+        
+        for(long t = start; t <= end; t += 1000)
+        {
+            calculator.compute(this.iss, this.station, t, angles);
+            
+            if(angles.getElevation() >= 0 && aos < 0)
+            {
+                aos = t;
+            }
+            else if(angles.getElevation() < 0 && aos >= 0)
+            {
+                passes.add(new long[] { aos, t });
+                aos = -1;
+            }
+        }
+        
+        if(aos >= 0)
+        {
+            passes.add(new long[] { aos, end });
+        }
+        
+        return passes;
+    }
+}
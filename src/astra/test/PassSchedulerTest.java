@@ -0,0 +1,571 @@
+/**
+ * Unit tests for the {@link PassScheduler} class.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.FrameTransformer;
+import astra.GroundStation;
+import astra.KeplerPropagator;
+import astra.Pass;
+import astra.PassPredictor;
+import astra.PassScheduler;
+import astra.Satellite;
+import astra.TrackingEngine;
+
+public class PassSchedulerTest
+{
+    private final long HOUR = 3600000L;
+    private final long DAY = 24 * this.HOUR;
+    
+    private List<Satellite> satellites;
+    private List<GroundStation> stations;
+    private long epoch;
+    
+    private PassScheduler scheduler;
+    private PassPredictor predictor;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.epoch = SatelliteFixtures.epoch();
+        
+        float[] inclinations = { 51.6401f, 98.2f, 28.5f };
+        float[] meanMotions = { 15.53976999f, 14.2f, 15.1f };
+        
+        this.satellites = new ArrayList<Satellite>();
+        
+        for(int i = 0; i < inclinations.length; i++)
+        {
+            this.satellites.add(this.createSatellite(
+                            SatelliteFixtures.FIRST_NUMBER + i,
+                            inclinations[i], 245.6477f + 40 * i, 47.4633f,
+                            meanMotions[i]));
+        }
+        
+        this.stations = Arrays.asList(new GroundStation("Brisbane", -27.47,
+                        153.03, 0.03), new GroundStation("Svalbard", 78.23,
+                                        15.41, 0.5));
+        
+        KeplerPropagator propagator = new KeplerPropagator(true);
+        FrameTransformer transformer = new FrameTransformer();
+        
+        this.scheduler = new PassScheduler(propagator, transformer, this.DAY);
+        this.scheduler.setSatellites(this.satellites);
+        this.scheduler.setStations(this.stations);
+        this.predictor = new PassPredictor(propagator, transformer);
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        this.scheduler.stop();
+    }
+    
+    @Test
+    public void testMatchesPrediction()
+    {
+        this.scheduler.advance(this.epoch);
+        
+        Assert.assertEquals(this.epoch + this.DAY, this.scheduler.getEnd());
+        Assert.assertEquals(3, this.scheduler.getRecomputedCount());
+        
+        for(GroundStation station : this.stations)
+        {
+            List<Pass> expected = this.predict(station, this.epoch, this.epoch
+                            + this.DAY, this.epoch);
+            List<Pass> actual = this.scheduler.getPasses(station, this.epoch,
+                            this.epoch + this.DAY);
+            
+            Assert.assertFalse(expected.isEmpty());
+            this.assertMatch(expected, actual);
+        }
+    }
+    
+    @Test
+    public void testIncremental()
+    {
+        long now = this.epoch + 6 * this.HOUR;
+        
+        this.scheduler.advance(this.epoch);
+        this.scheduler.advance(now);
+        
+        Assert.assertEquals(now + this.DAY, this.scheduler.getEnd());
+        Assert.assertEquals(0, this.scheduler.getRecomputedCount());
+        
+        // passes across the old end of the schedule are joined back up
+        for(GroundStation station : this.stations)
+        {
+            this.assertMatch(this.predict(station, this.epoch, now + this.DAY,
+                            now), this.scheduler.getPasses(station, now, now
+                                            + this.DAY));
+        }
+    }
+    
+    @Test
+    public void testAddSatellites()
+    {
+        long now = this.epoch + 2 * this.HOUR;
+        Satellite replacement = this.createSatellite(this.satellites.get(0)
+                        .getNum(), 51.6401f, 245.6477f, 180.0f, 15.53976999f);
+        
+        this.scheduler.setSatellites(this.satellites.subList(0, 2));
+        this.scheduler.advance(this.epoch);
+        this.scheduler.addSatellites(this.satellites.subList(1, 3));
+        this.scheduler.advance(this.epoch + this.HOUR);
+        
+        // only the satellite not already scheduled is searched
+        Assert.assertEquals(1, this.scheduler.getRecomputedCount());
+        
+        this.scheduler.addSatellites(Arrays.asList(replacement));
+        this.scheduler.advance(now);
+        
+        Assert.assertEquals(1, this.scheduler.getRecomputedCount());
+        
+        for(GroundStation station : this.stations)
+        {
+            int count = 0;
+            
+            for(Pass pass : this.scheduler.getPasses(station, now, now
+                            + this.DAY))
+            {
+                Assert.assertNotSame(this.satellites.get(0), pass
+                                .getSatellite());
+                
+                if(pass.getSatellite() == replacement)
+                {
+                    count++;
+                }
+            }
+            
+            Assert.assertEquals(this.predictor.predict(replacement, station,
+                            now, now + this.DAY).size(), count);
+        }
+    }
+    
+    @Test
+    public void testChangedElements()
+    {
+        long now = this.epoch + this.HOUR;
+        List<Satellite> updated = new ArrayList<Satellite>(this.satellites);
+        Satellite replacement = this.createSatellite(this.satellites.get(0)
+                        .getNum(), 51.6401f, 245.6477f, 180.0f, 15.53976999f);
+        
+        this.scheduler.advance(this.epoch);
+        updated.set(0, replacement);
+        this.scheduler.setSatellites(updated);
+        this.scheduler.advance(now);
+        
+        Assert.assertEquals(1, this.scheduler.getRecomputedCount());
+        
+        for(GroundStation station : this.stations)
+        {
+            int count = 0;
+            
+            for(Pass pass : this.scheduler.getPasses(station, now, now
+                            + this.DAY))
+            {
+                Assert.assertNotSame(this.satellites.get(0), pass
+                                .getSatellite());
+                
+                if(pass.getSatellite() == replacement)
+                {
+                    count++;
+                }
+            }
+            
+            Assert.assertEquals(this.predictor.predict(replacement, station,
+                            now, now + this.DAY).size(), count);
+        }
+        
+        // setting the same elements again recomputes nothing
+        this.scheduler.setSatellites(updated);
+        this.scheduler.advance(now + this.HOUR);
+        
+        Assert.assertEquals(0, this.scheduler.getRecomputedCount());
+    }
+    
+    @Test
+    public void testNextPasses()
+    {
+        this.scheduler.advance(this.epoch);
+        
+        for(long time = this.epoch; time < this.epoch + this.DAY; time +=
+                        this.HOUR)
+        {
+            List<Pass> all = this.scheduler.getPasses(this.stations.get(0),
+                            time, this.epoch + this.DAY);
+            List<Pass> next = this.scheduler.getNextPasses(this.stations.get(
+                            0), time, 3);
+            
+            Assert.assertEquals(all.subList(0, Math.min(3, all.size())), next);
+            
+            for(Pass pass : next)
+            {
+                Assert.assertTrue(pass.getLos() > time);
+            }
+        }
+    }
+    
+    @Test
+    public void testRemovedSatellites()
+    {
+        this.scheduler.advance(this.epoch);
+        this.scheduler.setSatellites(new ArrayList<Satellite>());
+        this.scheduler.advance(this.epoch + this.HOUR);
+        
+        for(GroundStation station : this.stations)
+        {
+            Assert.assertTrue(this.scheduler.getNextPasses(station, this.epoch,
+                            10).isEmpty());
+        }
+    }
+    
+    @Test
+    public void testBackwards()
+    {
+        long earlier = this.epoch - 3 * this.HOUR;
+        
+        this.scheduler.advance(this.epoch);
+        this.scheduler.advance(earlier);
+        
+        // going back in time starts the schedule afresh
+        Assert.assertEquals(earlier, this.scheduler.getStart());
+        Assert.assertEquals(earlier + this.DAY, this.scheduler.getEnd());
+        Assert.assertEquals(3, this.scheduler.getRecomputedCount());
+        this.assertMatch(this.predict(this.stations.get(0), earlier, earlier
+                        + this.DAY, earlier), this.scheduler.getPasses(
+                                        this.stations.get(0), earlier, earlier
+                                                        + this.DAY));
+    }
+    
+    @Test
+    public void testBeyondEnd()
+    {
+        long later = this.epoch + 2 * this.DAY;
+        
+        this.scheduler.advance(this.epoch);
+        this.scheduler.advance(later);
+        
+        Assert.assertEquals(later, this.scheduler.getStart());
+        Assert.assertEquals(later + this.DAY, this.scheduler.getEnd());
+        Assert.assertEquals(3, this.scheduler.getRecomputedCount());
+    }
+    
+    @Test
+    public void testUnknownStation()
+    {
+        GroundStation unknown = new GroundStation("Brisbane", -27.47, 153.03,
+                        0.03);
+        
+        this.scheduler.advance(this.epoch);
+        
+        // stations are told apart by identity, not by their fields
+        Assert.assertTrue(this.scheduler.getNextPasses(unknown, this.epoch, 10)
+                        .isEmpty());
+        Assert.assertTrue(this.scheduler.getNextPasses(this.stations.get(0),
+                        this.epoch, 0).isEmpty());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount()
+    {
+        this.scheduler.getNextPasses(this.stations.get(0), this.epoch, -1);
+    }
+    
+    @Test
+    public void testRemovedStation()
+    {
+        this.scheduler.advance(this.epoch);
+        this.scheduler.setStations(this.stations.subList(0, 1));
+        this.scheduler.advance(this.epoch + this.HOUR);
+        
+        Assert.assertTrue(this.scheduler.getNextPasses(this.stations.get(1),
+                        this.epoch, 10).isEmpty());
+        Assert.assertFalse(this.scheduler.getNextPasses(this.stations.get(0),
+                        this.epoch, 10).isEmpty());
+    }
+    
+    @Test
+    public void testBackground() throws InterruptedException
+    {
+        this.scheduler.setTimeSource(() -> this.epoch);
+        this.scheduler.start(10);
+        
+        for(int i = 0; i < 500 && this.scheduler.getEnd() == 0; i++)
+        {
+            Thread.sleep(10);
+        }
+        
+        this.scheduler.stop();
+        
+        Assert.assertFalse(this.scheduler.isRunning());
+        Assert.assertEquals(this.epoch + this.DAY, this.scheduler.getEnd());
+    }
+    
+    @Test
+    public void testFailingAdvance() throws InterruptedException
+    {
+        IllegalStateException failure = new IllegalStateException();
+        
+        this.scheduler.setTimeSource(() -> {
+            throw failure;
+        });
+        this.scheduler.start(10);
+        
+        for(int i = 0; i < 500 && this.scheduler.getFailures()
+                        .getCount() < 3; i++)
+        {
+            Thread.sleep(10);
+        }
+        
+        Assert.assertTrue(this.scheduler.isRunning());
+        
+        this.scheduler.stop();
+        
+        Assert.assertTrue(this.scheduler.getFailures().getCount() >= 3);
+        Assert.assertSame(failure, this.scheduler.getFailures().getFirst());
+    }
+    
+    @Test(timeout = 10000)
+    public void testSettersDuringAdvance() throws InterruptedException
+    {
+        KeplerPropagator kepler = new KeplerPropagator(true);
+        CountDownLatch planning = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PassScheduler scheduler = new PassScheduler((satellite, time,
+                        state) -> {
+            planning.countDown();
+            
+            try
+            {
+                release.await();
+            }
+            catch(InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+            }
+            
+            kepler.propagate(satellite, time, state);
+        }, new FrameTransformer(), this.DAY);
+        Thread thread = new Thread(() -> scheduler.advance(this.epoch));
+        
+        scheduler.setSatellites(this.satellites);
+        scheduler.setStations(this.stations);
+        thread.start();
+        
+        Assert.assertTrue(planning.await(5, TimeUnit.SECONDS));
+        
+        // none of these may wait for the advance, which cannot finish yet
+        scheduler.setSatellites(this.satellites.subList(0, 1));
+        scheduler.setStations(this.stations.subList(0, 1));
+        scheduler.advanceNow();
+        
+        Assert.assertEquals(0, scheduler.getEnd());
+        Assert.assertTrue(scheduler.getNextPasses(this.stations.get(0),
+                        this.epoch, 10).isEmpty());
+        
+        release.countDown();
+        thread.join();
+        
+        Assert.assertEquals(this.epoch + this.DAY, scheduler.getEnd());
+        
+        // the changes made meanwhile are taken up by the next advance
+        scheduler.advance(this.epoch + this.HOUR);
+        
+        Assert.assertTrue(scheduler.getNextPasses(this.stations.get(1),
+                        this.epoch, 10).isEmpty());
+        
+        for(Pass pass : scheduler.getNextPasses(this.stations.get(0),
+                        this.epoch, 100))
+        {
+            Assert.assertSame(this.satellites.get(0), pass.getSatellite());
+        }
+    }
+    
+    @Test
+    public void testCovers()
+    {
+        Assert.assertFalse(this.scheduler.covers(this.epoch));
+        
+        this.scheduler.advance(this.epoch);
+        
+        Assert.assertEquals(this.epoch, this.scheduler.getStart());
+        Assert.assertTrue(this.scheduler.covers(this.epoch));
+        Assert.assertTrue(this.scheduler.covers(this.epoch + this.DAY));
+        Assert.assertFalse(this.scheduler.covers(this.epoch - 1));
+        Assert.assertFalse(this.scheduler.covers(this.epoch + this.DAY + 1));
+    }
+    
+    @Test
+    public void testAdvanceNow() throws InterruptedException
+    {
+        long[] now = { this.epoch };
+        
+        this.scheduler.setTimeSource(() -> now[0]);
+        this.scheduler.start(60000);
+        
+        for(int i = 0; i < 500 && this.scheduler.getEnd() == 0; i++)
+        {
+            Thread.sleep(10);
+        }
+        
+        // the next period is a minute away, so only this advance can move it
+        now[0] = this.epoch + 2 * this.DAY;
+        this.scheduler.advanceNow();
+        
+        for(int i = 0; i < 500 && this.scheduler.getEnd() != now[0]
+                        + this.DAY; i++)
+        {
+            Thread.sleep(10);
+        }
+        
+        this.scheduler.stop();
+        
+        Assert.assertEquals(now[0] + this.DAY, this.scheduler.getEnd());
+    }
+    
+    @Test
+    public void testLongPassScan()
+    {
+        Satellite geostationary = this.createSatellite(
+                        SatelliteFixtures.FIRST_NUMBER + 100, 0, 0, 0,
+                        1.0027379f);
+        TrackingEngine engine = new TrackingEngine(new KeplerPropagator(true),
+                        new FrameTransformer());
+        
+        engine.setSelected(geostationary);
+        
+        // a station beneath it sees it all day, as one long pass
+        double longitude = Math.toDegrees(engine.compute(this.epoch)
+                        .getLongitude(0));
+        GroundStation station = new GroundStation("Equator", 0, longitude, 0);
+        List<Satellite> catalogue = new ArrayList<Satellite>();
+        
+        catalogue.add(geostationary);
+        
+        for(int i = 0; i < 30; i++)
+        {
+            catalogue.add(this.createSatellite(SatelliteFixtures.FIRST_NUMBER
+                            + 101 + i, 10 + 2 * i, 12 * i, 7 * i, 14 + i
+                                            / 15.0f));
+        }
+        
+        this.scheduler.setSatellites(catalogue);
+        this.scheduler.setStations(Arrays.asList(station));
+        this.scheduler.advance(this.epoch);
+        
+        long time = this.epoch + 20 * this.HOUR;
+        List<Pass> all = this.scheduler.getPasses(station, this.epoch,
+                        this.epoch + this.DAY);
+        List<Pass> next = this.scheduler.getNextPasses(station, time, 3);
+        long scanned = this.scheduler.getScannedCount();
+        
+        Assert.assertTrue(all.size() > 100);
+        Assert.assertSame(geostationary, all.get(0).getSatellite());
+        Assert.assertSame(geostationary, next.get(0).getSatellite());
+        Assert.assertEquals(3, next.size());
+        
+        // the long pass must not make the query scan the passes before it
+        Assert.assertTrue("Scanned " + scanned, scanned < 10);
+    }
+    
+    /**
+     * Asserts that two lists hold the same passes, to within 200 ms
+     * 
+     * @param expected
+     *          the expected passes
+     * @param actual
+     *          the actual passes
+     */
+    private void assertMatch(List<Pass> expected, List<Pass> actual)
+    {
+        Assert.assertEquals(expected.size(), actual.size());
+        
+        for(Pass pass : expected)
+        {
+            boolean found = false;
+            
+            for(Pass other : actual)
+            {
+                long aos = Math.abs(other.getAos() - pass.getAos());
+                long los = Math.abs(other.getLos() - pass.getLos());
+                
+                found |= other.getSatellite() == pass.getSatellite()
+                                && aos < 200 && los < 200;
+            }
+            
+            Assert.assertTrue(pass.toString(), found);
+        }
+    }
+    
+    /**
+     * @param station
+     *          the station
+     * @param start
+     *          start of the window
+     * @param end
+     *          end of the window
+     * @param after
+     *          time by which passes must not have ended
+     * @return passes of every satellite over <code>station</code>
+     */
+    private List<Pass> predict(GroundStation station, long start, long end,
+                    long after)
+    {
+        List<Pass> passes = new ArrayList<Pass>();
+        
+        for(Satellite satellite : this.satellites)
+        {
+            for(Pass pass : this.predictor.predict(satellite, station, start,
+                            end))
+            {
+                if(pass.getLos() >= after)
+                {
+                    passes.add(pass);
+                }
+            }
+        }
+        
+        return passes;
+    }
+    
+    /**
+     * @param number
+     *          catalogue number
+     * @param inclination
+     *          inclination (degrees)
+     * @param rightAscension
+     *          right ascension of the ascending node (degrees)
+     * @param meanAnomaly
+     *          mean anomaly (degrees)
+     * @param meanMotion
+     *          mean motion (revolutions per day)
+     * @return a satellite with the given elements and the ISS's
+     *         eccentricity
+     */
+    private Satellite createSatellite(int number, float inclination,
+                    float rightAscension, float meanAnomaly, float meanMotion)
+    {
+        return SatelliteFixtures.createSatellite(number, inclination,
+                        rightAscension, 0.0005666f, meanAnomaly, meanMotion);
+    }
+}
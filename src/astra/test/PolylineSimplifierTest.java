@@ -0,0 +1,116 @@
+/**
+ * Unit tests for the {@link PolylineSimplifier} class.
+ */
+package astra.test;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import astra.PolylineSimplifier;
+
+public class PolylineSimplifierTest
+{
+    @Test
+    public void testStraightLine()
+    {
+        double[] x = { 0, 1, 2, 3, 4 };
+        double[] y = { 0, 1, 2, 3, 4 };
+        int[] kept = new int[5];
+        
+        int count = PolylineSimplifier.simplify(x, y, 0, 5, 0.01, kept);
+        
+        Assert.assertEquals(2, count);
+        Assert.assertEquals(0, kept[0]);
+        Assert.assertEquals(4, kept[1]);
+    }
+    
+    @Test
+    public void testCorner()
+    {
+        double[] x = { 0, 1, 2, 2, 2 };
+        double[] y = { 0, 0, 0, 1, 2 };
+        int[] kept = new int[5];
+        
+        int count = PolylineSimplifier.simplify(x, y, 0, 5, 0.1, kept);
+        
+        Assert.assertEquals(3, count);
+        Assert.assertArrayEquals(new int[] { 0, 2, 4 }, Arrays.copyOf(kept,
+                        count));
+    }
+    
+    @Test
+    public void testWithinTolerance()
+    {
+        int n = 1000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        int[] kept = new int[n];
+        
+        for(int i = 0; i < n; i++)
+        {
+            x[i] = i * 2 * Math.PI / (n - 1);
+            y[i] = Math.sin(x[i]);
+        }
+        
+        double tolerance = 0.01;
+        int count = PolylineSimplifier.simplify(x, y, 0, n, tolerance, kept);
+        
+        Assert.assertTrue(count < n / 10);
+        Assert.assertEquals(0, kept[0]);
+        Assert.assertEquals(n - 1, kept[count - 1]);
+        
+        // every dropped point lies within the tolerance of its chord
+        for(int k = 1; k < count; k++)
+        {
+            int a = kept[k - 1];
+            int b = kept[k];
+            
+            Assert.assertTrue(a < b);
+            
+            for(int i = a + 1; i < b; i++)
+            {
+                double dx = x[b] - x[a];
+                double dy = y[b] - y[a];
+                double distance = Math.abs((x[i] - x[a]) * dy - (y[i] - y[a])
+                                * dx) / Math.hypot(dx, dy);
+                
+                Assert.assertTrue(distance <= tolerance);
+            }
+        }
+    }
+    
+    @Test
+    public void testRange()
+    {
+        double[] x = { 9, 0, 1, 2, 9 };
+        double[] y = { 9, 0, 5, 0, 9 };
+        int[] kept = new int[3];
+        
+        int count = PolylineSimplifier.simplify(x, y, 1, 4, 0.5, kept);
+        
+        Assert.assertEquals(3, count);
+        Assert.assertArrayEquals(new int[] { 1, 2, 3 }, kept);
+    }
+    
+    @Test
+    public void testClosedRing()
+    {
+        double[] x = { 0, 1, 1, 0, 0 };
+        double[] y = { 0, 0, 1, 1, 0 };
+        int[] kept = new int[5];
+        
+        // the chord of a closed ring is a point, so distances are radial
+        int count = PolylineSimplifier.simplify(x, y, 0, 5, 0.1, kept);
+        
+        Assert.assertEquals(5, count);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeTolerance()
+    {
+        PolylineSimplifier.simplify(new double[3], new double[3], 0, 3, -1,
+                        new int[3]);
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Unit tests for the {@link SatelliteDescription} class.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.Satellite;
+import astra.SatelliteDescription;
+import astra.SatelliteProperty;
+
+public class SatelliteDescriptionTest
+{
+    private Satellite iss;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        Calendar launchYear = new GregorianCalendar();
+        launchYear.set(Calendar.YEAR, 1998);
+        
+        Calendar epochCalendar = new GregorianCalendar(TimeZone.getTimeZone(
+                        "UTC"));
+        epochCalendar.clear();
+        epochCalendar.set(2017, Calendar.MAY, 6, 12, 30, 15);
+        
+        this.iss = new Satellite("ISS (ZARYA)", 25544, "U", launchYear, 67, 1,
+                        epochCalendar, 0.0f, 0.0f, 0.0f, 0, 51.6401f,
+                        245.6477f, 0.0005666f, 129.9909f, 47.4633f,
+                        15.53976999f, 55286);
+    }
+    
+    @Test
+    public void testValues()
+    {
+        SatelliteDescription description = this.iss.getDescription();
+        
+        Assert.assertSame(this.iss, description.getSatellite());
+        Assert.assertEquals("ISS (ZARYA)", description.get(
+                        SatelliteProperty.NAME));
+        Assert.assertEquals("25544", description.get(
+                        SatelliteProperty.NUMBER));
+        Assert.assertEquals("1998", description.get(
+                        SatelliteProperty.LAUNCH_YEAR));
+        Assert.assertEquals("2017-05-06 12:30:15", description.get(
+                        SatelliteProperty.EPOCH));
+        Assert.assertEquals("51.6401", description.get(
+                        SatelliteProperty.INCLINATION));
+    }
+    
+    @Test
+    public void testOrder()
+    {
+        List<String> labels = new ArrayList<String>();
+        
+        for(SatelliteProperty property : SatelliteProperty.values())
+        {
+            labels.add(property.getLabel());
+        }
+        
+        Assert.assertEquals(labels, new ArrayList<String>(this.iss
+                        .getDescription().asMap().keySet()));
+    }
+    
+    @Test
+    public void testNameWithComma()
+    {
+        this.iss.setName("ISS (ZARYA), MODULE");
+        
+        Assert.assertEquals("ISS (ZARYA), MODULE", this.iss.getDescription()
+                        .asMap().get(SatelliteProperty.NAME.getLabel()));
+        Assert.assertEquals(SatelliteProperty.values().length, this.iss
+                        .getDescription().asMap().size());
+    }
+    
+    @Test
+    public void testCached()
+    {
+        SatelliteDescription description = this.iss.getDescription();
+        
+        Assert.assertSame(description, this.iss.getDescription());
+        
+        this.iss.setMeanAnomaly(10.0f);
+        
+        Assert.assertNotSame(description, this.iss.getDescription());
+        Assert.assertEquals("10.0", this.iss.getDescription().get(
+                        SatelliteProperty.MEAN_ANOMALY));
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable()
+    {
+        this.iss.getDescription().asMap().clear();
+    }
+}
@@ -0,0 +1,156 @@
+/**
+ * Satellites shared by the unit tests.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+
+import astra.Satellite;
+
+/**
+ * Builds the satellites the unit tests run against: the ISS, and satellites
+ * and catalogues with made-up elements. Every satellite has its elements at
+ * the same epoch, and every made-up one its own catalogue number.
+ * 
+ */
+public final class SatelliteFixtures
+{
+    /**
+     * Catalogue number of the ISS
+     */
+    public static final int ISS_NUMBER = 25544;
+    
+    /**
+     * Catalogue number of the first satellite of a made-up catalogue
+     */
+    public static final int FIRST_NUMBER = 40000;
+    
+    private SatelliteFixtures()
+    {
+    }
+    
+    /**
+     * @return year of launch of every satellite, a new calendar each time
+     */
+    public static Calendar launchYear()
+    {
+        Calendar launchYear = new GregorianCalendar();
+        
+        launchYear.set(Calendar.YEAR, 1998);
+        
+        return launchYear;
+    }
+    
+    /**
+     * @return epoch of the elements of every satellite, a new calendar each
+     *         time
+     */
+    public static Calendar epochCalendar()
+    {
+        return new GregorianCalendar(2017, Calendar.MAY, 6);
+    }
+    
+    /**
+     * @return epoch of the elements of every satellite (milliseconds since
+     *         the Unix epoch)
+     */
+    public static long epoch()
+    {
+        return SatelliteFixtures.epochCalendar().getTimeInMillis();
+    }
+    
+    /**
+     * @return the ISS, with elements from May 2017
+     */
+    public static Satellite iss()
+    {
+        return new Satellite("ISS (ZARYA)", ISS_NUMBER, "U",
+                        SatelliteFixtures.launchYear(), 67, 1,
+                        SatelliteFixtures.epochCalendar(), 0.0f, 0.0f, 0.0f,
+                        0, 51.6401f, 245.6477f, 0.0005666f, 129.9909f,
+                        47.4633f, 15.53976999f, 55286);
+    }
+    
+    /**
+     * @param number
+     *            catalogue number
+     * @param inclination
+     *            inclination (degrees)
+     * @param rightAscension
+     *            right ascension of the ascending node (degrees)
+     * @param eccentricity
+     *            eccentricity
+     * @param meanAnomaly
+     *            mean anomaly (degrees)
+     * @param meanMotion
+     *            mean motion (revolutions per day)
+     * @return a satellite named after its number, with the given elements
+     *         and the argument of perigee of the ISS
+     */
+    public static Satellite createSatellite(int number, float inclination,
+                    float rightAscension, float eccentricity,
+                    float meanAnomaly, float meanMotion)
+    {
+        return new Satellite("TEST " + number, number, "U",
+                        SatelliteFixtures.launchYear(), 67, 1,
+                        SatelliteFixtures.epochCalendar(), 0.0f, 0.0f, 0.0f,
+                        0, inclination, rightAscension, eccentricity,
+                        129.9909f, meanAnomaly, meanMotion, 55286);
+    }
+    
+    /**
+     * @param count
+     *            number of satellites
+     * @param seed
+     *            seed for the random elements
+     * @return satellites in random low orbits, numbered from
+     *         {@link #FIRST_NUMBER}
+     */
+    public static List<Satellite> createCatalogue(int count, long seed)
+    {
+        return SatelliteFixtures.createCatalogue(count, seed, 14, 16,
+                        0.001f);
+    }
+    
+    /**
+     * @param count
+     *            number of satellites
+     * @param seed
+     *            seed for the random elements
+     * @param minMeanMotion
+     *            least mean motion (revolutions per day)
+     * @param maxMeanMotion
+     *            greatest mean motion (revolutions per day)
+     * @param maxEccentricity
+     *            greatest eccentricity
+     * @return satellites in random orbits within the bounds, numbered from
+     *         {@link #FIRST_NUMBER}
+     */
+    public static List<Satellite> createCatalogue(int count, long seed,
+                    float minMeanMotion, float maxMeanMotion,
+                    float maxEccentricity)
+    {
+        Random random = new Random(seed);
+        List<Satellite> satellites = new ArrayList<Satellite>(count);
+        
+        for(int i = 0; i < count; i++)
+        {
+            float inclination = random.nextFloat() * 180;
+            float rightAscension = random.nextFloat() * 360;
+            float eccentricity = random.nextFloat() * maxEccentricity;
+            float meanAnomaly = random.nextFloat() * 360;
+            float meanMotion = minMeanMotion + random.nextFloat()
+                            * (maxMeanMotion - minMeanMotion);
+            
+            satellites.add(SatelliteFixtures.createSatellite(FIRST_NUMBER + i,
+                            inclination, rightAscension, eccentricity,
+                            meanAnomaly, meanMotion));
+        }
+        
+        return satellites;
+    }
+}
@@ -171,6 +171,59 @@ public class SatelliteReaderTest
         Assert.assertEquals(expected, actual);
     }
     
+    @Test
+    public void testEpoch() throws IOException, ParseException
+    {
+        // 17126.58856481 is 14:07:32 UTC on the 6th of May 2017
+        Satellite iss = new SatelliteReader(this.validFiles.get(0)).read(0);
+        
+        Assert.assertEquals(1494079652000L, iss.getEpoch()
+                        .getTimeInMillis());
+        Assert.assertEquals(1494079652000L, iss.getElements().getEpoch());
+        
+        // 17130.24085714 is 05:46:50.057 UTC on the 10th of May 2017
+        Satellite molniya = new SatelliteReader(this.validFiles.get(1)).read(
+                        0);
+        
+        Assert.assertEquals(1494395210057L, molniya.getEpoch()
+                        .getTimeInMillis());
+    }
+    
+    @Test
+    public void testEpochLastCentury() throws IOException, ParseException
+    {
+        // 98324.5 is noon UTC on the 20th of November 1998
+        Satellite satellite = new SatelliteReader(this.testPath
+                        + "valid03_1900s.txt").read(0);
+        
+        Assert.assertEquals(911563200000L, satellite.getEpoch()
+                        .getTimeInMillis());
+    }
+    
+    @Test
+    public void testReadEntries() throws IOException, ParseException
+    {
+        List<Satellite> expected = this.satelliteObjects.get(0);
+        SatelliteReader actualReader = new SatelliteReader(
+                        this.validFiles.get(0));
+        
+        Assert.assertEquals(expected.size(), actualReader.getEntryCount());
+        
+        for(int i = 0; i < expected.size(); i++)
+        {
+            Assert.assertEquals(expected.get(i), actualReader.read(i));
+        }
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testReadEntryOutOfBounds() throws IOException, ParseException
+    {
+        SatelliteReader actualReader = new SatelliteReader(
+                        this.validFiles.get(0));
+        
+        actualReader.read(actualReader.getEntryCount());
+    }
+    
     @Test(expected = ParseException.class)
     public void testSatelliteReaderEmptyFile()
                     throws IOException, ParseException
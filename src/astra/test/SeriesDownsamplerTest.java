@@ -0,0 +1,82 @@
+/**
+ * Unit tests for the {@link SeriesDownsampler} class.
+ */
+package astra.test;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import astra.SeriesDownsampler;
+
+public class SeriesDownsamplerTest
+{
+    @Test
+    public void testThreshold()
+    {
+        int n = 86400;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        int[] kept = new int[800];
+        
+        for(int i = 0; i < n; i++)
+        {
+            x[i] = i;
+            y[i] = Math.sin(i / 1000.0);
+        }
+        
+        int count = SeriesDownsampler.downsample(x, y, 0, n, 800, kept);
+        
+        Assert.assertEquals(800, count);
+        Assert.assertEquals(0, kept[0]);
+        Assert.assertEquals(n - 1, kept[count - 1]);
+        
+        for(int i = 1; i < count; i++)
+        {
+            Assert.assertTrue(kept[i] > kept[i - 1]);
+        }
+    }
+    
+    @Test
+    public void testKeepsPeak()
+    {
+        int n = 10000;
+        double[] x = new double[n];
+        double[] y = new double[n];
+        int[] kept = new int[50];
+        
+        for(int i = 0; i < n; i++)
+        {
+            x[i] = i;
+        }
+        
+        // a single sample spike, as from a short high pass
+        y[4321] = 1;
+        
+        int count = SeriesDownsampler.downsample(x, y, 0, n, 50, kept);
+        
+        Assert.assertTrue(Arrays.stream(kept, 0, count).anyMatch(
+                        i -> i == 4321));
+    }
+    
+    @Test
+    public void testShortSeries()
+    {
+        double[] x = { 0, 1, 2, 3 };
+        double[] y = { 0, 5, 1, 4 };
+        int[] kept = new int[3];
+        
+        int count = SeriesDownsampler.downsample(x, y, 1, 4, 10, kept);
+        
+        Assert.assertEquals(3, count);
+        Assert.assertArrayEquals(new int[] { 1, 2, 3 }, kept);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testThresholdTooSmall()
+    {
+        SeriesDownsampler.downsample(new double[5], new double[5], 0, 5, 1,
+                        new int[5]);
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Unit tests for the {@link SimulationClock} class.
+ */
+package astra.test;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.SimulationClock;
+
+public class SimulationClockTest
+{
+    private final long START = 1494000000000L;
+    
+    private long wall;
+    private SimulationClock clock;
+    
+    @Before
+    public void setUp()
+    {
+        this.wall = this.START;
+        this.clock = new SimulationClock(() -> this.wall);
+    }
+    
+    @Test
+    public void testRealTime()
+    {
+        Assert.assertEquals(this.START, this.clock.getTime());
+        
+        this.wall += 1500;
+        
+        Assert.assertEquals(this.START + 1500, this.clock.getTime());
+        Assert.assertEquals(this.START + 1500, this.clock.getAsLong());
+        Assert.assertEquals(1, this.clock.getRate(), 0);
+        Assert.assertFalse(this.clock.isPaused());
+    }
+    
+    @Test
+    public void testRate()
+    {
+        this.wall += 1000;
+        this.clock.setRate(100);
+        this.wall += 1000;
+        
+        // the time does not jump when the rate changes
+        Assert.assertEquals(this.START + 1000 + 100000, this.clock.getTime());
+        
+        this.clock.setRate(0.5);
+        this.wall += 1000;
+        
+        Assert.assertEquals(this.START + 101500, this.clock.getTime());
+    }
+    
+    @Test
+    public void testPauseAndPlay()
+    {
+        this.clock.setRate(10);
+        this.wall += 1000;
+        this.clock.pause();
+        this.wall += 5000;
+        
+        Assert.assertTrue(this.clock.isPaused());
+        Assert.assertEquals(this.START + 10000, this.clock.getTime());
+        
+        this.clock.play();
+        this.wall += 1000;
+        
+        Assert.assertFalse(this.clock.isPaused());
+        Assert.assertEquals(this.START + 20000, this.clock.getTime());
+    }
+    
+    @Test
+    public void testSeek()
+    {
+        this.clock.setRate(10);
+        this.clock.seek(this.START + 3600000);
+        this.wall += 1000;
+        
+        Assert.assertEquals(this.START + 3610000, this.clock.getTime());
+        
+        // seeking while paused stays paused
+        this.clock.pause();
+        this.clock.seek(this.START - 3600000);
+        this.wall += 1000;
+        
+        Assert.assertEquals(this.START - 3600000, this.clock.getTime());
+    }
+    
+    @Test
+    public void testReset()
+    {
+        this.clock.setRate(1000);
+        this.clock.pause();
+        this.clock.seek(0);
+        this.wall += 2000;
+        this.clock.reset();
+        
+        Assert.assertEquals(this.wall, this.clock.getTime());
+        Assert.assertEquals(1, this.clock.getRate(), 0);
+        Assert.assertFalse(this.clock.isPaused());
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidRate()
+    {
+        this.clock.setRate(0);
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * Unit tests for the {@link TrackingEngine} class.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.FrameTransformer;
+import astra.KeplerPropagator;
+import astra.Propagator;
+import astra.Satellite;
+import astra.StateVector;
+import astra.TrackingEngine;
+import astra.TrackingSnapshot;
+
+public class TrackingEngineTest
+{
+    private long epoch;
+    private Satellite iss;
+    
+    private Propagator propagator;
+    private FrameTransformer transformer;
+    private TrackingEngine engine;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.epoch = SatelliteFixtures.epoch();
+        this.iss = SatelliteFixtures.iss();
+        
+        this.propagator = new KeplerPropagator(true);
+        this.transformer = new FrameTransformer();
+        this.engine = new TrackingEngine(this.propagator, this.transformer);
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        this.engine.stop();
+    }
+    
+    @Test
+    public void testCompute()
+    {
+        this.engine.setSelected(this.iss);
+        
+        long time = this.epoch + 1234567;
+        TrackingSnapshot snapshot = this.engine.compute(time);
+        StateVector state = this.propagator.propagate(this.iss, time);
+        double[] geodetic = { state.getX(), state.getY(), state.getZ() };
+        
+        this.transformer.toGeodetic(time, geodetic, geodetic, 1);
+        
+        Assert.assertEquals(time, snapshot.getTime());
+        Assert.assertEquals(1, snapshot.size());
+        Assert.assertEquals(0, snapshot.indexOf(this.iss));
+        Assert.assertEquals(geodetic[0], snapshot.getLatitude(0), 1e-12);
+        Assert.assertEquals(geodetic[1], snapshot.getLongitude(0), 1e-12);
+        Assert.assertEquals(geodetic[2], snapshot.getAltitude(0), 1e-9);
+        Assert.assertEquals(state.getSpeed(), snapshot.getSpeed(0), 1e-12);
+    }
+    
+    @Test
+    public void testSelectedFirst()
+    {
+        List<Satellite> watched = SatelliteFixtures.createCatalogue(5, 1);
+        
+        this.engine.setWatched(watched);
+        this.engine.watch(this.iss);
+        this.engine.setSelected(this.iss);
+        
+        List<Satellite> tracked = this.engine.getTracked();
+        
+        Assert.assertEquals(6, tracked.size());
+        Assert.assertSame(this.iss, tracked.get(0));
+        
+        this.engine.unwatch(this.iss);
+        this.engine.setSelected(null);
+        
+        Assert.assertEquals(5, this.engine.getTracked().size());
+        Assert.assertEquals(-1, this.engine.compute(this.epoch).indexOf(
+                        this.iss));
+    }
+    
+    @Test
+    public void testWatchAll()
+    {
+        List<Satellite> catalogue = SatelliteFixtures.createCatalogue(10, 1);
+        
+        this.engine.setSelected(this.iss);
+        this.engine.watchAll(catalogue.subList(0, 5));
+        this.engine.watchAll(Arrays.asList(this.iss, catalogue.get(0)));
+        this.engine.watchAll(catalogue.subList(5, 10));
+        
+        List<Satellite> tracked = this.engine.getTracked();
+        
+        Assert.assertEquals(11, tracked.size());
+        Assert.assertSame(this.iss, tracked.get(0));
+        Assert.assertTrue(tracked.containsAll(catalogue));
+        
+        this.engine.setSelected(null);
+        
+        Assert.assertEquals(11, this.engine.getTracked().size());
+    }
+    
+    @Test
+    public void testComputeSubset()
+    {
+        List<Satellite> catalogue = SatelliteFixtures.createCatalogue(5, 1);
+        List<Satellite> subset = Arrays.asList(catalogue.get(3), this.iss);
+        
+        this.engine.setWatched(catalogue);
+        
+        TrackingSnapshot all = this.engine.compute(this.epoch);
+        TrackingSnapshot some = this.engine.compute(this.epoch, subset);
+        int index = all.indexOf(catalogue.get(3));
+        
+        Assert.assertEquals(subset, some.getSatellites());
+        Assert.assertEquals(-1, all.indexOf(this.iss));
+        Assert.assertEquals(all.getLatitude(index), some.getLatitude(0), 0);
+        Assert.assertEquals(all.getLongitude(index), some.getLongitude(0),
+                        0);
+        Assert.assertFalse(Double.isNaN(some.getLatitude(1)));
+        Assert.assertEquals(5, this.engine.getTracked().size());
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotImmutable()
+    {
+        this.engine.setSelected(this.iss);
+        this.engine.compute(this.epoch).getSatellites().clear();
+    }
+    
+    @Test
+    public void testInvalidSatellite()
+    {
+        Satellite invalid = new Satellite();
+        
+        this.engine.setWatched(Arrays.asList(this.iss, invalid));
+        
+        TrackingSnapshot snapshot = this.engine.compute(this.epoch);
+        
+        Assert.assertTrue(Double.isNaN(snapshot.getLatitude(snapshot.indexOf(
+                        invalid))));
+        Assert.assertFalse(Double.isNaN(snapshot.getLatitude(snapshot
+                        .indexOf(this.iss))));
+    }
+    
+    @Test
+    public void testTicks() throws InterruptedException
+    {
+        List<TrackingSnapshot> snapshots = new ArrayList<TrackingSnapshot>();
+        CountDownLatch latch = new CountDownLatch(3);
+        
+        this.engine.setSelected(this.iss);
+        this.engine.setTimeSource(() -> this.epoch);
+        this.engine.addListener(snapshot -> {
+            synchronized(snapshots)
+            {
+                snapshots.add(snapshot);
+            }
+            
+            latch.countDown();
+        });
+        this.engine.start(20);
+        
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        
+        this.engine.stop();
+        
+        Assert.assertFalse(this.engine.isRunning());
+        Assert.assertTrue(this.engine.getTickCount() >= 3);
+        Assert.assertNotNull(this.engine.getSnapshot());
+        Assert.assertTrue(this.engine.getMaxDuration() >= this.engine
+                        .getMeanDuration());
+        
+        synchronized(snapshots)
+        {
+            Assert.assertEquals(this.epoch, snapshots.get(0).getTime());
+            Assert.assertEquals(1, snapshots.get(0).size());
+        }
+    }
+    
+    @Test
+    public void testFailingListener() throws InterruptedException
+    {
+        IllegalStateException failure = new IllegalStateException();
+        CountDownLatch latch = new CountDownLatch(3);
+        
+        this.engine.setTimeSource(() -> this.epoch);
+        this.engine.addListener(snapshot -> {
+            throw failure;
+        });
+        this.engine.addListener(snapshot -> latch.countDown());
+        this.engine.start(20);
+        
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        
+        this.engine.stop();
+        
+        Assert.assertTrue(this.engine.getFailures().getCount() >= 3);
+        Assert.assertSame(failure, this.engine.getFailures().getFirst());
+    }
+    
+    @Test
+    public void testSetPeriod() throws InterruptedException
+    {
+        CountDownLatch latch = new CountDownLatch(4);
+        
+        this.engine.setTimeSource(() -> this.epoch);
+        this.engine.addListener(snapshot -> latch.countDown());
+        this.engine.start(60000);
+        
+        // only the first tick is due within the minute until it speeds up
+        this.engine.setPeriod(20);
+        
+        Assert.assertEquals(20, this.engine.getPeriod());
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        
+        this.engine.stop();
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testSetPeriodStopped()
+    {
+        this.engine.setPeriod(20);
+    }
+    
+    @Test
+    public void testTenThousandWithinOneSecond()
+    {
+        this.engine.setWatched(SatelliteFixtures.createCatalogue(10000, 1));
+        
+        // warm up
+        this.engine.compute(this.epoch);
+        
+        long begin = System.nanoTime();
+        TrackingSnapshot snapshot = this.engine.compute(this.epoch + 1000);
+        long duration = System.nanoTime() - begin;
+        
+        Assert.assertEquals(10000, snapshot.size());
+        Assert.assertTrue("Took " + duration / 1000000 + " ms", duration
+                        < 500000000L);
+    }
+    
+    @Test
+    public void testWatchedOnce()
+    {
+        List<Satellite> catalogue = SatelliteFixtures.createCatalogue(3, 2);
+        
+        this.engine.setSelected(this.iss);
+        this.engine.watch(this.iss);
+        this.engine.watch(catalogue.get(0));
+        this.engine.watch(catalogue.get(0));
+        this.engine.watchAll(catalogue);
+        this.engine.watchAll(catalogue);
+        
+        List<Satellite> tracked = this.engine.getTracked();
+        
+        // the selected satellite is first, and nothing is tracked twice
+        Assert.assertEquals(4, tracked.size());
+        Assert.assertSame(this.iss, tracked.get(0));
+        Assert.assertEquals(4, this.engine.compute(this.epoch).size());
+    }
+    
+    @Test
+    public void testNothingTracked()
+    {
+        TrackingSnapshot snapshot = this.engine.compute(this.epoch);
+        
+        Assert.assertEquals(0, snapshot.size());
+        Assert.assertEquals(-1, snapshot.indexOf(this.iss));
+        Assert.assertTrue(this.engine.getTracked().isEmpty());
+    }
+    
+    @Test
+    public void testUnwatchUnknown()
+    {
+        this.engine.setWatched(SatelliteFixtures.createCatalogue(3, 3));
+        this.engine.unwatch(this.iss);
+        this.engine.unwatch(null);
+        
+        Assert.assertEquals(3, this.engine.getTracked().size());
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testWatchAllNull()
+    {
+        this.engine.watchAll(Arrays.asList(this.iss, null));
+    }
+}
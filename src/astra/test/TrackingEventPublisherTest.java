@@ -0,0 +1,315 @@
+/**
+ * Unit tests for the {@link TrackingEventPublisher} class.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Flow;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.DeliveryMode;
+import astra.FrameTransformer;
+import astra.GroundStation;
+import astra.KeplerPropagator;
+import astra.Pass;
+import astra.PassPredictor;
+import astra.PositionEvent;
+import astra.Propagator;
+import astra.Satellite;
+import astra.TrackingEngine;
+import astra.TrackingEvent;
+import astra.TrackingEventPublisher;
+import astra.VisibilityEvent;
+
+public class TrackingEventPublisherTest
+{
+    private final long DAY = 86400000L;
+    
+    private long epoch;
+    private Satellite iss;
+    private Satellite other;
+    private GroundStation brisbane;
+    
+    private Propagator propagator;
+    private FrameTransformer transformer;
+    private TrackingEngine engine;
+    private TrackingEventPublisher publisher;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.epoch = SatelliteFixtures.epoch();
+        
+        this.iss = SatelliteFixtures.iss();
+        this.other = SatelliteFixtures.createSatellite(
+                        SatelliteFixtures.FIRST_NUMBER, 98.0f, 10.0f, 0.001f,
+                        0.0f, 14.5f);
+        this.brisbane = new GroundStation("Brisbane", -27.47, 153.03, 0.03);
+        
+        this.propagator = new KeplerPropagator(true);
+        this.transformer = new FrameTransformer();
+        this.engine = new TrackingEngine(this.propagator, this.transformer);
+        this.engine.setWatched(Arrays.asList(this.iss, this.other));
+        
+        // deliver synchronously so that tests are deterministic
+        this.publisher = new TrackingEventPublisher(Collections.singletonList(
+                        this.brisbane), Runnable::run, 16);
+    }
+    
+    @Test
+    public void testConflate()
+    {
+        Collector collector = new Collector(0);
+        
+        this.publisher.subscribe(collector);
+        
+        for(int i = 0; i < 5; i++)
+        {
+            this.publisher.update(this.engine.compute(this.epoch + i * 1000));
+        }
+        
+        Assert.assertTrue(collector.events.isEmpty());
+        
+        collector.subscription.request(1);
+        
+        // only the latest position of each satellite is delivered
+        Assert.assertEquals(1, collector.batches);
+        Assert.assertEquals(2, collector.positions().size());
+        
+        for(PositionEvent position : collector.positions())
+        {
+            Assert.assertEquals(this.epoch + 4000, position.getTime());
+        }
+        
+        Assert.assertEquals(0, this.publisher.getDroppedCount());
+    }
+    
+    @Test
+    public void testFilter()
+    {
+        Collector collector = new Collector(Long.MAX_VALUE);
+        
+        this.publisher.subscribe(collector, Collections.singleton(this.iss),
+                        null, DeliveryMode.BUFFER, 100);
+        this.publisher.update(this.engine.compute(this.epoch));
+        this.publisher.update(this.engine.compute(this.epoch + 1000));
+        
+        Assert.assertEquals(2, collector.positions().size());
+        
+        for(TrackingEvent event : collector.events)
+        {
+            Assert.assertSame(this.iss, event.getSatellite());
+        }
+    }
+    
+    @Test
+    public void testBufferDropsOldest()
+    {
+        Collector collector = new Collector(0);
+        
+        this.publisher.subscribe(collector, Collections.singleton(this.iss),
+                        Collections.<GroundStation> emptySet(),
+                        DeliveryMode.BUFFER, 3);
+        
+        for(int i = 0; i < 5; i++)
+        {
+            this.publisher.update(this.engine.compute(this.epoch + i * 1000));
+        }
+        
+        collector.subscription.request(1);
+        
+        List<PositionEvent> positions = collector.positions();
+        
+        Assert.assertEquals(2, this.publisher.getDroppedCount());
+        Assert.assertEquals(3, positions.size());
+        Assert.assertEquals(this.epoch + 2000, positions.get(0).getTime());
+        Assert.assertEquals(this.epoch + 4000, positions.get(2).getTime());
+    }
+    
+    @Test
+    public void testBatches()
+    {
+        Collector collector = new Collector(0);
+        
+        this.publisher.subscribe(collector, null, null, DeliveryMode.BUFFER,
+                        100);
+        
+        for(int i = 0; i < 20; i++)
+        {
+            this.publisher.update(this.engine.compute(this.epoch + i * 1000));
+        }
+        
+        collector.subscription.request(2);
+        
+        // two batches of at most sixteen events, one per unit of demand
+        Assert.assertEquals(2, collector.batches);
+        Assert.assertEquals(32, collector.events.size());
+        
+        collector.subscription.request(Long.MAX_VALUE);
+        
+        Assert.assertEquals(40, collector.events.size());
+    }
+    
+    @Test
+    public void testAcquisitionAndLoss()
+    {
+        PassPredictor predictor = new PassPredictor(this.propagator,
+                        this.transformer);
+        Pass pass = predictor.predict(this.iss, this.brisbane, this.epoch,
+                        this.epoch + this.DAY).get(0);
+        Collector collector = new Collector(Long.MAX_VALUE);
+        
+        this.publisher.subscribe(collector);
+        
+        for(long t = pass.getAos() - 60000; t < pass.getLos() + 60000;
+                        t += 1000)
+        {
+            this.publisher.update(this.engine.compute(t));
+        }
+        
+        List<VisibilityEvent> changes = new ArrayList<VisibilityEvent>();
+        
+        for(TrackingEvent event : collector.events)
+        {
+            if(event instanceof VisibilityEvent)
+            {
+                changes.add((VisibilityEvent) event);
+            }
+        }
+        
+        Assert.assertEquals(2, changes.size());
+        Assert.assertSame(this.iss, changes.get(0).getSatellite());
+        Assert.assertSame(this.brisbane, changes.get(0).getStation());
+        Assert.assertTrue(changes.get(0).isAcquisition());
+        Assert.assertFalse(changes.get(1).isAcquisition());
+        Assert.assertEquals(pass.getAos(), changes.get(0).getTime(), 1000);
+        Assert.assertEquals(pass.getLos(), changes.get(1).getTime(), 1000);
+    }
+    
+    @Test
+    public void testNonPositiveRequest()
+    {
+        Collector collector = new Collector(0);
+        
+        this.publisher.subscribe(collector);
+        collector.subscription.request(0);
+        
+        Assert.assertTrue(collector.error instanceof IllegalArgumentException);
+        Assert.assertEquals(0, this.publisher.getSubscriberCount());
+    }
+    
+    @Test
+    public void testCancel()
+    {
+        Collector collector = new Collector(Long.MAX_VALUE);
+        
+        this.publisher.subscribe(collector);
+        collector.subscription.cancel();
+        this.publisher.update(this.engine.compute(this.epoch));
+        
+        Assert.assertEquals(0, this.publisher.getSubscriberCount());
+        Assert.assertTrue(collector.events.isEmpty());
+    }
+    
+    @Test
+    public void testClose()
+    {
+        Collector collector = new Collector(0);
+        
+        this.publisher.subscribe(collector);
+        this.publisher.update(this.engine.compute(this.epoch));
+        this.publisher.close();
+        
+        // held events are delivered before completion
+        Assert.assertFalse(collector.completed);
+        
+        collector.subscription.request(1);
+        
+        Assert.assertEquals(2, collector.events.size());
+        Assert.assertTrue(collector.completed);
+    }
+    
+    /**
+     * Subscriber which records what it receives
+     * 
+     */
+    private static class Collector implements
+                    Flow.Subscriber<List<TrackingEvent>>
+    {
+        private final long initial;
+        
+        private Flow.Subscription subscription;
+        private List<TrackingEvent> events;
+        private int batches;
+        private Throwable error;
+        private boolean completed;
+        
+        /**
+         * @param initial
+         *          demand to request on subscription
+         */
+        public Collector(long initial)
+        {
+            this.initial = initial;
+            this.events = new ArrayList<TrackingEvent>();
+        }
+        
+        @Override
+        public void onSubscribe(Flow.Subscription subscription)
+        {
+            this.subscription = subscription;
+            
+            if(this.initial > 0)
+            {
+                subscription.request(this.initial);
+            }
+        }
+        
+        @Override
+        public void onNext(List<TrackingEvent> batch)
+        {
+            this.events.addAll(batch);
+            this.batches++;
+        }
+        
+        @Override
+        public void onError(Throwable throwable)
+        {
+            this.error = throwable;
+        }
+        
+        @Override
+        public void onComplete()
+        {
+            this.completed = true;
+        }
+        
+        /**
+         * @return the position events received
+         */
+        public List<PositionEvent> positions()
+        {
+            List<PositionEvent> positions = new ArrayList<PositionEvent>();
+            
+            for(TrackingEvent event : this.events)
+            {
+                if(event instanceof PositionEvent)
+                {
+                    positions.add((PositionEvent) event);
+                }
+            }
+            
+            return positions;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/**
+ * Unit tests for the {@link UpdateDispatcher} class.
+ */
+package astra.test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.UpdateDispatcher;
+
+public class UpdateDispatcherTest
+{
+    private List<Runnable> queue;
+    private UpdateDispatcher dispatcher;
+    
+    @Before
+    public void setUp()
+    {
+        this.queue = new ArrayList<Runnable>();
+        this.dispatcher = new UpdateDispatcher(this.queue::add);
+    }
+    
+    /**
+     * Runs every queued flush
+     */
+    private void runQueue()
+    {
+        List<Runnable> queued = new ArrayList<Runnable>(this.queue);
+        
+        this.queue.clear();
+        
+        for(Runnable runnable : queued)
+        {
+            runnable.run();
+        }
+    }
+    
+    @Test
+    public void testLatestKeepsLastValue()
+    {
+        List<Integer> received = new ArrayList<Integer>();
+        UpdateDispatcher.Latest<Integer> channel = this.dispatcher.latest(
+                        received::add);
+        
+        channel.post(1);
+        channel.post(2);
+        channel.post(3);
+        
+        Assert.assertEquals(1, this.queue.size());
+        
+        this.runQueue();
+        
+        Assert.assertEquals(Arrays.asList(3), received);
+        Assert.assertEquals(3, this.dispatcher.getPostedCount());
+        Assert.assertEquals(2, this.dispatcher.getCoalescedCount());
+        Assert.assertEquals(1, this.dispatcher.getDeliveredCount());
+        Assert.assertEquals(1, this.dispatcher.getFlushCount());
+    }
+    
+    @Test
+    public void testLatestAcceptsNull()
+    {
+        List<String> received = new ArrayList<String>();
+        UpdateDispatcher.Latest<String> channel = this.dispatcher.latest(
+                        received::add);
+        
+        channel.post("a");
+        channel.post(null);
+        this.runQueue();
+        
+        Assert.assertEquals(1, received.size());
+        Assert.assertNull(received.get(0));
+    }
+    
+    @Test
+    public void testBatchKeepsEveryItemInOrder()
+    {
+        List<List<String>> received = new ArrayList<List<String>>();
+        UpdateDispatcher.Batch<String> channel = this.dispatcher.batch(
+                        received::add);
+        
+        channel.post("a");
+        channel.postAll(Arrays.asList("b", "c"));
+        channel.post("d");
+        this.runQueue();
+        
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(Arrays.asList("a", "b", "c", "d"), received.get(
+                        0));
+        Assert.assertEquals(2, this.dispatcher.getCoalescedCount());
+    }
+    
+    @Test
+    public void testOneFlushForEveryChannel()
+    {
+        List<String> order = new ArrayList<String>();
+        UpdateDispatcher.Latest<String> first = this.dispatcher.latest(
+                        order::add);
+        UpdateDispatcher.Batch<String> second = this.dispatcher.batch(
+                        items -> order.addAll(items));
+        
+        second.post("b");
+        first.post("a");
+        second.post("c");
+        
+        Assert.assertEquals(1, this.queue.size());
+        
+        this.runQueue();
+        
+        // channels are flushed in the order they first became pending
+        Assert.assertEquals(Arrays.asList("b", "c", "a"), order);
+        Assert.assertEquals(2, this.dispatcher.getDeliveredCount());
+    }
+    
+    @Test
+    public void testPostAfterFlushQueuesAnother()
+    {
+        List<Integer> received = new ArrayList<Integer>();
+        UpdateDispatcher.Latest<Integer> channel = this.dispatcher.latest(
+                        received::add);
+        
+        channel.post(1);
+        this.runQueue();
+        channel.post(2);
+        
+        Assert.assertEquals(1, this.queue.size());
+        
+        this.runQueue();
+        
+        Assert.assertEquals(Arrays.asList(1, 2), received);
+        Assert.assertEquals(0, this.dispatcher.getCoalescedCount());
+        Assert.assertEquals(2, this.dispatcher.getFlushCount());
+    }
+    
+    @Test
+    public void testCloseDropsUpdates()
+    {
+        List<Integer> received = new ArrayList<Integer>();
+        UpdateDispatcher.Latest<Integer> channel = this.dispatcher.latest(
+                        received::add);
+        
+        channel.post(1);
+        this.dispatcher.close();
+        channel.post(2);
+        this.runQueue();
+        
+        Assert.assertTrue(received.isEmpty());
+        Assert.assertEquals(2, this.dispatcher.getDroppedCount());
+    }
+    
+    @Test
+    public void testFaultyHandler()
+    {
+        List<Integer> received = new ArrayList<Integer>();
+        IllegalStateException failure = new IllegalStateException();
+        UpdateDispatcher.Latest<Integer> faulty = this.dispatcher.latest(
+                        value -> {
+                            throw failure;
+                        });
+        UpdateDispatcher.Latest<Integer> channel = this.dispatcher.latest(
+                        received::add);
+        
+        faulty.post(1);
+        channel.post(2);
+        this.runQueue();
+        
+        Assert.assertEquals(Arrays.asList(2), received);
+        Assert.assertEquals(1, this.dispatcher.getDeliveredCount());
+        Assert.assertEquals(1, this.dispatcher.getFailures().getCount());
+        Assert.assertSame(failure, this.dispatcher.getFailures().getFirst());
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Unit tests for the {@link VisibilityFilter} class.
+ */
+package astra.test;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.Earth;
+import astra.FrameTransformer;
+import astra.GroundStation;
+import astra.KeplerPropagator;
+import astra.Pass;
+import astra.PassPredictor;
+import astra.Propagator;
+import astra.Satellite;
+import astra.StateVector;
+import astra.TimeWindow;
+import astra.VisibilityFilter;
+
+public class VisibilityFilterTest
+{
+    private final long DAY = 86400000L;
+    
+    private long epoch;
+    private Satellite iss;
+    
+    private Propagator propagator;
+    private FrameTransformer transformer;
+    private VisibilityFilter filter;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.epoch = SatelliteFixtures.epoch();
+        this.iss = SatelliteFixtures.iss();
+        
+        this.propagator = new KeplerPropagator(true);
+        this.transformer = new FrameTransformer();
+        this.filter = new VisibilityFilter(this.propagator, this.transformer);
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testFootprintAngle()
+    {
+        double radius = Math.hypot(Earth.RADIUS, 1000);
+        
+        Assert.assertEquals(Math.atan2(1000, Earth.RADIUS),
+                        VisibilityFilter.footprintAngle(radius, 0), 1e-12);
+        Assert.assertTrue(VisibilityFilter.footprintAngle(radius, 0.5)
+                        < VisibilityFilter.footprintAngle(radius, 0));
+        Assert.assertEquals(0, VisibilityFilter.footprintAngle(
+                        Earth.RADIUS - 1, 0), 0);
+    }
+    
+    @Test
+    public void testLatitudeOutOfReach()
+    {
+        GroundStation polar = new GroundStation("Polar", 80, 0, 0);
+        GroundStation arctic = new GroundStation("Arctic", -70, 0, 0);
+        
+        Assert.assertFalse(this.filter.isPossiblyVisible(this.iss, polar,
+                        this.epoch, this.epoch + this.DAY));
+        Assert.assertTrue(this.filter.isPossiblyVisible(this.iss, arctic,
+                        this.epoch, this.epoch + this.DAY));
+        Assert.assertTrue(this.filter.getWindows(this.iss, polar, this.epoch,
+                        this.epoch + this.DAY).isEmpty());
+    }
+    
+    @Test
+    public void testDecayedOrbit()
+    {
+        Satellite decayed = this.createSatellite(
+                        SatelliteFixtures.FIRST_NUMBER, 51.6f, 0.0001f, 17.5f);
+        GroundStation station = new GroundStation("Equator", 0, 0, 0);
+        
+        Assert.assertFalse(this.filter.isPossiblyVisible(decayed, station,
+                        this.epoch, this.epoch + this.DAY));
+    }
+    
+    @Test
+    public void testGeosynchronous()
+    {
+        Satellite geo = this.createSatellite(SatelliteFixtures.FIRST_NUMBER
+                        + 1, 0.05f, 0.0002f, 1.00273791f);
+        StateVector state = this.propagator.propagate(geo, this.epoch);
+        double[] ecef = new double[6];
+        
+        this.transformer.toEcef(state, ecef);
+        
+        double longitude = Math.toDegrees(Math.atan2(ecef[1], ecef[0]));
+        GroundStation below = new GroundStation("Below", 10, longitude, 0);
+        GroundStation opposite = new GroundStation("Opposite", 10,
+                        longitude > 0 ? longitude - 180 : longitude + 180, 0);
+        
+        Assert.assertTrue(this.filter.isPossiblyVisible(geo, below,
+                        this.epoch, this.epoch + this.DAY));
+        Assert.assertFalse(this.filter.isPossiblyVisible(geo, opposite,
+                        this.epoch, this.epoch + this.DAY));
+    }
+    
+    @Test
+    public void testWindowsContainEveryPass()
+    {
+        PassPredictor predictor = new PassPredictor(this.propagator,
+                        this.transformer);
+        double[] latitudes = { -27.47, 0, 45, 65 };
+        long end = this.epoch + 3 * this.DAY;
+        
+        for(double latitude : latitudes)
+        {
+            GroundStation station = new GroundStation("Station", latitude,
+                            153.03, 0);
+            List<TimeWindow> windows = this.filter.getWindows(this.iss,
+                            station, this.epoch, end);
+            List<Pass> passes = predictor.predict(this.iss, station,
+                            this.epoch, end);
+            List<Pass> windowed = predictor.predict(this.iss, station,
+                            windows);
+            
+            Assert.assertFalse(passes.isEmpty());
+            Assert.assertEquals(passes.size(), windowed.size());
+            
+            for(int i = 0; i < passes.size(); i++)
+            {
+                Assert.assertEquals(passes.get(i).getAos(), windowed.get(i)
+                                .getAos(), 200);
+                Assert.assertEquals(passes.get(i).getLos(), windowed.get(i)
+                                .getLos(), 200);
+            }
+            
+            for(int i = 1; i < windows.size(); i++)
+            {
+                Assert.assertTrue(windows.get(i - 1).getEnd() < windows.get(
+                                i).getStart());
+            }
+        }
+    }
+    
+    @Test
+    public void testWindowsShorterThanSearch()
+    {
+        GroundStation station = new GroundStation("Brisbane", -27.47, 153.03,
+                        0.03);
+        long total = 0;
+        
+        for(TimeWindow window : this.filter.getWindows(this.iss, station,
+                        this.epoch, this.epoch + this.DAY))
+        {
+            total += window.getDuration();
+        }
+        
+        Assert.assertTrue(total > 0);
+        Assert.assertTrue(total < this.DAY / 2);
+    }
+    
+    @Test
+    public void testEmptyWindow()
+    {
+        GroundStation station = new GroundStation("Brisbane", -27.47, 153.03,
+                        0.03);
+        
+        for(TimeWindow window : this.filter.getWindows(this.iss, station,
+                        this.epoch, this.epoch))
+        {
+            Assert.assertEquals(0, window.getDuration());
+        }
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testWindowEndsBeforeStart()
+    {
+        this.filter.getWindows(this.iss, new GroundStation("Brisbane", -27.47,
+                        153.03, 0.03), this.epoch, this.epoch - 1);
+    }
+    
+    @Test
+    public void testPolarOrbitReachesPoles()
+    {
+        Satellite polar = this.createSatellite(SatelliteFixtures.FIRST_NUMBER
+                        + 2, 90, 0.001f, 14.2f);
+        
+        Assert.assertTrue(this.filter.isPossiblyVisible(polar,
+                        new GroundStation("Pole", 90, 0, 0), this.epoch,
+                        this.epoch + this.DAY));
+        Assert.assertTrue(this.filter.isPossiblyVisible(polar,
+                        new GroundStation("Pole", -90, 0, 0), this.epoch,
+                        this.epoch + this.DAY));
+    }
+    
+    /**
+     * @param number
+     *          catalogue number
+     * @param inclination
+     *          inclination (degrees)
+     * @param eccentricity
+     *          eccentricity
+     * @param meanMotion
+     *          mean motion (revolutions per day)
+     * @return a satellite with the given orbit and the ISS's other elements
+     */
+    private Satellite createSatellite(int number, float inclination,
+                    float eccentricity, float meanMotion)
+    {
+        return SatelliteFixtures.createSatellite(number, inclination,
+                        245.6477f, eccentricity, 47.4633f, meanMotion);
+    }
+}
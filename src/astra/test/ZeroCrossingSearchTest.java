@@ -0,0 +1,98 @@
+/**
+ * Unit tests for the {@link ZeroCrossingSearch} class.
+ */
+package astra.test;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import astra.Crossing;
+import astra.SearchFunction;
+import astra.ZeroCrossingSearch;
+
+public class ZeroCrossingSearchTest
+{
+    private ZeroCrossingSearch search;
+    private SearchFunction sine;
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        this.search = new ZeroCrossingSearch(10, 100000, 1);
+        
+        // sin(t / 1000 s), crossing zero every 1000 pi seconds
+        this.sine = new SearchFunction()
+        {
+            @Override
+            public double value(long time)
+            {
+                return Math.sin(time / 1000000.0);
+            }
+            
+            @Override
+            public double maxRate(double value)
+            {
+                return 1 / 1000.0;
+            }
+        };
+    }
+    
+    /**
+     * @throws java.lang.Exception
+     *          if any exception occurs underneath
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+    }
+    
+    @Test
+    public void testSearchFindsAllCrossings()
+    {
+        List<Crossing> crossings = this.search.search(this.sine, 1, 10000000);
+        
+        Assert.assertEquals(3, crossings.size());
+        
+        for(int i = 0; i < crossings.size(); i++)
+        {
+            long expected = Math.round((i + 1) * Math.PI * 1000000);
+            
+            Assert.assertEquals(expected, crossings.get(i).getTime(), 1);
+            Assert.assertEquals(i % 2 == 1, crossings.get(i).isRising());
+        }
+    }
+    
+    @Test
+    public void testSearchEmptyWindow()
+    {
+        Assert.assertTrue(this.search.search(this.sine, 5, 5).isEmpty());
+    }
+    
+    @Test
+    public void testMaximise()
+    {
+        long actual = this.search.maximise(this.sine::value, 0, 3000000);
+        
+        Assert.assertEquals(Math.PI / 2 * 1000000, actual, 2);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testSearchReversedWindow()
+    {
+        this.search.search(this.sine, 5, 4);
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSteps()
+    {
+        new ZeroCrossingSearch(100, 10, 1);
+    }
+}